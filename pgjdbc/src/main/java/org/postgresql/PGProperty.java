@@ -120,6 +120,28 @@ public enum PGProperty {
   DEFAULT_ROW_FETCH_SIZE("defaultRowFetchSize", "0",
       "Positive number of rows that should be fetched from the database when more rows are needed for ResultSet by each fetch iteration"),
 
+  /**
+   * Number of pages a cursor based ResultSet fetches ahead of the one being read, so the next
+   * portal Execute is in flight while the application processes the current page. {@code 0}
+   * disables prefetching.
+   */
+  PREFETCH_PAGES("prefetchPages", "0",
+      "Number of pages a cursor based ResultSet fetches ahead while the current one is read"),
+
+  /**
+   * Number of value bytes a ResultSet holds, the current page and the pages fetched ahead,
+   * beyond which it does not prefetch, {@code 0} means unbounded.
+   */
+  PREFETCH_MAX_BYTES("prefetchMaxBytes", "16777216",
+      "Number of bytes of rows a ResultSet holds, current page included, beyond which it does not fetch ahead, 0 means unbounded"),
+
+  /**
+   * Number of distinct short strings a ResultSet column keeps, so that the rows of low-cardinality
+   * columns share one String per value. {@code 0} disables the cache.
+   */
+  COLUMN_STRING_CACHE_SIZE("columnStringCacheSize", "0",
+      "Number of distinct short strings cached per result column, 0 disables the cache"),
+
   /**
    * Use binary format for sending and receiving data if possible.
    */
@@ -234,6 +256,14 @@ public enum PGProperty {
   SSL_PASSWORD_CALLBACK("sslpasswordcallback", null,
       "A class, implementing javax.security.auth.callback.CallbackHandler that can handle PassworCallback for the ssl password."),
 
+  /**
+   * TLS implementation: {@code jdk} (the default) or {@code openssl}, which uses netty-tcnative
+   * when it is on the classpath and falls back to the JDK otherwise.
+   */
+  SSL_ENGINE("sslEngine", "jdk",
+      "The TLS implementation, jdk or openssl (needs netty-tcnative on the classpath)",
+      false, "jdk", "openssl"),
+
   /**
    * Enable or disable TCP keep-alive. The default is {@code false}.
    */
@@ -294,12 +324,65 @@ public enum PGProperty {
    */
   SEND_BUFFER_SIZE("sendBufferSize", "-1", "Socket write buffer size"),
 
+  /**
+   * Write stand-alone statements executed outside a transaction right away, without waiting for the
+   * responses to the statements issued before them on the same connection. The responses are still
+   * routed to the callers in order, this only reduces round trips when a connection is shared by
+   * concurrent callers.
+   */
+  PIPELINE_QUERIES("pipelineQueries", "false",
+      "Write auto-commit statements without waiting for the responses to previous ones"),
+
+  /**
+   * Maximum time in milliseconds a request waits for its turn on a connection that is busy with the
+   * requests of other callers, after which it fails with SQL state 57014. A value of {@code 0}, the
+   * default, waits as long as needed.
+   */
+  CONNECTION_LOCK_TIMEOUT("connectionLockTimeout", "0",
+      "Milliseconds a request waits for a connection used by other callers, 0 means no limit"),
+
+  /**
+   * Number of received bytes the driver buffers before it stops reading from the socket, until the
+   * application consumes enough of them to drop below {@link #READ_BUFFER_LOW_WATERMARK}. A value of
+   * {@code 0} disables the limit.
+   */
+  READ_BUFFER_HIGH_WATERMARK("readBufferHighWatermark", "1048576",
+      "Number of received bytes buffered before reading from the socket is paused, 0 means unbounded"),
+
+  /**
+   * Number of buffered bytes below which reading from a paused socket is resumed.
+   */
+  READ_BUFFER_LOW_WATERMARK("readBufferLowWatermark", "262144",
+      "Number of buffered bytes below which reading from the socket is resumed"),
+
+  /**
+   * Number of event loop threads of the Vert.x instance the connections run on. Connections with
+   * the same eventLoopSize and preferNativeTransport share an instance, {@code 0} (the default)
+   * uses the instance shared by the whole driver.
+   */
+  EVENT_LOOP_SIZE("eventLoopSize", "0",
+      "Number of event loop threads of the Vert.x instance the connections run on, 0 means the instance shared by the driver"),
+
+  /**
+   * Use the native transport (epoll) of Netty when it is on the classpath.
+   */
+  PREFER_NATIVE_TRANSPORT("preferNativeTransport", "true",
+      "Use the native transport (epoll) when it is on the classpath"),
+
   /**
    * Assume the server is at least that version
    */
   ASSUME_MIN_SERVER_VERSION("assumeMinServerVersion", null,
       "Assume the server is at least that version"),
 
+  /**
+   * Sends the settings that need a 9.0 server in the StartupMessage once a connection to the same
+   * host and database has found that the server is 9.0 or later, which saves a round trip when
+   * connecting. Off by default, since poolers like pgbouncer may not accept them there.
+   */
+  CACHE_SERVER_VERSION("cacheServerVersion", "false",
+      "Remember the server version to send extra_float_digits and ApplicationName in the StartupMessage of later connections"),
+
   /**
    * The application name (require server version &gt;= 9.0)
    */
@@ -366,9 +449,34 @@ public enum PGProperty {
   LOAD_BALANCE_HOSTS("loadBalanceHosts", "false",
       "If disabled hosts are connected in the given order. If enabled hosts are chosen randomly from the set of suitable candidates"),
 
+  /**
+   * How the hosts are ordered when {@link #LOAD_BALANCE_HOSTS} is enabled.
+   *
+   * @see org.postgresql.hostchooser.LoadBalanceStrategy
+   */
+  LOAD_BALANCE_STRATEGY("loadBalanceStrategy", "random",
+      "How hosts are chosen when loadBalanceHosts is enabled: randomly, by fewest requests in flight, or by the power of two choices on the request latency and load",
+      false, "random", "leastOutstanding", "powerOfTwoChoices"),
+
   HOST_RECHECK_SECONDS("hostRecheckSeconds", "10",
       "Specifies period (seconds) after which the host status is checked again in case it has changed"),
 
+  /**
+   * Seconds between background checks of the status of the hosts of a multi-host URL. The hosts
+   * are checked for as long as connections to them are opened. 0 (the default) disables the
+   * checks.
+   */
+  HOST_PROBE_INTERVAL("hostProbeInterval", "0",
+      "Specifies period (seconds) between background checks of the status of the hosts of a multi-host URL. 0 disables the checks"),
+
+  /**
+   * Milliseconds between the parallel connection attempts to the hosts of a multi-host URL. The
+   * first connection to a host of the required type is used and the other attempts are cancelled.
+   * 0 connects to all the hosts at once, -1 (the default) tries the hosts one after the other.
+   */
+  PARALLEL_CONNECT_DELAY("parallelConnectDelay", "-1",
+      "Milliseconds between the parallel connection attempts to the hosts of a multi-host URL. 0 connects to all the hosts at once, -1 tries the hosts one after the other"),
+
   /**
    * Specifies which mode is used to execute queries to database: simple means ('Q' execute, no parse, no bind, text mode only),
    * extended means always use bind/execute messages, extendedForPrepared means extended for prepared statements only,
@@ -16,8 +16,11 @@ import org.postgresql.util.HostSpec;
 import org.postgresql.util.PSQLException;
 import org.postgresql.util.PSQLState;
 import org.postgresql.util.SharedTimer;
+import org.postgresql.util.VertxHelper;
 import org.postgresql.util.WriterHandler;
 
+import io.vertx.core.Vertx;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
@@ -35,7 +38,6 @@ import java.util.Enumeration;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
 import java.util.logging.Formatter;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -247,24 +249,16 @@ public class VxDriver implements java.sql.Driver{
 
       LOGGER.log(Level.FINE, "Connecting with URL: {0}", url);
 
-      // Enforce login timeout, if specified, by running the connection
-      // attempt in a separate thread. If we hit the timeout without the
-      // connection completing, we abandon the connection attempt in
-      // the calling thread, but the separate thread will keep trying.
-      // Eventually, the separate thread will either fail or complete
-      // the connection; at that point we clean up the connection if
-      // we managed to establish one after all. See ConnectThread for
-      // more details.
+      // Enforce login timeout, if specified, with a timer instead of waiting for the
+      // connection attempt, so the calling thread is never parked. If we hit the timeout
+      // without the connection completing, the returned future fails, but the attempt
+      // keeps going; if it succeeds after all, the connection is closed.
       long timeout = timeout(props);
       if (timeout <= 0) {
         return makeConnection(url, props);
       }
 
-      ConnectThread ct = new ConnectThread(url, props);
-      Thread thread = new Thread(ct, "PostgreSQL JDBC driver connection thread");
-      thread.setDaemon(true); // Don't prevent the VM from shutting down
-      thread.start();
-      return CompletableFuture.completedFuture(ct.getResult(timeout));
+      return withLoginTimeout(VertxHelper.getVertx(props), makeConnection(url, props), timeout);
     } catch (PSQLException ex1) {
       LOGGER.log(Level.SEVERE, "Connection error: ", ex1);
       // re-throw the exception, otherwise it will be caught next, and a
@@ -351,98 +345,33 @@ public class VxDriver implements java.sql.Driver{
   }
 
   /**
-   * Perform a connect in a separate thread; supports getting the results from the original thread
-   * while enforcing a login timeout.
+   * Fails the connection attempt if it does not complete in time, closing the connection if it
+   * is established after all.
+   *
+   * @param vertx Vert.x instance of the connection
+   * @param connection the connection attempt
+   * @param timeout timeout in milliseconds
+   * @return the connection, failed with a SQLException if the timeout is reached
    */
-  private static class ConnectThread implements Runnable {
-    ConnectThread(String url, Properties props) {
-      this.url = url;
-      this.props = props;
-    }
-
-    public void run() {
-      VxConnection conn;
-      Throwable error;
-
-      try {
-        conn = makeConnection(url, props).get();
-        error = null;
-      } catch (Throwable t) {
-        conn = null;
-        error = t;
-      }
-
-      synchronized (this) {
-        if (abandoned) {
-          if (conn != null) {
-            try {
-              conn.close();
-            } catch (SQLException e) {
-            }
-          }
-        } else {
-          result = conn;
-          resultException = error;
-          notify();
-        }
-      }
-    }
-
-    /**
-     * Get the connection result from this (assumed running) thread. If the timeout is reached
-     * without a result being available, a SQLException is thrown.
-     *
-     * @param timeout timeout in milliseconds
-     * @return the new connection, if successful
-     * @throws SQLException if a connection error occurs or the timeout is reached
-     */
-    public VxConnection getResult(long timeout) throws SQLException {
-      long expiry = System.currentTimeMillis() + timeout;
-      synchronized (this) {
-        while (true) {
-          if (result != null) {
-            return result;
-          }
-
-          if (resultException != null) {
-            if (resultException instanceof SQLException) {
-              resultException.fillInStackTrace();
-              throw (SQLException) resultException;
-            } else {
-              throw new PSQLException(
-                  GT.tr(
-                      "Something unusual has occurred to cause the driver to fail. Please report this exception."),
-                  PSQLState.UNEXPECTED_ERROR, resultException);
-            }
-          }
-
-          long delay = expiry - System.currentTimeMillis();
-          if (delay <= 0) {
-            abandoned = true;
-            throw new PSQLException(GT.tr("Connection attempt timed out."),
-                PSQLState.CONNECTION_UNABLE_TO_CONNECT);
-          }
-
-          try {
-            wait(delay);
-          } catch (InterruptedException ie) {
-
-            // reset the interrupt flag
-            Thread.currentThread().interrupt();
-            abandoned = true;
-
-            // throw an unchecked exception which will hopefully not be ignored by the calling code
-            throw new RuntimeException(GT.tr("Interrupted while attempting to connect."));
-          }
+  private static CompletableFuture<VxConnection> withLoginTimeout(Vertx vertx,
+      CompletableFuture<VxConnection> connection, long timeout) {
+    CompletableFuture<VxConnection> result = new CompletableFuture<VxConnection>();
+    long timerId = vertx.setTimer(timeout, ignored ->
+        result.completeExceptionally(new PSQLException(GT.tr("Connection attempt timed out."),
+            PSQLState.CONNECTION_UNABLE_TO_CONNECT)));
+
+    connection.whenComplete((conn, error) -> {
+      vertx.cancelTimer(timerId);
+      if (error != null) {
+        result.completeExceptionally(error);
+      } else if (!result.complete(conn)) {
+        try {
+          conn.close();
+        } catch (SQLException e) {
         }
       }
-    }
-
-    private final String url;
-    private final Properties props;
-    private VxConnection result;
-    private Throwable resultException;
-    private boolean abandoned;
+    });
+    return result;
   }
 
   /**
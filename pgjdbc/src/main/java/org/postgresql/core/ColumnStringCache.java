@@ -0,0 +1,127 @@
+package org.postgresql.core;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Strings decoded from the short text values of one result column, so that the rows of a
+ * low-cardinality column, such as status or country codes, share one instance per distinct value
+ * instead of holding a copy each. The cache is a direct-mapped table of a bounded number of
+ * entries. A column whose values keep evicting each other is not low-cardinality, and its cache
+ * turns itself off.
+ * <p>
+ * The counters are not synchronized. Result sets reading the same column from several threads
+ * at worst turn the cache off a little early or late; the entries themselves are immutable.
+ */
+public final class ColumnStringCache {
+
+  /**
+   * Values longer than this are decoded without being cached.
+   */
+  static final int MAX_VALUE_LENGTH = 64;
+
+  private final Entry[] entries;
+  // lookups after which the miss ratio is checked
+  private final int window;
+  private int lookups;
+  private int misses;
+  private boolean disabled;
+
+  /**
+   * @param size number of entries, rounded up to a power of two
+   */
+  public ColumnStringCache(int size) {
+    int capacity = 1;
+    while (capacity < size) {
+      capacity <<= 1;
+    }
+    this.entries = new Entry[capacity];
+    this.window = capacity * 8;
+  }
+
+  /**
+   * Decodes a value, returning the cached string if the same bytes were decoded before.
+   *
+   * @param data the encoded value
+   * @param encoding the encoding of the value
+   * @return the decoded string
+   * @throws IOException if the value cannot be decoded
+   */
+  public String decode(byte[] data, Encoding encoding) throws IOException {
+    return decode(data, 0, data.length, encoding);
+  }
+
+  /**
+   * Decodes a value stored in part of an array, returning the cached string if the same bytes
+   * were decoded before.
+   *
+   * @param data the array holding the encoded value
+   * @param offset offset of the value in the array
+   * @param length length of the value
+   * @param encoding the encoding of the value
+   * @return the decoded string
+   * @throws IOException if the value cannot be decoded
+   */
+  public String decode(byte[] data, int offset, int length, Encoding encoding) throws IOException {
+    if (disabled || length > MAX_VALUE_LENGTH) {
+      return encoding.decode(data, offset, length);
+    }
+
+    int hash = 1;
+    for (int i = offset; i < offset + length; i++) {
+      hash = 31 * hash + data[i];
+    }
+    int slot = (hash ^ (hash >>> 16)) & (entries.length - 1);
+    Entry entry = entries[slot];
+    String value;
+    if (entry != null && entry.encoding == encoding && entry.matches(data, offset, length)) {
+      value = entry.value;
+    } else {
+      value = encoding.decode(data, offset, length);
+      entries[slot] = new Entry(Arrays.copyOfRange(data, offset, offset + length), encoding, value);
+      misses++;
+    }
+
+    if (++lookups == window) {
+      // more misses than hits, the values of the column are mostly distinct
+      if (misses * 2 > lookups) {
+        disabled = true;
+        Arrays.fill(entries, null);
+      }
+      lookups = 0;
+      misses = 0;
+    }
+    return value;
+  }
+
+  /**
+   * @return false once the cache has turned itself off
+   */
+  public boolean isEnabled() {
+    return !disabled;
+  }
+
+  private static final class Entry {
+    private final byte[] data;
+    private final Encoding encoding;
+    private final String value;
+
+    Entry(byte[] data, Encoding encoding, String value) {
+      this.data = data;
+      this.encoding = encoding;
+      this.value = value;
+    }
+
+    boolean matches(byte[] other, int offset, int length) {
+      if (data.length != length) {
+        return false;
+      }
+      for (int i = 0; i < length; i++) {
+        if (data[i] != other[offset + i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
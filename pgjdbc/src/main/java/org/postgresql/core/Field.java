@@ -35,6 +35,9 @@ public class Field {
   private int sqlType;
   private String pgType = NOT_YET_LOADED;
 
+  // Strings decoded from the values of this column, created on first use.
+  private ColumnStringCache stringCache;
+
   // New string to avoid clashes with other strings
   private static final String NOT_YET_LOADED = new String("pgType is not yet loaded");
 
@@ -168,4 +171,19 @@ public class Field {
   public boolean isTypeInitialized() {
     return pgType != NOT_YET_LOADED;
   }
+
+  /**
+   * Returns the cache of the strings decoded from the values of this column. The field, and so the
+   * cache, is kept with a prepared statement and reused by its executions.
+   *
+   * @param size number of entries of the cache when it is created
+   * @return the cache of this column
+   */
+  public ColumnStringCache getStringCache(int size) {
+    ColumnStringCache cache = stringCache;
+    if (cache == null) {
+      cache = stringCache = new ColumnStringCache(size);
+    }
+    return cache;
+  }
 }
@@ -1,23 +1,48 @@
 package org.postgresql.core;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.impl.NetSocketInternal;
 import io.vertx.core.net.NetSocket;
 
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.Iterator;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 
 public class NetSocketStream {
 
+    /**
+     * Initial capacity of the pooled write buffers.
+     */
+    private static final int WRITE_BUFFER_SIZE = 8192;
+
+    /**
+     * Arrays passed to {@link #writeWrapped(byte[], int, int)} from this size on are handed to the
+     * socket as they are instead of being copied into the write buffer.
+     */
+    private static final int WRAP_THRESHOLD = 8192;
+
     private Buffer readBuffer = null;
     private int readPos = -1;
     private Queue<Buffer> readableBuffers = new ArrayDeque<>();
-    private Buffer writeBuffer = Buffer.buffer();
+    private int queuedBytes = 0;
+    // pooled direct buffer the small writes are appended to, released by Netty once written
+    private ByteBuf writeBuffer;
+    // write buffers and wrapped arrays waiting for the next flush, written with a single gathering write
+    private CompositeByteBuf pendingWrites;
     private Queue<CompletableFuture<Void>> readerTasks = new ArrayDeque<>();
+    private CompletableFuture<Void> failure;
     private NetSocket netSocket;
     private Throwable error;
     private boolean closed;
+    private int highWatermark;
+    private int lowWatermark;
+    private boolean paused;
 
     public NetSocketStream(NetSocket netSocket) {
         this.netSocket = netSocket;
@@ -31,10 +56,56 @@ public class NetSocketStream {
                     pendingRead.completeExceptionally(new IOException("socket closed"));
                     pendingRead = this.readerTasks.poll();
                 }
+                if (this.failure != null) {
+                    this.failure.completeExceptionally(this.error != null ? this.error : new IOException("socket closed"));
+                }
+                this.releaseWrites();
             }
         });
     }
 
+    /**
+     * Returns a future that fails once the socket faults or is closed. It lets operations that
+     * only report their success, like a TLS handshake, notice that they will never complete.
+     *
+     * @return a future that never completes normally
+     */
+    public synchronized CompletableFuture<Void> failure() {
+        if (this.failure == null) {
+            this.failure = new CompletableFuture<>();
+            if (this.error != null) {
+                this.failure.completeExceptionally(this.error);
+            } else if (this.closed) {
+                this.failure.completeExceptionally(new IOException("socket closed"));
+            }
+        }
+        return this.failure;
+    }
+
+    /**
+     * Bounds the number of received but unconsumed bytes. Once {@code highWatermark} bytes are
+     * buffered the socket is paused, and it is resumed when the buffered bytes drop to
+     * {@code lowWatermark} or when a pending read needs more data than is buffered, e.g. for a
+     * message larger than the high watermark.
+     *
+     * @param highWatermark buffered bytes at which reading is paused, 0 disables the limit
+     * @param lowWatermark buffered bytes at which reading is resumed
+     */
+    public synchronized void setWatermarks(int highWatermark, int lowWatermark) {
+        if (highWatermark < 0 || lowWatermark < 0 || (highWatermark > 0 && lowWatermark > highWatermark)) {
+            throw new IllegalArgumentException(
+                    "invalid read buffer watermarks, high: " + highWatermark + ", low: " + lowWatermark);
+        }
+
+        this.highWatermark = highWatermark;
+        this.lowWatermark = lowWatermark;
+        if (highWatermark == 0) {
+            this.resumeReading();
+        } else {
+            this.pauseOrResumeReading();
+        }
+    }
+
     public synchronized boolean moreToRead() {
         return this.checkOrResetReadBuffer();
     }
@@ -73,23 +144,299 @@ public class NetSocketStream {
         return result.thenApply(Buffer::getBytes);
     }
 
-    public synchronized Buffer getWriteBuffer() {
-        return this.writeBuffer;
+    /**
+     * Reads the remainder of a backend message, i.e. the Int32 length and the message body which
+     * follow the message type byte. The returned future only completes once the whole message is
+     * buffered, so the body can be parsed synchronously from the returned buffer. When the body is
+     * contained in a single network chunk, the returned buffer is a slice of that chunk and no
+     * bytes are copied.
+     *
+     * @return the message body, without the length field
+     */
+    public synchronized CompletableFuture<Buffer> readMessageBody() {
+        CompletableFuture<Buffer> result = new CompletableFuture<>();
+        this.handleReadMessageBody(result, null);
+        return result;
     }
 
-    public synchronized void flush() throws Throwable {
-        if (this.closed) {
-            throw new IOException("write after closed");
+    /**
+     * Checks whether the given number of bytes can be read without waiting. Bytes are never
+     * reported as buffered while an asynchronous read is still pending, so callers that take the
+     * synchronous path cannot overtake it.
+     *
+     * @param size number of bytes the caller wants to read
+     * @return true if the bytes can be consumed through the synchronous read methods
+     */
+    public synchronized boolean isBuffered(int size) {
+        return this.readerTasks.isEmpty() && this.available() >= size;
+    }
+
+    /**
+     * Reads one byte if it is already buffered.
+     *
+     * @return the byte value, or -1 if no byte is buffered
+     */
+    public synchronized int tryRead() {
+        if (!this.readerTasks.isEmpty() || !this.checkOrResetReadBuffer()) {
+            return -1;
+        }
+
+        return this.readBuffer.getByte(this.readPos++) & 0xFF;
+    }
+
+    /**
+     * Fills the given array if all of the requested bytes are already buffered.
+     *
+     * @return true if the bytes were read, false if nothing was consumed
+     */
+    public synchronized boolean tryRead(byte[] buf, int offset, int size) {
+        if (!this.isBuffered(size)) {
+            return false;
+        }
+
+        while (size > 0) {
+            this.checkOrResetReadBuffer();
+            int bytesRead = Math.min(size, this.readBuffer.length() - this.readPos);
+            this.readBuffer.getBytes(this.readPos, this.readPos + bytesRead, buf, offset);
+            offset += bytesRead;
+            size -= bytesRead;
+            this.readPos += bytesRead;
+        }
+
+        return true;
+    }
+
+    /**
+     * Reads a big-endian Int32, the caller must check {@link #isBuffered(int)} first.
+     */
+    public synchronized int readBufferedInteger4() {
+        if (!this.isBuffered(4)) {
+            throw new IllegalStateException("not enough buffered bytes for an Int32");
+        }
+
+        this.checkOrResetReadBuffer();
+        if (this.readBuffer.length() - this.readPos >= 4) {
+            int value = this.readBuffer.getInt(this.readPos);
+            this.readPos += 4;
+            return value;
+        }
+
+        // the value spans several chunks
+        int value = this.peekInteger4();
+        this.consume(4);
+        return value;
+    }
+
+    /**
+     * Reads a big-endian unsigned Int16, the caller must check {@link #isBuffered(int)} first.
+     */
+    public synchronized int readBufferedInteger2() {
+        if (!this.isBuffered(2)) {
+            throw new IllegalStateException("not enough buffered bytes for an Int16");
+        }
+
+        this.checkOrResetReadBuffer();
+        int high = this.readBuffer.getByte(this.readPos++) & 0xFF;
+        this.checkOrResetReadBuffer();
+        int low = this.readBuffer.getByte(this.readPos++) & 0xFF;
+        return high << 8 | low;
+    }
+
+    /**
+     * Synchronous variant of {@link #readMessageBody()}.
+     *
+     * @return the message body, or null if the message is not completely buffered yet
+     */
+    public synchronized Buffer tryReadMessageBody() {
+        if (!this.readerTasks.isEmpty()) {
+            return null;
+        }
+
+        int available = this.available();
+        if (available < 4) {
+            return null;
+        }
+
+        int length = this.peekInteger4();
+        if (length < 4 || available < length) {
+            // malformed lengths are reported by the asynchronous path
+            return null;
+        }
+
+        this.consume(4);
+        return this.consume(length - 4);
+    }
+
+    public synchronized void writeByte(int value) {
+        this.writeBuffer().writeByte(value);
+    }
+
+    public synchronized void writeInteger2(int value) {
+        this.writeBuffer().writeShort(value);
+    }
+
+    public synchronized void writeInteger4(int value) {
+        this.writeBuffer().writeInt(value);
+    }
+
+    public synchronized void writeInteger8(long value) {
+        this.writeBuffer().writeLong(value);
+    }
+
+    public synchronized void write(byte[] buf, int offset, int length) {
+        this.writeBuffer().writeBytes(buf, offset, length);
+    }
+
+    public synchronized void writeZero(int length) {
+        this.writeBuffer().writeZero(length);
+    }
+
+    /**
+     * Writes an array that is not modified anymore. Large arrays are not copied into the write
+     * buffer but queued as they are, the next {@link #flush()} writes them together with the
+     * buffered bytes around them in one gathering write.
+     *
+     * @param buf array that is left untouched until it has been written
+     * @param offset offset of the bytes to write
+     * @param length number of bytes to write
+     */
+    public synchronized void writeWrapped(byte[] buf, int offset, int length) {
+        if (length < WRAP_THRESHOLD) {
+            this.write(buf, offset, length);
+            return;
+        }
+
+        if (this.pendingWrites == null) {
+            this.pendingWrites = Unpooled.compositeBuffer(Integer.MAX_VALUE);
+        }
+        this.queueWriteBuffer();
+        this.pendingWrites.addComponent(true, Unpooled.wrappedBuffer(buf, offset, length));
+    }
+
+    /**
+     * Writes the UTF-8 form of a string directly into the write buffer. Strings that encode to
+     * {@link #WRAP_THRESHOLD} bytes or more are encoded into a pooled buffer of their own size,
+     * queued like a wrapped array.
+     *
+     * @param s the string to write
+     * @param length the length of the UTF-8 form of the string, which the caller computed for the
+     *     size of its message
+     */
+    public synchronized void writeUTF8(String s, int length) {
+        if (length < WRAP_THRESHOLD) {
+            ByteBuf buf = this.writeBuffer();
+            buf.ensureWritable(length);
+            UTF8Encoding.encodeUTF8(s, buf);
+            return;
+        }
+
+        ByteBuf encoded = PooledByteBufAllocator.DEFAULT.directBuffer(length, length);
+        UTF8Encoding.encodeUTF8(s, encoded);
+        if (this.pendingWrites == null) {
+            this.pendingWrites = Unpooled.compositeBuffer(Integer.MAX_VALUE);
+        }
+        this.queueWriteBuffer();
+        this.pendingWrites.addComponent(true, encoded);
+    }
+
+    public void flush() throws Throwable {
+        // The socket is written without holding this monitor: Vert.x locks the socket
+        // while it delivers data to onDataAvaialble, so holding both here would
+        // deadlock a caller thread that flushes while a response arrives. The writers
+        // themselves are serialized by the connection lock.
+        ByteBuf output;
+        synchronized (this) {
+            if (this.closed) {
+                this.releaseWrites();
+                throw new IOException("write after closed");
+            }
+
+            if (this.error != null) {
+                throw this.error;
+            }
+
+            if (this.pendingWrites != null) {
+                this.queueWriteBuffer();
+                output = this.pendingWrites;
+                this.pendingWrites = null;
+            } else if (this.writeBuffer != null && this.writeBuffer.isReadable()) {
+                output = this.writeBuffer;
+                this.writeBuffer = null;
+            } else {
+                return;
+            }
         }
 
-        if (this.error != null) {
-            throw this.error;
+        if (this.netSocket instanceof NetSocketInternal) {
+            // ownership passes to Netty, which returns the pooled buffers once they are written
+            ((NetSocketInternal) this.netSocket).writeMessage(output);
+        } else {
+            this.netSocket.write(Buffer.buffer(Unpooled.copiedBuffer(output)));
+            output.release();
+        }
+    }
+
+    private ByteBuf writeBuffer() {
+        if (this.writeBuffer == null) {
+            this.writeBuffer = PooledByteBufAllocator.DEFAULT.directBuffer(WRITE_BUFFER_SIZE);
         }
 
+        return this.writeBuffer;
+    }
+
+    private void queueWriteBuffer() {
+        if (this.writeBuffer != null && this.writeBuffer.isReadable()) {
+            this.pendingWrites.addComponent(true, this.writeBuffer);
+            this.writeBuffer = null;
+        }
+    }
+
+    private void releaseWrites() {
         if (this.writeBuffer != null) {
-            this.netSocket.write(this.writeBuffer);
-            this.writeBuffer = Buffer.buffer();
+            this.writeBuffer.release();
+            this.writeBuffer = null;
+        }
+
+        if (this.pendingWrites != null) {
+            this.pendingWrites.release();
+            this.pendingWrites = null;
+        }
+    }
+
+    private synchronized void handleReadMessageBody(CompletableFuture<Buffer> result, Throwable error) {
+        if (error != null) {
+            this.error = error;
+            result.completeExceptionally(error);
+            return;
         }
+
+        int available = this.available();
+        if (available >= 4) {
+            int length = this.peekInteger4();
+            if (length < 4) {
+                result.completeExceptionally(new IOException("invalid message length " + length));
+                return;
+            }
+
+            if (available >= length) {
+                this.consume(4);
+                result.complete(this.consume(length - 4));
+                CompletableFuture<Void> nextTask = this.readerTasks.poll();
+                if (nextTask != null) {
+                    nextTask.complete(null);
+                }
+                return;
+            }
+        }
+
+        if (this.closed) {
+            result.completeExceptionally(new IOException("read after socket closed"));
+            return;
+        }
+
+        CompletableFuture<Void> task = new CompletableFuture<>();
+        task.whenComplete((ignored, err) -> this.handleReadMessageBody(result, err));
+        this.addReaderTask(task);
     }
 
     private synchronized void handleReadUntil(CompletableFuture<Buffer> result, Buffer buffer, byte value, Throwable error) {
@@ -120,7 +467,7 @@ public class NetSocketStream {
 
             CompletableFuture<Void> task = new CompletableFuture<>();
             task.whenComplete((ignored, err) -> this.handleReadUntil(result, buffer, value, err));
-            this.readerTasks.add(task);
+            this.addReaderTask(task);
         }
     }
 
@@ -153,7 +500,7 @@ public class NetSocketStream {
 
             CompletableFuture<Void> task = new CompletableFuture<>();
             task.whenComplete((ignored, err) -> this.handleReadSkip(result, sizeLeft, err));
-            this.readerTasks.add(task);
+            this.addReaderTask(task);
         }
     }
 
@@ -183,7 +530,7 @@ public class NetSocketStream {
 
             CompletableFuture<Void> task = new CompletableFuture<>();
             task.whenComplete((ignored, err) -> this.handleReadByteReady(result, err, advancePos));
-            this.readerTasks.add(task);
+            this.addReaderTask(task);
         }
     }
 
@@ -223,7 +570,7 @@ public class NetSocketStream {
             int newBytesToRead = bytesToRead;
             CompletableFuture<Void> task = new CompletableFuture<>();
             task.whenComplete((ignored, err) -> this.handleReadBufferReady(result, buf, newOffset, newBytesToRead, err));
-            this.readerTasks.add(task);
+            this.addReaderTask(task);
         }
     }
 
@@ -231,12 +578,116 @@ public class NetSocketStream {
         if (this.readBuffer == null || this.readBuffer.length() == this.readPos) {
             this.readBuffer = this.readableBuffers.poll();
             this.readPos = 0;
-            return this.readBuffer != null;
+            if (this.readBuffer == null) {
+                return false;
+            }
+
+            this.queuedBytes -= this.readBuffer.length();
+            if (this.paused && this.available() <= this.lowWatermark) {
+                this.resumeReading();
+            }
         }
 
         return true;
     }
 
+    private void addReaderTask(CompletableFuture<Void> task) {
+        this.readerTasks.add(task);
+
+        // the parked reader needs more than is buffered, it would never complete while paused
+        this.resumeReading();
+    }
+
+    private void pauseOrResumeReading() {
+        if (this.highWatermark <= 0) {
+            return;
+        }
+
+        int available = this.available();
+        if (!this.paused && available >= this.highWatermark && this.readerTasks.isEmpty()) {
+            this.paused = true;
+            this.netSocket.pause();
+        } else if (this.paused && available <= this.lowWatermark) {
+            this.resumeReading();
+        }
+    }
+
+    private void resumeReading() {
+        if (this.paused) {
+            this.paused = false;
+            this.netSocket.resume();
+        }
+    }
+
+    /**
+     * @return number of bytes received from the socket and not consumed yet
+     */
+    private int available() {
+        int available = this.queuedBytes;
+        if (this.readBuffer != null) {
+            available += this.readBuffer.length() - this.readPos;
+        }
+
+        return available;
+    }
+
+    /**
+     * Reads a big-endian Int32 without consuming it, the caller must ensure that at least four
+     * bytes are available.
+     */
+    private int peekInteger4() {
+        this.checkOrResetReadBuffer();
+        if (this.readBuffer.length() - this.readPos >= 4) {
+            return this.readBuffer.getInt(this.readPos);
+        }
+
+        int value = 0;
+        int needed = 4;
+        int pos = this.readPos;
+        Buffer current = this.readBuffer;
+        Iterator<Buffer> pending = this.readableBuffers.iterator();
+        while (needed > 0) {
+            if (pos == current.length()) {
+                current = pending.next();
+                pos = 0;
+                continue;
+            }
+
+            value = value << 8 | (current.getByte(pos++) & 0xFF);
+            needed--;
+        }
+
+        return value;
+    }
+
+    /**
+     * Consumes the given number of bytes, the caller must ensure that they are available. A slice of
+     * the current chunk is returned when possible, otherwise the bytes are gathered into a new buffer.
+     */
+    private Buffer consume(int size) {
+        if (size == 0) {
+            return Buffer.buffer(0);
+        }
+
+        this.checkOrResetReadBuffer();
+        if (this.readBuffer.length() - this.readPos >= size) {
+            Buffer slice = this.readBuffer.slice(this.readPos, this.readPos + size);
+            this.readPos += size;
+            return slice;
+        }
+
+        Buffer gathered = Buffer.buffer(size);
+        while (size > 0) {
+            this.checkOrResetReadBuffer();
+            int bytesRead = Math.min(size, this.readBuffer.length() - this.readPos);
+            gathered.appendBuffer(this.readBuffer, this.readPos, bytesRead);
+            this.readPos += bytesRead;
+            size -= bytesRead;
+        }
+
+        return gathered;
+    }
+
     private synchronized void onDataAvaialble(Buffer buffer) {
         if (buffer == null || buffer.length() == 0) {
             // empty buffer, skip it
@@ -244,14 +695,20 @@ public class NetSocketStream {
         }
 
         this.readableBuffers.add(buffer);
+        this.queuedBytes += buffer.length();
         CompletableFuture<Void> task = this.readerTasks.poll();
         if (task != null) {
             task.complete(null);
         }
+
+        this.pauseOrResumeReading();
     }
 
     private synchronized void onChannelFaulted(Throwable error) {
         this.error = error;
+        if (this.failure != null) {
+            this.failure.completeExceptionally(error);
+        }
 
         // notify all pending readers about the error
         CompletableFuture<Void> task = this.readerTasks.poll();
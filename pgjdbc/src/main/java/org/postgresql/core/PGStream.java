@@ -5,6 +5,8 @@
 
 package org.postgresql.core;
 
+import io.vertx.core.Context;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.net.NetClient;
 import io.vertx.core.net.NetSocket;
 import org.postgresql.util.GT;
@@ -28,12 +30,10 @@ public class PGStream implements Closeable, Flushable {
 
 	private final HostSpec hostSpec;
 
-	private final byte[] _int4buf;
-	private final byte[] _int2buf;
-
 	private int timeout;
 	private NetSocket netSocket;
 	private NetClient netClient;
+	private final Context context;
 	private NetSocketStream stream;
 	private byte[] streamBuffer;
 
@@ -45,21 +45,21 @@ public class PGStream implements Closeable, Flushable {
 	 *
 	 * @param netClient
 	 *            net client to use when creating sockets
+	 * @param context
+	 *            event loop context the socket was connected on
 	 * @param hostSpec
 	 *            the host and port to connect to
 	 * @throws IOException
 	 *             if an IOException occurs below it.
 	 */
-	public PGStream(NetClient netClient, NetSocket netSocket, HostSpec hostSpec, int timeout) throws IOException {
+	public PGStream(NetClient netClient, Context context, NetSocket netSocket, HostSpec hostSpec, int timeout) throws IOException {
 		this.hostSpec = hostSpec;
 		this.netClient = netClient;
+		this.context = context;
 		this.netSocket = netSocket;
 		this.timeout = timeout;
 		this.stream = new NetSocketStream(this.netSocket);
 		setEncoding(Encoding.getJVMEncoding("UTF-8"));
-
-		_int2buf = new byte[2];
-		_int4buf = new byte[4];
 	}
 
 	public HostSpec getHostSpec() {
@@ -74,6 +74,32 @@ public class PGStream implements Closeable, Flushable {
 		return this.netClient;
 	}
 
+	/**
+	 * @return the event loop context the connection runs on, its socket handlers and timers run
+	 *         on its thread
+	 */
+	public Context getContext() {
+		return this.context;
+	}
+
+	/**
+	 * Starts TLS on the connection, with the TLS settings of the NetClient.
+	 *
+	 * @return a future completed once the handshake is done, or failed if the socket faults or is
+	 *         closed first
+	 */
+	public CompletableFuture<Void> upgradeToSsl() {
+		CompletableFuture<Void> result = new CompletableFuture<>();
+		stream.failure().whenComplete((ignored, error) -> result.completeExceptionally(error));
+		try {
+			netSocket.upgradeToSsl(ignored -> result.complete(null));
+		} catch (RuntimeException e) {
+			// the TLS context could not be created
+			result.completeExceptionally(e);
+		}
+		return result;
+	}
+
 	/**
 	 * Check for pending backend messages without blocking. Might return false when
 	 * there actually are messages waiting, depending on the characteristics of the
@@ -88,6 +114,20 @@ public class PGStream implements Closeable, Flushable {
 		return this.stream.moreToRead();
 	}
 
+	/**
+	 * Bounds the number of received bytes that are buffered but not consumed yet,
+	 * see {@link NetSocketStream#setWatermarks(int, int)}.
+	 *
+	 * @param highWatermark
+	 *            buffered bytes at which reading from the socket is paused, 0
+	 *            means unbounded
+	 * @param lowWatermark
+	 *            buffered bytes at which reading from the socket is resumed
+	 */
+	public void setReadBufferWatermarks(int highWatermark, int lowWatermark) {
+		this.stream.setWatermarks(highWatermark, lowWatermark);
+	}
+
 	public Encoding getEncoding() {
 		return encoding;
 	}
@@ -121,7 +161,7 @@ public class PGStream implements Closeable, Flushable {
 	 *             if an I/O error occurs
 	 */
 	public void sendChar(int val) throws IOException {
-		this.stream.getWriteBuffer().appendByte((byte) val);
+		this.stream.writeByte(val);
 	}
 
 	/**
@@ -133,11 +173,19 @@ public class PGStream implements Closeable, Flushable {
 	 *             if an I/O error occurs
 	 */
 	public void sendInteger4(int val) throws IOException {
-		_int4buf[0] = (byte) (val >>> 24);
-		_int4buf[1] = (byte) (val >>> 16);
-		_int4buf[2] = (byte) (val >>> 8);
-		_int4buf[3] = (byte) (val);
-		this.stream.getWriteBuffer().appendBytes(_int4buf);
+		this.stream.writeInteger4(val);
+	}
+
+	/**
+	 * Sends an 8-byte integer to the back end
+	 *
+	 * @param val
+	 *            the integer to be sent
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public void sendInteger8(long val) throws IOException {
+		this.stream.writeInteger8(val);
 	}
 
 	/**
@@ -154,9 +202,7 @@ public class PGStream implements Closeable, Flushable {
 			throw new IOException("Tried to send an out-of-range integer as a 2-byte value: " + val);
 		}
 
-		_int2buf[0] = (byte) (val >>> 8);
-		_int2buf[1] = (byte) val;
-		this.stream.getWriteBuffer().appendBytes(_int2buf);
+		this.stream.writeInteger2(val);
 	}
 
 	/**
@@ -168,7 +214,40 @@ public class PGStream implements Closeable, Flushable {
 	 *             if an I/O error occurs
 	 */
 	public void send(byte[] buf) throws IOException {
-		this.stream.getWriteBuffer().appendBytes(buf);
+		this.stream.write(buf, 0, buf.length);
+	}
+
+	/**
+	 * Send an array of bytes that is not modified anymore, such as an encoded
+	 * parameter value. Large arrays are passed to the socket without being copied
+	 * into the write buffer.
+	 *
+	 * @param buf
+	 *            the array of bytes to be sent, left untouched until it is flushed
+	 * @param off
+	 *            offset in the array to start sending from
+	 * @param len
+	 *            the number of bytes to be sent
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public void sendWrapped(byte[] buf, int off, int len) throws IOException {
+		this.stream.writeWrapped(buf, off, len);
+	}
+
+	/**
+	 * Send the UTF-8 form of a string, encoded directly into the write buffer.
+	 *
+	 * @param s
+	 *            the string to be sent
+	 * @param length
+	 *            the number of bytes sent, as given by
+	 *            {@link Utils#encodedLengthUTF8(String)}
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public void sendUTF8(String s, int length) throws IOException {
+		this.stream.writeUTF8(s, length);
 	}
 
 	/**
@@ -201,9 +280,9 @@ public class PGStream implements Closeable, Flushable {
 	 */
 	public void send(byte[] buf, int off, int siz) throws IOException {
 		int bufamt = buf.length - off;
-		this.stream.getWriteBuffer().appendBytes(buf, off, bufamt < siz ? bufamt : siz);
-		for (int i = bufamt; i < siz; ++i) {
-			this.stream.getWriteBuffer().appendByte((byte) 0);
+		this.stream.write(buf, off, bufamt < siz ? bufamt : siz);
+		if (bufamt < siz) {
+			this.stream.writeZero(siz - bufamt);
 		}
 	}
 
@@ -219,6 +298,23 @@ public class PGStream implements Closeable, Flushable {
 		return this.stream.peek();
 	}
 
+	/**
+	 * Value returned by {@link #tryReceiveChar()} and
+	 * {@link #tryReceiveTupleV3(TupleSlab)} when the data is not buffered yet.
+	 */
+	public static final int NOT_BUFFERED = -2;
+
+	/**
+	 * Receives a single character from the backend if it has already been
+	 * buffered, without suspending.
+	 *
+	 * @return the character received, or {@link #NOT_BUFFERED}
+	 */
+	public int tryReceiveChar() {
+		int c = this.stream.tryRead();
+		return c < 0 ? NOT_BUFFERED : c;
+	}
+
 	/**
 	 * Receives a single character from the backend
 	 *
@@ -227,6 +323,11 @@ public class PGStream implements Closeable, Flushable {
 	 *             if an I/O Error occurs
 	 */
 	public CompletableFuture<Integer> receiveChar() {
+		int c = this.stream.tryRead();
+		if (c >= 0) {
+			return CompletableFuture.completedFuture(c);
+		}
+
 		return this.stream.read();
 	}
 
@@ -238,6 +339,10 @@ public class PGStream implements Closeable, Flushable {
 	 *             if an I/O error occurs
 	 */
 	public CompletableFuture<Integer> receiveInteger4() {
+		if (this.stream.isBuffered(4)) {
+			return CompletableFuture.completedFuture(this.stream.readBufferedInteger4());
+		}
+
 		byte[] buf = new byte[4];
 		await(this.stream.read(buf));
 		return CompletableFuture
@@ -252,6 +357,10 @@ public class PGStream implements Closeable, Flushable {
 	 *             if an I/O error occurs
 	 */
 	public CompletableFuture<Integer> receiveInteger2() {
+		if (this.stream.isBuffered(2)) {
+			return CompletableFuture.completedFuture(this.stream.readBufferedInteger2());
+		}
+
 		byte[] buf = new byte[2];
 		await(this.stream.read(buf));
 		return CompletableFuture.completedFuture((buf[0] & 0xFF) << 8 | buf[1] & 0xFF);
@@ -325,38 +434,58 @@ public class PGStream implements Closeable, Flushable {
 	}
 
 	/**
-	 * Read a tuple from the back end. A tuple is a two dimensional array of bytes.
-	 * This variant reads the V3 protocol's tuple representation.
+	 * Receives the remainder of a backend message: the Int32 length and the message
+	 * body that follow the message type byte. The future completes once the whole
+	 * message is buffered, so the body can be parsed without further suspension.
 	 *
-	 * @return tuple from the back end
+	 * @return the message body, without the length field
 	 * @throws IOException
 	 *             if a data I/O error occurs
 	 */
-	public CompletableFuture<byte[][]> receiveTupleV3() throws IOException, OutOfMemoryError {
-		// TODO: use l_msgSize
-		int l_msgSize = await(receiveInteger4());
-		int l_nf = await(receiveInteger2());
-		byte[][] answer = new byte[l_nf][];
-
-		OutOfMemoryError oom = null;
-		for (int i = 0; i < l_nf; ++i) {
-			int l_size = await(receiveInteger4());
-			if (l_size != -1) {
-				try {
-					answer[i] = new byte[l_size];
-					await(receive(answer[i], 0, l_size));
-				} catch (OutOfMemoryError oome) {
-					oom = oome;
-					await(skip(l_size));
-				}
-			}
+	public CompletableFuture<Buffer> receiveMessageBody() throws IOException {
+		try {
+			return CompletableFuture.completedFuture(await(this.stream.readMessageBody()));
+		} catch (Throwable err) {
+			throw new IOException(err.getMessage(), err);
 		}
+	}
 
-		if (oom != null) {
-			throw oom;
+	/**
+	 * Reads a tuple from the back end into a slab. This variant reads the V3
+	 * protocol's tuple representation.
+	 *
+	 * @param slab
+	 *            slab to append the tuple to, or null to discard it
+	 * @return number of value bytes in the tuple
+	 * @throws IOException
+	 *             if a data I/O error occurs
+	 */
+	public CompletableFuture<Integer> receiveTupleV3(TupleSlab slab) throws IOException, OutOfMemoryError {
+		Buffer message = this.stream.tryReadMessageBody();
+		if (message == null) {
+			message = await(receiveMessageBody());
 		}
+		return CompletableFuture.completedFuture(addTupleV3(slab, message));
+	}
 
-		return CompletableFuture.completedFuture(answer);
+	/**
+	 * Reads a tuple from the back end into a slab if the whole DataRow message has
+	 * already been buffered, without suspending.
+	 *
+	 * @param slab
+	 *            slab to append the tuple to, or null to discard it
+	 * @return number of value bytes in the tuple, or {@link #NOT_BUFFERED} if the
+	 *         message is not buffered yet
+	 * @throws IOException
+	 *             if the message is malformed
+	 */
+	public int tryReceiveTupleV3(TupleSlab slab) throws IOException, OutOfMemoryError {
+		Buffer message = this.stream.tryReadMessageBody();
+		return message == null ? NOT_BUFFERED : addTupleV3(slab, message);
+	}
+
+	private static int addTupleV3(TupleSlab slab, Buffer message) throws IOException, OutOfMemoryError {
+		return slab == null ? TupleSlab.getValueLength(message) : slab.addRow(message);
 	}
 
 	/**
@@ -387,6 +516,10 @@ public class PGStream implements Closeable, Flushable {
 	 *             if a data I/O error occurs
 	 */
 	public CompletableFuture<Void> receive(byte[] buf, int off, int siz) throws IOException {
+		if (this.stream.tryRead(buf, off, siz)) {
+			return CompletableFuture.completedFuture(null);
+		}
+
 		try {
 			await(this.stream.read(buf, off, siz));
 		} catch (Throwable err) {
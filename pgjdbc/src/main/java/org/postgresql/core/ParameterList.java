@@ -8,6 +8,7 @@ package org.postgresql.core;
 
 import java.io.InputStream;
 import java.sql.SQLException;
+import java.util.UUID;
 
 /**
  * Abstraction of a list of parameters to be substituted into a Query. The protocol-specific details
@@ -66,6 +67,28 @@ public interface ParameterList {
    */
   void setIntParameter(int index, int value) throws SQLException;
 
+  /**
+   * Binds a fixed-length binary value held in a primitive. The value is written into the Bind
+   * message when the query is sent, without an intermediate array. Floating point values are
+   * passed as their raw bits, booleans as 0 or 1 and dates as days since 2000-01-01.
+   *
+   * @param index the 1-based parameter index to bind.
+   * @param value the value, or the raw bits of a floating point value.
+   * @param oid the type OID of the parameter, one of int2, int4, int8, float4, float8, bool and
+   *     date.
+   * @throws SQLException on error or if <code>index</code> is out of range
+   */
+  void setPrimitiveParameter(int index, long value, int oid) throws SQLException;
+
+  /**
+   * Binds a UUID value in binary format. The type of the parameter is implicitly 'uuid'.
+   *
+   * @param index the 1-based parameter index to bind.
+   * @param value the UUID value to use.
+   * @throws SQLException on error or if <code>index</code> is out of range
+   */
+  void setUuidParameter(int index, UUID value) throws SQLException;
+
   /**
    * Binds a String value that is an unquoted literal to the server's query parser (for example, a
    * bare integer) to a parameter. Associated with the parameter is a typename for the parameter
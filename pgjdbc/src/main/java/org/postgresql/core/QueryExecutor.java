@@ -13,6 +13,7 @@ import org.postgresql.jdbc.AutoSave;
 import org.postgresql.jdbc.BatchResultHandler;
 import org.postgresql.jdbc.PreferQueryMode;
 import org.postgresql.jdbc.VxBatchResultHandler;
+import org.postgresql.util.AsyncLock;
 import org.postgresql.util.HostSpec;
 
 import java.io.IOException;
@@ -340,6 +341,15 @@ public interface QueryExecutor extends TypeTransferModeRegistry {
    */
   int getBackendPID();
 
+  /**
+   * Returns the counters of the lock that serializes the requests on this connection: how often
+   * and how long requests waited for the connection, and how many gave up, see
+   * {@link org.postgresql.PGProperty#CONNECTION_LOCK_TIMEOUT}.
+   *
+   * @return a snapshot of the counters
+   */
+  AsyncLock.Statistics getConnectionLockStatistics();
+
   /**
    * Abort at network level without sending the Terminate message to the backend.
    */
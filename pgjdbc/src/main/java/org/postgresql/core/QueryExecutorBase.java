@@ -158,10 +158,10 @@ public abstract class QueryExecutorBase implements QueryExecutor {
             }
 
             NetSocket netSocket = await(VertxHelper.
-                    <NetSocket>vertxTCompletableFuture(
+                    <NetSocket>vertxTCompletableFuture(pgStream.getContext(),
                             h -> pgStream.getNetClient().connect(pgStream.getHostSpec().getPort(), pgStream.getHostSpec().getHost(), h)));
             cancelStream =
-                    new PGStream(pgStream.getNetClient(), netSocket, pgStream.getHostSpec(), cancelSignalTimeout);
+                    new PGStream(pgStream.getNetClient(), pgStream.getContext(), netSocket, pgStream.getHostSpec(), cancelSignalTimeout);
 
             /*if (cancelSignalTimeout > 0) {
                 cancelStream.getSocket().setSoTimeout(cancelSignalTimeout);
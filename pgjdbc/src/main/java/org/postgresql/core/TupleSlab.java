@@ -0,0 +1,241 @@
+package org.postgresql.core;
+
+import io.vertx.core.buffer.Buffer;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Page of result rows received from the backend, stored in slab chunks.
+ * <p>
+ * The values of the rows are copied back to back into byte array chunks and addressed by
+ * (row, column) offset and length arrays, so a stored row takes no objects of its own, however
+ * many columns it has. A row is never split across chunks, and a chunk is never copied once
+ * written: the slab grows by adding chunks, of up to 1 MiB each, or larger
+ * for a row that does not fit into one.
+ * <p>
+ * For the code that handles tuples the slab is a read only {@code List<byte[][]>} whose
+ * {@link #get(int)} materializes a row on demand; the result sets read the values in place
+ * through {@link #getData(int)}, {@link #getOffset(int, int)} and {@link #getLength(int, int)}.
+ */
+public class TupleSlab extends AbstractList<byte[][]> implements RandomAccess {
+
+  private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+  private static final int INITIAL_ROWS = 16;
+  private static final int INITIAL_CHUNK_SIZE = 1024;
+  private static final int MAX_CHUNK_SIZE = 1024 * 1024;
+
+  private static final int[] NO_CELLS = new int[0];
+  private static final byte[] NO_DATA = new byte[0];
+
+  private byte[][] chunks = new byte[0][];
+  private int chunkCount;
+  private byte[] chunk = NO_DATA;
+  private int chunkUsed;
+  private long dataLength;
+  private int[] rowChunks = NO_CELLS;
+  private int[] offsets = NO_CELLS;
+  private int[] lengths = NO_CELLS;
+  private int columnCount = -1;
+  private int rowCount;
+
+  /**
+   * Appends the row of a DataRow message to the slab.
+   *
+   * @param message DataRow message body, without the length field
+   * @return number of value bytes in the row
+   * @throws IOException if the message is malformed, the slab is left unchanged
+   * @throws OutOfMemoryError if the slab cannot grow, the slab is left unchanged
+   */
+  public int addRow(Buffer message) throws IOException, OutOfMemoryError {
+    int columns = message.getUnsignedShort(0);
+    if (columnCount != -1 && columns != columnCount) {
+      throw new IOException("Invalid number of fields in DataRow: " + columns + ", expected "
+          + columnCount);
+    }
+
+    int valueLength = getValueLength(message);
+    ensureCapacity((rowCount + 1) * (long) columns, valueLength);
+    columnCount = columns;
+
+    rowChunks[rowCount] = chunkCount - 1;
+    int cell = rowCount * columns;
+    int pos = 2;
+    for (int i = 0; i < columns; ++i, ++cell) {
+      int size = message.getInt(pos);
+      pos += 4;
+      offsets[cell] = chunkUsed;
+      if (size == -1) {
+        lengths[cell] = -1;
+      } else {
+        message.getBytes(pos, pos + size, chunk, chunkUsed);
+        lengths[cell] = size;
+        chunkUsed += size;
+        pos += size;
+      }
+    }
+
+    dataLength += valueLength;
+    rowCount++;
+    return valueLength;
+  }
+
+  /**
+   * Validates the field sizes of a DataRow message.
+   *
+   * @param message DataRow message body, without the length field
+   * @return number of value bytes in the row
+   * @throws IOException if the message is malformed
+   */
+  public static int getValueLength(Buffer message) throws IOException {
+    int columns = message.getUnsignedShort(0);
+    int pos = 2;
+    int valueLength = 0;
+    for (int i = 0; i < columns; ++i) {
+      int size = message.getInt(pos);
+      pos += 4;
+      if (size != -1) {
+        if (size < 0 || pos + size > message.length()) {
+          throw new IOException("Invalid field size in DataRow: " + size);
+        }
+        pos += size;
+        valueLength += size;
+      }
+    }
+    return valueLength;
+  }
+
+  @Override
+  public int size() {
+    return rowCount;
+  }
+
+  /**
+   * @return number of columns of the rows, 0 while the slab is empty
+   */
+  public int getColumnCount() {
+    return columnCount == -1 ? 0 : columnCount;
+  }
+
+  /**
+   * @return number of value bytes stored in the slab
+   */
+  public long getDataLength() {
+    return dataLength;
+  }
+
+  /**
+   * Returns the chunk holding the values of a row.
+   *
+   * @param row row index, starting from 0
+   * @return the array the offsets of the row refer to
+   */
+  public byte[] getData(int row) {
+    if (row < 0 || row >= rowCount) {
+      throw new IndexOutOfBoundsException("Row index: " + row + ", rows: " + rowCount);
+    }
+    return chunks[rowChunks[row]];
+  }
+
+  /**
+   * @param row row index, starting from 0
+   * @param column column index, starting from 0
+   * @return offset of the value in {@link #getData(int)}
+   */
+  public int getOffset(int row, int column) {
+    return offsets[cell(row, column)];
+  }
+
+  /**
+   * @param row row index, starting from 0
+   * @param column column index, starting from 0
+   * @return length of the value, or -1 if it is SQL NULL
+   */
+  public int getLength(int row, int column) {
+    return lengths[cell(row, column)];
+  }
+
+  /**
+   * @param row row index, starting from 0
+   * @param column column index, starting from 0
+   * @return true if the value is SQL NULL
+   */
+  public boolean isNull(int row, int column) {
+    return lengths[cell(row, column)] == -1;
+  }
+
+  /**
+   * @param row row index, starting from 0
+   * @param column column index, starting from 0
+   * @return copy of the value, or null if it is SQL NULL
+   */
+  public byte[] getValue(int row, int column) {
+    int cell = cell(row, column);
+    int length = lengths[cell];
+    if (length == -1) {
+      return null;
+    }
+    return Arrays.copyOfRange(chunks[rowChunks[row]], offsets[cell], offsets[cell] + length);
+  }
+
+  /**
+   * Materializes a row in the {@code byte[][]} form used by updatable result sets and by the
+   * result handlers that keep rows. Each call returns a fresh copy.
+   *
+   * @param row row index, starting from 0
+   * @return the values of the row
+   */
+  @Override
+  public byte[][] get(int row) {
+    byte[] data = getData(row);
+    int columns = getColumnCount();
+    byte[][] tuple = new byte[columns][];
+    for (int i = 0, cell = row * columns; i < columns; ++i, ++cell) {
+      int length = lengths[cell];
+      if (length != -1) {
+        tuple[i] = Arrays.copyOfRange(data, offsets[cell], offsets[cell] + length);
+      }
+    }
+    return tuple;
+  }
+
+  private int cell(int row, int column) {
+    if (row < 0 || row >= rowCount || column < 0 || column >= columnCount) {
+      throw new IndexOutOfBoundsException("Row index: " + row + ", column index: " + column
+          + ", rows: " + rowCount + ", columns: " + getColumnCount());
+    }
+    return row * columnCount + column;
+  }
+
+  private void ensureCapacity(long cells, int bytes) {
+    if (cells > MAX_ARRAY_SIZE) {
+      throw new OutOfMemoryError("Result page has too many values for a slab");
+    }
+
+    if (cells > offsets.length) {
+      int capacity = grow(offsets.length, (int) cells, INITIAL_ROWS * (cells - offsets.length));
+      offsets = Arrays.copyOf(offsets, capacity);
+      lengths = Arrays.copyOf(lengths, capacity);
+    }
+    if (rowCount == rowChunks.length) {
+      rowChunks = Arrays.copyOf(rowChunks, grow(rowChunks.length, rowCount + 1, INITIAL_ROWS));
+    }
+    if (chunkCount == 0 || chunkUsed + (long) bytes > chunk.length) {
+      int size = chunkCount == 0 ? INITIAL_CHUNK_SIZE : Math.min(chunk.length * 2, MAX_CHUNK_SIZE);
+      byte[] next = new byte[Math.max(size, bytes)];
+      if (chunkCount == chunks.length) {
+        chunks = Arrays.copyOf(chunks, Math.max(4, chunkCount * 2));
+      }
+      chunks[chunkCount++] = next;
+      chunk = next;
+      chunkUsed = 0;
+    }
+  }
+
+  private static int grow(int capacity, int required, long initial) {
+    long grown = Math.max(capacity * 2L, Math.max(required, initial));
+    return (int) Math.min(grown, MAX_ARRAY_SIZE);
+  }
+}
@@ -7,7 +7,10 @@ package org.postgresql.core;
 
 import org.postgresql.util.GT;
 
+import io.netty.buffer.ByteBuf;
+
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 class UTF8Encoding extends Encoding {
   private static final int MIN_2_BYTES = 0x80;
@@ -21,6 +24,88 @@ class UTF8Encoding extends Encoding {
     super(jvmEncoding);
   }
 
+  /**
+   * Computes the length of the UTF-8 form of a string without encoding it. Like
+   * {@link String#getBytes(java.nio.charset.Charset)}, an unpaired surrogate counts as the single
+   * byte of the '?' replacing it.
+   *
+   * @param s the string to measure
+   * @return the number of bytes {@link #encodeUTF8(String, ByteBuf)} writes for {@code s}
+   */
+  static int encodedLengthUTF8(String s) {
+    int length = s.length();
+    int i = 0;
+    while (i < length && s.charAt(i) < MIN_2_BYTES) {
+      i++;
+    }
+
+    int bytes = i;
+    for (; i < length; i++) {
+      char ch = s.charAt(i);
+      if (ch < MIN_2_BYTES) {
+        bytes += 1;
+      } else if (ch < MIN_3_BYTES) {
+        bytes += 2;
+      } else if (!Character.isSurrogate(ch)) {
+        bytes += 3;
+      } else if (Character.isHighSurrogate(ch) && i + 1 < length
+          && Character.isLowSurrogate(s.charAt(i + 1))) {
+        bytes += 4;
+        i++;
+      } else {
+        bytes += 1;
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * Encodes a string as UTF-8 at the writer index of a buffer, which must have room for
+   * {@link #encodedLengthUTF8(String)} more bytes.
+   *
+   * @param s the string to encode
+   * @param buf the buffer to write to
+   * @return the number of bytes written
+   */
+  static int encodeUTF8(String s, ByteBuf buf) {
+    int length = s.length();
+    int start = buf.writerIndex();
+    int out = start;
+    int i = 0;
+    for (; i < length; i++) {
+      char ch = s.charAt(i);
+      if (ch >= MIN_2_BYTES) {
+        break;
+      }
+      buf.setByte(out++, ch);
+    }
+
+    for (; i < length; i++) {
+      char ch = s.charAt(i);
+      if (ch < MIN_2_BYTES) {
+        buf.setByte(out++, ch);
+      } else if (ch < MIN_3_BYTES) {
+        buf.setByte(out++, 0xc0 | (ch >> 6));
+        buf.setByte(out++, 0x80 | (ch & 0x3f));
+      } else if (!Character.isSurrogate(ch)) {
+        buf.setByte(out++, 0xe0 | (ch >> 12));
+        buf.setByte(out++, 0x80 | ((ch >> 6) & 0x3f));
+        buf.setByte(out++, 0x80 | (ch & 0x3f));
+      } else if (Character.isHighSurrogate(ch) && i + 1 < length
+          && Character.isLowSurrogate(s.charAt(i + 1))) {
+        int cp = Character.toCodePoint(ch, s.charAt(++i));
+        buf.setByte(out++, 0xf0 | (cp >> 18));
+        buf.setByte(out++, 0x80 | ((cp >> 12) & 0x3f));
+        buf.setByte(out++, 0x80 | ((cp >> 6) & 0x3f));
+        buf.setByte(out++, 0x80 | (cp & 0x3f));
+      } else {
+        buf.setByte(out++, '?');
+      }
+    }
+    buf.writerIndex(out);
+    return out - start;
+  }
+
   // helper for decode
   private static void checkByte(int ch, int pos, int len) throws IOException {
     if ((ch & 0xc0) != 0x80) {
@@ -71,7 +156,8 @@ class UTF8Encoding extends Encoding {
    * Custom byte[] -> String conversion routine for UTF-8 only. This is about twice as fast as using
    * the String(byte[],int,int,String) ctor, at least under JDK 1.4.2. The extra checks for illegal
    * representations add about 10-15% overhead, but they seem worth it given the number of SQL_ASCII
-   * databases out there.
+   * databases out there. Pure ASCII data, the common case, is copied without going through the
+   * decoder or taking its lock.
    *
    * @param data the array containing UTF8-encoded data
    * @param offset the offset of the first byte in {@code data} to decode from
@@ -80,14 +166,47 @@ class UTF8Encoding extends Encoding {
    * @throws IOException if something goes wrong
    */
   @Override
-  public synchronized String decode(byte[] data, int offset, int length) throws IOException {
+  public String decode(byte[] data, int offset, int length) throws IOException {
+    int ascii = asciiPrefixLength(data, offset, length);
+    if (ascii == length) {
+      // ASCII is a subset of Latin-1, whose strings JDKs with compact strings store a byte per char
+      return new String(data, offset, length, StandardCharsets.ISO_8859_1);
+    }
+    return decodeMultibyte(data, offset, length, ascii);
+  }
+
+  /**
+   * Counts the bytes below 0x80 a range starts with, eight bytes per iteration: a byte of a
+   * multibyte sequence is negative, and so is the or of a group holding one.
+   */
+  private static int asciiPrefixLength(byte[] data, int offset, int length) {
+    int in = offset;
+    int end = offset + length;
+    for (; in + 8 <= end; in += 8) {
+      if ((data[in] | data[in + 1] | data[in + 2] | data[in + 3] | data[in + 4] | data[in + 5]
+          | data[in + 6] | data[in + 7]) < 0) {
+        break;
+      }
+    }
+    while (in < end && data[in] >= 0) {
+      in++;
+    }
+    return in - offset;
+  }
+
+  private synchronized String decodeMultibyte(byte[] data, int offset, int length, int ascii)
+      throws IOException {
     char[] cdata = decoderArray;
     if (cdata.length < length) {
       cdata = decoderArray = new char[length];
     }
 
-    int in = offset;
-    int out = 0;
+    for (int i = 0; i < ascii; i++) {
+      cdata[i] = (char) data[offset + i];
+    }
+
+    int in = offset + ascii;
+    int out = ascii;
     int end = length + offset;
 
     try {
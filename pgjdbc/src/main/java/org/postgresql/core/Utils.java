@@ -53,6 +53,16 @@ public class Utils {
     return str.getBytes(utf8Charset);
   }
 
+  /**
+   * Compute the length of the UTF-8 form of a string without encoding it.
+   *
+   * @param str the string to measure
+   * @return the length of {@code encodeUTF8(str)}
+   */
+  public static int encodedLengthUTF8(String str) {
+    return UTF8Encoding.encodedLengthUTF8(str);
+  }
+
   /**
    * Escape the given literal <tt>value</tt> and append it to the string builder <tt>sbuf</tt>. If
    * <tt>sbuf</tt> is <tt>null</tt>, a new StringBuilder will be returned. The argument
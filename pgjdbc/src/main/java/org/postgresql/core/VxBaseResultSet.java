@@ -56,6 +56,26 @@ public interface VxBaseResultSet {
    */
   CompletableFuture<Boolean> next() throws SQLException;
 
+  /**
+   * Moves the cursor forward one row like {@link #next()} and returns a synchronous view of the
+   * new current row, whose columns can be read without a <code>CompletableFuture</code> per value.
+   * The same view is returned for every row and always reflects the current row. The returned
+   * future is already completed unless more rows have to be fetched from the server.
+   *
+   * @return the view of the new current row, or <code>null</code> if there are no more rows
+   * @exception SQLException if a database access error occurs or this method is
+   *            called on a closed result set
+   */
+  CompletableFuture<VxRow> nextRow() throws SQLException;
+
+  /**
+   * Returns the synchronous view of the current row, see {@link #nextRow()}.
+   *
+   * @return the view of the current row
+   * @exception SQLException if this method is called on a closed result set
+   */
+  VxRow currentRow() throws SQLException;
+
 
   /**
    * Releases this <code>ResultSet</code> object's database and
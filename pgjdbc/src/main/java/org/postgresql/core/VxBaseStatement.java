@@ -14,6 +14,7 @@ import java.util.concurrent.CompletableFuture;
 import org.postgresql.PGStatement;
 import org.postgresql.jdbc.VxConnection;
 import org.postgresql.jdbc.VxResultSet;
+import org.postgresql.jdbc.VxRowStream;
 
 public interface VxBaseStatement extends PGStatement, Wrapper, AutoCloseable{
 
@@ -39,6 +40,23 @@ public interface VxBaseStatement extends PGStatement, Wrapper, AutoCloseable{
    */
   CompletableFuture<VxResultSet> executeQuery(String sql) throws SQLException;
 
+  /**
+   * Executes the given SQL statement and streams the rows of its single
+   * <code>ResultSet</code>, reading them from the server as they are
+   * consumed. See {@link VxRowStream}.
+   *<p>
+   * <strong>Note:</strong>This method cannot be called on a
+   * <code>PreparedStatement</code> or <code>CallableStatement</code>.
+   * @param sql an SQL statement to be sent to the database, typically a
+   *        static SQL <code>SELECT</code> statement
+   * @return the stream of the rows produced by the given query
+   * @exception SQLException if a database access error occurs,
+   * this method is called on a closed <code>Statement</code> or the given
+   *            SQL statement produces anything other than a single
+   *            <code>ResultSet</code> object
+   */
+  CompletableFuture<VxRowStream> executeQueryStream(String sql) throws SQLException;
+
   /**
    * Executes the given SQL statement, which may be an <code>INSERT</code>,
    * <code>UPDATE</code>, or <code>DELETE</code> statement or an
@@ -0,0 +1,94 @@
+package org.postgresql.core;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+/**
+ * Synchronous view of the current row of a {@link VxBaseResultSet}.
+ * <p>
+ * By the time a result set is positioned on a row, the row has been received completely, so its
+ * columns can be decoded without a <code>CompletableFuture</code> per value. A view is obtained
+ * from {@link VxBaseResultSet#nextRow()} or {@link VxBaseResultSet#currentRow()} and always
+ * reflects the row the result set is currently positioned on.
+ * <p>
+ * Only the scalar types are available here. Values that may need a round trip to the server,
+ * like arrays, large objects or ref cursors, have to be read through the asynchronous getters of
+ * the result set.
+ */
+public interface VxRow {
+
+  /**
+   * Reports whether the last column read had a value of SQL <code>NULL</code>.
+   *
+   * @return <code>true</code> if the last column value read was SQL <code>NULL</code>
+   * @exception SQLException if the result set is closed
+   */
+  boolean wasNull() throws SQLException;
+
+  /**
+   * Maps the given column label to its column index.
+   *
+   * @param columnLabel the label of the column
+   * @return the column index of the given column label
+   * @exception SQLException if the result set does not contain <code>columnLabel</code>
+   */
+  int findColumn(String columnLabel) throws SQLException;
+
+  String getString(int columnIndex) throws SQLException;
+
+  boolean getBoolean(int columnIndex) throws SQLException;
+
+  short getShort(int columnIndex) throws SQLException;
+
+  int getInt(int columnIndex) throws SQLException;
+
+  long getLong(int columnIndex) throws SQLException;
+
+  float getFloat(int columnIndex) throws SQLException;
+
+  double getDouble(int columnIndex) throws SQLException;
+
+  BigDecimal getBigDecimal(int columnIndex) throws SQLException;
+
+  byte[] getBytes(int columnIndex) throws SQLException;
+
+  Date getDate(int columnIndex) throws SQLException;
+
+  Date getDate(int columnIndex, Calendar cal) throws SQLException;
+
+  Time getTime(int columnIndex) throws SQLException;
+
+  Time getTime(int columnIndex, Calendar cal) throws SQLException;
+
+  Timestamp getTimestamp(int columnIndex) throws SQLException;
+
+  Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException;
+
+  String getString(String columnLabel) throws SQLException;
+
+  boolean getBoolean(String columnLabel) throws SQLException;
+
+  short getShort(String columnLabel) throws SQLException;
+
+  int getInt(String columnLabel) throws SQLException;
+
+  long getLong(String columnLabel) throws SQLException;
+
+  float getFloat(String columnLabel) throws SQLException;
+
+  double getDouble(String columnLabel) throws SQLException;
+
+  BigDecimal getBigDecimal(String columnLabel) throws SQLException;
+
+  byte[] getBytes(String columnLabel) throws SQLException;
+
+  Date getDate(String columnLabel) throws SQLException;
+
+  Time getTime(String columnLabel) throws SQLException;
+
+  Timestamp getTimestamp(String columnLabel) throws SQLException;
+}
@@ -0,0 +1,101 @@
+package org.postgresql.core.v3;
+
+import org.postgresql.util.HostSpec;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers the version of the servers connected to, shared by all the connections of the JVM.
+ * <p>
+ * Settings like <code>extra_float_digits</code> and <code>application_name</code> can only be
+ * passed in the StartupMessage to servers that know them, so without
+ * {@link org.postgresql.PGProperty#ASSUME_MIN_SERVER_VERSION} every connection sets them with an
+ * extra round trip once the server has reported its version. With
+ * {@link org.postgresql.PGProperty#CACHE_SERVER_VERSION} and the version of an earlier connection
+ * to the same host and database at hand, the next connections send them right away. A host that
+ * rejects them, because the server was replaced by an older one or because a pooler in front of
+ * it does not accept them, is remembered so that they are not sent to it again.
+ */
+final class BootstrapCache {
+
+    /**
+     * Bound on the number of entries, the cache is emptied when it is exceeded.
+     */
+    private static final int MAX_ENTRIES = 1024;
+
+    /**
+     * Version recorded for a host that rejected the settings in the StartupMessage.
+     */
+    private static final int REJECTED = -1;
+
+    private static final ConcurrentMap<Key, Integer> serverVersions = new ConcurrentHashMap<Key, Integer>();
+
+    private BootstrapCache() {
+    }
+
+    /**
+     * @return the version of the server reported by the latest connection, 0 if unknown or if the
+     *     host rejected the settings in the StartupMessage
+     */
+    static int getServerVersionNum(HostSpec hostSpec, String database) {
+        Integer version = serverVersions.get(new Key(hostSpec, database));
+        return version == null || version == REJECTED ? 0 : version;
+    }
+
+    /**
+     * Records the version reported by a server, unless the host rejected the settings in the
+     * StartupMessage.
+     */
+    static void putServerVersionNum(HostSpec hostSpec, String database, int serverVersionNum) {
+        Key key = new Key(hostSpec, database);
+        Integer version = serverVersions.get(key);
+        if (version != null && (version == REJECTED || version == serverVersionNum)) {
+            return;
+        }
+        if (serverVersions.size() >= MAX_ENTRIES) {
+            serverVersions.clear();
+        }
+        // a rejection recorded meanwhile wins
+        if (version == null) {
+            serverVersions.putIfAbsent(key, serverVersionNum);
+        } else {
+            serverVersions.replace(key, version, serverVersionNum);
+        }
+    }
+
+    /**
+     * Records that a host rejected the settings in the StartupMessage, they are no longer sent to
+     * it.
+     */
+    static void rejectStartupSettings(HostSpec hostSpec, String database) {
+        if (serverVersions.size() >= MAX_ENTRIES) {
+            serverVersions.clear();
+        }
+        serverVersions.put(new Key(hostSpec, database), REJECTED);
+    }
+
+    private static final class Key {
+        private final HostSpec hostSpec;
+        private final String database;
+
+        Key(HostSpec hostSpec, String database) {
+            this.hostSpec = hostSpec;
+            this.database = database;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hostSpec.equals(other.hostSpec) && database.equals(other.database);
+        }
+
+        @Override
+        public int hashCode() {
+            return hostSpec.hashCode() * 31 + database.hashCode();
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.postgresql.util.PSQLState;
 
 import java.io.InputStream;
 import java.sql.SQLException;
+import java.util.UUID;
 
 /**
  * Parameter list for V3 query strings that contain multiple statements. We delegate to one
@@ -77,6 +78,16 @@ class CompositeParameterList implements V3ParameterList {
     subparams[sub].setIntParameter(index - offsets[sub], value);
   }
 
+  public void setPrimitiveParameter(int index, long value, int oid) throws SQLException {
+    int sub = findSubParam(index);
+    subparams[sub].setPrimitiveParameter(index - offsets[sub], value, oid);
+  }
+
+  public void setUuidParameter(int index, UUID value) throws SQLException {
+    int sub = findSubParam(index);
+    subparams[sub].setUuidParameter(index - offsets[sub], value);
+  }
+
   public void setLiteralParameter(int index, String value, int oid) throws SQLException {
     int sub = findSubParam(index);
     subparams[sub].setStringParameter(index - offsets[sub], value, oid);
@@ -151,7 +162,7 @@ class CompositeParameterList implements V3ParameterList {
     }
   }
 
-  public byte[][] getEncoding() {
+  public int[] getEncodedLengths() {
     return null; // unsupported
   }
 
@@ -6,8 +6,9 @@
 
 package org.postgresql.core.v3;
 
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
 import io.vertx.core.net.NetClient;
-import io.vertx.core.net.NetClientOptions;
 import io.vertx.core.net.NetSocket;
 import org.postgresql.PGProperty;
 import org.postgresql.core.ConnectionFactory;
@@ -24,6 +25,8 @@ import org.postgresql.hostchooser.HostChooser;
 import org.postgresql.hostchooser.HostChooserFactory;
 import org.postgresql.hostchooser.HostRequirement;
 import org.postgresql.hostchooser.HostStatus;
+import org.postgresql.hostchooser.LoadBalanceStrategy;
+import org.postgresql.ssl.SslNetClientOptions;
 import org.postgresql.sspi.ISSPIClient;
 import org.postgresql.util.*;
 
@@ -31,13 +34,16 @@ import java.io.IOException;
 import java.net.ConnectException;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.TimeZone;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
@@ -113,8 +119,6 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
             }
         }
 
-        boolean requireTCPKeepAlive = PGProperty.TCP_KEEP_ALIVE.getBoolean(info);
-
         int connectTimeout = PGProperty.CONNECT_TIMEOUT.getInt(info) * 1000;
 
         HostRequirement targetServerType;
@@ -127,10 +131,33 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
                     PSQLState.CONNECTION_UNABLE_TO_CONNECT);
         }
 
-        NetClient netClient = VertxHelper.getVertx().createNetClient();
+        String loadBalanceStrategy = PGProperty.LOAD_BALANCE_STRATEGY.get(info);
+        try {
+            LoadBalanceStrategy.valueOf(loadBalanceStrategy);
+        } catch (IllegalArgumentException ex) {
+            throw new PSQLException(
+                    GT.tr("Invalid loadBalanceStrategy value: {0}", loadBalanceStrategy),
+                    PSQLState.CONNECTION_UNABLE_TO_CONNECT);
+        }
+
+        Vertx vertx = VertxHelper.getVertx(info);
+        NetClient netClient = NetClients.get(vertx, info);
 
         HostChooser hostChooser =
                 HostChooserFactory.createHostChooser(hostSpecs, targetServerType, info);
+
+        int hostProbeInterval = PGProperty.HOST_PROBE_INTERVAL.getInt(info);
+        if (hostProbeInterval > 0 && hostSpecs.length > 1) {
+            HostProber.register(hostSpecs, vertx, netClient, hostProbeInterval * 1000L,
+                    connectTimeout > 0 ? connectTimeout : hostProbeInterval * 1000);
+        }
+
+        int parallelConnectDelay = PGProperty.PARALLEL_CONNECT_DELAY.getInt(info);
+        if (parallelConnectDelay >= 0 && hostSpecs.length > 1) {
+            return openConnectionInParallel(hostChooser, parallelConnectDelay, vertx, netClient, user, database,
+                    info, trySSL, requireSSL, connectTimeout, targetServerType);
+        }
+
         Iterator<CandidateHost> hostIter = hostChooser.iterator();
         Map<HostSpec, HostStatus> knownStates = new HashMap<HostSpec, HostStatus>();
         while (hostIter.hasNext()) {
@@ -153,70 +180,11 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
             // Establish a connection.
             //
 
-            NetClientOptions options = new NetClientOptions();
-            options.setTrustAll(true);
-            options.setTcpKeepAlive(requireTCPKeepAlive);
-
-            // Set the socket timeout if the "socketTimeout" property has been set.
-            int socketTimeout = PGProperty.SOCKET_TIMEOUT.getInt(info);
-            if (socketTimeout > 0) {
-                options.setConnectTimeout(socketTimeout);
-            }
-
-
-            // Try to set SO_SNDBUF and SO_RECVBUF socket options, if requested.
-            // If receiveBufferSize and send_buffer_size are set to a value greater
-            // than 0, adjust. -1 means use the system default, 0 is ignored since not
-            // supported.
-
-            // Set SO_RECVBUF read buffer size
-            int receiveBufferSize = PGProperty.RECEIVE_BUFFER_SIZE.getInt(info);
-            if (receiveBufferSize > -1) {
-                // value of 0 not a valid buffer size value
-                if (receiveBufferSize > 0) {
-                    options.setReceiveBufferSize(receiveBufferSize);
-                } else {
-                    LOGGER.log(Level.WARNING, "Ignore invalid value for receiveBufferSize: {0}", receiveBufferSize);
-                }
-            }
-
-            // Set SO_SNDBUF write buffer size
-            int sendBufferSize = PGProperty.SEND_BUFFER_SIZE.getInt(info);
-            if (sendBufferSize > -1) {
-                if (sendBufferSize > 0) {
-                    options.setSendBufferSize(sendBufferSize);
-                } else {
-                    LOGGER.log(Level.WARNING, "Ignore invalid value for sendBufferSize: {0}", sendBufferSize);
-                }
-            }
-
-            LOGGER.log(Level.FINE, "Receive Buffer Size is {0}", receiveBufferSize);
-            LOGGER.log(Level.FINE, "Send Buffer Size is {0}", sendBufferSize);
-
-            PGStream newStream = null;
+            HostAttempt attempt = new HostAttempt(hostSpec);
+            QueryExecutor queryExecutor = null;
             try {
-                NetSocket netSocket = await(VertxHelper
-                        .vertxTCompletableFuture(h -> netClient.connect(hostSpec.getPort(), hostSpec.getHost(), h)));
-                newStream = new PGStream(netClient, netSocket, hostSpec, connectTimeout);
-
-                // Construct and send an ssl startup packet if requested.
-                if (trySSL) {
-                    newStream = enableSSL(newStream, requireSSL, info, connectTimeout).get();
-                }
-
-                List<String[]> paramList = getParametersForStartup(user, database, info);
-                sendStartupPacket(newStream, paramList);
-
-                // Do authentication (until AuthenticationOk).
-                await(doAuthentication(newStream, hostSpec.getHost(), user, info));
-
-                int cancelSignalTimeout = PGProperty.CANCEL_SIGNAL_TIMEOUT.getInt(info) * 1000;
-
-                // Do final startup.
-                /*QueryExecutor queryExecutor = new QueryExecutorImpl(newStream, user, database,
-                        cancelSignalTimeout, info);*/
-                QueryExecutor queryExecutor = await(QueryExecutorImpl.getQueryExecutorInstance(newStream, user, database,
-                        cancelSignalTimeout, info));
+                queryExecutor = await(openQueryExecutor(vertx, netClient, hostSpec, user, database, info,
+                        trySSL, requireSSL, connectTimeout, attempt));
 
                 // Check Master or Secondary
                 HostStatus hostStatus = HostStatus.ConnectOK;
@@ -230,14 +198,16 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
                     continue;
                 }
 
-                await(runInitialQueries(queryExecutor, info));
+                if (!attempt.startupSettings) {
+                    await(runInitialQueries(queryExecutor, info));
+                }
 
                 // And we're done.
                 return CompletableFuture.completedFuture(queryExecutor);
             } catch (UnsupportedProtocolException upe) {
                 // Swallow this and return null so ConnectionFactory tries the next protocol.
                 LOGGER.log(Level.SEVERE, "Protocol not supported, abandoning connection.", upe);
-                closeStream(newStream);
+                closeQueryExecutor(queryExecutor);
                 return null;
             } catch (ConnectException cex) {
                 // Added by Peter Mount <peter@retep.org.uk>
@@ -254,7 +224,7 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
                         "Connection to {0} refused. Check that the hostname and port are correct and that the postmaster is accepting TCP/IP connections.",
                         hostSpec), PSQLState.CONNECTION_UNABLE_TO_CONNECT, cex);
             } catch (InterruptedException | ExecutionException | IOException ioe) {
-                closeStream(newStream);
+                closeQueryExecutor(queryExecutor);
                 GlobalHostStatusTracker.reportHostStatus(hostSpec, HostStatus.ConnectFail);
                 knownStates.put(hostSpec, HostStatus.ConnectFail);
                 log(Level.WARNING, "IOException occurred while connecting to {0}", ioe, hostSpec);
@@ -265,7 +235,7 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
                 throw new PSQLException(GT.tr("The connection attempt failed."),
                         PSQLState.CONNECTION_UNABLE_TO_CONNECT, ioe);
             } catch (SQLException se) {
-                closeStream(newStream);
+                closeQueryExecutor(queryExecutor);
                 log(Level.WARNING, "SQLException occurred while connecting to {0}", se, hostSpec);
                 GlobalHostStatusTracker.reportHostStatus(hostSpec, HostStatus.ConnectFail);
                 knownStates.put(hostSpec, HostStatus.ConnectFail);
@@ -281,7 +251,512 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
                 PSQLState.CONNECTION_UNABLE_TO_CONNECT);
     }
 
-    private List<String[]> getParametersForStartup(String user, String database, Properties info) {
+    /**
+     * Opens a connection to a host, see {@link #startSession}. The settings that need a 9.0 server
+     * are sent in the StartupMessage if {@link BootstrapCache} knows that the server accepts them,
+     * if it rejects them after all the session is started again without them. Whether they were
+     * sent is recorded in the attempt: if not, {@link #runInitialQueries} has to set them once the
+     * connection is chosen.
+     *
+     * @param attempt connection attempt the connection is made for
+     */
+    private CompletableFuture<QueryExecutor> openQueryExecutor(Vertx vertx, NetClient netClient, HostSpec hostSpec,
+            String user, String database, Properties info, boolean trySSL, boolean requireSSL, int connectTimeout,
+            HostAttempt attempt) throws IOException, SQLException, InterruptedException, ExecutionException {
+        int v9_0 = ServerVersion.v9_0.getVersionNum();
+        boolean assumed = Utils.parseServerVersionStr(PGProperty.ASSUME_MIN_SERVER_VERSION.get(info)) >= v9_0;
+        boolean cached = !assumed && PGProperty.CACHE_SERVER_VERSION.getBoolean(info)
+                && BootstrapCache.getServerVersionNum(hostSpec, database) >= v9_0;
+
+        attempt.startupSettings = assumed || cached;
+        QueryExecutor queryExecutor = null;
+        boolean rejected = false;
+        try {
+            queryExecutor = await(startSession(vertx, netClient, hostSpec, user, database, info, trySSL, requireSSL,
+                    connectTimeout, attempt));
+        } catch (Exception e) {
+            // await rethrows the failure in a CompletionException once it has suspended
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (!cached || !rejectsStartupSettings(cause)) {
+                throw e;
+            }
+            LOGGER.log(Level.FINE, "{0} rejected the settings in the StartupMessage, connecting without them: {1}",
+                    new Object[]{hostSpec, cause.getMessage()});
+            BootstrapCache.rejectStartupSettings(hostSpec, database);
+            rejected = true;
+        }
+        if (rejected) {
+            attempt.startupSettings = false;
+            queryExecutor = await(startSession(vertx, netClient, hostSpec, user, database, info, trySSL,
+                    requireSSL, connectTimeout, attempt));
+        }
+        if (PGProperty.CACHE_SERVER_VERSION.getBoolean(info)) {
+            BootstrapCache.putServerVersionNum(hostSpec, database, queryExecutor.getServerVersionNum());
+        }
+        return CompletableFuture.completedFuture(queryExecutor);
+    }
+
+    /**
+     * Tells whether a connection failed because the settings sent in the StartupMessage are not
+     * known: pgbouncer reports a protocol violation for them, servers older than 9.0 an undefined
+     * object.
+     */
+    private static boolean rejectsStartupSettings(Throwable e) {
+        if (!(e instanceof SQLException)) {
+            return false;
+        }
+        String state = ((SQLException) e).getSQLState();
+        return PSQLState.PROTOCOL_VIOLATION.getState().equals(state)
+                || PSQLState.UNDEFINED_OBJECT.getState().equals(state);
+    }
+
+    /**
+     * Starts a session on a host: connects, negotiates SSL, authenticates and reads the startup
+     * parameters. The stream is closed if any of that fails.
+     *
+     * @param attempt connection attempt the connection is made for, its
+     *     <code>startupSettings</code> tell whether to send the settings that need a 9.0 server
+     */
+    private CompletableFuture<QueryExecutor> startSession(Vertx vertx, NetClient netClient, HostSpec hostSpec,
+            String user, String database, Properties info, boolean trySSL, boolean requireSSL, int connectTimeout,
+            HostAttempt attempt) throws IOException, SQLException, InterruptedException, ExecutionException {
+        long start = System.nanoTime();
+        PGStream newStream = null;
+        try {
+            // the connection stays on this event loop from now on
+            Context context = VertxHelper.newEventLoopContext(vertx);
+            NetSocket netSocket = await(VertxHelper.vertxTCompletableFuture(context,
+                    h -> netClient.connect(hostSpec.getPort(), hostSpec.getHost(), h)));
+            newStream = new PGStream(netClient, context, netSocket, hostSpec, connectTimeout);
+            trackStream(attempt, newStream);
+
+            // Construct and send an ssl startup packet if requested.
+            if (trySSL) {
+                newStream = await(enableSSL(newStream, requireSSL, info, connectTimeout));
+                trackStream(attempt, newStream);
+            }
+
+            int readBufferHighWatermark = PGProperty.READ_BUFFER_HIGH_WATERMARK.getInt(info);
+            int readBufferLowWatermark = PGProperty.READ_BUFFER_LOW_WATERMARK.getInt(info);
+            if (readBufferHighWatermark > 0 && readBufferLowWatermark > readBufferHighWatermark) {
+                LOGGER.log(Level.WARNING, "readBufferLowWatermark {0} is above readBufferHighWatermark, using {1}",
+                        new Object[]{readBufferLowWatermark, readBufferHighWatermark / 2});
+                readBufferLowWatermark = readBufferHighWatermark / 2;
+            }
+            newStream.setReadBufferWatermarks(Math.max(readBufferHighWatermark, 0), Math.max(readBufferLowWatermark, 0));
+
+            List<String[]> paramList = getParametersForStartup(user, database, info, attempt.startupSettings);
+            sendStartupPacket(newStream, paramList);
+
+            // Do authentication (until AuthenticationOk).
+            await(doAuthentication(newStream, hostSpec.getHost(), user, info));
+
+            int cancelSignalTimeout = PGProperty.CANCEL_SIGNAL_TIMEOUT.getInt(info) * 1000;
+
+            // Do final startup.
+            QueryExecutor queryExecutor = await(QueryExecutorImpl.getQueryExecutorInstance(newStream, user, database,
+                    cancelSignalTimeout, info));
+            GlobalHostStatusTracker.getHostLoad(hostSpec).connected(System.nanoTime() - start);
+            return CompletableFuture.completedFuture(queryExecutor);
+        } catch (IOException | SQLException | InterruptedException | ExecutionException | RuntimeException e) {
+            closeStream(newStream);
+            throw e;
+        }
+    }
+
+    private static void trackStream(HostAttempt attempt, PGStream stream) throws IOException {
+        if (attempt != null && !attempt.setStream(stream)) {
+            throw new IOException("Connection attempt to " + attempt.hostSpec + " was cancelled");
+        }
+    }
+
+    private static void closeQueryExecutor(QueryExecutor queryExecutor) {
+        if (queryExecutor != null) {
+            queryExecutor.close();
+        }
+    }
+
+    /**
+     * Connects to the candidate hosts in parallel, see {@link PGProperty#PARALLEL_CONNECT_DELAY}.
+     */
+    private CompletableFuture<QueryExecutor> openConnectionInParallel(HostChooser hostChooser, int delay,
+            Vertx vertx, NetClient netClient, String user, String database, Properties info, boolean trySSL,
+            boolean requireSSL, int connectTimeout, HostRequirement targetServerType) throws SQLException {
+        List<CandidateHost> candidates = new ArrayList<CandidateHost>();
+        for (CandidateHost candidateHost : hostChooser) {
+            candidates.add(candidateHost);
+        }
+
+        HostRace race = new HostRace(candidates, delay, vertx, netClient, user, database, info, trySSL,
+                requireSSL, connectTimeout);
+        HostAttempt winner;
+        try {
+            winner = await(race.start());
+        } catch (Exception e) {
+            if (e instanceof UnsupportedProtocolException) {
+                // Swallow this and return null so ConnectionFactory tries the next protocol.
+                LOGGER.log(Level.SEVERE, "Protocol not supported, abandoning connection.", e);
+                return null;
+            }
+            throw e;
+        }
+        if (winner == null) {
+            throw new PSQLException(GT
+                    .tr("Could not find a server with specified targetServerType: {0}", targetServerType),
+                    PSQLState.CONNECTION_UNABLE_TO_CONNECT);
+        }
+
+        QueryExecutor queryExecutor = winner.queryExecutor;
+        if (!winner.startupSettings) {
+            try {
+                await(runInitialQueries(queryExecutor, info));
+            } catch (SQLException | RuntimeException e) {
+                queryExecutor.close();
+                throw e;
+            }
+        }
+        return CompletableFuture.completedFuture(queryExecutor);
+    }
+
+    /**
+     * Connection attempt to one host, alone or as part of a {@link HostRace}.
+     */
+    private class HostAttempt {
+        final HostSpec hostSpec;
+        boolean checkRole;
+        // whether the settings that need a 9.0 server were sent in the StartupMessage
+        boolean startupSettings;
+        boolean started;
+        boolean done;
+        QueryExecutor queryExecutor;
+        HostStatus hostStatus;
+        private PGStream stream;
+        private boolean cancelled;
+
+        HostAttempt(HostSpec hostSpec) {
+            this.hostSpec = hostSpec;
+        }
+
+        synchronized boolean setStream(PGStream stream) {
+            this.stream = stream;
+            return !cancelled;
+        }
+
+        synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Aborts the attempt by closing its socket, the attempt then fails with an IOException.
+         */
+        synchronized void cancel() {
+            cancelled = true;
+            closeStream(stream);
+        }
+    }
+
+    /**
+     * Connects to several hosts at once and keeps the first connection that satisfies the
+     * {@link HostRequirement} of its candidate. The attempts are started in the order of the host
+     * chooser, each one <code>delay</code> milliseconds after the previous one or as soon as the
+     * previous one failed. A connection to a candidate only wins once no earlier candidate with a
+     * different requirement is still pending, so <code>preferSecondary</code> still waits for the
+     * secondaries before falling back to the master. The attempts that lose are cancelled.
+     */
+    private class HostRace {
+        private final List<CandidateHost> candidates;
+        private final Map<HostSpec, HostAttempt> attempts = new LinkedHashMap<HostSpec, HostAttempt>();
+        private final List<HostAttempt> order;
+        private final int delay;
+        private final Vertx vertx;
+        private final NetClient netClient;
+        private final String user;
+        private final String database;
+        private final Properties info;
+        private final boolean trySSL;
+        private final boolean requireSSL;
+        private final int connectTimeout;
+        private final CompletableFuture<HostAttempt> result = new CompletableFuture<HostAttempt>();
+
+        // guarded by this
+        private int next;
+        private long timerId = -1;
+        private boolean decided;
+        private HostSpec lastFailedHost;
+        private Throwable lastError;
+
+        HostRace(List<CandidateHost> candidates, int delay, Vertx vertx, NetClient netClient, String user,
+                String database, Properties info, boolean trySSL, boolean requireSSL, int connectTimeout) {
+            this.candidates = candidates;
+            this.delay = delay;
+            this.vertx = vertx;
+            this.netClient = netClient;
+            this.user = user;
+            this.database = database;
+            this.info = info;
+            this.trySSL = trySSL;
+            this.requireSSL = requireSSL;
+            this.connectTimeout = connectTimeout;
+            for (CandidateHost candidateHost : candidates) {
+                HostAttempt attempt = attempts.get(candidateHost.hostSpec);
+                if (attempt == null) {
+                    attempt = new HostAttempt(candidateHost.hostSpec);
+                    attempts.put(candidateHost.hostSpec, attempt);
+                }
+                attempt.checkRole |= candidateHost.targetServerType != HostRequirement.any;
+            }
+            this.order = new ArrayList<HostAttempt>(attempts.values());
+        }
+
+        /**
+         * @return the winning attempt, null if no host has the required type, failed with the
+         *     error of the last failed attempt if no host could be connected to
+         */
+        CompletableFuture<HostAttempt> start() {
+            if (order.isEmpty()) {
+                result.complete(null);
+            } else if (delay == 0) {
+                for (int i = 0; i < order.size(); i++) {
+                    startNext();
+                }
+            } else {
+                startNext();
+            }
+            return result;
+        }
+
+        private void startNext() {
+            HostAttempt attempt;
+            synchronized (this) {
+                if (timerId != -1) {
+                    vertx.cancelTimer(timerId);
+                    timerId = -1;
+                }
+                if (decided || next == order.size()) {
+                    return;
+                }
+                attempt = order.get(next++);
+                attempt.started = true;
+                if (delay > 0 && next < order.size()) {
+                    timerId = vertx.setTimer(delay, ignored -> {
+                        synchronized (this) {
+                            timerId = -1;
+                        }
+                        startNext();
+                    });
+                }
+            }
+
+            CompletableFuture<Void> connected;
+            try {
+                connected = connect(attempt);
+            } catch (Throwable t) {
+                connected = new CompletableFuture<Void>();
+                connected.completeExceptionally(t);
+            }
+            connected.whenComplete((ignored, error) -> {
+                if (error != null) {
+                    finished(attempt, null, null, error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                }
+            });
+        }
+
+        private CompletableFuture<Void> connect(HostAttempt attempt)
+                throws IOException, SQLException, InterruptedException, ExecutionException {
+            HostSpec hostSpec = attempt.hostSpec;
+            LOGGER.log(Level.FINE, "Trying to establish a protocol version 3 connection to {0}", hostSpec);
+
+            QueryExecutor queryExecutor = await(openQueryExecutor(vertx, netClient, hostSpec, user, database, info,
+                    trySSL, requireSSL, connectTimeout, attempt));
+            HostStatus hostStatus = HostStatus.ConnectOK;
+            try {
+                if (attempt.checkRole) {
+                    hostStatus = await(isMaster(queryExecutor)) ? HostStatus.Master : HostStatus.Secondary;
+                }
+            } catch (IOException | SQLException | RuntimeException e) {
+                queryExecutor.close();
+                throw e;
+            }
+            finished(attempt, queryExecutor, hostStatus, null);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        private void finished(HostAttempt attempt, QueryExecutor queryExecutor, HostStatus hostStatus,
+                Throwable error) {
+            if (attempt.isCancelled()) {
+                closeQueryExecutor(queryExecutor);
+                return;
+            }
+            if (error != null) {
+                log(Level.WARNING, "Exception occurred while connecting to {0}", error, attempt.hostSpec);
+                if (!(error instanceof UnsupportedProtocolException)) {
+                    GlobalHostStatusTracker.reportHostStatus(attempt.hostSpec, HostStatus.ConnectFail);
+                }
+            } else {
+                GlobalHostStatusTracker.reportHostStatus(attempt.hostSpec, hostStatus);
+            }
+
+            HostAttempt winner;
+            List<HostAttempt> losers = new ArrayList<HostAttempt>();
+            boolean exhausted;
+            synchronized (this) {
+                attempt.done = true;
+                attempt.queryExecutor = queryExecutor;
+                attempt.hostStatus = hostStatus;
+                if (error != null) {
+                    lastFailedHost = attempt.hostSpec;
+                    lastError = error;
+                }
+                if (decided) {
+                    winner = null;
+                    exhausted = false;
+                    losers.add(attempt);
+                } else {
+                    winner = findWinner();
+                    exhausted = winner == null && allDone();
+                    if (winner != null || exhausted) {
+                        decided = true;
+                        if (timerId != -1) {
+                            vertx.cancelTimer(timerId);
+                            timerId = -1;
+                        }
+                        for (HostAttempt other : order) {
+                            if (other != winner) {
+                                losers.add(other);
+                            }
+                        }
+                    }
+                }
+            }
+
+            for (HostAttempt loser : losers) {
+                if (loser.done) {
+                    closeQueryExecutor(loser.queryExecutor);
+                } else if (loser.started) {
+                    loser.cancel();
+                }
+            }
+
+            if (winner != null) {
+                result.complete(winner);
+            } else if (exhausted) {
+                if (lastError != null && !hasConnected()) {
+                    result.completeExceptionally(connectionFailure(lastFailedHost, lastError));
+                } else {
+                    result.complete(null);
+                }
+            } else {
+                // this host did not qualify, do not wait for the delay to try the next one
+                startNext();
+            }
+        }
+
+        // must be called with this locked
+        private HostAttempt findWinner() {
+            EnumSet<HostRequirement> pending = EnumSet.noneOf(HostRequirement.class);
+            for (CandidateHost candidateHost : candidates) {
+                HostAttempt attempt = attempts.get(candidateHost.hostSpec);
+                if (!attempt.done) {
+                    pending.add(candidateHost.targetServerType);
+                } else if (attempt.queryExecutor != null
+                        && candidateHost.targetServerType.allowConnectingTo(attempt.hostStatus)
+                        && (pending.isEmpty() || pending.equals(EnumSet.of(candidateHost.targetServerType)))) {
+                    return attempt;
+                }
+            }
+            return null;
+        }
+
+        // must be called with this locked
+        private boolean allDone() {
+            for (HostAttempt attempt : order) {
+                if (!attempt.done) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // must be called once decided, when the attempts no longer change
+        private boolean hasConnected() {
+            for (HostAttempt attempt : order) {
+                if (attempt.hostStatus != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Checks that a host accepts connections for {@link HostProber}. The host is only sent an
+     * SSLRequest, so the probe needs no credentials and does not learn the role of the server.
+     *
+     * @param timeout milliseconds after which the probe is aborted
+     * @return completed when the host answered, failed if it cannot be connected to
+     */
+    CompletableFuture<Void> probeHost(Vertx vertx, NetClient netClient, HostSpec hostSpec, int timeout)
+            throws IOException {
+        HostAttempt attempt = new HostAttempt(hostSpec);
+        long timerId = vertx.setTimer(timeout, ignored -> attempt.cancel());
+        try {
+            await(ping(vertx, netClient, hostSpec, attempt));
+            return CompletableFuture.completedFuture(null);
+        } finally {
+            vertx.cancelTimer(timerId);
+        }
+    }
+
+    /**
+     * Checks that the postmaster of a host accepts connections, without starting a session: it
+     * answers an SSLRequest before any authentication. When it accepts SSL the handshake is done,
+     * since the postmaster logs a connection that is closed in the middle of it.
+     */
+    private CompletableFuture<Void> ping(Vertx vertx, NetClient netClient, HostSpec hostSpec, HostAttempt attempt)
+            throws IOException {
+        Context context = VertxHelper.newEventLoopContext(vertx);
+        NetSocket netSocket = await(VertxHelper.vertxTCompletableFuture(context,
+                h -> netClient.connect(hostSpec.getPort(), hostSpec.getHost(), h)));
+        PGStream stream = new PGStream(netClient, context, netSocket, hostSpec, 0);
+        try {
+            trackStream(attempt, stream);
+            stream.sendInteger4(8);
+            stream.sendInteger2(1234);
+            stream.sendInteger2(5679);
+            stream.flush();
+
+            int response = await(stream.receiveChar());
+            if (response == 'S') {
+                await(stream.upgradeToSsl());
+            } else if (response != 'N' && response != 'E') {
+                throw new IOException("Unexpected response to SSLRequest: " + response);
+            }
+            return CompletableFuture.completedFuture(null);
+        } finally {
+            closeStream(stream);
+        }
+    }
+
+    /**
+     * Translates the failure of a connection attempt to the exception the sequential connection
+     * logic reports for it.
+     */
+    private static Exception connectionFailure(HostSpec hostSpec, Throwable error) {
+        if (error instanceof UnsupportedProtocolException || error instanceof SQLException) {
+            return (Exception) error;
+        }
+        if (error instanceof ConnectException) {
+            return new PSQLException(GT.tr(
+                    "Connection to {0} refused. Check that the hostname and port are correct and that the postmaster is accepting TCP/IP connections.",
+                    hostSpec), PSQLState.CONNECTION_UNABLE_TO_CONNECT, error);
+        }
+        return new PSQLException(GT.tr("The connection attempt failed."),
+                PSQLState.CONNECTION_UNABLE_TO_CONNECT, error);
+    }
+
+    private List<String[]> getParametersForStartup(String user, String database, Properties info,
+            boolean startupSettings) {
         List<String[]> paramList = new ArrayList<String[]>();
         paramList.add(new String[]{"user", user});
         paramList.add(new String[]{"database", database});
@@ -291,8 +766,9 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
 
         Version assumeVersion = ServerVersion.from(PGProperty.ASSUME_MIN_SERVER_VERSION.get(info));
 
-        if (assumeVersion.getVersionNum() >= ServerVersion.v9_0.getVersionNum()) {
-            // User is explicitly telling us this is a 9.0+ server so set properties here:
+        if (startupSettings) {
+            // User is explicitly telling us this is a 9.0+ server, or an earlier connection
+            // found it is, so set properties here:
             paramList.add(new String[]{"extra_float_digits", "3"});
             String appName = PGProperty.APPLICATION_NAME.get(info);
             if (appName != null) {
@@ -380,9 +856,10 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
                 // We have to reconnect to continue.
                 pgStream.close();
                 NetSocket netSocket = await(VertxHelper
-                        .vertxTCompletableFuture(
+                        .vertxTCompletableFuture(pgStream.getContext(),
                                 h -> pgStream.getNetClient().connect(pgStream.getHostSpec().getPort(), pgStream.getHostSpec().getHost(), h)));
-                return CompletableFuture.completedFuture(new PGStream(pgStream.getNetClient(), netSocket, pgStream.getHostSpec(), connectTimeout));
+                return CompletableFuture.completedFuture(new PGStream(pgStream.getNetClient(), pgStream.getContext(),
+                        netSocket, pgStream.getHostSpec(), connectTimeout));
 
             case 'N':
                 LOGGER.log(Level.FINEST, " <=BE SSLRefused");
@@ -399,10 +876,21 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
                 LOGGER.log(Level.FINEST, " <=BE SSLOk");
 
                 // Server supports ssl
-                //org.postgresql.ssl.MakeSSL.convert(pgStream, info);
-                CompletableFuture<Void> upgradeResult = new CompletableFuture<>();
-                pgStream.getNetSocket().upgradeToSsl(ignored -> upgradeResult.complete(null));
-                return upgradeResult.thenApply(ignored -> pgStream);
+                try {
+                    await(pgStream.upgradeToSsl());
+                } catch (Exception e) {
+                    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                        if (cause instanceof PSQLException) {
+                            // e.g. the root certificate could not be loaded
+                            throw (PSQLException) cause;
+                        }
+                    }
+                    throw new PSQLException(GT.tr("SSL error: {0}", e.getMessage()),
+                            PSQLState.CONNECTION_FAILURE, e);
+                }
+                SslNetClientOptions.verifyHostname(pgStream.getHostSpec().getHost(),
+                        pgStream.getNetSocket().sslSession(), info);
+                return CompletableFuture.completedFuture(pgStream);
 
             default:
                 throw new PSQLException(GT.tr("An error occurred while setting up the SSL connection."),
@@ -691,26 +1179,20 @@ public class ConnectionFactoryImpl extends ConnectionFactory {
 
     private CompletableFuture<Void> runInitialQueries(QueryExecutor queryExecutor, Properties info)
             throws SQLException {
-        String assumeMinServerVersion = PGProperty.ASSUME_MIN_SERVER_VERSION.get(info);
-        if (Utils.parseServerVersionStr(assumeMinServerVersion) >= ServerVersion.v9_0.getVersionNum()) {
-            // We already sent the parameter values in the StartupMessage so skip this
-            return CompletableFuture.completedFuture(null);
-        }
-
         final int dbVersion = queryExecutor.getServerVersionNum();
-
-        if (dbVersion >= ServerVersion.v9_0.getVersionNum()) {
-            await(SetupQueryRunner.run(queryExecutor, "SET extra_float_digits = 3", false));
+        if (dbVersion < ServerVersion.v9_0.getVersionNum()) {
+            return CompletableFuture.completedFuture(null);
         }
 
+        // Both settings go in a single round trip
+        StringBuilder sql = new StringBuilder("SET extra_float_digits = 3");
         String appName = PGProperty.APPLICATION_NAME.get(info);
-        if (appName != null && dbVersion >= ServerVersion.v9_0.getVersionNum()) {
-            StringBuilder sql = new StringBuilder();
-            sql.append("SET application_name = '");
+        if (appName != null) {
+            sql.append("; SET application_name = '");
             Utils.escapeLiteral(sql, appName, queryExecutor.getStandardConformingStrings());
             sql.append("'");
-            await(SetupQueryRunner.run(queryExecutor, sql.toString(), false));
         }
+        await(SetupQueryRunner.run(queryExecutor, sql.toString(), false));
         return CompletableFuture.completedFuture(null);
     }
 
@@ -0,0 +1,169 @@
+package org.postgresql.core.v3;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.net.NetClient;
+import org.postgresql.PGProperty;
+import org.postgresql.hostchooser.GlobalHostStatusTracker;
+import org.postgresql.hostchooser.HostStatus;
+import org.postgresql.util.HostSpec;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Refreshes the status of the hosts of multi-host URLs in the background, see
+ * {@link PGProperty#HOST_PROBE_INTERVAL}. A connection attempt then finds a host that went down
+ * or came back in {@link GlobalHostStatusTracker} instead of discovering it inline.
+ * <p>
+ * The probes run on timers of the Vert.x instance of the connections. A host is probed for as long
+ * as connections to it keep being opened, and dropped after {@link #IDLE_PROBES} intervals without
+ * any. A probe only sends an SSLRequest, which the postmaster answers before any authentication,
+ * so no credentials are kept: the role of a server is still learned by the connections to it. A
+ * probe whose Vert.x instance was closed is dropped, and replaced by the next connection.
+ */
+final class HostProber {
+
+    private static final Logger LOGGER = Logger.getLogger(HostProber.class.getName());
+
+    /**
+     * Number of intervals without a connection after which a host is no longer probed, or a
+     * shorter interval is no longer used.
+     */
+    private static final int IDLE_PROBES = 10;
+
+    private static final ConcurrentMap<HostSpec, Probe> probes = new ConcurrentHashMap<HostSpec, Probe>();
+
+    private HostProber() {
+    }
+
+    /**
+     * Starts probing the hosts, or keeps probing them with the latest settings.
+     *
+     * @param interval milliseconds between two probes of a host
+     * @param timeout milliseconds a probe may take
+     */
+    static void register(HostSpec[] hostSpecs, Vertx vertx, NetClient netClient, long interval, int timeout) {
+        for (HostSpec hostSpec : hostSpecs) {
+            while (true) {
+                Probe probe = probes.get(hostSpec);
+                if (probe == null) {
+                    Probe created = new Probe(hostSpec);
+                    probe = probes.putIfAbsent(hostSpec, created);
+                    if (probe == null) {
+                        probe = created;
+                    }
+                }
+                if (probe.touch(vertx, netClient, interval, timeout)) {
+                    break;
+                }
+                // the probe just expired
+                probes.remove(hostSpec, probe);
+            }
+        }
+    }
+
+    private static final class Probe {
+        private final HostSpec hostSpec;
+        private final ConnectionFactoryImpl connectionFactory = new ConnectionFactoryImpl();
+
+        // guarded by this
+        private Vertx vertx;
+        private NetClient netClient;
+        private long interval = Long.MAX_VALUE;
+        private long intervalUsed;
+        private int timeout;
+        private long lastUsed;
+        private boolean scheduled;
+        private boolean expired;
+
+        Probe(HostSpec hostSpec) {
+            this.hostSpec = hostSpec;
+        }
+
+        /**
+         * @return false if the probe has expired and has to be replaced
+         */
+        synchronized boolean touch(Vertx vertx, NetClient netClient, long interval, int timeout) {
+            if (expired) {
+                return false;
+            }
+            long now = System.nanoTime();
+            // the shortest interval wins while connections keep asking for it
+            if (interval <= this.interval || now - intervalUsed > IDLE_PROBES * this.interval * 1000000L) {
+                this.interval = interval;
+                this.intervalUsed = now;
+            }
+            this.vertx = vertx;
+            this.netClient = netClient;
+            this.timeout = timeout;
+            this.lastUsed = now;
+            if (!scheduled) {
+                try {
+                    vertx.setTimer(interval, ignored -> run());
+                    scheduled = true;
+                } catch (RuntimeException e) {
+                    // e.g. the Vert.x instance is closed, the next connection schedules the probe
+                    LOGGER.log(Level.FINE, "Probe of host " + hostSpec + " cannot be scheduled", e);
+                }
+            }
+            return true;
+        }
+
+        private void run() {
+            Vertx vertx;
+            NetClient netClient;
+            int timeout;
+            boolean expired;
+            synchronized (this) {
+                if (System.nanoTime() - lastUsed > IDLE_PROBES * interval * 1000000L) {
+                    this.expired = true;
+                }
+                expired = this.expired;
+                vertx = this.vertx;
+                netClient = this.netClient;
+                timeout = this.timeout;
+            }
+            if (expired) {
+                expire();
+                return;
+            }
+
+            CompletableFuture<Void> reachable;
+            try {
+                reachable = connectionFactory.probeHost(vertx, netClient, hostSpec, timeout);
+            } catch (Throwable t) {
+                reachable = new CompletableFuture<Void>();
+                reachable.completeExceptionally(t);
+            }
+            reachable.whenComplete((ignored, error) -> {
+                if (error != null) {
+                    LOGGER.log(Level.FINE, "Probe of host " + hostSpec + " failed", error);
+                    GlobalHostStatusTracker.reportHostStatus(hostSpec, HostStatus.ConnectFail);
+                } else {
+                    GlobalHostStatusTracker.reportHostReachable(hostSpec);
+                }
+                long delay;
+                synchronized (this) {
+                    delay = interval;
+                }
+                try {
+                    vertx.setTimer(delay, timer -> run());
+                } catch (RuntimeException e) {
+                    // the Vert.x instance was closed, the next connection registers a new probe
+                    LOGGER.log(Level.FINE, "Probe of host " + hostSpec + " cannot be rescheduled", e);
+                    expire();
+                }
+            });
+        }
+
+        private void expire() {
+            synchronized (this) {
+                expired = true;
+            }
+            probes.remove(hostSpec, this);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.postgresql.core.v3;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.net.NetClient;
+import io.vertx.core.net.NetClientOptions;
+import org.postgresql.PGProperty;
+import org.postgresql.ssl.SslNetClientOptions;
+import org.postgresql.util.PSQLException;
+
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * NetClients shared by the connections with the same socket settings on the same Vert.x instance.
+ * Besides saving a client per connection, sharing the client shares its TLS context, whose session
+ * cache lets a new connection to a host resume an earlier TLS session instead of doing a full
+ * handshake.
+ */
+final class NetClients {
+
+    private static final Logger LOGGER = Logger.getLogger(NetClients.class.getName());
+
+    private static final ConcurrentMap<Vertx, ConcurrentMap<NetClientOptions, NetClient>> clients =
+            new ConcurrentHashMap<Vertx, ConcurrentMap<NetClientOptions, NetClient>>();
+
+    private NetClients() {
+    }
+
+    /**
+     * @param vertx the Vert.x instance of the connection
+     * @param info the connection parameters
+     * @return the NetClient for the settings of the connection
+     * @throws PSQLException if the settings are invalid
+     */
+    static NetClient get(Vertx vertx, Properties info) throws PSQLException {
+        NetClientOptions options = new NetClientOptions();
+        options.setTcpKeepAlive(PGProperty.TCP_KEEP_ALIVE.getBoolean(info));
+
+        int connectTimeout = PGProperty.CONNECT_TIMEOUT.getInt(info);
+        if (connectTimeout > 0) {
+            options.setConnectTimeout(connectTimeout * 1000);
+        }
+
+        // Try to set SO_SNDBUF and SO_RECVBUF socket options, if requested.
+        // If receiveBufferSize and send_buffer_size are set to a value greater
+        // than 0, adjust. -1 means use the system default, 0 is ignored since not
+        // supported.
+
+        // Set SO_RECVBUF read buffer size
+        int receiveBufferSize = PGProperty.RECEIVE_BUFFER_SIZE.getInt(info);
+        if (receiveBufferSize > -1) {
+            // value of 0 not a valid buffer size value
+            if (receiveBufferSize > 0) {
+                options.setReceiveBufferSize(receiveBufferSize);
+            } else {
+                LOGGER.log(Level.WARNING, "Ignore invalid value for receiveBufferSize: {0}", receiveBufferSize);
+            }
+        }
+
+        // Set SO_SNDBUF write buffer size
+        int sendBufferSize = PGProperty.SEND_BUFFER_SIZE.getInt(info);
+        if (sendBufferSize > -1) {
+            if (sendBufferSize > 0) {
+                options.setSendBufferSize(sendBufferSize);
+            } else {
+                LOGGER.log(Level.WARNING, "Ignore invalid value for sendBufferSize: {0}", sendBufferSize);
+            }
+        }
+
+        SslNetClientOptions.configure(options, info);
+
+        ConcurrentMap<NetClientOptions, NetClient> vertxClients = clients.get(vertx);
+        if (vertxClients == null) {
+            ConcurrentMap<NetClientOptions, NetClient> created = new ConcurrentHashMap<NetClientOptions, NetClient>();
+            vertxClients = clients.putIfAbsent(vertx, created);
+            if (vertxClients == null) {
+                vertxClients = created;
+            }
+        }
+
+        NetClient client = vertxClients.get(options);
+        if (client == null) {
+            NetClient created = vertx.createNetClient(options);
+            client = vertxClients.putIfAbsent(options, created);
+            if (client == null) {
+                LOGGER.log(Level.FINE, "Receive Buffer Size is {0}, Send Buffer Size is {1}",
+                        new Object[]{receiveBufferSize, sendBufferSize});
+                client = created;
+            } else {
+                created.close();
+            }
+        }
+        return client;
+    }
+}
@@ -25,6 +25,7 @@ class Portal implements ResultCursor {
   }
 
   public void close() {
+    closed = true;
     if (cleanupRef != null) {
       cleanupRef.clear();
       cleanupRef.enqueue();
@@ -32,6 +33,14 @@ class Portal implements ResultCursor {
     }
   }
 
+  /**
+   * @return true once the portal has run to completion or has been closed by its
+   *     result set, after which fetching from it returns no rows
+   */
+  boolean isClosed() {
+    return closed;
+  }
+
   String getPortalName() {
     return portalName;
   }
@@ -62,4 +71,5 @@ class Portal implements ResultCursor {
   private final String portalName;
   private final byte[] encodedName;
   private PhantomReference<?> cleanupRef;
+  private volatile boolean closed;
 }
@@ -30,12 +30,17 @@ import org.postgresql.core.ResultHandlerDelegate;
 import org.postgresql.core.SqlCommand;
 import org.postgresql.core.SqlCommandType;
 import org.postgresql.core.TransactionState;
+import org.postgresql.core.TupleSlab;
 import org.postgresql.core.Utils;
 import org.postgresql.core.v3.replication.V3ReplicationProtocol;
+import org.postgresql.hostchooser.GlobalHostStatusTracker;
+import org.postgresql.hostchooser.HostLoad;
 import org.postgresql.jdbc.AutoSave;
 import org.postgresql.jdbc.BatchResultHandler;
 import org.postgresql.jdbc.TimestampUtils;
+import org.postgresql.jdbc.TypeRegistry;
 import org.postgresql.jdbc.VxBatchResultHandler;
+import org.postgresql.util.AsyncLock;
 import org.postgresql.util.GT;
 import org.postgresql.util.PSQLException;
 import org.postgresql.util.PSQLState;
@@ -61,7 +66,10 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
@@ -128,12 +136,21 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 
 	private final ReplicationProtocol replicationProtocol;
 
+	/**
+	 * Load statistics of the host, updated with every request for load balancing.
+	 */
+	private final HostLoad hostLoad;
+
 	private QueryExecutorImpl(PGStream pgStream, String user, String database, int cancelSignalTimeout, Properties info)
 			throws SQLException, IOException {
 		super(pgStream, user, database, cancelSignalTimeout, info);
 
+		this.connectionLock = new AsyncLock(pgStream.getContext());
 		this.allowEncodingChanges = PGProperty.ALLOW_ENCODING_CHANGES.getBoolean(info);
+		this.pipelineQueries = PGProperty.PIPELINE_QUERIES.getBoolean(info);
+		this.connectionLockTimeout = Math.max(0, PGProperty.CONNECTION_LOCK_TIMEOUT.getInt(info));
 		this.replicationProtocol = new V3ReplicationProtocol(this, pgStream);
+		this.hostLoad = GlobalHostStatusTracker.getHostLoad(pgStream.getHostSpec());
 //		await(readStartupMessages());
 	}
 
@@ -151,69 +168,99 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 	}
 
 	/**
-	 * Supplement to synchronization of public methods on current QueryExecutor.
-	 *
-	 * Necessary for keeping the connection intact between calls to public methods
-	 * sharing a state such as COPY subprotocol. waitOnLock() must be called at
-	 * beginning of each connection access point.
+	 * Serializes access to the connection without blocking threads, as the public
+	 * methods suspend on the event loop while waiting for the backend. A request
+	 * holds it while writing its messages and, unless it is pipelined, until it
+	 * has read its responses. A COPY operation holds it from startCopy until the
+	 * end of the COPY subprotocol, see {@link #lock(Object, long)}.
+	 */
+	private final AsyncLock connectionLock;
+
+	/**
+	 * Milliseconds a request waits for {@link #connectionLock} at most, 0 to wait
+	 * as long as needed.
+	 */
+	private final long connectionLockTimeout;
+
+	/**
+	 * Acquires {@link #connectionLock}, without allocating anything if it is free.
 	 *
-	 * Public methods sharing that state must then be synchronized among themselves.
-	 * Normal method synchronization typically suffices for that.
+	 * @return the token to release the lock with
+	 * @throws SQLException
+	 *             if the lock could not be acquired within the connectionLockTimeout
+	 */
+	private CompletableFuture<Long> lockConnection() throws SQLException {
+		long lockToken = connectionLock.tryLock();
+		if (lockToken == AsyncLock.NO_TOKEN) {
+			try {
+				lockToken = await(connectionLock.lock(connectionLockTimeout, TimeUnit.MILLISECONDS));
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof TimeoutException) {
+					throw new PSQLException(
+							GT.tr("Timed out after {0} ms waiting for the connection to become available.",
+									connectionLockTimeout),
+							PSQLState.QUERY_CANCELED, e.getCause());
+				}
+				throw e;
+			}
+		}
+		return CompletableFuture.completedFuture(lockToken);
+	}
+
+	@Override
+	public AsyncLock.Statistics getConnectionLockStatistics() {
+		return connectionLock.getStatistics();
+	}
+
+	/**
+	 * COPY operation currently holding {@link #connectionLock}, if any.
 	 *
 	 * See notes on related methods as well as currentCopy() below.
 	 */
 	private Object lockedFor = null;
 
 	/**
-	 * Obtain lock over this connection for given object, blocking to wait if
-	 * necessary.
+	 * Token of {@link #connectionLock} held by {@link #lockedFor}.
+	 */
+	private long lockedForToken = AsyncLock.NO_TOKEN;
+
+	/**
+	 * Hands the connection lock acquired by the caller over to the given object,
+	 * which keeps it across calls until {@link #unlock(Object)}.
 	 *
 	 * @param obtainer
-	 *            object that gets the lock. Normally current thread.
+	 *            object that gets the lock. Normally a copy operation.
+	 * @param token
+	 *            token of the connection lock held by the caller
 	 * @throws PSQLException
-	 *             when already holding the lock or getting interrupted.
+	 *             when already holding the lock
 	 */
-	private void lock(Object obtainer) throws PSQLException {
+	private void lock(Object obtainer, long token) throws PSQLException {
 		if (lockedFor == obtainer) {
 			throw new PSQLException(GT.tr("Tried to obtain lock while already holding it"),
 					PSQLState.OBJECT_NOT_IN_STATE);
 
 		}
-		waitOnLock();
 		lockedFor = obtainer;
+		lockedForToken = token;
 	}
 
 	/**
 	 * Release lock on this connection presumably held by given object.
 	 *
 	 * @param holder
-	 *            object that holds the lock. Normally current thread.
+	 *            object that holds the lock. Normally a copy operation.
 	 * @throws PSQLException
-	 *             when this thread does not hold the lock
+	 *             when the object does not hold the lock
 	 */
 	private void unlock(Object holder) throws PSQLException {
 		if (lockedFor != holder) {
 			throw new PSQLException(GT.tr("Tried to break lock on database connection"), PSQLState.OBJECT_NOT_IN_STATE);
 		}
+		long token = lockedForToken;
 		lockedFor = null;
-		this.notify();
-	}
-
-	/**
-	 * Wait until our lock is released. Execution of a single synchronized method
-	 * can then continue without further ado. Must be called at beginning of each
-	 * synchronized public method.
-	 */
-	private void waitOnLock() throws PSQLException {
-		while (lockedFor != null) {
-			try {
-				this.wait();
-			} catch (InterruptedException ie) {
-				Thread.currentThread().interrupt();
-				throw new PSQLException(GT.tr("Interrupted while waiting to obtain lock on database connection"),
-						PSQLState.OBJECT_NOT_IN_STATE, ie);
-			}
-		}
+		lockedForToken = AsyncLock.NO_TOKEN;
+		connectionLock.release(token);
 	}
 
 	/**
@@ -225,6 +272,55 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 		return lockedFor == holder;
 	}
 
+	/**
+	 * Position of a request in the order responses are read from the backend.
+	 */
+	private static final class ResponseTurn {
+		/**
+		 * Completes once the responses to all requests queued before this one have
+		 * been read.
+		 */
+		final CompletableFuture<Void> previous;
+
+		/**
+		 * Completed when this request is done reading, which lets the next one read.
+		 */
+		final CompletableFuture<Void> done = new CompletableFuture<Void>();
+
+		/**
+		 * When the request was queued, to measure its latency.
+		 */
+		final long startNanos = System.nanoTime();
+
+		ResponseTurn(CompletableFuture<Void> previous) {
+			this.previous = previous;
+		}
+	}
+
+	/**
+	 * Completes once all requests queued so far have read their responses.
+	 */
+	private CompletableFuture<Void> responseTail = CompletableFuture.completedFuture(null);
+
+	/**
+	 * Queues a request behind all requests issued so far. Must be called while
+	 * holding {@link #connectionLock}, so the queue order is the order in which the
+	 * requests are written. Each request must await {@link ResponseTurn#previous}
+	 * before reading from the backend and must release its turn with
+	 * {@link #leaveResponseQueue(ResponseTurn)} once done.
+	 */
+	private synchronized ResponseTurn enterResponseQueue() {
+		ResponseTurn turn = new ResponseTurn(responseTail);
+		responseTail = turn.done;
+		hostLoad.requestStarted();
+		return turn;
+	}
+
+	private synchronized void leaveResponseQueue(ResponseTurn turn) {
+		hostLoad.requestFinished(System.nanoTime() - turn.startNanos);
+		turn.done.complete(null);
+	}
+
 	//
 	// Query parsing
 	//
@@ -282,9 +378,8 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 		}
 	}
 
-	public synchronized CompletableFuture<Void> execute(Query query, ParameterList parameters, ResultHandler handler,
+	public CompletableFuture<Void> execute(Query query, ParameterList parameters, ResultHandler handler,
 			int maxRows, int fetchSize, int flags) throws SQLException {
-		waitOnLock();
 		if (LOGGER.isLoggable(Level.FINEST)) {
 			LOGGER.log(Level.FINEST, "  simple execute, handler={0}, maxRows={1}, fetchSize={2}, flags={3}",
 					new Object[] { handler, maxRows, fetchSize, flags });
@@ -305,57 +400,192 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 			((V3ParameterList) parameters).checkAllParametersSet();
 		}
 
+		long lockToken = await(lockConnection());
+		if (canPipeline(query, flags)) {
+			return executePipelined(lockToken, (SimpleQuery) query, (SimpleParameterList) parameters, handler, maxRows,
+					fetchSize, flags);
+		}
+
 		boolean autosave = false;
+		ResponseTurn turn = enterResponseQueue();
 		try {
+			await(turn.previous);
+			try {
+				try {
+					handler = sendQueryPreamble(handler, flags);
+					autosave = sendAutomaticSavepoint(query, flags);
+					await(sendQuery(query, (V3ParameterList) parameters, maxRows, fetchSize, flags, handler, null));
+					if ((flags & QueryExecutor.QUERY_EXECUTE_AS_SIMPLE) != 0) {
+						// Sync message is not required for 'Q' execution as 'Q' ends with ReadyForQuery
+						// message
+						// on its own
+					} else {
+						sendSync();
+					}
+					await(processResults(handler, flags));
+					estimatedReceiveBufferBytes = 0;
+				} catch (PGBindException se) {
+					// There are three causes of this error, an
+					// invalid total Bind message length, a
+					// BinaryStream that cannot provide the amount
+					// of data claimed by the length arugment, and
+					// a BinaryStream that throws an Exception
+					// when reading.
+					//
+					// We simply do not send the Execute message
+					// so we can just continue on as if nothing
+					// has happened. Perhaps we need to
+					// introduce an error here to force the
+					// caller to rollback if there is a
+					// transaction in progress?
+					//
+					sendSync();
+					await(processResults(handler, flags));
+					estimatedReceiveBufferBytes = 0;
+					handler.handleError(new PSQLException(GT.tr("Unable to bind parameter values for statement."),
+							PSQLState.INVALID_PARAMETER_VALUE, se.getIOException()));
+				}
+			} catch (IOException e) {
+				connectionLost(handler, e);
+			} catch (CompletionException e) {
+				connectionLost(handler, e);
+			}
+		} finally {
+			leaveResponseQueue(turn);
+			connectionLock.release(lockToken);
+		}
+
+		try {
+			handler.handleCompletion();
+		} catch (SQLException e) {
+			await(rollbackIfRequired(autosave, e));
+		}
+
+		return CompletableFuture.completedFuture(null);
+	}
+
+	/**
+	 * Checks whether a query can be written right away, ahead of the responses to
+	 * the requests that are still in flight. That is only done for stand-alone
+	 * statements outside a transaction, which need neither a BEGIN nor a savepoint
+	 * and hence do not depend on the state left behind by the requests before them.
+	 * <p>
+	 * The transaction state is read before the responses of the requests in flight
+	 * have been processed. It is only current because every request in flight is
+	 * either exclusive, and then done before the connection lock is granted, or a
+	 * pipelined DML statement or query, which neither starts nor ends a transaction.
+	 * The same restriction keeps COPY, whose sub-protocol writes to the backend
+	 * while the responses are processed, out of the pipeline.
+	 * <p>
+	 * A statement whose Parse is still in flight in another request is not
+	 * pipelined either: it is executed once that Parse is done, and parsed again if
+	 * it failed.
+	 */
+	private boolean canPipeline(Query query, int flags) {
+		return pipelineQueries
+				&& query.getSubqueries() == null
+				&& query instanceof SimpleQuery
+				&& isPipelinable(query.getSqlCommand())
+				&& !((SimpleQuery) query).isParseInFlight()
+				&& (flags & QueryExecutor.QUERY_SUPPRESS_BEGIN) != 0
+				&& getAutoSave() == AutoSave.NEVER
+				&& getTransactionState() == TransactionState.IDLE;
+	}
+
+	private static boolean isPipelinable(SqlCommand command) {
+		if (command == null) {
+			return false;
+		}
+		switch (command.getType()) {
+		case SELECT:
+		case INSERT:
+		case UPDATE:
+		case DELETE:
+		case WITH:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Writes and flushes the messages of a query immediately and releases the
+	 * connection lock, then waits for the responses to the requests written before
+	 * it and processes its own.
+	 *
+	 * @param lockToken
+	 *            token of the connection lock held by the caller
+	 */
+	private CompletableFuture<Void> executePipelined(long lockToken, SimpleQuery query, SimpleParameterList parameters,
+			ResultHandler handler, int maxRows, int fetchSize, int flags) throws SQLException {
+		ResponseTurn turn = enterResponseQueue();
+		PendingQueues queues = new PendingQueues();
+		try {
+			PGBindException bindException = null;
+			sending = queues;
 			try {
 				handler = sendQueryPreamble(handler, flags);
-				autosave = sendAutomaticSavepoint(query, flags);
-				await(sendQuery(query, (V3ParameterList) parameters, maxRows, fetchSize, flags, handler, null));
-				if ((flags & QueryExecutor.QUERY_EXECUTE_AS_SIMPLE) != 0) {
-					// Sync message is not required for 'Q' execution as 'Q' ends with ReadyForQuery
-					// message
-					// on its own
-				} else {
+				try {
+					sendOneQuery(query, parameters, maxRows, fetchSize, flags);
+				} catch (PGBindException se) {
+					// Nothing of the Bind has been written, the Sync below completes the request
+					bindException = se;
+				}
+				if (bindException != null || (flags & QueryExecutor.QUERY_EXECUTE_AS_SIMPLE) == 0) {
 					sendSync();
 				}
+			} finally {
+				sending = defaultQueues;
+				connectionLock.release(lockToken);
+			}
+
+			await(turn.previous);
+			receiving = queues;
+			try {
 				await(processResults(handler, flags));
-				estimatedReceiveBufferBytes = 0;
-			} catch (PGBindException se) {
-				// There are three causes of this error, an
-				// invalid total Bind message length, a
-				// BinaryStream that cannot provide the amount
-				// of data claimed by the length arugment, and
-				// a BinaryStream that throws an Exception
-				// when reading.
-				//
-				// We simply do not send the Execute message
-				// so we can just continue on as if nothing
-				// has happened. Perhaps we need to
-				// introduce an error here to force the
-				// caller to rollback if there is a
-				// transaction in progress?
-				//
-				sendSync();
-				await(processResults(handler, flags));
-				estimatedReceiveBufferBytes = 0;
+			} finally {
+				receiving = defaultQueues;
+			}
+
+			if (bindException != null) {
 				handler.handleError(new PSQLException(GT.tr("Unable to bind parameter values for statement."),
-						PSQLState.INVALID_PARAMETER_VALUE, se.getIOException()));
+						PSQLState.INVALID_PARAMETER_VALUE, bindException.getIOException()));
 			}
 		} catch (IOException e) {
-			abort();
-			handler.handleError(new PSQLException(GT.tr("An I/O error occurred while sending to the backend."),
-					PSQLState.CONNECTION_FAILURE, e));
+			connectionLost(handler, e);
+		} catch (CompletionException e) {
+			connectionLost(handler, e);
+		} finally {
+			leaveResponseQueue(turn);
 		}
 
 		try {
 			handler.handleCompletion();
 		} catch (SQLException e) {
-			await(rollbackIfRequired(autosave, e));
+			await(rollbackIfRequired(false, e));
 		}
 
 		return CompletableFuture.completedFuture(null);
 	}
 
+	private void connectionLost(ResultHandler handler, IOException e) {
+		abort();
+		handler.handleError(new PSQLException(GT.tr("An I/O error occurred while sending to the backend."),
+				PSQLState.CONNECTION_FAILURE, e));
+	}
+
+	/**
+	 * Handles the failure of an await that has suspended, which comes wrapped in a
+	 * CompletionException. Without this, an I/O error would leave the connection
+	 * open for the requests pipelined behind the one that hit it.
+	 */
+	private void connectionLost(ResultHandler handler, CompletionException e) {
+		if (!(e.getCause() instanceof IOException)) {
+			throw e;
+		}
+		connectionLost(handler, (IOException) e.getCause());
+	}
+
 	private boolean sendAutomaticSavepoint(Query query, int flags) throws IOException {
 		if (((flags & QueryExecutor.QUERY_SUPPRESS_BEGIN) == 0 || getTransactionState() == TransactionState.OPEN)
 				&& query != restoreToAutoSave && getAutoSave() != AutoSave.NEVER
@@ -451,9 +681,8 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 	private static final int MAX_BUFFERED_RECV_BYTES = 64000;
 	private static final int NODATA_QUERY_RESPONSE_SIZE_BYTES = 250;
 	
-	public synchronized CompletableFuture<Void> executeAsync(Query[] queries, ParameterList[] parameterLists,
+	public CompletableFuture<Void> executeAsync(Query[] queries, ParameterList[] parameterLists,
       VxBatchResultHandler batchHandler, int maxRows, int fetchSize, int flags) throws SQLException {
-    waitOnLock();
     if (LOGGER.isLoggable(Level.FINEST)) {
       LOGGER.log(Level.FINEST, "  batch execute {0} queries, handler={1}, maxRows={2}, fetchSize={3}, flags={4}",
           new Object[] { queries.length, batchHandler, maxRows, fetchSize, flags });
@@ -473,7 +702,10 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 
     boolean autosave = false;
     ResultHandler handler = batchHandler;
+    long lockToken = await(lockConnection());
+    ResponseTurn turn = enterResponseQueue();
     try {
+      await(turn.previous);
       handler = sendQueryPreamble(batchHandler, flags);
       autosave = sendAutomaticSavepoint(queries[0], flags);
       estimatedReceiveBufferBytes = 0;
@@ -507,6 +739,9 @@ public class QueryExecutorImpl extends QueryExecutorBase {
       abort();
       handler.handleError(new PSQLException(GT.tr("An I/O error occurred while sending to the backend."),
           PSQLState.CONNECTION_FAILURE, e));
+    } finally {
+      leaveResponseQueue(turn);
+      connectionLock.release(lockToken);
     }
 
     try {
@@ -518,9 +753,8 @@ public class QueryExecutorImpl extends QueryExecutorBase {
     return CompletableFuture.completedFuture(null);
   }
 
-	public synchronized CompletableFuture<Void> execute(Query[] queries, ParameterList[] parameterLists,
+	public CompletableFuture<Void> execute(Query[] queries, ParameterList[] parameterLists,
 			BatchResultHandler batchHandler, int maxRows, int fetchSize, int flags) throws SQLException {
-		waitOnLock();
 		if (LOGGER.isLoggable(Level.FINEST)) {
 			LOGGER.log(Level.FINEST, "  batch execute {0} queries, handler={1}, maxRows={2}, fetchSize={3}, flags={4}",
 					new Object[] { queries.length, batchHandler, maxRows, fetchSize, flags });
@@ -540,7 +774,10 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 
 		boolean autosave = false;
 		ResultHandler handler = batchHandler;
+		long lockToken = await(lockConnection());
+		ResponseTurn turn = enterResponseQueue();
 		try {
+			await(turn.previous);
 			handler = sendQueryPreamble(batchHandler, flags);
 			autosave = sendAutomaticSavepoint(queries[0], flags);
 			estimatedReceiveBufferBytes = 0;
@@ -574,6 +811,9 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 			abort();
 			handler.handleError(new PSQLException(GT.tr("An I/O error occurred while sending to the backend."),
 					PSQLState.CONNECTION_FAILURE, e));
+		} finally {
+			leaveResponseQueue(turn);
+			connectionLock.release(lockToken);
 		}
 
 		try {
@@ -635,19 +875,26 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 	// Fastpath
 	//
 
-	public synchronized CompletableFuture<byte[]> fastpathCall(int fnid, ParameterList parameters,
+	public CompletableFuture<byte[]> fastpathCall(int fnid, ParameterList parameters,
 			boolean suppressBegin) throws SQLException {
-		waitOnLock();
-		if (!suppressBegin) {
-			await(doSubprotocolBegin());
-		}
+		long lockToken = await(lockConnection());
+		ResponseTurn turn = enterResponseQueue();
 		try {
-			sendFastpathCall(fnid, (SimpleParameterList) parameters);
-			return receiveFastpathResult();
-		} catch (IOException ioe) {
-			abort();
-			throw new PSQLException(GT.tr("An I/O error occurred while sending to the backend."),
-					PSQLState.CONNECTION_FAILURE, ioe);
+			await(turn.previous);
+			if (!suppressBegin) {
+				await(doSubprotocolBegin());
+			}
+			try {
+				sendFastpathCall(fnid, (SimpleParameterList) parameters);
+				return CompletableFuture.completedFuture(await(receiveFastpathResult()));
+			} catch (IOException ioe) {
+				abort();
+				throw new PSQLException(GT.tr("An I/O error occurred while sending to the backend."),
+						PSQLState.CONNECTION_FAILURE, ioe);
+			}
+		} finally {
+			leaveResponseQueue(turn);
+			connectionLock.release(lockToken);
 		}
 	}
 
@@ -743,7 +990,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 	}
 
 	// Just for API compatibility with previous versions.
-	public synchronized CompletableFuture<Void> processNotifies() throws SQLException {
+	public CompletableFuture<Void> processNotifies() throws SQLException {
 		return processNotifies(-1);
 	}
 
@@ -752,8 +999,21 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 	 *            when &gt; 0, block for this time when =0, block forever when &lt;
 	 *            0, don't block
 	 */
-	public synchronized CompletableFuture<Void> processNotifies(int timeoutMillis) throws SQLException {
-		waitOnLock();
+	public CompletableFuture<Void> processNotifies(int timeoutMillis) throws SQLException {
+		long lockToken = await(lockConnection());
+		ResponseTurn turn = enterResponseQueue();
+		try {
+			await(turn.previous);
+			await(receiveNotifies(timeoutMillis));
+		} finally {
+			leaveResponseQueue(turn);
+			connectionLock.release(lockToken);
+		}
+
+		return CompletableFuture.completedFuture(null);
+	}
+
+	private CompletableFuture<Void> receiveNotifies(int timeoutMillis) throws SQLException {
 		// Asynchronous notifies only arrive when we are not in a transaction
 		if (getTransactionState() != TransactionState.IDLE) {
 			return CompletableFuture.completedFuture(null);
@@ -909,43 +1169,58 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 	 * @throws SQLException
 	 *             on failure
 	 */
-	public synchronized CompletableFuture<CopyOperation> startCopy(String sql, boolean suppressBegin)
+	public CompletableFuture<CopyOperation> startCopy(String sql, boolean suppressBegin)
 			throws SQLException {
-		waitOnLock();
-		if (!suppressBegin) {
-			await(doSubprotocolBegin());
-		}
-		byte[] buf = Utils.encodeUTF8(sql);
-
+		long lockToken = await(lockConnection());
+		ResponseTurn turn = enterResponseQueue();
 		try {
-			LOGGER.log(Level.FINEST, " FE=> Query(CopyStart)");
+			await(turn.previous);
+			if (!suppressBegin) {
+				await(doSubprotocolBegin());
+			}
+			byte[] buf = Utils.encodeUTF8(sql);
 
-			pgStream.sendChar('Q');
-			pgStream.sendInteger4(buf.length + 4 + 1);
-			pgStream.send(buf);
-			pgStream.sendChar(0);
-			pgStream.flush();
+			try {
+				LOGGER.log(Level.FINEST, " FE=> Query(CopyStart)");
 
-			return processCopyResults(null, true);
-			// expect a CopyInResponse or CopyOutResponse to our query above
-		} catch (IOException ioe) {
-			throw new PSQLException(GT.tr("Database connection failed when starting copy"),
-					PSQLState.CONNECTION_FAILURE, ioe);
+				pgStream.sendChar('Q');
+				pgStream.sendInteger4(buf.length + 4 + 1);
+				pgStream.send(buf);
+				pgStream.sendChar(0);
+				pgStream.flush();
+
+				// expect a CopyInResponse or CopyOutResponse to our query above
+				CopyOperation op = await(processCopyResults(null, true));
+				if (op != null) {
+					// the copy operation keeps the connection locked until the COPY subprotocol ends
+					lock(op, lockToken);
+					lockToken = AsyncLock.NO_TOKEN;
+				}
+				return CompletableFuture.completedFuture(op);
+			} catch (IOException ioe) {
+				throw new PSQLException(GT.tr("Database connection failed when starting copy"),
+						PSQLState.CONNECTION_FAILURE, ioe);
+			}
+		} finally {
+			leaveResponseQueue(turn);
+			if (lockToken != AsyncLock.NO_TOKEN) {
+				connectionLock.release(lockToken);
+			}
 		}
 	}
 
 	/**
-	 * Locks connection and calls initializer for a new CopyOperation Called via
-	 * startCopy -> processCopyResults
+	 * Calls initializer for a new CopyOperation Called via startCopy -&gt;
+	 * processCopyResults, startCopy then hands the connection lock over to it
 	 *
 	 * @param op
 	 *            an unitialized CopyOperation
 	 * @throws SQLException
-	 *             on locking failure
+	 *             on failure
 	 * @throws IOException
 	 *             on database connection failure
 	 */
-	private synchronized CompletableFuture<Void> initCopy(CopyOperationImpl op) throws SQLException, IOException {
+	private CompletableFuture<Void> initCopy(CopyOperationImpl op) throws SQLException, IOException {
 		pgStream.receiveInteger4(); // length not used
 		int rowFormat = await(pgStream.receiveChar());
 		int numFields = await(pgStream.receiveInteger2());
@@ -955,7 +1230,6 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 			fieldFormats[i] = await(pgStream.receiveInteger2());
 		}
 
-		lock(op);
 		op.init(this, rowFormat, fieldFormats);
 		return CompletableFuture.completedFuture(null);
 	}
@@ -980,31 +1254,29 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 
 		try {
 			if (op instanceof CopyIn) {
-				synchronized (this) {
-					LOGGER.log(Level.FINEST, "FE => CopyFail");
-					final byte[] msg = Utils.encodeUTF8("Copy cancel requested");
-					pgStream.sendChar('f'); // CopyFail
-					pgStream.sendInteger4(5 + msg.length);
-					pgStream.send(msg);
-					pgStream.sendChar(0);
-					pgStream.flush();
-					do {
-						try {
-							await(processCopyResults(op, true)); // discard rest of input
-						} catch (SQLException se) { // expected error response to failing copy
-							errors++;
-							if (error != null) {
-								SQLException e = se;
-								SQLException next;
-								while ((next = e.getNextException()) != null) {
-									e = next;
-								}
-								e.setNextException(error);
+				LOGGER.log(Level.FINEST, "FE => CopyFail");
+				final byte[] msg = Utils.encodeUTF8("Copy cancel requested");
+				pgStream.sendChar('f'); // CopyFail
+				pgStream.sendInteger4(5 + msg.length);
+				pgStream.send(msg);
+				pgStream.sendChar(0);
+				pgStream.flush();
+				do {
+					try {
+						await(processCopyResults(op, true)); // discard rest of input
+					} catch (SQLException se) { // expected error response to failing copy
+						errors++;
+						if (error != null) {
+							SQLException e = se;
+							SQLException next;
+							while ((next = e.getNextException()) != null) {
+								e = next;
 							}
-							error = se;
+							e.setNextException(error);
 						}
-					} while (hasLock(op));
-				}
+						error = se;
+					}
+				} while (hasLock(op));
 			} else if (op instanceof CopyOut) {
 				await(sendQueryCancel());
 			}
@@ -1017,10 +1289,8 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 			// future operations, rather than failing due to the
 			// broken connection, will simply hang waiting for this
 			// lock.
-			synchronized (this) {
-				if (hasLock(op)) {
-					unlock(op);
-				}
+			if (hasLock(op)) {
+				unlock(op);
 			}
 		}
 
@@ -1048,7 +1318,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 	 * @throws SQLException
 	 *             on failure
 	 */
-	public synchronized CompletableFuture<Long> endCopy(CopyOperationImpl op) throws SQLException {
+	public CompletableFuture<Long> endCopy(CopyOperationImpl op) throws SQLException {
 		if (!hasLock(op)) {
 			throw new PSQLException(GT.tr("Tried to end inactive copy"), PSQLState.OBJECT_NOT_IN_STATE);
 		}
@@ -1086,7 +1356,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 	 * @throws SQLException
 	 *             on failure
 	 */
-	public synchronized CompletableFuture<Void> writeToCopy(CopyOperationImpl op, byte[] data, int off, int siz)
+	public CompletableFuture<Void> writeToCopy(CopyOperationImpl op, byte[] data, int off, int siz)
 			throws SQLException {
 		if (!hasLock(op)) {
 			throw new PSQLException(GT.tr("Tried to write to an inactive copy operation"),
@@ -1109,7 +1379,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 		return CompletableFuture.completedFuture(null);
 	}
 
-	public synchronized CompletableFuture<Void> flushCopy(CopyOperationImpl op) throws SQLException {
+	public CompletableFuture<Void> flushCopy(CopyOperationImpl op) throws SQLException {
 		if (!hasLock(op)) {
 			throw new PSQLException(GT.tr("Tried to write to an inactive copy operation"),
 					PSQLState.OBJECT_NOT_IN_STATE);
@@ -1137,7 +1407,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 	 * @throws SQLException
 	 *             on any failure
 	 */
-	synchronized CompletableFuture<Void> readFromCopy(CopyOperationImpl op, boolean block) throws SQLException {
+	CompletableFuture<Void> readFromCopy(CopyOperationImpl op, boolean block) throws SQLException {
 		if (!hasLock(op)) {
 			throw new PSQLException(GT.tr("Tried to read from inactive copy"), PSQLState.OBJECT_NOT_IN_STATE);
 		}
@@ -1287,8 +1557,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 
 				LOGGER.log(Level.FINEST, " <=BE CopyData");
 
-				len = await(pgStream.receiveInteger4()) - 4;
-				byte[] buf = await(pgStream.receive(len));
+				byte[] buf = await(pgStream.receiveMessageBody()).getBytes();
 				if (op == null) {
 					error = new PSQLException(GT.tr("Got CopyData without an active copy operation"),
 							PSQLState.OBJECT_NOT_IN_STATE);
@@ -1578,8 +1847,8 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 		pgStream.sendInteger4(4); // Length
 		pgStream.flush();
 		// Below "add queues" are likely not required at all
-		pendingExecuteQueue.add(new ExecuteRequest(sync, null, true));
-		pendingDescribePortalQueue.add(sync);
+		sending.executeQueue.add(new ExecuteRequest(sync, null, true));
+		sending.describePortalQueue.add(sync);
 	}
 
 	private void sendParse(SimpleQuery query, SimpleParameterList params, boolean oneShot) throws IOException {
@@ -1633,13 +1902,13 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 		// Send Parse.
 		//
 
-		byte[] queryUtf8 = Utils.encodeUTF8(nativeSql);
+		int queryLength = Utils.encodedLengthUTF8(nativeSql);
 
 		// Total size = 4 (size field)
 		// + N + 1 (statement name, zero-terminated)
 		// + N + 1 (query, zero terminated)
 		// + 2 (parameter count) + N * 4 (parameter types)
-		int encodedSize = 4 + (encodedStatementName == null ? 0 : encodedStatementName.length) + 1 + queryUtf8.length
+		int encodedSize = 4 + (encodedStatementName == null ? 0 : encodedStatementName.length) + 1 + queryLength
 				+ 1 + 2 + 4 * params.getParameterCount();
 
 		pgStream.sendChar('P'); // Parse
@@ -1648,14 +1917,17 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 			pgStream.send(encodedStatementName);
 		}
 		pgStream.sendChar(0); // End of statement name
-		pgStream.send(queryUtf8); // Query string
+		pgStream.sendUTF8(nativeSql, queryLength); // Query string
 		pgStream.sendChar(0); // End of query string.
 		pgStream.sendInteger2(params.getParameterCount()); // # of parameter types specified
 		for (int i = 1; i <= params.getParameterCount(); ++i) {
 			pgStream.sendInteger4(params.getTypeOID(i));
 		}
 
-		pendingParseQueue.add(query);
+		sending.parseQueue.add(query);
+		if (statementName != null) {
+			query.setParseInFlight(true);
+		}
 	}
 
 	private void sendBind(SimpleQuery query, SimpleParameterList params, Portal portal, boolean noBinaryTransfer)
@@ -1780,7 +2052,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 			pgStream.sendInteger2(fields[i].getFormat());
 		}
 
-		pendingBindQueue.add(portal == null ? UNNAMED_PORTAL : portal);
+		sending.bindQueue.add(portal == null ? UNNAMED_PORTAL : portal);
 
 		if (bindException != null) {
 			throw bindException;
@@ -1821,7 +2093,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 		}
 		pgStream.sendChar(0); // end of portal name
 
-		pendingDescribePortalQueue.add(query);
+		sending.describePortalQueue.add(query);
 		query.setPortalDescribed(true);
 	}
 
@@ -1846,8 +2118,8 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 
 		// Note: statement name can change over time for the same query object
 		// Thus we take a snapshot of the query name
-		pendingDescribeStatementQueue.add(new DescribeRequest(query, params, describeOnly, query.getStatementName()));
-		pendingDescribePortalQueue.add(query);
+		sending.describeStatementQueue.add(new DescribeRequest(query, params, describeOnly, query.getStatementName()));
+		sending.describePortalQueue.add(query);
 		query.setStatementDescribed(true);
 		query.setPortalDescribed(true);
 	}
@@ -1872,7 +2144,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 		pgStream.sendChar(0); // portal name terminator
 		pgStream.sendInteger4(limit); // row limit
 
-		pendingExecuteQueue.add(new ExecuteRequest(query, portal, false));
+		sending.executeQueue.add(new ExecuteRequest(query, portal, false));
 	}
 
 	private void sendClosePortal(String portalName) throws IOException {
@@ -2055,8 +2327,8 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 		pgStream.send(encoded);
 		pgStream.sendChar(0);
 		pgStream.flush();
-		pendingExecuteQueue.add(new ExecuteRequest(query, null, true));
-		pendingDescribePortalQueue.add(query);
+		sending.executeQueue.add(new ExecuteRequest(query, null, true));
+		sending.describePortalQueue.add(query);
 	}
 
 	//
@@ -2161,7 +2433,11 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 		boolean doneAfterRowDescNoData = false;
 
 		while (!endQuery) {
-			c = await(pgStream.receiveChar());
+			// Most messages are already buffered under load, only suspend on a real underrun
+			c = pgStream.tryReceiveChar();
+			if (c == PGStream.NOT_BUFFERED) {
+				c = await(pgStream.receiveChar());
+			}
 			switch (c) {
 			case 'A': // Asynchronous Notify
 				await(receiveAsyncNotify());
@@ -2170,7 +2446,8 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 			case '1': // Parse Complete (response to Parse)
 				await(pgStream.receiveInteger4()); // len, discarded
 
-				SimpleQuery parsedQuery = pendingParseQueue.removeFirst();
+				SimpleQuery parsedQuery = receiving.parseQueue.removeFirst();
+				parsedQuery.setParseInFlight(false);
 				String parsedStatementName = parsedQuery.getStatementName();
 
 				LOGGER.log(Level.FINEST, " <=BE ParseComplete [{0}]", parsedStatementName);
@@ -2182,7 +2459,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 
 				LOGGER.log(Level.FINEST, " <=BE ParameterDescription");
 
-				DescribeRequest describeData = pendingDescribeStatementQueue.getFirst();
+				DescribeRequest describeData = receiving.describeStatementQueue.getFirst();
 				SimpleQuery query = describeData.query;
 				SimpleParameterList params = describeData.parameterList;
 				boolean describeOnly = describeData.describeOnly;
@@ -2209,7 +2486,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 				if (describeOnly) {
 					doneAfterRowDescNoData = true;
 				} else {
-					pendingDescribeStatementQueue.removeFirst();
+					receiving.describeStatementQueue.removeFirst();
 				}
 				break;
 			}
@@ -2217,7 +2494,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 			case '2': // Bind Complete (response to Bind)
 				await(pgStream.receiveInteger4()); // len, discarded
 
-				Portal boundPortal = pendingBindQueue.removeFirst();
+				Portal boundPortal = receiving.bindQueue.removeFirst();
 				LOGGER.log(Level.FINEST, " <=BE BindComplete [{0}]", boundPortal);
 
 				registerOpenPortal(boundPortal);
@@ -2232,10 +2509,10 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 				await(pgStream.receiveInteger4()); // len, discarded
 				LOGGER.log(Level.FINEST, " <=BE NoData");
 
-				pendingDescribePortalQueue.removeFirst();
+				receiving.describePortalQueue.removeFirst();
 
 				if (doneAfterRowDescNoData) {
-					DescribeRequest describeData = pendingDescribeStatementQueue.removeFirst();
+					DescribeRequest describeData = receiving.describeStatementQueue.removeFirst();
 					SimpleQuery currentQuery = describeData.query;
 
 					Field[] fields = currentQuery.getFields();
@@ -2255,7 +2532,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 				await(pgStream.receiveInteger4()); // len, discarded
 				LOGGER.log(Level.FINEST, " <=BE PortalSuspended");
 
-				ExecuteRequest executeData = pendingExecuteQueue.removeFirst();
+				ExecuteRequest executeData = receiving.executeQueue.removeFirst();
 				SimpleQuery currentQuery = executeData.query;
 				Portal currentPortal = executeData.portal;
 
@@ -2281,7 +2558,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 
 				doneAfterRowDescNoData = false;
 
-				ExecuteRequest executeData = pendingExecuteQueue.peekFirst();
+				ExecuteRequest executeData = receiving.executeQueue.peekFirst();
 				SimpleQuery currentQuery = executeData.query;
 				Portal currentPortal = executeData.portal;
 
@@ -2297,7 +2574,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 				}
 
 				if (!executeData.asSimple) {
-					pendingExecuteQueue.removeFirst();
+					receiving.executeQueue.removeFirst();
 				} else {
 					// For simple 'Q' queries, executeQueue is cleared via ReadyForQuery message
 				}
@@ -2347,9 +2624,18 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 			}
 
 			case 'D': // Data Transfer (ongoing Execute response)
-				byte[][] tuple = null;
+				if (!noResults && tuples == null) {
+					tuples = new TupleSlab();
+				}
+
+				int length = -1;
 				try {
-					tuple = await(pgStream.receiveTupleV3());
+					// rows are appended to the slab, or just consumed when no results are wanted
+					TupleSlab slab = noResults ? null : (TupleSlab) tuples;
+					length = pgStream.tryReceiveTupleV3(slab);
+					if (length == PGStream.NOT_BUFFERED) {
+						length = await(pgStream.receiveTupleV3(slab));
+					}
 				} catch (OutOfMemoryError oome) {
 					if (!noResults) {
 						handler.handleError(new PSQLException(GT.tr("Ran out of memory retrieving query results."),
@@ -2357,29 +2643,9 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 					}
 				}
 
-				if (!noResults) {
-					if (tuples == null) {
-						tuples = new ArrayList<byte[][]>();
-					}
-					tuples.add(tuple);
-				}
-
 				if (LOGGER.isLoggable(Level.FINEST)) {
-					int length;
-					if (tuple == null) {
-						length = -1;
-					} else {
-						length = 0;
-						for (byte[] aTuple : tuple) {
-							if (aTuple == null) {
-								continue;
-							}
-							length += aTuple.length;
-						}
-					}
 					LOGGER.log(Level.FINEST, " <=BE DataRow(len={0})", length);
 				}
-
 				break;
 
 			case 'E':
@@ -2406,7 +2672,7 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 
 				LOGGER.log(Level.FINEST, " <=BE EmptyQuery");
 
-				ExecuteRequest executeData = pendingExecuteQueue.removeFirst();
+				ExecuteRequest executeData = receiving.executeQueue.removeFirst();
 				Portal currentPortal = executeData.portal;
 				handler.handleCommandStatus("EMPTY", 0, 0);
 				if (currentPortal != null) {
@@ -2431,16 +2697,16 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 
 			case 'T': // Row Description (response to Describe)
 				Field[] fields = await(receiveFields());
-				tuples = new ArrayList<byte[][]>();
+				tuples = new TupleSlab();
 
-				SimpleQuery query = pendingDescribePortalQueue.peekFirst();
-				if (!pendingExecuteQueue.isEmpty() && !pendingExecuteQueue.peekFirst().asSimple) {
-					pendingDescribePortalQueue.removeFirst();
+				SimpleQuery query = receiving.describePortalQueue.peekFirst();
+				if (!receiving.executeQueue.isEmpty() && !receiving.executeQueue.peekFirst().asSimple) {
+					receiving.describePortalQueue.removeFirst();
 				}
 				query.setFields(fields);
 
 				if (doneAfterRowDescNoData) {
-					DescribeRequest describeData = pendingDescribeStatementQueue.removeFirst();
+					DescribeRequest describeData = receiving.describeStatementQueue.removeFirst();
 					SimpleQuery currentQuery = describeData.query;
 					currentQuery.setFields(fields);
 
@@ -2451,17 +2717,17 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 
 			case 'Z': // Ready For Query (eventual response to Sync)
 				await(receiveRFQ());
-				if (!pendingExecuteQueue.isEmpty() && pendingExecuteQueue.peekFirst().asSimple) {
+				if (!receiving.executeQueue.isEmpty() && receiving.executeQueue.peekFirst().asSimple) {
 					tuples = null;
 
-					ExecuteRequest executeRequest = pendingExecuteQueue.removeFirst();
+					ExecuteRequest executeRequest = receiving.executeQueue.removeFirst();
 					// Simple queries might return several resultsets, thus we clear
 					// fields, so queries like "select 1;update; select2" will properly
 					// identify that "update" did not return any results
 					executeRequest.query.setFields(null);
 
-					pendingDescribePortalQueue.removeFirst();
-					if (!pendingExecuteQueue.isEmpty()) {
+					receiving.describePortalQueue.removeFirst();
+					if (!receiving.executeQueue.isEmpty()) {
 						if (getTransactionState() == TransactionState.IDLE) {
 							handler.secureProgress();
 						}
@@ -2473,31 +2739,36 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 				endQuery = true;
 
 				// Reset the statement name of Parses that failed.
-				while (!pendingParseQueue.isEmpty()) {
-					SimpleQuery failedQuery = pendingParseQueue.removeFirst();
+				while (!receiving.parseQueue.isEmpty()) {
+					SimpleQuery failedQuery = receiving.parseQueue.removeFirst();
 					failedQuery.unprepare();
 				}
-				pendingParseQueue.clear(); // No more ParseComplete messages expected.
+				receiving.parseQueue.clear(); // No more ParseComplete messages expected.
 				// Pending "describe" requests might be there in case of error
 				// If that is the case, reset "described" status, so the statement is properly
 				// described on next execution
-				while (!pendingDescribeStatementQueue.isEmpty()) {
-					DescribeRequest request = pendingDescribeStatementQueue.removeFirst();
+				while (!receiving.describeStatementQueue.isEmpty()) {
+					DescribeRequest request = receiving.describeStatementQueue.removeFirst();
 					LOGGER.log(Level.FINEST, " FE marking setStatementDescribed(false) for query {0}", request.query);
 					request.query.setStatementDescribed(false);
 				}
-				while (!pendingDescribePortalQueue.isEmpty()) {
-					SimpleQuery describePortalQuery = pendingDescribePortalQueue.removeFirst();
+				while (!receiving.describePortalQueue.isEmpty()) {
+					SimpleQuery describePortalQuery = receiving.describePortalQueue.removeFirst();
 					LOGGER.log(Level.FINEST, " FE marking setPortalDescribed(false) for query {0}",
 							describePortalQuery);
 					describePortalQuery.setPortalDescribed(false);
 				}
-				pendingBindQueue.clear(); // No more BindComplete messages expected.
-				pendingExecuteQueue.clear(); // No more query executions expected.
+				receiving.bindQueue.clear(); // No more BindComplete messages expected.
+				receiving.executeQueue.clear(); // No more query executions expected.
 				break;
 
 			case 'G': // CopyInResponse
 				LOGGER.log(Level.FINEST, " <=BE CopyInResponse");
+				if (receiving != defaultQueues) {
+					// Pipelined requests are processed without the connection lock and must
+					// not write; canPipeline never lets a COPY through.
+					throw new IOException("Unexpected packet type: " + c);
+				}
 				LOGGER.log(Level.FINEST, " FE=> CopyFail");
 
 				// COPY sub-protocol is not implemented yet
@@ -2554,9 +2825,8 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 		return CompletableFuture.completedFuture(null);
 	}
 
-	public synchronized CompletableFuture<Void> fetch(ResultCursor cursor, ResultHandler handler, int fetchSize)
+	public CompletableFuture<Void> fetch(ResultCursor cursor, ResultHandler handler, int fetchSize)
 			throws SQLException {
-		waitOnLock();
 		final Portal portal = (Portal) cursor;
 
 		// Insert a ResultHandler that turns bare command statuses into empty datasets
@@ -2570,19 +2840,47 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 
 		// Now actually run it.
 
+		long lockToken = await(lockConnection());
+		if (portal.isClosed()) {
+			// Exhausted, or closed by a result set while this fetch was waiting for the lock
+			connectionLock.release(lockToken);
+			handler.handleCommandStatus("SELECT 0", 0, 0);
+			handler.handleCompletion();
+			return CompletableFuture.completedFuture(null);
+		}
+
+		// A fetch only continues a portal: it neither parses, nor changes the
+		// transaction state, nor starts a COPY, so it is written ahead like a
+		// pipelined query and several pages of a cursor can be in flight at once.
+		ResponseTurn turn = enterResponseQueue();
+		PendingQueues queues = new PendingQueues();
 		try {
-			processDeadParsedQueries();
-			processDeadPortals();
+			sending = queues;
+			try {
+				processDeadParsedQueries();
+				processDeadPortals();
 
-			sendExecute(portal.getQuery(), portal, fetchSize);
-			sendSync();
+				sendExecute(portal.getQuery(), portal, fetchSize);
+				sendSync();
+			} finally {
+				sending = defaultQueues;
+				connectionLock.release(lockToken);
+			}
 
-			await(processResults(handler, 0));
+			await(turn.previous);
+			receiving = queues;
+			try {
+				await(processResults(handler, 0));
+			} finally {
+				receiving = defaultQueues;
+			}
 			estimatedReceiveBufferBytes = 0;
 		} catch (IOException e) {
-			abort();
-			handler.handleError(new PSQLException(GT.tr("An I/O error occurred while sending to the backend."),
-					PSQLState.CONNECTION_FAILURE, e));
+			connectionLost(handler, e);
+		} catch (CompletionException e) {
+			connectionLost(handler, e);
+		} finally {
+			leaveResponseQueue(turn);
 		}
 
 		handler.handleCompletion();
@@ -2645,6 +2943,8 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 			LOGGER.log(Level.FINEST, " <=BE ErrorMessage({0})", errorMsg.toString());
 		}
 
+		TypeRegistry.errorReceived(getHostSpec(), getDatabase(), errorMsg);
+
 		PSQLException error = new PSQLException(errorMsg);
 		if (transactionFailCause == null) {
 			transactionFailCause = error;
@@ -2927,14 +3227,34 @@ public class QueryExecutorImpl extends QueryExecutorBase {
 		return integerDateTimes;
 	}
 
-	private final Deque<SimpleQuery> pendingParseQueue = new ArrayDeque<SimpleQuery>();
-	private final Deque<Portal> pendingBindQueue = new ArrayDeque<Portal>();
-	private final Deque<ExecuteRequest> pendingExecuteQueue = new ArrayDeque<ExecuteRequest>();
-	private final Deque<DescribeRequest> pendingDescribeStatementQueue = new ArrayDeque<DescribeRequest>();
-	private final Deque<SimpleQuery> pendingDescribePortalQueue = new ArrayDeque<SimpleQuery>();
+	/**
+	 * Requests sent to the backend whose responses have not been processed yet.
+	 */
+	private static final class PendingQueues {
+		final Deque<SimpleQuery> parseQueue = new ArrayDeque<SimpleQuery>();
+		final Deque<Portal> bindQueue = new ArrayDeque<Portal>();
+		final Deque<ExecuteRequest> executeQueue = new ArrayDeque<ExecuteRequest>();
+		final Deque<DescribeRequest> describeStatementQueue = new ArrayDeque<DescribeRequest>();
+		final Deque<SimpleQuery> describePortalQueue = new ArrayDeque<SimpleQuery>();
+	}
+
+	private final PendingQueues defaultQueues = new PendingQueues();
+
+	/**
+	 * Queues the message senders register their requests in. Pipelined requests use
+	 * their own queues, so that the ReadyForQuery of one request does not discard
+	 * the pending requests of the ones written after it.
+	 */
+	private PendingQueues sending = defaultQueues;
+
+	/**
+	 * Queues processResults takes the expected responses from.
+	 */
+	private PendingQueues receiving = defaultQueues;
 
 	private long nextUniqueID = 1;
 	private final boolean allowEncodingChanges;
+	private final boolean pipelineQueries;
 
 	/**
 	 * The estimated server response size since we last consumed the input stream
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.UUID;
 
 
 /**
@@ -41,8 +42,10 @@ class SimpleParameterList implements V3ParameterList {
 
   SimpleParameterList(int paramCount, TypeTransferModeRegistry transferModeRegistry) {
     this.paramValues = new Object[paramCount];
+    this.primitives = new long[paramCount];
     this.paramTypes = new int[paramCount];
-    this.encoded = new byte[paramCount][];
+    this.encodedLengths = new int[paramCount];
+    Arrays.fill(encodedLengths, -1);
     this.flags = new byte[paramCount];
     this.transferModeRegistry = transferModeRegistry;
   }
@@ -69,7 +72,7 @@ class SimpleParameterList implements V3ParameterList {
 
     --index;
 
-    encoded[index] = null;
+    encodedLengths[index] = -1;
     paramValues[index] = value;
     flags[index] = (byte) (direction(index) | IN | binary);
 
@@ -115,9 +118,17 @@ class SimpleParameterList implements V3ParameterList {
   }
 
   public void setIntParameter(int index, int value) throws SQLException {
-    byte[] data = new byte[4];
-    ByteConverter.int4(data, 0, value);
-    bind(index, data, Oid.INT4, BINARY);
+    setPrimitiveParameter(index, value, Oid.INT4);
+  }
+
+  public void setPrimitiveParameter(int index, long value, int oid) throws SQLException {
+    primitiveLength(oid);
+    bind(index, PRIMITIVE, oid, BINARY);
+    primitives[index - 1] = value;
+  }
+
+  public void setUuidParameter(int index, UUID value) throws SQLException {
+    bind(index, value, Oid.UUID, BINARY);
   }
 
   public void setLiteralParameter(int index, String value, int oid) throws SQLException {
@@ -170,6 +181,22 @@ class SimpleParameterList implements V3ParameterList {
       return "?";
     } else if (paramValues[index] == NULL_OBJECT) {
       return "NULL";
+    } else if (paramValues[index] == PRIMITIVE) {
+      long value = primitives[index];
+      switch (paramTypes[index]) {
+        case Oid.FLOAT4:
+          return Float.toString(Float.intBitsToFloat((int) value));
+        case Oid.FLOAT8:
+          return Double.toString(Double.longBitsToDouble(value));
+        case Oid.BOOL:
+          return value != 0 ? "TRUE" : "FALSE";
+        case Oid.DATE:
+          return "?";
+        default:
+          return Long.toString(value);
+      }
+    } else if (paramValues[index] instanceof UUID) {
+      return "'" + paramValues[index] + "'::uuid";
     } else if ((flags[index] & BINARY) == BINARY) {
       // handle some of the numeric types
 
@@ -266,6 +293,7 @@ class SimpleParameterList implements V3ParameterList {
       if (direction(i) == OUT) {
         paramTypes[i] = Oid.VOID;
         paramValues[i] = "null";
+        encodedLengths[i] = -1;
       }
     }
   }
@@ -277,7 +305,7 @@ class SimpleParameterList implements V3ParameterList {
   private static void streamBytea(PGStream pgStream, StreamWrapper wrapper) throws IOException {
     byte[] rawData = wrapper.getBytes();
     if (rawData != null) {
-      pgStream.send(rawData, wrapper.getOffset(), wrapper.getLength());
+      pgStream.sendWrapped(rawData, wrapper.getOffset(), wrapper.getLength());
       return;
     }
 
@@ -327,6 +355,27 @@ class SimpleParameterList implements V3ParameterList {
     return (byte) (flags[index] & INOUT);
   }
 
+  /**
+   * @return the size of the binary format of a type bound with {@link #setPrimitiveParameter}
+   */
+  private static int primitiveLength(int oid) {
+    switch (oid) {
+      case Oid.BOOL:
+        return 1;
+      case Oid.INT2:
+        return 2;
+      case Oid.INT4:
+      case Oid.FLOAT4:
+      case Oid.DATE:
+        return 4;
+      case Oid.INT8:
+      case Oid.FLOAT8:
+        return 8;
+      default:
+        throw new IllegalArgumentException("not a primitive type: " + oid);
+    }
+  }
+
   int getV3Length(int index) {
     --index;
 
@@ -335,6 +384,15 @@ class SimpleParameterList implements V3ParameterList {
       throw new IllegalArgumentException("can't getV3Length() on a null parameter");
     }
 
+    // Held in a primitive?
+    if (paramValues[index] == PRIMITIVE) {
+      return primitiveLength(paramTypes[index]);
+    }
+
+    if (paramValues[index] instanceof UUID) {
+      return 16;
+    }
+
     // Directly encoded?
     if (paramValues[index] instanceof byte[]) {
       return ((byte[]) paramValues[index]).length;
@@ -345,13 +403,18 @@ class SimpleParameterList implements V3ParameterList {
       return ((StreamWrapper) paramValues[index]).getLength();
     }
 
-    // Already encoded?
-    if (encoded[index] == null) {
-      // Encode value and compute actual length using UTF-8.
-      encoded[index] = Utils.encodeUTF8(paramValues[index].toString());
-    }
+    return encodedLength(index);
+  }
 
-    return encoded[index].length;
+  /**
+   * The UTF-8 length of a string parameter, computed once for both the size of the Bind message
+   * and the write of the value. The string itself is encoded when it is written.
+   */
+  private int encodedLength(int index) {
+    if (encodedLengths[index] < 0) {
+      encodedLengths[index] = Utils.encodedLengthUTF8(paramValues[index].toString());
+    }
+    return encodedLengths[index];
   }
 
   void writeV3Value(int index, PGStream pgStream) throws IOException {
@@ -362,9 +425,36 @@ class SimpleParameterList implements V3ParameterList {
       throw new IllegalArgumentException("can't writeV3Value() on a null parameter");
     }
 
+    // Held in a primitive?
+    if (paramValues[index] == PRIMITIVE) {
+      long value = primitives[index];
+      switch (primitiveLength(paramTypes[index])) {
+        case 1:
+          pgStream.sendChar((int) value);
+          break;
+        case 2:
+          pgStream.sendInteger2((short) value);
+          break;
+        case 4:
+          pgStream.sendInteger4((int) value);
+          break;
+        default:
+          pgStream.sendInteger8(value);
+      }
+      return;
+    }
+
+    if (paramValues[index] instanceof UUID) {
+      UUID uuid = (UUID) paramValues[index];
+      pgStream.sendInteger8(uuid.getMostSignificantBits());
+      pgStream.sendInteger8(uuid.getLeastSignificantBits());
+      return;
+    }
+
     // Directly encoded?
     if (paramValues[index] instanceof byte[]) {
-      pgStream.send((byte[]) paramValues[index]);
+      byte[] value = (byte[]) paramValues[index];
+      pgStream.sendWrapped(value, 0, value.length);
       return;
     }
 
@@ -375,16 +465,14 @@ class SimpleParameterList implements V3ParameterList {
     }
 
     // Encoded string.
-    if (encoded[index] == null) {
-      encoded[index] = Utils.encodeUTF8((String) paramValues[index]);
-    }
-    pgStream.send(encoded[index]);
+    pgStream.sendUTF8((String) paramValues[index], encodedLength(index));
   }
 
 
   public ParameterList copy() {
     SimpleParameterList newCopy = new SimpleParameterList(paramValues.length, transferModeRegistry);
     System.arraycopy(paramValues, 0, newCopy.paramValues, 0, paramValues.length);
+    System.arraycopy(primitives, 0, newCopy.primitives, 0, primitives.length);
     System.arraycopy(paramTypes, 0, newCopy.paramTypes, 0, paramTypes.length);
     System.arraycopy(flags, 0, newCopy.flags, 0, flags.length);
     newCopy.pos = pos;
@@ -394,7 +482,7 @@ class SimpleParameterList implements V3ParameterList {
   public void clear() {
     Arrays.fill(paramValues, null);
     Arrays.fill(paramTypes, 0);
-    Arrays.fill(encoded, null);
+    Arrays.fill(encodedLengths, -1);
     Arrays.fill(flags, (byte) 0);
     pos = 0;
   }
@@ -415,8 +503,8 @@ class SimpleParameterList implements V3ParameterList {
     return flags;
   }
 
-  public byte[][] getEncoding() {
-    return encoded;
+  public int[] getEncodedLengths() {
+    return encodedLengths;
   }
 
   @Override
@@ -433,9 +521,10 @@ class SimpleParameterList implements V3ParameterList {
               PSQLState.INVALID_PARAMETER_VALUE);
       }
       System.arraycopy(spl.getValues(), 0, this.paramValues, pos, inParamCount);
+      System.arraycopy(spl.primitives, 0, this.primitives, pos, inParamCount);
       System.arraycopy(spl.getParamTypes(), 0, this.paramTypes, pos, inParamCount);
       System.arraycopy(spl.getFlags(), 0, this.flags, pos, inParamCount);
-      System.arraycopy(spl.getEncoding(), 0, this.encoded, pos, inParamCount);
+      System.arraycopy(spl.getEncodedLengths(), 0, this.encodedLengths, pos, inParamCount);
       pos += inParamCount;
     }
   }
@@ -458,9 +547,12 @@ class SimpleParameterList implements V3ParameterList {
   }
 
   private final Object[] paramValues;
+  // values of the parameters bound with setPrimitiveParameter, whose paramValues are PRIMITIVE
+  private final long[] primitives;
   private final int[] paramTypes;
   private final byte[] flags;
-  private final byte[][] encoded;
+  // UTF-8 lengths of the string parameters, -1 until computed
+  private final int[] encodedLengths;
   private final TypeTransferModeRegistry transferModeRegistry;
 
   /**
@@ -469,6 +561,11 @@ class SimpleParameterList implements V3ParameterList {
    */
   private static final Object NULL_OBJECT = new Object();
 
+  /**
+   * Marker object of the parameters whose value is held in {@link #primitives}.
+   */
+  private static final Object PRIMITIVE = new Object();
+
   private int pos = 0;
 }
 
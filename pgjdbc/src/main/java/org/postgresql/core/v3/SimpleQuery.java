@@ -148,6 +148,18 @@ class SimpleQuery implements Query {
     return statementName;
   }
 
+  /**
+   * @param parseInFlight whether a Parse of the named statement has been sent and its
+   *     ParseComplete has not been received yet
+   */
+  void setParseInFlight(boolean parseInFlight) {
+    this.parseInFlight = parseInFlight;
+  }
+
+  boolean isParseInFlight() {
+    return parseInFlight;
+  }
+
   boolean isPreparedFor(int[] paramTypes, short deallocateEpoch) {
     if (statementName == null || preparedTypes == null) {
       return false; // Not prepared.
@@ -304,6 +316,7 @@ class SimpleQuery implements Query {
 
     statementName = null;
     encodedStatementName = null;
+    parseInFlight = false;
     fields = null;
     this.resultSetColumnNameIndexMap = null;
     portalDescribed = false;
@@ -349,6 +362,7 @@ class SimpleQuery implements Query {
   private final TypeTransferModeRegistry transferModeRegistry;
   private String statementName;
   private byte[] encodedStatementName;
+  private volatile boolean parseInFlight;
   /**
    * The stored fields from previous execution or describe of a prepared statement. Always null for
    * non-prepared statements.
@@ -53,8 +53,8 @@ interface V3ParameterList extends ParameterList {
   byte[] getFlags();
 
   /**
-   * Return the encoding for each parameter.
-   * @return nested byte array of bytes with encoding information.
+   * Return the encoded length of each parameter.
+   * @return an array of UTF-8 lengths, -1 where not computed yet.
    */
-  byte[][] getEncoding();
+  int[] getEncodedLengths();
 }
@@ -0,0 +1,642 @@
+package org.postgresql.ds;
+
+import static com.ea.async.Async.await;
+
+import org.postgresql.VxDriver;
+import org.postgresql.core.TransactionState;
+import org.postgresql.ds.common.BaseDataSource;
+import org.postgresql.jdbc.VxConnection;
+import org.postgresql.util.GT;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.PSQLState;
+import org.postgresql.util.VertxHelper;
+
+import io.vertx.core.Vertx;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Non-blocking pool of {@link VxConnection}s.
+ * <p>
+ * Connections are borrowed with {@link #acquire()} and given back with
+ * {@link #release(VxConnection)}. No pool operation ever waits for a connection: when none is
+ * idle and the pool is full, the caller gets a future that is completed by the next release, in
+ * the order the requests were made, or failed once the acquire timeout is reached. Connections
+ * are opened and closed in the background to keep at least the minimum number of idle
+ * connections, without exceeding the maximum size of the pool.
+ * <p>
+ * A connection that was idle for less than the validation interval is handed out without a round
+ * trip to the server, otherwise it is validated with {@link VxConnection#isValid(int)} first. A
+ * connection released in the middle of a transaction is rolled back and reset to auto commit.
+ * A borrowed connection that is closed instead of released frees its place in the pool.
+ * <p>
+ * The connection settings are the ones of {@link BaseDataSource}, set them before the first
+ * connection is acquired.
+ */
+public class VxPoolingDataSource extends BaseDataSource {
+
+  private static final Logger LOGGER = Logger.getLogger(VxPoolingDataSource.class.getName());
+
+  private static final long MIN_HOUSEKEEPING_PERIOD = 1000;
+  private static final long MAX_HOUSEKEEPING_PERIOD = 30000;
+
+  private int maxConnections = 10;
+  private int minIdleConnections = 0;
+  private long acquireTimeout = 30000;
+  private long idleTimeout = 600000;
+  private long validationInterval = 5000;
+  private int validationTimeout = 5;
+
+  private final VxDriver driver = new VxDriver();
+  private final Object lock = new Object();
+
+  // guarded by lock
+  private final ArrayDeque<IdleConnection> idle = new ArrayDeque<IdleConnection>();
+  private final ArrayDeque<Waiter> waiters = new ArrayDeque<Waiter>();
+  private final Set<VxConnection> borrowed =
+      Collections.newSetFromMap(new IdentityHashMap<VxConnection, Boolean>());
+  private int size;
+  private int opening;
+  private boolean started;
+  private boolean closed;
+  private long housekeepingTimer = -1;
+
+  /**
+   * Gets a description of this DataSource.
+   */
+  public String getDescription() {
+    return "Non-blocking pooling DataSource from "
+        + org.postgresql.util.DriverInfo.DRIVER_FULL_NAME;
+  }
+
+  /**
+   * @return maximum number of connections, idle and borrowed, the pool opens. Defaults to 10.
+   */
+  public int getMaxConnections() {
+    return maxConnections;
+  }
+
+  /**
+   * @param maxConnections maximum number of connections, idle and borrowed, the pool opens
+   */
+  public void setMaxConnections(int maxConnections) {
+    if (maxConnections < 1) {
+      throw new IllegalArgumentException("maxConnections must be positive: " + maxConnections);
+    }
+    this.maxConnections = maxConnections;
+  }
+
+  /**
+   * @return number of idle connections the pool keeps open. Defaults to 0.
+   */
+  public int getMinIdleConnections() {
+    return minIdleConnections;
+  }
+
+  /**
+   * @param minIdleConnections number of idle connections the pool keeps open, as long as the
+   *     maximum size allows
+   */
+  public void setMinIdleConnections(int minIdleConnections) {
+    if (minIdleConnections < 0) {
+      throw new IllegalArgumentException(
+          "minIdleConnections must not be negative: " + minIdleConnections);
+    }
+    this.minIdleConnections = minIdleConnections;
+  }
+
+  /**
+   * @return milliseconds {@link #acquire()} waits for a connection, 0 waits forever. Defaults to
+   *     30 seconds.
+   */
+  public long getAcquireTimeout() {
+    return acquireTimeout;
+  }
+
+  /**
+   * @param acquireTimeout milliseconds {@link #acquire()} waits for a connection, 0 waits forever
+   */
+  public void setAcquireTimeout(long acquireTimeout) {
+    if (acquireTimeout < 0) {
+      throw new IllegalArgumentException("acquireTimeout must not be negative: " + acquireTimeout);
+    }
+    this.acquireTimeout = acquireTimeout;
+  }
+
+  /**
+   * @return milliseconds after which a connection above the minimum idle connections is closed
+   *     when it is not used, 0 never closes idle connections. Defaults to 10 minutes.
+   */
+  public long getIdleTimeout() {
+    return idleTimeout;
+  }
+
+  /**
+   * @param idleTimeout milliseconds after which a connection above the minimum idle connections
+   *     is closed when it is not used, 0 never closes idle connections
+   */
+  public void setIdleTimeout(long idleTimeout) {
+    if (idleTimeout < 0) {
+      throw new IllegalArgumentException("idleTimeout must not be negative: " + idleTimeout);
+    }
+    this.idleTimeout = idleTimeout;
+  }
+
+  /**
+   * @return milliseconds a connection can be idle before it is validated with a round trip when
+   *     it is acquired, 0 validates every time. Defaults to 5 seconds.
+   */
+  public long getValidationInterval() {
+    return validationInterval;
+  }
+
+  /**
+   * @param validationInterval milliseconds a connection can be idle before it is validated with
+   *     a round trip when it is acquired, 0 validates every time
+   */
+  public void setValidationInterval(long validationInterval) {
+    if (validationInterval < 0) {
+      throw new IllegalArgumentException(
+          "validationInterval must not be negative: " + validationInterval);
+    }
+    this.validationInterval = validationInterval;
+  }
+
+  /**
+   * @return seconds the validation of a connection may take. Defaults to 5 seconds.
+   */
+  public int getValidationTimeout() {
+    return validationTimeout;
+  }
+
+  /**
+   * @param validationTimeout seconds the validation of a connection may take, 0 waits forever
+   */
+  public void setValidationTimeout(int validationTimeout) {
+    if (validationTimeout < 0) {
+      throw new IllegalArgumentException(
+          "validationTimeout must not be negative: " + validationTimeout);
+    }
+    this.validationTimeout = validationTimeout;
+  }
+
+  /**
+   * @return number of open connections, including the ones being opened
+   */
+  public int getTotalConnections() {
+    synchronized (lock) {
+      return size;
+    }
+  }
+
+  /**
+   * @return number of idle connections
+   */
+  public int getIdleConnections() {
+    synchronized (lock) {
+      return idle.size();
+    }
+  }
+
+  /**
+   * @return number of {@link #acquire()} calls waiting for a connection
+   */
+  public int getPendingAcquires() {
+    synchronized (lock) {
+      return waiters.size();
+    }
+  }
+
+  /**
+   * Starts the pool and opens the minimum number of idle connections in the background. Calling
+   * this is optional, the pool starts with the first {@link #acquire()}.
+   *
+   * @throws SQLException if the pool has been closed
+   */
+  public void initialize() throws SQLException {
+    synchronized (lock) {
+      checkOpen();
+      start();
+    }
+    fill();
+  }
+
+  /**
+   * Borrows a connection from the pool.
+   *
+   * @return the connection, failed with a SQLException if the pool is closed, no connection could
+   *     be opened or the acquire timeout is reached
+   */
+  public CompletableFuture<VxConnection> acquire() {
+    return acquire(false);
+  }
+
+  /**
+   * @param retry whether the caller already had its turn and got a connection that failed
+   *     validation, then it waits at the head of the queue
+   */
+  private CompletableFuture<VxConnection> acquire(boolean retry) {
+    IdleConnection candidate;
+    Waiter waiter = null;
+    synchronized (lock) {
+      if (closed) {
+        return failed(poolClosed());
+      }
+      start();
+      candidate = idle.pollFirst();
+      if (candidate != null) {
+        borrowed.add(candidate.connection);
+      } else {
+        waiter = new Waiter();
+        if (retry) {
+          waiters.addFirst(waiter);
+        } else {
+          waiters.addLast(waiter);
+        }
+      }
+    }
+
+    if (candidate != null) {
+      return checkOut(candidate);
+    }
+    waiter.startTimer();
+    fill();
+    return waiter.future;
+  }
+
+  /**
+   * Gives a connection back to the pool. A connection that was closed is discarded, one that is
+   * in a transaction is rolled back first.
+   *
+   * @param connection a connection returned by {@link #acquire()}
+   * @return completed when the connection is back in the pool
+   */
+  public CompletableFuture<Void> release(VxConnection connection) {
+    boolean wasBorrowed;
+    synchronized (lock) {
+      wasBorrowed = borrowed.remove(connection);
+    }
+    if (!wasBorrowed) {
+      if (isClosedQuietly(connection)) {
+        // closed while borrowed, the close handler has already given its place back
+        return CompletableFuture.completedFuture(null);
+      }
+      return failed(new PSQLException(GT.tr("The connection does not belong to this pool."),
+          PSQLState.INVALID_PARAMETER_VALUE));
+    }
+
+    try {
+      if (connection.isClosed()) {
+        discard(connection);
+        return CompletableFuture.completedFuture(null);
+      }
+      if (!connection.getAutoCommit()) {
+        await(connection.rollback());
+        await(connection.setAutoCommit(true));
+      } else if (connection.getTransactionState() != TransactionState.IDLE) {
+        // a transaction was started with an explicit BEGIN, do not guess how to end it
+        discard(connection);
+        return CompletableFuture.completedFuture(null);
+      }
+    } catch (Exception e) {
+      LOGGER.log(Level.FINE, "Discarding connection that could not be reset", e);
+      discard(connection);
+      return CompletableFuture.completedFuture(null);
+    }
+
+    offer(connection);
+    return CompletableFuture.completedFuture(null);
+  }
+
+  /**
+   * Closes the pool: pending {@link #acquire()} calls fail, idle connections are closed and
+   * borrowed connections are closed when they are released.
+   */
+  public void close() {
+    List<Waiter> pending;
+    List<IdleConnection> unused;
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (housekeepingTimer != -1) {
+        vertx().cancelTimer(housekeepingTimer);
+        housekeepingTimer = -1;
+      }
+      pending = new ArrayList<Waiter>(waiters);
+      waiters.clear();
+      unused = new ArrayList<IdleConnection>(idle);
+      idle.clear();
+      size -= unused.size();
+    }
+
+    for (Waiter waiter : pending) {
+      waiter.fail(poolClosed());
+    }
+    for (IdleConnection connection : unused) {
+      closeQuietly(connection.connection);
+    }
+  }
+
+  private CompletableFuture<VxConnection> checkOut(IdleConnection candidate) {
+    VxConnection connection = candidate.connection;
+    boolean valid;
+    try {
+      if (connection.isClosed()) {
+        valid = false;
+      } else if (System.nanoTime() - candidate.idleSince
+          >= TimeUnit.MILLISECONDS.toNanos(validationInterval)) {
+        valid = await(connection.isValid(validationTimeout));
+      } else {
+        valid = true;
+      }
+    } catch (Exception e) {
+      valid = false;
+    }
+
+    if (valid) {
+      return CompletableFuture.completedFuture(connection);
+    }
+    synchronized (lock) {
+      borrowed.remove(connection);
+    }
+    discard(connection);
+    return acquire(true);
+  }
+
+  /**
+   * Hands a connection to the oldest waiter, or makes it idle if nobody is waiting.
+   */
+  private void offer(VxConnection connection) {
+    while (true) {
+      Waiter waiter;
+      synchronized (lock) {
+        if (closed) {
+          size--;
+          break;
+        }
+        waiter = waiters.pollFirst();
+        if (waiter == null) {
+          idle.addFirst(new IdleConnection(connection));
+          return;
+        }
+        borrowed.add(connection);
+      }
+
+      if (waiter.complete(connection)) {
+        return;
+      }
+      synchronized (lock) {
+        borrowed.remove(connection);
+      }
+    }
+    closeQuietly(connection);
+  }
+
+  /**
+   * Closes a connection that is neither idle nor borrowed and opens replacements as needed.
+   */
+  private void discard(VxConnection connection) {
+    closeQuietly(connection);
+    synchronized (lock) {
+      size--;
+    }
+    fill();
+  }
+
+  /**
+   * Opens connections in the background for the waiters and the minimum idle connections.
+   */
+  private void fill() {
+    int count;
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      int wanted = Math.max(waiters.size(), minIdleConnections - idle.size()) - opening;
+      count = Math.max(0, Math.min(wanted, maxConnections - size));
+      size += count;
+      opening += count;
+    }
+
+    for (int i = 0; i < count; i++) {
+      open().whenComplete((connection, error) -> {
+        synchronized (lock) {
+          opening--;
+          if (error != null) {
+            size--;
+          }
+        }
+        if (error == null) {
+          offer(connection);
+          return;
+        }
+
+        LOGGER.log(Level.FINE, "Could not open a pooled connection", error);
+        // The opens still in flight serve the oldest waiters, let the newest one that is left
+        // without a connection know instead of having it wait for its timeout.
+        Waiter waiter = null;
+        synchronized (lock) {
+          if (waiters.size() > opening) {
+            waiter = waiters.pollLast();
+          }
+        }
+        if (waiter != null) {
+          waiter.fail(error);
+        }
+      });
+    }
+  }
+
+  private CompletableFuture<VxConnection> open() {
+    Properties info = new Properties();
+    if (getUser() != null) {
+      info.setProperty("user", getUser());
+    }
+    if (getPassword() != null) {
+      info.setProperty("password", getPassword());
+    }
+    try {
+      CompletableFuture<VxConnection> connection = driver.connectAsync(getUrl(), info);
+      if (connection == null) {
+        return failed(new PSQLException(GT.tr("Invalid connection URL: {0}", getUrl()),
+            PSQLState.CONNECTION_UNABLE_TO_CONNECT));
+      }
+      return connection.thenApply(opened -> {
+        opened.setCloseHandler(() -> closed(opened));
+        return opened;
+      });
+    } catch (SQLException e) {
+      return failed(e);
+    }
+  }
+
+  /**
+   * Gives the place of a connection back when the application closed it instead of releasing
+   * it. The connections the pool closes itself are neither borrowed nor idle at that point.
+   */
+  private void closed(VxConnection connection) {
+    synchronized (lock) {
+      if (!borrowed.remove(connection)) {
+        return;
+      }
+      size--;
+    }
+    fill();
+  }
+
+  /**
+   * Closes the connections that have been idle for too long, keeping the minimum idle
+   * connections, and opens missing ones.
+   */
+  private void housekeeping() {
+    List<VxConnection> expired = new ArrayList<VxConnection>();
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      if (idleTimeout > 0) {
+        long now = System.nanoTime();
+        long timeout = TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+        // the least recently used connections are at the end
+        Iterator<IdleConnection> it = idle.descendingIterator();
+        while (it.hasNext() && idle.size() > minIdleConnections) {
+          IdleConnection connection = it.next();
+          if (now - connection.idleSince < timeout) {
+            break;
+          }
+          it.remove();
+          size--;
+          expired.add(connection.connection);
+        }
+      }
+    }
+
+    for (VxConnection connection : expired) {
+      closeQuietly(connection);
+    }
+    fill();
+  }
+
+  // must be called with lock held
+  private void start() {
+    if (started) {
+      return;
+    }
+    started = true;
+    long period = idleTimeout == 0 ? MAX_HOUSEKEEPING_PERIOD : idleTimeout / 2;
+    period = Math.max(MIN_HOUSEKEEPING_PERIOD, Math.min(MAX_HOUSEKEEPING_PERIOD, period));
+    housekeepingTimer = vertx().setPeriodic(period, ignored -> housekeeping());
+  }
+
+  private Vertx vertx() {
+    return VertxHelper.getVertx(getEventLoopSize(), getPreferNativeTransport());
+  }
+
+  private void checkOpen() throws SQLException {
+    if (closed) {
+      throw poolClosed();
+    }
+  }
+
+  private static PSQLException poolClosed() {
+    return new PSQLException(GT.tr("This connection pool has been closed."),
+        PSQLState.CONNECTION_DOES_NOT_EXIST);
+  }
+
+  private static boolean isClosedQuietly(VxConnection connection) {
+    try {
+      return connection.isClosed();
+    } catch (SQLException e) {
+      return true;
+    }
+  }
+
+  private static void closeQuietly(VxConnection connection) {
+    try {
+      connection.close();
+    } catch (SQLException e) {
+      LOGGER.log(Level.FINE, "Closing pooled connection failed", e);
+    }
+  }
+
+  private static <T> CompletableFuture<T> failed(Throwable error) {
+    CompletableFuture<T> future = new CompletableFuture<T>();
+    future.completeExceptionally(error);
+    return future;
+  }
+
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isAssignableFrom(getClass());
+  }
+
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    if (iface.isAssignableFrom(getClass())) {
+      return iface.cast(this);
+    }
+    throw new SQLException("Cannot unwrap to " + iface.getName());
+  }
+
+  private static class IdleConnection {
+    final VxConnection connection;
+    final long idleSince = System.nanoTime();
+
+    IdleConnection(VxConnection connection) {
+      this.connection = connection;
+    }
+  }
+
+  private class Waiter {
+    final CompletableFuture<VxConnection> future = new CompletableFuture<VxConnection>();
+    private long timer = -1;
+
+    void startTimer() {
+      if (acquireTimeout == 0) {
+        return;
+      }
+      long id = vertx().setTimer(acquireTimeout, ignored -> {
+        synchronized (lock) {
+          waiters.remove(this);
+        }
+        future.completeExceptionally(new PSQLException(
+            GT.tr("Timed out waiting for a pooled connection after {0} milliseconds.",
+                acquireTimeout), PSQLState.CONNECTION_UNABLE_TO_CONNECT));
+      });
+      synchronized (this) {
+        timer = id;
+        if (future.isDone()) {
+          vertx().cancelTimer(id);
+        }
+      }
+    }
+
+    boolean complete(VxConnection connection) {
+      cancelTimer();
+      return future.complete(connection);
+    }
+
+    void fail(Throwable error) {
+      cancelTimer();
+      future.completeExceptionally(error);
+    }
+
+    private synchronized void cancelTimer() {
+      if (timer != -1) {
+        vertx().cancelTimer(timer);
+      }
+    }
+  }
+}
@@ -322,6 +322,151 @@ public abstract class BaseDataSource implements CommonDataSource, Referenceable
     PGProperty.SEND_BUFFER_SIZE.set(properties, nbytes);
   }
 
+  /**
+   * @return true if auto-commit statements are pipelined
+   * @see PGProperty#PIPELINE_QUERIES
+   */
+  public boolean getPipelineQueries() {
+    return PGProperty.PIPELINE_QUERIES.getBoolean(properties);
+  }
+
+  /**
+   * @param pipelineQueries true to pipeline auto-commit statements
+   * @see PGProperty#PIPELINE_QUERIES
+   */
+  public void setPipelineQueries(boolean pipelineQueries) {
+    PGProperty.PIPELINE_QUERIES.set(properties, pipelineQueries);
+  }
+
+  /**
+   * @return milliseconds a request waits for a connection used by other callers
+   * @see PGProperty#CONNECTION_LOCK_TIMEOUT
+   */
+  public int getConnectionLockTimeout() {
+    return PGProperty.CONNECTION_LOCK_TIMEOUT.getIntNoCheck(properties);
+  }
+
+  /**
+   * @param connectionLockTimeout milliseconds a request waits for a connection used by other
+   *     callers, 0 means no limit
+   * @see PGProperty#CONNECTION_LOCK_TIMEOUT
+   */
+  public void setConnectionLockTimeout(int connectionLockTimeout) {
+    PGProperty.CONNECTION_LOCK_TIMEOUT.set(properties, connectionLockTimeout);
+  }
+
+  /**
+   * @return number of pages fetched ahead
+   * @see PGProperty#PREFETCH_PAGES
+   */
+  public int getPrefetchPages() {
+    return PGProperty.PREFETCH_PAGES.getIntNoCheck(properties);
+  }
+
+  /**
+   * @param pages number of pages fetched ahead
+   * @see PGProperty#PREFETCH_PAGES
+   */
+  public void setPrefetchPages(int pages) {
+    PGProperty.PREFETCH_PAGES.set(properties, pages);
+  }
+
+  /**
+   * @return number of bytes fetched ahead after which prefetching stops
+   * @see PGProperty#PREFETCH_MAX_BYTES
+   */
+  public int getPrefetchMaxBytes() {
+    return PGProperty.PREFETCH_MAX_BYTES.getIntNoCheck(properties);
+  }
+
+  /**
+   * @param nbytes number of bytes fetched ahead after which prefetching stops
+   * @see PGProperty#PREFETCH_MAX_BYTES
+   */
+  public void setPrefetchMaxBytes(int nbytes) {
+    PGProperty.PREFETCH_MAX_BYTES.set(properties, nbytes);
+  }
+
+  /**
+   * @return number of distinct strings cached per result column
+   * @see PGProperty#COLUMN_STRING_CACHE_SIZE
+   */
+  public int getColumnStringCacheSize() {
+    return PGProperty.COLUMN_STRING_CACHE_SIZE.getIntNoCheck(properties);
+  }
+
+  /**
+   * @param size number of distinct strings cached per result column, 0 to disable the cache
+   * @see PGProperty#COLUMN_STRING_CACHE_SIZE
+   */
+  public void setColumnStringCacheSize(int size) {
+    PGProperty.COLUMN_STRING_CACHE_SIZE.set(properties, size);
+  }
+
+  /**
+   * @return read buffer high watermark
+   * @see PGProperty#READ_BUFFER_HIGH_WATERMARK
+   */
+  public int getReadBufferHighWatermark() {
+    return PGProperty.READ_BUFFER_HIGH_WATERMARK.getIntNoCheck(properties);
+  }
+
+  /**
+   * @param nbytes read buffer high watermark
+   * @see PGProperty#READ_BUFFER_HIGH_WATERMARK
+   */
+  public void setReadBufferHighWatermark(int nbytes) {
+    PGProperty.READ_BUFFER_HIGH_WATERMARK.set(properties, nbytes);
+  }
+
+  /**
+   * @return read buffer low watermark
+   * @see PGProperty#READ_BUFFER_LOW_WATERMARK
+   */
+  public int getReadBufferLowWatermark() {
+    return PGProperty.READ_BUFFER_LOW_WATERMARK.getIntNoCheck(properties);
+  }
+
+  /**
+   * @param nbytes read buffer low watermark
+   * @see PGProperty#READ_BUFFER_LOW_WATERMARK
+   */
+  public void setReadBufferLowWatermark(int nbytes) {
+    PGProperty.READ_BUFFER_LOW_WATERMARK.set(properties, nbytes);
+  }
+
+  /**
+   * @return number of event loop threads
+   * @see PGProperty#EVENT_LOOP_SIZE
+   */
+  public int getEventLoopSize() {
+    return PGProperty.EVENT_LOOP_SIZE.getIntNoCheck(properties);
+  }
+
+  /**
+   * @param eventLoopSize number of event loop threads, 0 for the instance shared by the driver
+   * @see PGProperty#EVENT_LOOP_SIZE
+   */
+  public void setEventLoopSize(int eventLoopSize) {
+    PGProperty.EVENT_LOOP_SIZE.set(properties, eventLoopSize);
+  }
+
+  /**
+   * @return whether the native transport is used when available
+   * @see PGProperty#PREFER_NATIVE_TRANSPORT
+   */
+  public boolean getPreferNativeTransport() {
+    return PGProperty.PREFER_NATIVE_TRANSPORT.getBoolean(properties);
+  }
+
+  /**
+   * @param preferNativeTransport whether to use the native transport when available
+   * @see PGProperty#PREFER_NATIVE_TRANSPORT
+   */
+  public void setPreferNativeTransport(boolean preferNativeTransport) {
+    PGProperty.PREFER_NATIVE_TRANSPORT.set(properties, preferNativeTransport);
+  }
+
   /**
    * @param count prepare threshold
    * @see PGProperty#PREPARE_THRESHOLD
@@ -632,6 +777,22 @@ public abstract class BaseDataSource implements CommonDataSource, Referenceable
     PGProperty.SSL_PASSWORD_CALLBACK.set(properties, className);
   }
 
+  /**
+   * @return TLS implementation
+   * @see PGProperty#SSL_ENGINE
+   */
+  public String getSslEngine() {
+    return PGProperty.SSL_ENGINE.get(properties);
+  }
+
+  /**
+   * @param sslEngine TLS implementation, jdk or openssl
+   * @see PGProperty#SSL_ENGINE
+   */
+  public void setSslEngine(String sslEngine) {
+    PGProperty.SSL_ENGINE.set(properties, sslEngine);
+  }
+
   /**
    * @param applicationName application name
    * @see PGProperty#APPLICATION_NAME
@@ -680,6 +841,22 @@ public abstract class BaseDataSource implements CommonDataSource, Referenceable
     return PGProperty.LOAD_BALANCE_HOSTS.isPresent(properties);
   }
 
+  /**
+   * @param loadBalanceStrategy load balance strategy
+   * @see PGProperty#LOAD_BALANCE_STRATEGY
+   */
+  public void setLoadBalanceStrategy(String loadBalanceStrategy) {
+    PGProperty.LOAD_BALANCE_STRATEGY.set(properties, loadBalanceStrategy);
+  }
+
+  /**
+   * @return load balance strategy
+   * @see PGProperty#LOAD_BALANCE_STRATEGY
+   */
+  public String getLoadBalanceStrategy() {
+    return PGProperty.LOAD_BALANCE_STRATEGY.get(properties);
+  }
+
   /**
    * @param hostRecheckSeconds host recheck seconds
    * @see PGProperty#HOST_RECHECK_SECONDS
@@ -696,6 +873,39 @@ public abstract class BaseDataSource implements CommonDataSource, Referenceable
     return PGProperty.HOST_RECHECK_SECONDS.getIntNoCheck(properties);
   }
 
+  /**
+   * @param hostProbeInterval seconds between background checks of the hosts, 0 to disable them
+   * @see PGProperty#HOST_PROBE_INTERVAL
+   */
+  public void setHostProbeInterval(int hostProbeInterval) {
+    PGProperty.HOST_PROBE_INTERVAL.set(properties, hostProbeInterval);
+  }
+
+  /**
+   * @return seconds between background checks of the hosts, 0 if they are disabled
+   * @see PGProperty#HOST_PROBE_INTERVAL
+   */
+  public int getHostProbeInterval() {
+    return PGProperty.HOST_PROBE_INTERVAL.getIntNoCheck(properties);
+  }
+
+  /**
+   * @param parallelConnectDelay milliseconds between parallel connection attempts, -1 to connect
+   *     sequentially
+   * @see PGProperty#PARALLEL_CONNECT_DELAY
+   */
+  public void setParallelConnectDelay(int parallelConnectDelay) {
+    PGProperty.PARALLEL_CONNECT_DELAY.set(properties, parallelConnectDelay);
+  }
+
+  /**
+   * @return milliseconds between parallel connection attempts, -1 to connect sequentially
+   * @see PGProperty#PARALLEL_CONNECT_DELAY
+   */
+  public int getParallelConnectDelay() {
+    return PGProperty.PARALLEL_CONNECT_DELAY.getIntNoCheck(properties);
+  }
+
   /**
    * @param enabled if TCP keep alive should be enabled
    * @see PGProperty#TCP_KEEP_ALIVE
@@ -864,6 +1074,22 @@ public abstract class BaseDataSource implements CommonDataSource, Referenceable
     PGProperty.ASSUME_MIN_SERVER_VERSION.set(properties, minVersion);
   }
 
+  /**
+   * @return true if the server version is remembered to skip a round trip when connecting
+   * @see PGProperty#CACHE_SERVER_VERSION
+   */
+  public boolean getCacheServerVersion() {
+    return PGProperty.CACHE_SERVER_VERSION.getBoolean(properties);
+  }
+
+  /**
+   * @param enabled true to remember the server version to skip a round trip when connecting
+   * @see PGProperty#CACHE_SERVER_VERSION
+   */
+  public void setCacheServerVersion(boolean enabled) {
+    PGProperty.CACHE_SERVER_VERSION.set(properties, enabled);
+  }
+
   /**
    * @return JAAS application name
    * @see PGProperty#JAAS_APPLICATION_NAME
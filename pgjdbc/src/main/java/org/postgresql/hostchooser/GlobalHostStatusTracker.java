@@ -10,16 +10,18 @@ import static java.lang.System.currentTimeMillis;
 import org.postgresql.util.HostSpec;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Keeps track of HostSpec targets in a global map.
+ * <p>
+ * The map is read on every connection attempt, so it takes no lock.
  */
 public class GlobalHostStatusTracker {
-  private static final Map<HostSpec, HostSpecStatus> hostStatusMap =
-      new HashMap<HostSpec, HostSpecStatus>();
+  private static final ConcurrentMap<HostSpec, HostSpecStatus> hostStatusMap =
+      new ConcurrentHashMap<HostSpec, HostSpecStatus>();
 
   /**
    * Store the actual observed host status.
@@ -28,16 +30,55 @@ public class GlobalHostStatusTracker {
    * @param hostStatus Latest known status for the host.
    */
   public static void reportHostStatus(HostSpec hostSpec, HostStatus hostStatus) {
-    long now = currentTimeMillis();
-    synchronized (hostStatusMap) {
-      HostSpecStatus hostSpecStatus = hostStatusMap.get(hostSpec);
+    getHostSpecStatus(hostSpec).observed = new Observation(hostStatus, currentTimeMillis());
+  }
+
+  /**
+   * Stores that a host accepts connections, unless its role is known. Only a session can tell
+   * whether the server is a master, a known role is checked again by the first connection attempt
+   * after it got older than the host recheck time.
+   *
+   * @param hostSpec The host that answered.
+   */
+  public static void reportHostReachable(HostSpec hostSpec) {
+    HostSpecStatus hostSpecStatus = getHostSpecStatus(hostSpec);
+    Observation observed = hostSpecStatus.observed;
+    if (observed == null || observed.status == HostStatus.ConnectFail
+        || observed.status == HostStatus.ConnectOK) {
+      hostSpecStatus.observed = new Observation(HostStatus.ConnectOK, currentTimeMillis());
+    }
+  }
+
+  /**
+   * @param hostSpec The host.
+   * @return the latest observed status of the host, or null if it is not known
+   */
+  public static HostStatus getHostStatus(HostSpec hostSpec) {
+    HostSpecStatus hostSpecStatus = hostStatusMap.get(hostSpec);
+    Observation observed = hostSpecStatus == null ? null : hostSpecStatus.observed;
+    return observed == null ? null : observed.status;
+  }
+
+  /**
+   * Returns the load statistics of a host, which are kept as long as the host status.
+   *
+   * @param hostSpec The host.
+   * @return the load of the host, never null.
+   */
+  public static HostLoad getHostLoad(HostSpec hostSpec) {
+    return getHostSpecStatus(hostSpec).load;
+  }
+
+  private static HostSpecStatus getHostSpecStatus(HostSpec hostSpec) {
+    HostSpecStatus hostSpecStatus = hostStatusMap.get(hostSpec);
+    if (hostSpecStatus == null) {
+      HostSpecStatus created = new HostSpecStatus(hostSpec);
+      hostSpecStatus = hostStatusMap.putIfAbsent(hostSpec, created);
       if (hostSpecStatus == null) {
-        hostSpecStatus = new HostSpecStatus(hostSpec);
-        hostStatusMap.put(hostSpec, hostSpecStatus);
+        hostSpecStatus = created;
       }
-      hostSpecStatus.status = hostStatus;
-      hostSpecStatus.lastUpdated = now;
     }
+    return hostSpecStatus;
   }
 
   /**
@@ -52,15 +93,14 @@ public class GlobalHostStatusTracker {
       HostRequirement targetServerType, long hostRecheckMillis) {
     List<HostSpec> candidates = new ArrayList<HostSpec>(hostSpecs.length);
     long latestAllowedUpdate = currentTimeMillis() - hostRecheckMillis;
-    synchronized (hostStatusMap) {
-      for (HostSpec hostSpec : hostSpecs) {
-        HostSpecStatus hostInfo = hostStatusMap.get(hostSpec);
-        // candidates are nodes we do not know about and the nodes with correct type
-        if (hostInfo == null
-            || hostInfo.lastUpdated < latestAllowedUpdate
-            || targetServerType.allowConnectingTo(hostInfo.status)) {
-          candidates.add(hostSpec);
-        }
+    for (HostSpec hostSpec : hostSpecs) {
+      HostSpecStatus hostInfo = hostStatusMap.get(hostSpec);
+      Observation observed = hostInfo == null ? null : hostInfo.observed;
+      // candidates are nodes we do not know about and the nodes with correct type
+      if (observed == null
+          || observed.lastUpdated < latestAllowedUpdate
+          || targetServerType.allowConnectingTo(observed.status)) {
+        candidates.add(hostSpec);
       }
     }
     return candidates;
@@ -68,8 +108,9 @@ public class GlobalHostStatusTracker {
 
   static class HostSpecStatus {
     final HostSpec host;
-    HostStatus status;
-    long lastUpdated;
+    final HostLoad load = new HostLoad();
+    // status and time of the latest observation, published together
+    volatile Observation observed;
 
     HostSpecStatus(HostSpec host) {
       this.host = host;
@@ -77,7 +118,18 @@ public class GlobalHostStatusTracker {
 
     @Override
     public String toString() {
-      return host.toString() + '=' + status;
+      Observation observed = this.observed;
+      return host.toString() + '=' + (observed == null ? null : observed.status) + " (" + load + ')';
+    }
+  }
+
+  static final class Observation {
+    final HostStatus status;
+    final long lastUpdated;
+
+    Observation(HostStatus status, long lastUpdated) {
+      this.status = status;
+      this.lastUpdated = lastUpdated;
     }
   }
 }
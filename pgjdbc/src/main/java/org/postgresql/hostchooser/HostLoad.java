@@ -0,0 +1,87 @@
+package org.postgresql.hostchooser;
+
+/**
+ * Load of a host as seen by this JVM, shared by all the connections to it.
+ * <p>
+ * The latencies are exponentially weighted moving averages, so recent samples weigh most and a
+ * host that slows down is noticed after a few requests. A latency is 0 until it has been
+ * measured.
+ */
+public class HostLoad {
+  /**
+   * Weight of a new sample in the moving averages.
+   */
+  private static final double ALPHA = 0.2;
+
+  private double connectLatency;
+  private double requestLatency;
+  private int inFlight;
+
+  /**
+   * Records the time it took to open a connection, including authentication.
+   *
+   * @param nanos duration of the connection attempt
+   */
+  public synchronized void connected(long nanos) {
+    connectLatency = average(connectLatency, nanos);
+  }
+
+  /**
+   * Records that a request has been sent to the host.
+   */
+  public synchronized void requestStarted() {
+    inFlight++;
+  }
+
+  /**
+   * Records that the responses to a request have been read.
+   *
+   * @param nanos time from queueing the request until its responses were read
+   */
+  public synchronized void requestFinished(long nanos) {
+    inFlight--;
+    requestLatency = average(requestLatency, nanos);
+  }
+
+  /**
+   * @return number of requests sent to the host whose responses have not been read yet
+   */
+  public synchronized int getInFlight() {
+    return inFlight;
+  }
+
+  /**
+   * @return average connection latency in nanoseconds
+   */
+  public synchronized double getConnectLatency() {
+    return connectLatency;
+  }
+
+  /**
+   * @return average request latency in nanoseconds
+   */
+  public synchronized double getRequestLatency() {
+    return requestLatency;
+  }
+
+  /**
+   * Estimates how long a new request would take: the request latency, or the connection latency
+   * while no request has completed, multiplied by the requests it would queue behind.
+   *
+   * @return relative cost of sending one more request to the host
+   */
+  public synchronized double getCost() {
+    double latency = requestLatency > 0 ? requestLatency : connectLatency;
+    return (inFlight + 1) * latency;
+  }
+
+  private static double average(double average, long sample) {
+    return average == 0 ? sample : average + ALPHA * (sample - average);
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "inFlight=" + inFlight + ", connectLatency=" + (long) connectLatency
+        + "ns, requestLatency=" + (long) requestLatency + "ns";
+  }
+}
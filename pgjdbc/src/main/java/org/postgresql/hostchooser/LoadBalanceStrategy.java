@@ -0,0 +1,101 @@
+package org.postgresql.hostchooser;
+
+import org.postgresql.util.HostSpec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Orders the candidate hosts when {@code loadBalanceHosts} is enabled, based on the
+ * {@link HostLoad} reported for them.
+ */
+public enum LoadBalanceStrategy {
+  /**
+   * Random order.
+   */
+  random {
+    @Override
+    void order(List<HostSpecLoad> hosts, Random rnd) {
+    }
+  },
+  /**
+   * Fewest requests in flight first, hosts with the same number are ordered by cost.
+   */
+  leastOutstanding {
+    @Override
+    void order(List<HostSpecLoad> hosts, Random rnd) {
+      Collections.sort(hosts, new Comparator<HostSpecLoad>() {
+        @Override
+        public int compare(HostSpecLoad a, HostSpecLoad b) {
+          if (a.inFlight != b.inFlight) {
+            return a.inFlight < b.inFlight ? -1 : 1;
+          }
+          return Double.compare(a.cost, b.cost);
+        }
+      });
+    }
+  },
+  /**
+   * Each position goes to the cheaper of two hosts picked at random among the remaining ones.
+   * Unlike always picking the cheapest host, this does not send every new connection to the same
+   * host while its load statistics lag behind.
+   */
+  powerOfTwoChoices {
+    @Override
+    void order(List<HostSpecLoad> hosts, Random rnd) {
+      for (int i = 0; i < hosts.size() - 1; i++) {
+        int a = i + rnd.nextInt(hosts.size() - i);
+        int b = i + rnd.nextInt(hosts.size() - i - 1);
+        if (b >= a) {
+          b++;
+        }
+        int winner = hosts.get(b).cost < hosts.get(a).cost ? b : a;
+        Collections.swap(hosts, i, winner);
+      }
+    }
+  };
+
+  /**
+   * Orders the hosts, which are shuffled already.
+   */
+  abstract void order(List<HostSpecLoad> hosts, Random rnd);
+
+  /**
+   * Orders the hosts in place.
+   *
+   * @param hosts the candidate hosts
+   */
+  public void order(List<HostSpec> hosts) {
+    Random rnd = ThreadLocalRandom.current();
+    Collections.shuffle(hosts, rnd);
+    if (this == random || hosts.size() < 2) {
+      return;
+    }
+
+    // Snapshot the loads, so they do not change while sorting
+    List<HostSpecLoad> loads = new ArrayList<HostSpecLoad>(hosts.size());
+    for (HostSpec hostSpec : hosts) {
+      loads.add(new HostSpecLoad(hostSpec, GlobalHostStatusTracker.getHostLoad(hostSpec)));
+    }
+    order(loads, rnd);
+    for (int i = 0; i < loads.size(); i++) {
+      hosts.set(i, loads.get(i).hostSpec);
+    }
+  }
+
+  static final class HostSpecLoad {
+    final HostSpec hostSpec;
+    final int inFlight;
+    final double cost;
+
+    HostSpecLoad(HostSpec hostSpec, HostLoad load) {
+      this.hostSpec = hostSpec;
+      this.inFlight = load.getInFlight();
+      this.cost = load.getCost();
+    }
+  }
+}
@@ -5,8 +5,6 @@
 
 package org.postgresql.hostchooser;
 
-import static java.util.Collections.shuffle;
-
 import org.postgresql.PGProperty;
 import org.postgresql.util.HostSpec;
 import org.postgresql.util.PSQLException;
@@ -14,7 +12,6 @@ import org.postgresql.util.PSQLException;
 import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
@@ -27,6 +24,7 @@ class MultiHostChooser implements HostChooser {
   private final HostRequirement targetServerType;
   private int hostRecheckTime;
   private boolean loadBalance;
+  private LoadBalanceStrategy loadBalanceStrategy;
 
   MultiHostChooser(HostSpec[] hostSpecs, HostRequirement targetServerType,
       Properties info) {
@@ -35,6 +33,7 @@ class MultiHostChooser implements HostChooser {
     try {
       hostRecheckTime = PGProperty.HOST_RECHECK_SECONDS.getInt(info) * 1000;
       loadBalance = PGProperty.LOAD_BALANCE_HOSTS.getBoolean(info);
+      loadBalanceStrategy = LoadBalanceStrategy.valueOf(PGProperty.LOAD_BALANCE_STRATEGY.get(info));
     } catch (PSQLException e) {
       throw new RuntimeException(e);
     }
@@ -48,7 +47,7 @@ class MultiHostChooser implements HostChooser {
       List<HostSpec> allHosts = Arrays.asList(hostSpecs);
       if (loadBalance) {
         allHosts = new ArrayList<HostSpec>(allHosts);
-        Collections.shuffle(allHosts);
+        loadBalanceStrategy.order(allHosts);
       }
       res = withReqStatus(targetServerType, allHosts).iterator();
     }
@@ -88,7 +87,7 @@ class MultiHostChooser implements HostChooser {
     List<HostSpec> candidates =
         GlobalHostStatusTracker.getCandidateHosts(hostSpecs, hostRequirement, hostRecheckTime);
     if (loadBalance) {
-      shuffle(candidates);
+      loadBalanceStrategy.order(candidates);
     }
     return withReqStatus(hostRequirement, candidates);
   }
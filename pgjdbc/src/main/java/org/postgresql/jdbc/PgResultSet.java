@@ -15,6 +15,7 @@ import org.postgresql.core.Oid;
 import org.postgresql.core.Query;
 import org.postgresql.core.ResultCursor;
 import org.postgresql.core.ResultHandlerBase;
+import org.postgresql.core.TupleSlab;
 import org.postgresql.core.TypeInfo;
 import org.postgresql.core.Utils;
 import org.postgresql.util.ByteConverter;
@@ -108,6 +109,8 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 	protected int current_row = -1; // Index into 'rows' of our currrent row (0-based)
 	protected int row_offset; // Offset of row 0 in the actual resultset
 	protected byte[][] this_row; // copy of the current result row
+	private TupleSlab slab; // holds the current row while this_row is IN_SLAB
+	private int slabRow;
 	protected SQLWarning warnings = null; // The warning chain
 	/**
 	 * True if the last obtained column value was SQL NULL as specified by
@@ -224,7 +227,7 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 
 			if (type.equals("uuid")) {
 				if (isBinary(columnIndex)) {
-					return getUUID(this_row[columnIndex - 1]);
+					return getUUID(value(columnIndex - 1));
 				}
 				return getUUID(getString(columnIndex));
 			}
@@ -274,7 +277,7 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 			}
 			if ("hstore".equals(type)) {
 				if (isBinary(columnIndex)) {
-					return HStoreConverter.fromBytes(this_row[columnIndex - 1], connection.getEncoding());
+					return HStoreConverter.fromBytes(value(columnIndex - 1), connection.getEncoding());
 				}
 				return HStoreConverter.fromString(getString(columnIndex));
 			}
@@ -393,7 +396,7 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 
 		int oid = fields[i - 1].getOID();
 		if (isBinary(i)) {
-			return makeArray(oid, this_row[i - 1]);
+			return makeArray(oid, value(i - 1));
 		}
 		return makeArray(oid, getFixedString(i));
 	}
@@ -479,7 +482,7 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 			int oid = fields[col].getOID();
 			TimeZone tz = cal.getTimeZone();
 			if (oid == Oid.DATE) {
-				return connection.getTimestampUtils().toDateBin(tz, this_row[col]);
+				return connection.getTimestampUtils().toDateBin(tz, value(col));
 			} else if (oid == Oid.TIMESTAMP || oid == Oid.TIMESTAMPTZ) {
 				// If backend provides just TIMESTAMP, we use "cal" timezone
 				// If backend provides TIMESTAMPTZ, we ignore "cal" as we know true instant
@@ -511,7 +514,7 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 			int oid = fields[col].getOID();
 			TimeZone tz = cal.getTimeZone();
 			if (oid == Oid.TIME || oid == Oid.TIMETZ) {
-				return connection.getTimestampUtils().toTimeBin(tz, this_row[col]);
+				return connection.getTimestampUtils().toTimeBin(tz, value(col));
 			} else if (oid == Oid.TIMESTAMP || oid == Oid.TIMESTAMPTZ) {
 				// If backend provides just TIMESTAMP, we use "cal" timezone
 				// If backend provides TIMESTAMPTZ, we ignore "cal" as we know true instant
@@ -547,7 +550,7 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 			int col = i - 1;
 			int oid = fields[col].getOID();
 			if (oid == Oid.TIME) {
-				return connection.getTimestampUtils().toLocalTimeBin(this_row[col]);
+				return connection.getTimestampUtils().toLocalTimeBin(value(col));
 			} else {
 				throw new PSQLException(GT.tr("Cannot convert the column of type {0} to requested type {1}.",
 						Oid.toString(oid), "time"), PSQLState.DATA_TYPE_MISMATCH);
@@ -575,7 +578,7 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 			if (oid == Oid.TIMESTAMPTZ || oid == Oid.TIMESTAMP) {
 				boolean hasTimeZone = oid == Oid.TIMESTAMPTZ;
 				TimeZone tz = cal.getTimeZone();
-				return connection.getTimestampUtils().toTimestampBin(tz, this_row[col], hasTimeZone);
+				return connection.getTimestampUtils().toTimestampBin(tz, value(col), hasTimeZone);
 			} else {
 				// JDBC spec says getTimestamp of Time and Date must be supported
 				long millis;
@@ -617,7 +620,7 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 		}
 		if (isBinary(i)) {
 			TimeZone timeZone = getDefaultCalendar().getTimeZone();
-			return connection.getTimestampUtils().toLocalDateTimeBin(timeZone, this_row[col]);
+			return connection.getTimestampUtils().toLocalDateTimeBin(timeZone, value(col));
 		}
 
 		String string = getString(i);
@@ -779,6 +782,9 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 			}
 		}
 
+		// The fetch replaces the page the current row is read from.
+		byte[][] lastRow = materializedRow();
+
 		// Do the actual fetch.
 		try {
 			connection.getQueryExecutor().fetch(cursor, new CursorResultHandler(), fetchRows).get();
@@ -787,7 +793,7 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 		}
 
 		// Now prepend our one saved row and move to it.
-		rows.add(0, this_row);
+		mutableRows().add(0, lastRow);
 		current_row = 0;
 
 		// Finally, now we can tell if we're the last row or not.
@@ -918,7 +924,7 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 
 		deleteStatement.executeUpdate();
 
-		rows.remove(current_row);
+		mutableRows().remove(current_row);
 		current_row--;
 		moveToCurrentRow();
 	}
@@ -979,7 +985,7 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 			// update the underlying row to the new inserted data
 			updateRowBuffer();
 
-			rows.add(rowBuffer);
+			mutableRows().add(rowBuffer);
 
 			// we should now reflect the current data in this_row
 			// that way getXXX will get the newly inserted data
@@ -1026,7 +1032,8 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 
 		// inserts want an empty array while updates want a copy of the current row
 		if (copyCurrentRow) {
-			System.arraycopy(this_row, 0, rowBuffer, 0, this_row.length);
+			byte[][] row = materializedRow();
+			System.arraycopy(row, 0, rowBuffer, 0, row.length);
 		}
 
 		// clear the updateValues hash map for the next set of updates
@@ -1245,10 +1252,10 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 		PgResultSet rs = (PgResultSet) selectStatement.executeQuery();
 
 		if (rs.next()) {
-			rowBuffer = rs.this_row;
+			rowBuffer = rs.materializedRow();
 		}
 
-		rows.set(current_row, rowBuffer);
+		mutableRows().set(current_row, rowBuffer);
 		this_row = rowBuffer;
 
 		connection.getLogger().log(Level.FINE, "done updates");
@@ -1331,7 +1338,7 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 
 		connection.getLogger().log(Level.FINE, "copying data");
 		System.arraycopy(rowBuffer, 0, this_row, 0, rowBuffer.length);
-		rows.set(current_row, rowBuffer);
+		mutableRows().set(current_row, rowBuffer);
 
 		connection.getLogger().log(Level.FINE, "done updates");
 		updateValues.clear();
@@ -1829,7 +1836,8 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 
 		Encoding encoding = connection.getEncoding();
 		try {
-			return trimString(columnIndex, encoding.decode(this_row[columnIndex - 1]));
+			return trimString(columnIndex, encoding.decode(rowData(columnIndex - 1), rowOffset(columnIndex - 1),
+					rowLength(columnIndex - 1)));
 		} catch (IOException ioe) {
 			throw new PSQLException(GT.tr(
 					"Invalid character data was found.  This is most likely caused by stored data containing characters that are invalid for the character set the database was created in.  The most common example of this is storing 8bit data in a SQL_ASCII database."),
@@ -1875,12 +1883,11 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 
 		int col = columnIndex - 1;
 		if (Oid.BOOL == fields[col].getOID()) {
-			final byte[] v = this_row[col];
-			return (1 == v.length) && (116 == v[0]); // 116 = 't'
+			return (1 == rowLength(col)) && (116 == rowData(col)[rowOffset(col)]); // 116 = 't'
 		}
 
 		if (isBinary(columnIndex)) {
-			return BooleanTypeUtil.castToBoolean(readDoubleValue(this_row[col], fields[col].getOID(), "boolean"));
+			return BooleanTypeUtil.castToBoolean(readDoubleValue(col, fields[col].getOID(), "boolean"));
 		}
 
 		return BooleanTypeUtil.castToBoolean(getString(columnIndex));
@@ -1901,7 +1908,7 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 			int col = columnIndex - 1;
 			// there is no Oid for byte so must always do conversion from
 			// some other numeric type
-			return (byte) readLongValue(this_row[col], fields[col].getOID(), Byte.MIN_VALUE, Byte.MAX_VALUE, "byte");
+			return (byte) readLongValue(col, fields[col].getOID(), Byte.MIN_VALUE, Byte.MAX_VALUE, "byte");
 		}
 
 		String s = getString(columnIndex);
@@ -1949,9 +1956,9 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 			int col = columnIndex - 1;
 			int oid = fields[col].getOID();
 			if (oid == Oid.INT2) {
-				return ByteConverter.int2(this_row[col], 0);
+				return ByteConverter.int2(rowData(col), rowOffset(col));
 			}
-			return (short) readLongValue(this_row[col], oid, Short.MIN_VALUE, Short.MAX_VALUE, "short");
+			return (short) readLongValue(col, oid, Short.MIN_VALUE, Short.MAX_VALUE, "short");
 		}
 
 		return toShort(getFixedString(columnIndex));
@@ -1968,9 +1975,9 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 			int col = columnIndex - 1;
 			int oid = fields[col].getOID();
 			if (oid == Oid.INT4) {
-				return ByteConverter.int4(this_row[col], 0);
+				return ByteConverter.int4(rowData(col), rowOffset(col));
 			}
-			return (int) readLongValue(this_row[col], oid, Integer.MIN_VALUE, Integer.MAX_VALUE, "int");
+			return (int) readLongValue(col, oid, Integer.MIN_VALUE, Integer.MAX_VALUE, "int");
 		}
 
 		Encoding encoding = connection.getEncoding();
@@ -1994,9 +2001,9 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 			int col = columnIndex - 1;
 			int oid = fields[col].getOID();
 			if (oid == Oid.INT8) {
-				return ByteConverter.int8(this_row[col], 0);
+				return ByteConverter.int8(rowData(col), rowOffset(col));
 			}
-			return readLongValue(this_row[col], oid, Long.MIN_VALUE, Long.MAX_VALUE, "long");
+			return readLongValue(col, oid, Long.MIN_VALUE, Long.MAX_VALUE, "long");
 		}
 
 		Encoding encoding = connection.getEncoding();
@@ -2046,30 +2053,34 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 	 */
 	private long getFastLong(int columnIndex) throws SQLException, NumberFormatException {
 
-		byte[] bytes = this_row[columnIndex - 1];
+		int col = columnIndex - 1;
+		byte[] bytes = rowData(col);
+		int offset = rowOffset(col);
+		int length = rowLength(col);
+		int end = offset + length;
 
-		if (bytes.length == 0) {
+		if (length == 0) {
 			throw FAST_NUMBER_FAILED;
 		}
 
 		long val = 0;
 		int start;
 		boolean neg;
-		if (bytes[0] == '-') {
+		if (bytes[offset] == '-') {
 			neg = true;
-			start = 1;
-			if (bytes.length == 1 || bytes.length > 19) {
+			start = offset + 1;
+			if (length == 1 || length > 19) {
 				throw FAST_NUMBER_FAILED;
 			}
 		} else {
-			start = 0;
+			start = offset;
 			neg = false;
-			if (bytes.length > 18) {
+			if (length > 18) {
 				throw FAST_NUMBER_FAILED;
 			}
 		}
 
-		while (start < bytes.length) {
+		while (start < end) {
 			byte b = bytes[start++];
 			if (b < '0' || b > '9') {
 				throw FAST_NUMBER_FAILED;
@@ -2102,30 +2113,34 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 	 */
 	private int getFastInt(int columnIndex) throws SQLException, NumberFormatException {
 
-		byte[] bytes = this_row[columnIndex - 1];
+		int col = columnIndex - 1;
+		byte[] bytes = rowData(col);
+		int offset = rowOffset(col);
+		int length = rowLength(col);
+		int end = offset + length;
 
-		if (bytes.length == 0) {
+		if (length == 0) {
 			throw FAST_NUMBER_FAILED;
 		}
 
 		int val = 0;
 		int start;
 		boolean neg;
-		if (bytes[0] == '-') {
+		if (bytes[offset] == '-') {
 			neg = true;
-			start = 1;
-			if (bytes.length == 1 || bytes.length > 10) {
+			start = offset + 1;
+			if (length == 1 || length > 10) {
 				throw FAST_NUMBER_FAILED;
 			}
 		} else {
-			start = 0;
+			start = offset;
 			neg = false;
-			if (bytes.length > 9) {
+			if (length > 9) {
 				throw FAST_NUMBER_FAILED;
 			}
 		}
 
-		while (start < bytes.length) {
+		while (start < end) {
 			byte b = bytes[start++];
 			if (b < '0' || b > '9') {
 				throw FAST_NUMBER_FAILED;
@@ -2159,9 +2174,13 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 	 */
 	private BigDecimal getFastBigDecimal(int columnIndex) throws SQLException, NumberFormatException {
 
-		byte[] bytes = this_row[columnIndex - 1];
+		int col = columnIndex - 1;
+		byte[] bytes = rowData(col);
+		int offset = rowOffset(col);
+		int length = rowLength(col);
+		int end = offset + length;
 
-		if (bytes.length == 0) {
+		if (length == 0) {
 			throw FAST_NUMBER_FAILED;
 		}
 
@@ -2169,26 +2188,26 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 		long val = 0;
 		int start;
 		boolean neg;
-		if (bytes[0] == '-') {
+		if (bytes[offset] == '-') {
 			neg = true;
-			start = 1;
-			if (bytes.length == 1 || bytes.length > 19) {
+			start = offset + 1;
+			if (length == 1 || length > 19) {
 				throw FAST_NUMBER_FAILED;
 			}
 		} else {
-			start = 0;
+			start = offset;
 			neg = false;
-			if (bytes.length > 18) {
+			if (length > 18) {
 				throw FAST_NUMBER_FAILED;
 			}
 		}
 
 		int periodsSeen = 0;
-		while (start < bytes.length) {
+		while (start < end) {
 			byte b = bytes[start++];
 			if (b < '0' || b > '9') {
 				if (b == '.') {
-					scale = bytes.length - start;
+					scale = end - start;
 					periodsSeen++;
 					continue;
 				} else {
@@ -2199,7 +2218,7 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 			val += b - '0';
 		}
 
-		int numNonSignChars = neg ? bytes.length - 1 : bytes.length;
+		int numNonSignChars = neg ? length - 1 : length;
 		if (periodsSeen > 1 || periodsSeen == numNonSignChars) {
 			throw FAST_NUMBER_FAILED;
 		}
@@ -2222,9 +2241,9 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 			int col = columnIndex - 1;
 			int oid = fields[col].getOID();
 			if (oid == Oid.FLOAT4) {
-				return ByteConverter.float4(this_row[col], 0);
+				return ByteConverter.float4(rowData(col), rowOffset(col));
 			}
-			return (float) readDoubleValue(this_row[col], oid, "float");
+			return (float) readDoubleValue(col, oid, "float");
 		}
 
 		return toFloat(getFixedString(columnIndex));
@@ -2241,9 +2260,9 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 			int col = columnIndex - 1;
 			int oid = fields[col].getOID();
 			if (oid == Oid.FLOAT8) {
-				return ByteConverter.float8(this_row[col], 0);
+				return ByteConverter.float8(rowData(col), rowOffset(col));
 			}
-			return readDoubleValue(this_row[col], oid, "double");
+			return readDoubleValue(col, oid, "double");
 		}
 
 		return toDouble(getFixedString(columnIndex));
@@ -2306,12 +2325,12 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 
 		if (isBinary(columnIndex)) {
 			// If the data is already binary then just return it
-			return this_row[columnIndex - 1];
+			return value(columnIndex - 1);
 		}
 		if (fields[columnIndex - 1].getOID() == Oid.BYTEA) {
-			return trimBytes(columnIndex, PGbytea.toBytes(this_row[columnIndex - 1]));
+			return trimBytes(columnIndex, PGbytea.toBytes(value(columnIndex - 1)));
 		} else {
-			return trimBytes(columnIndex, this_row[columnIndex - 1]);
+			return trimBytes(columnIndex, value(columnIndex - 1));
 		}
 	}
 
@@ -2506,7 +2525,7 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 
 		if (isBinary(columnIndex)) {
 
-			return connection.getObject(getPGType(columnIndex), null, this_row[columnIndex - 1]);
+			return connection.getObject(getPGType(columnIndex), null, value(columnIndex - 1));
 
 		}
 		return connection.getObject(getPGType(columnIndex), getString(columnIndex), null);
@@ -2708,7 +2727,7 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 					PSQLState.INVALID_CURSOR_STATE);
 		}
 		checkColumnIndex(column);
-		wasNullFlag = (this_row[column - 1] == null);
+		wasNullFlag = (rowLength(column - 1) == -1);
 	}
 
 	/**
@@ -2873,18 +2892,81 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 		return 0; // SQL NULL
 	}
 
+	/**
+	 * Returns the rows for modification. Rows received from the backend are stored in
+	 * a read only {@link TupleSlab}, which is copied into a list on first change.
+	 */
+	private List<byte[][]> mutableRows() {
+		if (rows instanceof TupleSlab) {
+			rows = new ArrayList<byte[][]>(rows);
+		}
+		return rows;
+	}
+
 	private void initRowBuffer() {
-		this_row = rows.get(current_row);
 		// We only need a copy of the current row if we're going to
 		// modify it via an updatable resultset.
 		if (resultsetconcurrency == ResultSet.CONCUR_UPDATABLE) {
+			this_row = rows.get(current_row);
 			rowBuffer = new byte[this_row.length][];
 			System.arraycopy(this_row, 0, rowBuffer, 0, this_row.length);
+		} else if (rows instanceof TupleSlab) {
+			// read the values in place instead of copying the row out of the slab
+			slab = (TupleSlab) rows;
+			slabRow = current_row;
+			this_row = IN_SLAB;
+			rowBuffer = null;
 		} else {
+			this_row = rows.get(current_row);
 			rowBuffer = null;
 		}
 	}
 
+	/**
+	 * Stands in for {@link #this_row} while the current row is read in place from
+	 * {@link #slab}. The accessors below hide the difference.
+	 */
+	private static final byte[][] IN_SLAB = new byte[0][];
+
+	/**
+	 * @return the current row, copied out of the slab if it is read in place
+	 */
+	private byte[][] materializedRow() {
+		return this_row == IN_SLAB ? slab.get(slabRow) : this_row;
+	}
+
+	/**
+	 * @return the value of a column of the current row, copied out of the slab if
+	 *         it is read in place
+	 */
+	private byte[] value(int col) {
+		return this_row == IN_SLAB ? slab.getValue(slabRow, col) : this_row[col];
+	}
+
+	/**
+	 * @return the array holding the value of a column of the current row, see
+	 *         {@link #rowOffset(int)}
+	 */
+	private byte[] rowData(int col) {
+		return this_row == IN_SLAB ? slab.getData(slabRow) : this_row[col];
+	}
+
+	private int rowOffset(int col) {
+		return this_row == IN_SLAB ? slab.getOffset(slabRow, col) : 0;
+	}
+
+	/**
+	 * @return the length of the value of a column of the current row, or -1 if it
+	 *         is SQL NULL
+	 */
+	private int rowLength(int col) {
+		if (this_row == IN_SLAB) {
+			return slab.getLength(slabRow, col);
+		}
+		byte[] value = this_row[col];
+		return value == null ? -1 : value.length;
+	}
+
 	private boolean isColumnTrimmable(int columnIndex) throws SQLException {
 		switch (getSQLType(columnIndex)) {
 		case Types.CHAR:
@@ -2926,8 +3008,8 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 	 * Converts any numeric binary field to double value. This method does no
 	 * overflow checking.
 	 *
-	 * @param bytes
-	 *            The bytes of the numeric field.
+	 * @param col
+	 *            The column index, starting from 0.
 	 * @param oid
 	 *            The oid of the field.
 	 * @param targetType
@@ -2936,20 +3018,22 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 	 * @throws PSQLException
 	 *             If the field type is not supported numeric type.
 	 */
-	private double readDoubleValue(byte[] bytes, int oid, String targetType) throws PSQLException {
+	private double readDoubleValue(int col, int oid, String targetType) throws PSQLException {
+		byte[] bytes = rowData(col);
+		int offset = rowOffset(col);
 		// currently implemented binary encoded fields
 		switch (oid) {
 		case Oid.INT2:
-			return ByteConverter.int2(bytes, 0);
+			return ByteConverter.int2(bytes, offset);
 		case Oid.INT4:
-			return ByteConverter.int4(bytes, 0);
+			return ByteConverter.int4(bytes, offset);
 		case Oid.INT8:
 			// might not fit but there still should be no overflow checking
-			return ByteConverter.int8(bytes, 0);
+			return ByteConverter.int8(bytes, offset);
 		case Oid.FLOAT4:
-			return ByteConverter.float4(bytes, 0);
+			return ByteConverter.float4(bytes, offset);
 		case Oid.FLOAT8:
-			return ByteConverter.float8(bytes, 0);
+			return ByteConverter.float8(bytes, offset);
 		}
 		throw new PSQLException(
 				GT.tr("Cannot convert the column of type {0} to requested type {1}.", Oid.toString(oid), targetType),
@@ -2965,8 +3049,8 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 	 * <p>
 	 * <code>byte,short,int,long,float,double,BigDecimal,boolean,string</code>.
 	 *
-	 * @param bytes
-	 *            The bytes of the numeric field.
+	 * @param col
+	 *            The column index, starting from 0.
 	 * @param oid
 	 *            The oid of the field.
 	 * @param minVal
@@ -2980,25 +3064,27 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 	 *             If the field type is not supported numeric type or if the value
 	 *             is out of range.
 	 */
-	private long readLongValue(byte[] bytes, int oid, long minVal, long maxVal, String targetType)
+	private long readLongValue(int col, int oid, long minVal, long maxVal, String targetType)
 			throws PSQLException {
+		byte[] bytes = rowData(col);
+		int offset = rowOffset(col);
 		long val;
 		// currently implemented binary encoded fields
 		switch (oid) {
 		case Oid.INT2:
-			val = ByteConverter.int2(bytes, 0);
+			val = ByteConverter.int2(bytes, offset);
 			break;
 		case Oid.INT4:
-			val = ByteConverter.int4(bytes, 0);
+			val = ByteConverter.int4(bytes, offset);
 			break;
 		case Oid.INT8:
-			val = ByteConverter.int8(bytes, 0);
+			val = ByteConverter.int8(bytes, offset);
 			break;
 		case Oid.FLOAT4:
-			val = (long) ByteConverter.float4(bytes, 0);
+			val = (long) ByteConverter.float4(bytes, offset);
 			break;
 		case Oid.FLOAT8:
-			val = (long) ByteConverter.float8(bytes, 0);
+			val = (long) ByteConverter.float8(bytes, offset);
 			break;
 		default:
 			throw new PSQLException(GT.tr("Cannot convert the column of type {0} to requested type {1}.",
@@ -3082,7 +3168,7 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 	 * statement execution.
 	 */
 	void addRows(List<byte[][]> tuples) {
-		rows.addAll(tuples);
+		mutableRows().addAll(tuples);
 	}
 
 	public void updateRef(int columnIndex, Ref x) throws SQLException {
@@ -3370,7 +3456,7 @@ public class PgResultSet implements ResultSet, org.postgresql.PGRefCursorResultS
 		} else if (PGobject.class.isAssignableFrom(type)) {
 			Object object;
 			if (isBinary(columnIndex)) {
-				object = connection.getObject(getPGType(columnIndex), null, this_row[columnIndex - 1]);
+				object = connection.getObject(getPGType(columnIndex), null, value(columnIndex - 1));
 
 			} else {
 				object = connection.getObject(getPGType(columnIndex), getString(columnIndex), null);
@@ -19,27 +19,37 @@ import java.sql.Date;
 import java.sql.SQLException;
 import java.sql.Time;
 import java.sql.Timestamp;
-//#if mvn.project.property.postgresql.jdbc.spec >= "JDBC4.2"
+import java.time.DateTimeException;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.chrono.IsoEra;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoField;
-//#endif
+import java.time.zone.ZoneRules;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
+import java.util.List;
 import java.util.SimpleTimeZone;
 import java.util.TimeZone;
 
 
 /**
  * Misc utils for handling time and date values.
+ * <p>
+ * The instances are shared by the statements and result sets of a connection and hold no mutable
+ * state besides immutable caches, so they are used without locking. Values of years from 1583 on,
+ * where the fields of {@link GregorianCalendar} agree with java.time, are converted with plain
+ * arithmetic and the {@link ZoneRules} of the time zone; a {@link Calendar} is only created for
+ * earlier dates, for local times falling into a time zone transition, and for custom
+ * {@link TimeZone} classes.
  */
 public class TimestampUtils {
   /**
@@ -59,10 +69,24 @@ public class TimestampUtils {
   private static final LocalDateTime MAX_LOCAL_DATETIME = LocalDateTime.MAX.minus(Duration.ofMillis(500));
   //#endif
 
+  /**
+   * First year whose dates {@link GregorianCalendar} and java.time render alike, the Julian
+   * calendar ends in October 1582.
+   */
+  private static final int FIRST_GREGORIAN_YEAR = 1583;
+  // 1583-01-01 00:00 UTC
+  private static final long FIRST_GREGORIAN_MILLIS = -12212553600000L;
+  // the class of the time zones of TimeZone.getTimeZone, whose rules match their java.time ZoneId
+  private static final Class<?> SYSTEM_TIME_ZONE_CLASS = TimeZone.getTimeZone("UTC").getClass();
+
   private static final Field DEFAULT_TIME_ZONE_FIELD;
 
-  private TimeZone prevDefaultZoneFieldValue;
-  private TimeZone defaultTimeZoneCache;
+  // the default time zone along with the field value it was cloned from
+  private DefaultTimeZone defaultTimeZone;
+  // the last time zone converted to java.time
+  private ZoneCache zoneCache;
+  // the last calendar handed out by getSharedCalendar
+  private SharedCalendar sharedCalendar;
 
   static {
     // The expected maximum value is 60 (seconds), so 64 is used "just in case"
@@ -114,16 +138,6 @@ public class TimestampUtils {
     DEFAULT_TIME_ZONE_FIELD = tzField;
   }
 
-  private final StringBuilder sbuf = new StringBuilder();
-
-  // This calendar is used when user provides calendar in setX(, Calendar) method.
-  // It ensures calendar is Gregorian.
-  private final Calendar calendarWithUserTz = new GregorianCalendar();
-  private final TimeZone utcTz = TimeZone.getTimeZone("UTC");
-
-  private Calendar calCache;
-  private int calCacheZone;
-
   /**
    * True if the backend uses doubles for time values. False if long is used.
    */
@@ -135,31 +149,35 @@ public class TimestampUtils {
     this.timeZoneProvider = timeZoneProvider;
   }
 
-  private Calendar getCalendar(int sign, int hr, int min, int sec) {
-    int rawOffset = sign * (((hr * 60 + min) * 60 + sec) * 1000);
-    if (calCache != null && calCacheZone == rawOffset) {
-      return calCache;
-    }
+  private static final class DefaultTimeZone {
+    private final TimeZone fieldValue;
+    private final TimeZone timeZone;
 
-    StringBuilder zoneID = new StringBuilder("GMT");
-    zoneID.append(sign < 0 ? '-' : '+');
-    if (hr < 10) {
-      zoneID.append('0');
+    DefaultTimeZone(TimeZone fieldValue, TimeZone timeZone) {
+      this.fieldValue = fieldValue;
+      this.timeZone = timeZone;
     }
-    zoneID.append(hr);
-    if (min < 10) {
-      zoneID.append('0');
-    }
-    zoneID.append(min);
-    if (sec < 10) {
-      zoneID.append('0');
+  }
+
+  private static final class ZoneCache {
+    private final TimeZone timeZone;
+    // null if the time zone has no java.time equivalent
+    private final ZoneId zoneId;
+
+    ZoneCache(TimeZone timeZone, ZoneId zoneId) {
+      this.timeZone = timeZone;
+      this.zoneId = zoneId;
     }
-    zoneID.append(sec);
+  }
+
+  private static final class SharedCalendar {
+    private final TimeZone timeZone;
+    private final Calendar calendar;
 
-    TimeZone syntheticTZ = new SimpleTimeZone(rawOffset, zoneID.toString());
-    calCache = new GregorianCalendar(syntheticTZ);
-    calCacheZone = rawOffset;
-    return calCache;
+    SharedCalendar(TimeZone timeZone, Calendar calendar) {
+      this.timeZone = timeZone;
+      this.calendar = calendar;
+    }
   }
 
   private static class ParsedTimestamp {
@@ -175,7 +193,8 @@ public class TimestampUtils {
     int second = 0;
     int nanos = 0;
 
-    Calendar tz = null;
+    boolean hasOffset = false;
+    int offsetSeconds = 0;
   }
 
   private static class ParsedBinaryTimestamp {
@@ -192,9 +211,9 @@ public class TimestampUtils {
   /**
    * Load date/time information into the provided calendar returning the fractional seconds.
    */
-  private ParsedTimestamp parseBackendTimestamp(String str) throws SQLException {
-    char[] s = str.toCharArray();
-    int slen = s.length;
+  private static ParsedTimestamp parseBackendTimestamp(String str) throws SQLException {
+    String s = str;
+    int slen = s.length();
 
     // This is pretty gross..
     ParsedTimestamp result = new ParsedTimestamp();
@@ -332,20 +351,17 @@ public class TimestampUtils {
           start = end;
         }
 
-        // Setting offset does not seem to work correctly in all
-        // cases.. So get a fresh calendar for a synthetic timezone
-        // instead
-        result.tz = getCalendar(tzsign, tzhr, tzmin, tzsec);
+        result.hasOffset = true;
+        result.offsetSeconds = tzsign * ((tzhr * 60 + tzmin) * 60 + tzsec);
 
         start = skipWhitespace(s, start); // Skip trailing whitespace
       }
 
       if (result.hasDate && start < slen) {
-        String eraString = new String(s, start, slen - start);
-        if (eraString.startsWith("AD")) {
+        if (s.startsWith("AD", start)) {
           result.era = GregorianCalendar.AD;
           start += 2;
-        } else if (eraString.startsWith("BC")) {
+        } else if (s.startsWith("BC", start)) {
           result.era = GregorianCalendar.BC;
           start += 2;
         }
@@ -353,7 +369,7 @@ public class TimestampUtils {
 
       if (start < slen) {
         throw new NumberFormatException(
-            "Trailing junk on timestamp: '" + new String(s, start, slen - start) + "'");
+            "Trailing junk on timestamp: '" + s.substring(start) + "'");
       }
 
       if (!result.hasTime && !result.hasDate) {
@@ -377,7 +393,7 @@ public class TimestampUtils {
    * @return null if s is null or a timestamp of the parsed string s.
    * @throws SQLException if there is a problem parsing s.
    */
-  public synchronized Timestamp toTimestamp(Calendar cal, String s) throws SQLException {
+  public Timestamp toTimestamp(Calendar cal, String s) throws SQLException {
     if (s == null) {
       return null;
     }
@@ -394,21 +410,55 @@ public class TimestampUtils {
     }
 
     ParsedTimestamp ts = parseBackendTimestamp(s);
-    Calendar useCal = ts.tz != null ? ts.tz : setupCalendar(cal);
-    useCal.set(Calendar.ERA, ts.era);
-    useCal.set(Calendar.YEAR, ts.year);
-    useCal.set(Calendar.MONTH, ts.month - 1);
-    useCal.set(Calendar.DAY_OF_MONTH, ts.day);
-    useCal.set(Calendar.HOUR_OF_DAY, ts.hour);
-    useCal.set(Calendar.MINUTE, ts.minute);
-    useCal.set(Calendar.SECOND, ts.second);
-    useCal.set(Calendar.MILLISECOND, 0);
-
-    Timestamp result = new Timestamp(useCal.getTimeInMillis());
+    Timestamp result = new Timestamp(toMillis(ts, timeZone(cal)));
     result.setNanos(ts.nanos);
     return result;
   }
 
+  /**
+   * Returns the point in time of a parsed value, whole seconds only. Values without offset are in
+   * the given time zone.
+   */
+  private long toMillis(ParsedTimestamp ts, TimeZone tz) throws PSQLException {
+    if (ts.era == GregorianCalendar.AD && ts.year >= FIRST_GREGORIAN_YEAR) {
+      long localMillis = localMillis(ts.year, ts.month, ts.day, ts.hour, ts.minute, ts.second);
+      if (ts.hasOffset) {
+        return localMillis - ts.offsetSeconds * 1000L;
+      }
+      return guessTimestamp(localMillis, tz);
+    }
+
+    Calendar cal = new GregorianCalendar(ts.hasOffset
+        ? new SimpleTimeZone(ts.offsetSeconds * 1000, "GMT") : tz);
+    cal.set(Calendar.ERA, ts.era);
+    cal.set(Calendar.YEAR, ts.year);
+    cal.set(Calendar.MONTH, ts.month - 1);
+    cal.set(Calendar.DAY_OF_MONTH, ts.day);
+    cal.set(Calendar.HOUR_OF_DAY, ts.hour);
+    cal.set(Calendar.MINUTE, ts.minute);
+    cal.set(Calendar.SECOND, ts.second);
+    cal.set(Calendar.MILLISECOND, 0);
+    return cal.getTimeInMillis();
+  }
+
+  /**
+   * Returns the milliseconds since the epoch of a date and time in UTC, leniently like a
+   * {@link Calendar}: an hour of 24 is midnight of the next day.
+   */
+  private static long localMillis(int year, int month, int day, int hour, int minute, int second)
+      throws PSQLException {
+    long epochDay;
+    try {
+      epochDay = LocalDate.of(year, month, 1).toEpochDay() + day - 1;
+    } catch (DateTimeException e) {
+      throw new PSQLException(
+          GT.tr("Bad value for type timestamp/date/time: {1}",
+              String.format("%04d-%02d-%02d", year, month, day)),
+          PSQLState.BAD_DATETIME_FORMAT, e);
+    }
+    return ((epochDay * 24 + hour) * 60 + minute) * 60000L + second * 1000L;
+  }
+
   //#if mvn.project.property.postgresql.jdbc.spec >= "JDBC4.2"
   /**
    * Parse a string and return a LocalTime representing its value.
@@ -470,52 +520,79 @@ public class TimestampUtils {
       return result;
     }
   }
+
+  /**
+   * Parse a string of a {@link Oid#TIMESTAMPTZ} and return an OffsetDateTime in UTC representing
+   * its value. Unlike {@link #toTimestamp(Calendar, String)}, dates before the Gregorian calendar
+   * keep the fields the server sent.
+   *
+   * @param s The ISO formated date string to parse.
+   * @return null if s is null or an OffsetDateTime of the parsed string s.
+   * @throws SQLException if there is a problem parsing s.
+   */
+  public OffsetDateTime toOffsetDateTime(String s) throws SQLException {
+    if (s == null) {
+      return null;
+    }
+
+    int slen = s.length();
+
+    // convert postgres's infinity values to internal infinity magic value
+    if (slen == 8 && s.equals("infinity")) {
+      return OffsetDateTime.MAX;
+    }
+
+    if (slen == 9 && s.equals("-infinity")) {
+      return OffsetDateTime.MIN;
+    }
+
+    ParsedTimestamp ts = parseBackendTimestamp(s);
+    LocalDateTime local = LocalDateTime.of(ts.year, ts.month, ts.day, 0, ts.minute, ts.second, ts.nanos)
+        .plusHours(ts.hour);
+    if (ts.era == GregorianCalendar.BC) {
+      local = local.with(ChronoField.ERA, IsoEra.BCE.getValue());
+    }
+    if (!ts.hasOffset) {
+      return local.atZone(getDefaultTz().toZoneId()).toOffsetDateTime()
+          .withOffsetSameInstant(ZoneOffset.UTC);
+    }
+    return OffsetDateTime.of(local, ZoneOffset.ofTotalSeconds(ts.offsetSeconds))
+        .withOffsetSameInstant(ZoneOffset.UTC);
+  }
   //#endif
 
-  public synchronized Time toTime(Calendar cal, String s) throws SQLException {
+  public Time toTime(Calendar cal, String s) throws SQLException {
     // 1) Parse backend string
     if (s == null) {
       return null;
     }
     ParsedTimestamp ts = parseBackendTimestamp(s);
-    Calendar useCal = ts.tz != null ? ts.tz : setupCalendar(cal);
-    if (ts.tz == null) {
-      // When no time zone provided (e.g. time or timestamp)
-      // We get the year-month-day from the string, then truncate the day to 1970-01-01
-      // This is used for timestamp -> time conversion
-      // Note: this cannot be merged with "else" branch since
-      // timestamps at which the time flips to/from DST depend on the date
-      // For instance, 2000-03-26 02:00:00 is invalid timestamp in Europe/Moscow time zone
-      // and the valid one is 2000-03-26 03:00:00. That is why we parse full timestamp
-      // then set year to 1970 later
-      useCal.set(Calendar.ERA, ts.era);
-      useCal.set(Calendar.YEAR, ts.year);
-      useCal.set(Calendar.MONTH, ts.month - 1);
-      useCal.set(Calendar.DAY_OF_MONTH, ts.day);
-    } else {
+    if (ts.hasOffset) {
       // When time zone is given, we just pick the time part and assume date to be 1970-01-01
       // this is used for time, timez, and timestamptz parsing
-      useCal.set(Calendar.ERA, GregorianCalendar.AD);
-      useCal.set(Calendar.YEAR, 1970);
-      useCal.set(Calendar.MONTH, Calendar.JANUARY);
-      useCal.set(Calendar.DAY_OF_MONTH, 1);
-    }
-    useCal.set(Calendar.HOUR_OF_DAY, ts.hour);
-    useCal.set(Calendar.MINUTE, ts.minute);
-    useCal.set(Calendar.SECOND, ts.second);
-    useCal.set(Calendar.MILLISECOND, 0);
-
-    long timeMillis = useCal.getTimeInMillis() + ts.nanos / 1000000;
-    if (ts.tz != null || (ts.year == 1970 && ts.era == GregorianCalendar.AD)) {
-      // time with time zone has proper time zone, so the value can be returned as is
+      return new Time(localMillis(1970, 1, 1, ts.hour, ts.minute, ts.second)
+          - ts.offsetSeconds * 1000L + ts.nanos / 1000000);
+    }
+
+    // When no time zone provided (e.g. time or timestamp)
+    // We get the year-month-day from the string, then truncate the day to 1970-01-01
+    // This is used for timestamp -> time conversion
+    // Note: the full timestamp has to be parsed since
+    // timestamps at which the time flips to/from DST depend on the date
+    // For instance, 2000-03-26 02:00:00 is invalid timestamp in Europe/Moscow time zone
+    // and the valid one is 2000-03-26 03:00:00. That is why we parse full timestamp
+    // then set year to 1970 later
+    TimeZone tz = timeZone(cal);
+    long timeMillis = toMillis(ts, tz) + ts.nanos / 1000000;
+    if (ts.year == 1970 && ts.era == GregorianCalendar.AD) {
       return new Time(timeMillis);
     }
 
     // 2) Truncate date part so in given time zone the date would be formatted as 01/01/1970
-    return convertToTime(timeMillis, useCal == null ? null : useCal.getTimeZone());
+    return convertToTime(timeMillis, tz);
   }
 
-  public synchronized Date toDate(Calendar cal, String s) throws SQLException {
+  public Date toDate(Calendar cal, String s) throws SQLException {
     // 1) Parse backend string
     Timestamp timestamp = toTimestamp(cal, s);
 
@@ -528,13 +605,13 @@ public class TimestampUtils {
     return convertToDate(timestamp.getTime(), cal == null ? null : cal.getTimeZone());
   }
 
-  private Calendar setupCalendar(Calendar cal) {
-    TimeZone timeZone = cal == null ? null : cal.getTimeZone();
-    return getSharedCalendar(timeZone);
+  private TimeZone timeZone(Calendar cal) {
+    return cal == null ? getDefaultTz() : cal.getTimeZone();
   }
 
   /**
-   * Get a shared calendar, applying the supplied time zone or the default time zone if null.
+   * Get a shared calendar, applying the supplied time zone or the default time zone if null. The
+   * calendar only carries the time zone to the methods of this class and must not be modified.
    *
    * @param timeZone time zone to be set for the calendar
    * @return The shared calendar.
@@ -543,9 +620,47 @@ public class TimestampUtils {
     if (timeZone == null) {
       timeZone = getDefaultTz();
     }
-    Calendar tmp = calendarWithUserTz;
-    tmp.setTimeZone(timeZone);
-    return tmp;
+    SharedCalendar shared = sharedCalendar;
+    // Without the fast path getDefaultTz returns a new clone of the default time zone each time,
+    // which is still the same zone
+    if (shared != null && (shared.timeZone == timeZone || shared.timeZone.equals(timeZone))) {
+      return shared.calendar;
+    }
+    Calendar calendar = new GregorianCalendar(timeZone);
+    sharedCalendar = new SharedCalendar(timeZone, calendar);
+    return calendar;
+  }
+
+  /**
+   * Returns the java.time equivalent of a time zone, or null if it has none, such as a
+   * {@link SimpleTimeZone} with custom rules.
+   */
+  private ZoneId toZoneId(TimeZone tz) {
+    ZoneCache cached = zoneCache;
+    if (cached != null && cached.timeZone == tz) {
+      return cached.zoneId;
+    }
+    ZoneId zoneId = null;
+    if (tz.getClass() == SYSTEM_TIME_ZONE_CLASS) {
+      try {
+        zoneId = tz.toZoneId();
+      } catch (DateTimeException e) {
+        // unknown id, left to Calendar
+      }
+    }
+    zoneCache = new ZoneCache(tz, zoneId);
+    return zoneId;
+  }
+
+  /**
+   * Returns the offset of a time zone at a point in time, as {@link Calendar} computes it, or
+   * {@link Integer#MIN_VALUE} if the fields of the date are Julian.
+   */
+  private static int offsetMillis(TimeZone tz, long millis) {
+    if (millis < FIRST_GREGORIAN_MILLIS) {
+      return Integer.MIN_VALUE;
+    }
+    return tz.getOffset(millis);
   }
 
   /**
@@ -558,19 +673,22 @@ public class TimestampUtils {
     return nanos % 1000 > 499;
   }
 
-  public synchronized String toString(Calendar cal, Timestamp x) {
+  public String toString(Calendar cal, Timestamp x) {
     return toString(cal, x, true);
   }
 
-  public synchronized String toString(Calendar cal, Timestamp x,
+  public String toString(Calendar cal, Timestamp x,
       boolean withTimeZone) {
+    return toString(timeZone(cal), x, withTimeZone);
+  }
+
+  private String toString(TimeZone tz, Timestamp x, boolean withTimeZone) {
     if (x.getTime() == PGStatement.DATE_POSITIVE_INFINITY) {
       return "infinity";
     } else if (x.getTime() == PGStatement.DATE_NEGATIVE_INFINITY) {
       return "-infinity";
     }
 
-    cal = setupCalendar(cal);
     long timeMillis = x.getTime();
 
     // Round to microseconds
@@ -584,67 +702,105 @@ public class TimestampUtils {
       // a little bit saner for debugging reasons
       nanos += 1000 - nanos % 1000;
     }
-    cal.setTimeInMillis(timeMillis);
 
-    sbuf.setLength(0);
+    StringBuilder sb = new StringBuilder(40);
+    int offset = offsetMillis(tz, timeMillis);
+    if (offset != Integer.MIN_VALUE) {
+      long localMillis = timeMillis + offset;
+      appendDate(sb, LocalDate.ofEpochDay(Math.floorDiv(localMillis, ONEDAY)));
+      sb.append(' ');
+      appendTime(sb, (int) Math.floorMod(localMillis, ONEDAY), nanos);
+      if (withTimeZone) {
+        appendTimeZone(sb, offset / 1000);
+      }
+      return sb.toString();
+    }
 
-    appendDate(sbuf, cal);
-    sbuf.append(' ');
-    appendTime(sbuf, cal, nanos);
+    Calendar cal = new GregorianCalendar(tz);
+    cal.setTimeInMillis(timeMillis);
+    appendDate(sb, cal);
+    sb.append(' ');
+    appendTime(sb, cal, nanos);
     if (withTimeZone) {
-      appendTimeZone(sbuf, cal);
+      appendTimeZone(sb, cal);
     }
-    appendEra(sbuf, cal);
+    appendEra(sb, cal);
 
-    return sbuf.toString();
+    return sb.toString();
   }
 
-  public synchronized String toString(Calendar cal, Date x) {
+  public String toString(Calendar cal, Date x) {
     return toString(cal, x, true);
   }
 
-  public synchronized String toString(Calendar cal, Date x,
+  public String toString(Calendar cal, Date x,
       boolean withTimeZone) {
+    return toString(timeZone(cal), x, withTimeZone);
+  }
+
+  private String toString(TimeZone tz, Date x, boolean withTimeZone) {
     if (x.getTime() == PGStatement.DATE_POSITIVE_INFINITY) {
       return "infinity";
     } else if (x.getTime() == PGStatement.DATE_NEGATIVE_INFINITY) {
       return "-infinity";
     }
 
-    cal = setupCalendar(cal);
-    cal.setTime(x);
-
-    sbuf.setLength(0);
+    StringBuilder sb = new StringBuilder(24);
+    int offset = offsetMillis(tz, x.getTime());
+    if (offset != Integer.MIN_VALUE) {
+      appendDate(sb, LocalDate.ofEpochDay(Math.floorDiv(x.getTime() + offset, ONEDAY)));
+      if (withTimeZone) {
+        sb.append(' ');
+        appendTimeZone(sb, offset / 1000);
+      }
+      return sb.toString();
+    }
 
-    appendDate(sbuf, cal);
-    appendEra(sbuf, cal);
+    Calendar cal = new GregorianCalendar(tz);
+    cal.setTime(x);
+    appendDate(sb, cal);
+    appendEra(sb, cal);
     if (withTimeZone) {
-      sbuf.append(' ');
-      appendTimeZone(sbuf, cal);
+      sb.append(' ');
+      appendTimeZone(sb, cal);
     }
 
-    return sbuf.toString();
+    return sb.toString();
   }
 
-  public synchronized String toString(Calendar cal, Time x) {
+  public String toString(Calendar cal, Time x) {
     return toString(cal, x, true);
   }
 
-  public synchronized String toString(Calendar cal, Time x,
+  public String toString(Calendar cal, Time x,
       boolean withTimeZone) {
-    cal = setupCalendar(cal);
-    cal.setTime(x);
+    return toString(timeZone(cal), x, withTimeZone);
+  }
+
+  private String toString(TimeZone tz, Time x, boolean withTimeZone) {
+    StringBuilder sb = new StringBuilder(24);
+    int offset = offsetMillis(tz, x.getTime());
+    if (offset != Integer.MIN_VALUE) {
+      int millisOfDay = (int) Math.floorMod(x.getTime() + offset, ONEDAY);
+      appendTime(sb, millisOfDay, millisOfDay % 1000 * 1000000);
+      // The 'time' parser for <= 7.3 doesn't like timezones.
+      if (withTimeZone) {
+        appendTimeZone(sb, offset / 1000);
+      }
+      return sb.toString();
+    }
 
-    sbuf.setLength(0);
+    Calendar cal = new GregorianCalendar(tz);
+    cal.setTime(x);
 
-    appendTime(sbuf, cal, cal.get(Calendar.MILLISECOND) * 1000000);
+    appendTime(sb, cal, cal.get(Calendar.MILLISECOND) * 1000000);
 
     // The 'time' parser for <= 7.3 doesn't like timezones.
     if (withTimeZone) {
-      appendTimeZone(sbuf, cal);
+      appendTimeZone(sb, cal);
     }
 
-    return sbuf.toString();
+    return sb.toString();
   }
 
   private static void appendDate(StringBuilder sb, Calendar cal) {
@@ -678,6 +834,11 @@ public class TimestampUtils {
     appendTime(sb, hours, minutes, seconds, nanos);
   }
 
+  private static void appendTime(StringBuilder sb, int millisOfDay, int nanos) {
+    int seconds = millisOfDay / 1000;
+    appendTime(sb, seconds / 3600, seconds / 60 % 60, seconds % 60, nanos);
+  }
+
   /**
    * Appends time part to the {@code StringBuilder} in PostgreSQL-compatible format.
    * The function truncates {@param nanos} to microseconds. The value is expected to be rounded
@@ -756,24 +917,22 @@ public class TimestampUtils {
   }
 
   //#if mvn.project.property.postgresql.jdbc.spec >= "JDBC4.2"
-  public synchronized String toString(LocalDate localDate) {
+  public String toString(LocalDate localDate) {
     if (LocalDate.MAX.equals(localDate)) {
       return "infinity";
     } else if (LocalDate.MIN.equals(localDate)) {
       return "-infinity";
     }
 
-    sbuf.setLength(0);
+    StringBuilder sb = new StringBuilder(16);
 
-    appendDate(sbuf, localDate);
-    appendEra(sbuf, localDate);
+    appendDate(sb, localDate);
+    appendEra(sb, localDate);
 
-    return sbuf.toString();
+    return sb.toString();
   }
 
-  public synchronized String toString(LocalTime localTime) {
-
-    sbuf.setLength(0);
+  public String toString(LocalTime localTime) {
 
     if (localTime.isAfter(MAX_TIME)) {
       return "24:00:00";
@@ -785,20 +944,21 @@ public class TimestampUtils {
       // it relies on the fact that appendTime just truncates 000..999 nanosecond part
       localTime = localTime.plus(ONE_MICROSECOND);
     }
-    appendTime(sbuf, localTime);
+    StringBuilder sb = new StringBuilder(16);
+    appendTime(sb, localTime);
 
-    return sbuf.toString();
+    return sb.toString();
   }
 
 
-  public synchronized String toString(OffsetDateTime offsetDateTime) {
+  public String toString(OffsetDateTime offsetDateTime) {
     if (offsetDateTime.isAfter(MAX_OFFSET_DATETIME)) {
       return "infinity";
     } else if (OffsetDateTime.MIN.equals(offsetDateTime)) {
       return "-infinity";
     }
 
-    sbuf.setLength(0);
+    StringBuilder sb = new StringBuilder(40);
 
     int nano = offsetDateTime.getNano();
     if (nanosExceed499(nano)) {
@@ -808,20 +968,20 @@ public class TimestampUtils {
     }
     LocalDateTime localDateTime = offsetDateTime.toLocalDateTime();
     LocalDate localDate = localDateTime.toLocalDate();
-    appendDate(sbuf, localDate);
-    sbuf.append(' ');
-    appendTime(sbuf, localDateTime.toLocalTime());
-    appendTimeZone(sbuf, offsetDateTime.getOffset());
-    appendEra(sbuf, localDate);
+    appendDate(sb, localDate);
+    sb.append(' ');
+    appendTime(sb, localDateTime.toLocalTime());
+    appendTimeZone(sb, offsetDateTime.getOffset());
+    appendEra(sb, localDate);
 
-    return sbuf.toString();
+    return sb.toString();
   }
 
   /**
    * Formats {@link LocalDateTime} to be sent to the backend, thus it adds time zone.
    * Do not use this method in {@link java.sql.ResultSet#getString(int)}
    */
-  public synchronized String toString(LocalDateTime localDateTime) {
+  public String toString(LocalDateTime localDateTime) {
     if (localDateTime.isAfter(MAX_LOCAL_DATETIME)) {
       return "infinity";
     } else if (LocalDateTime.MIN.equals(localDateTime)) {
@@ -861,40 +1021,40 @@ public class TimestampUtils {
   }
   //#endif
 
-  private static int skipWhitespace(char[] s, int start) {
-    int slen = s.length;
+  private static int skipWhitespace(String s, int start) {
+    int slen = s.length();
     for (int i = start; i < slen; i++) {
-      if (!Character.isSpace(s[i])) {
+      if (!Character.isSpace(s.charAt(i))) {
         return i;
       }
     }
     return slen;
   }
 
-  private static int firstNonDigit(char[] s, int start) {
-    int slen = s.length;
+  private static int firstNonDigit(String s, int start) {
+    int slen = s.length();
     for (int i = start; i < slen; i++) {
-      if (!Character.isDigit(s[i])) {
+      if (!Character.isDigit(s.charAt(i))) {
         return i;
       }
     }
     return slen;
   }
 
-  private static int number(char[] s, int start, int end) {
+  private static int number(String s, int start, int end) {
     if (start >= end) {
       throw new NumberFormatException();
     }
     int n = 0;
     for (int i = start; i < end; i++) {
-      n = 10 * n + (s[i] - '0');
+      n = 10 * n + (s.charAt(i) - '0');
     }
     return n;
   }
 
-  private static char charAt(char[] s, int pos) {
-    if (pos >= 0 && pos < s.length) {
-      return s[pos];
+  private static char charAt(String s, int pos) {
+    if (pos >= 0 && pos < s.length()) {
+      return s.charAt(pos);
     }
     return '\0';
   }
@@ -936,18 +1096,19 @@ public class TimestampUtils {
     // Fast path to getting the default timezone.
     if (DEFAULT_TIME_ZONE_FIELD != null) {
       try {
-        TimeZone defaultTimeZone = (TimeZone) DEFAULT_TIME_ZONE_FIELD.get(null);
-        if (defaultTimeZone == prevDefaultZoneFieldValue) {
-          return defaultTimeZoneCache;
+        TimeZone fieldValue = (TimeZone) DEFAULT_TIME_ZONE_FIELD.get(null);
+        DefaultTimeZone cached = defaultTimeZone;
+        if (cached != null && cached.fieldValue == fieldValue) {
+          return cached.timeZone;
         }
-        prevDefaultZoneFieldValue = defaultTimeZone;
+        TimeZone tz = TimeZone.getDefault();
+        defaultTimeZone = new DefaultTimeZone(fieldValue, tz);
+        return tz;
       } catch (Exception e) {
         // If this were to fail, fallback on slow method.
       }
     }
-    TimeZone tz = TimeZone.getDefault();
-    defaultTimeZoneCache = tz;
-    return tz;
+    return TimeZone.getDefault();
   }
 
   public boolean hasFastDefaultTimeZone() {
@@ -1144,6 +1305,51 @@ public class TimestampUtils {
   }
   //#endif
 
+  /**
+   * Returns the OffsetDateTime in UTC matching the given bytes with {@link Oid#TIMESTAMPTZ},
+   * computed from the microseconds since 2000-01-01 without going through a Timestamp.
+   *
+   * @param bytes The binary encoded timestamptz value.
+   * @return The parsed offset date time object.
+   * @throws PSQLException If binary format could not be parsed.
+   */
+  public OffsetDateTime toOffsetDateTimeBin(byte[] bytes) throws PSQLException {
+    if (bytes.length != 8) {
+      throw new PSQLException(GT.tr("Unsupported binary encoding of {0}.", "timestamp"),
+          PSQLState.BAD_DATETIME_FORMAT);
+    }
+
+    long secs;
+    long micros;
+    if (usesDouble) {
+      double time = ByteConverter.float8(bytes, 0);
+      if (time == Double.POSITIVE_INFINITY) {
+        return OffsetDateTime.MAX;
+      } else if (time == Double.NEGATIVE_INFINITY) {
+        return OffsetDateTime.MIN;
+      }
+      secs = (long) time;
+      micros = (long) ((time - secs) * 1000000);
+      if (micros < 0) {
+        secs--;
+        micros += 1000000;
+      }
+    } else {
+      long time = ByteConverter.int8(bytes, 0);
+      if (time == Long.MAX_VALUE) {
+        return OffsetDateTime.MAX;
+      } else if (time == Long.MIN_VALUE) {
+        return OffsetDateTime.MIN;
+      }
+      secs = Math.floorDiv(time, 1000000L);
+      micros = Math.floorMod(time, 1000000L);
+    }
+
+    // postgres epoch to java epoch, both proleptic Gregorian
+    Instant instant = Instant.ofEpochSecond(secs + 946684800L, micros * 1000);
+    return OffsetDateTime.ofInstant(instant, ZoneOffset.UTC);
+  }
+
   /**
    * Given a UTC timestamp {@code millis} finds another point in time that is rendered in given time
    * zone {@code tz} exactly as "millis in UTC".
@@ -1184,13 +1390,28 @@ public class TimestampUtils {
       // For well-known non-DST time zones, just subtract offset
       return millis - tz.getRawOffset();
     }
+    // The rules of the time zone give the offset, unless the local time falls into a transition,
+    // where Calendar moves a time in a gap forward and picks the later offset of an overlap.
+    ZoneId zoneId = millis >= FIRST_GREGORIAN_MILLIS ? toZoneId(tz) : null;
+    if (zoneId != null) {
+      ZoneRules rules = zoneId.getRules();
+      LocalDateTime local = LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L),
+          (int) Math.floorMod(millis, 1000L) * 1000000, ZoneOffset.UTC);
+      List<ZoneOffset> offsets = rules.getValidOffsets(local);
+      if (offsets.size() == 1) {
+        // TimeZone drops the local mean time of early dates, java.time keeps it
+        long result = millis - offsets.get(0).getTotalSeconds() * 1000L;
+        if (tz.getOffset(result) == millis - result) {
+          return result;
+        }
+      }
+    }
     // For all the other time zones, enjoy debugging Calendar API
     // Here we do a straight-forward implementation that splits original timestamp into pieces and
     // composes it back.
     // Note: cal.setTimeZone alone is not sufficient as it would alter hour (it will try to keep the
     // same time instant value)
-    Calendar cal = calendarWithUserTz;
-    cal.setTimeZone(utcTz);
+    Calendar cal = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
     cal.setTimeInMillis(millis);
     int era = cal.get(Calendar.ERA);
     int year = cal.get(Calendar.YEAR);
@@ -1200,7 +1421,7 @@ public class TimestampUtils {
     int min = cal.get(Calendar.MINUTE);
     int sec = cal.get(Calendar.SECOND);
     int ms = cal.get(Calendar.MILLISECOND);
-    cal.setTimeZone(tz);
+    cal = new GregorianCalendar(tz);
     cal.set(Calendar.ERA, era);
     cal.set(Calendar.YEAR, year);
     cal.set(Calendar.MONTH, month);
@@ -1249,8 +1470,12 @@ public class TimestampUtils {
       // Now we have brand-new 7 Jan 00:00 GMT+02:00
       return new Date(millis);
     }
-    Calendar cal = calendarWithUserTz;
-    cal.setTimeZone(tz);
+    int offset = offsetMillis(tz, millis);
+    if (offset != Integer.MIN_VALUE) {
+      // midnight of the local date, moved into the time zone
+      return new Date(guessTimestamp(Math.floorDiv(millis + offset, ONEDAY) * ONEDAY, tz));
+    }
+    Calendar cal = new GregorianCalendar(tz);
     cal.setTimeInMillis(millis);
     cal.set(Calendar.HOUR_OF_DAY, 0);
     cal.set(Calendar.MINUTE, 0);
@@ -1286,8 +1511,12 @@ public class TimestampUtils {
       // Now we have brand-new 1970 1 Jan 15:40 GMT+02:00
       return new Time(millis);
     }
-    Calendar cal = calendarWithUserTz;
-    cal.setTimeZone(tz);
+    int offset = offsetMillis(tz, millis);
+    if (offset != Integer.MIN_VALUE) {
+      // the local time of day on 1970-01-01, moved into the time zone
+      return new Time(guessTimestamp(Math.floorMod(millis + offset, ONEDAY), tz));
+    }
+    Calendar cal = new GregorianCalendar(tz);
     cal.setTimeInMillis(millis);
     cal.set(Calendar.ERA, GregorianCalendar.AD);
     cal.set(Calendar.YEAR, 1970);
@@ -1306,18 +1535,14 @@ public class TimestampUtils {
    * @return given time value as String
    */
   public String timeToString(java.util.Date time, boolean withTimeZone) {
-    Calendar cal = null;
-    if (withTimeZone) {
-      cal = calendarWithUserTz;
-      cal.setTimeZone(timeZoneProvider.get());
-    }
+    TimeZone tz = withTimeZone ? timeZoneProvider.get() : getDefaultTz();
     if (time instanceof Timestamp) {
-      return toString(cal, (Timestamp) time, withTimeZone);
+      return toString(tz, (Timestamp) time, withTimeZone);
     }
     if (time instanceof Time) {
-      return toString(cal, (Time) time, withTimeZone);
+      return toString(tz, (Time) time, withTimeZone);
     }
-    return toString(cal, (Date) time, withTimeZone);
+    return toString(tz, (Date) time, withTimeZone);
   }
 
   /**
@@ -1379,6 +1604,17 @@ public class TimestampUtils {
    * @throws PSQLException If binary format could not be parsed.
    */
   public void toBinDate(TimeZone tz, byte[] bytes, Date value) throws PSQLException {
+    ByteConverter.int4(bytes, 0, toBinDate(tz, value));
+  }
+
+  /**
+   * Converts the SQL Date to the value of its binary representation for {@link Oid#DATE}.
+   *
+   * @param tz The timezone used.
+   * @param value value
+   * @return days since 2000-01-01
+   */
+  public int toBinDate(TimeZone tz, Date value) {
     long millis = value.getTime();
 
     if (tz == null) {
@@ -1393,7 +1629,7 @@ public class TimestampUtils {
     millis += tz.getOffset(millis);
 
     long secs = toPgSecs(millis / 1000);
-    ByteConverter.int4(bytes, 0, (int) (secs / 86400));
+    return (int) (secs / 86400);
   }
 
   /**
@@ -20,36 +20,37 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.ea.async.Async.await;
 
+/**
+ * Type information of a connection. What is read from the catalog is kept in a
+ * {@link TypeRegistry}, which may be shared with the other connections to the same server, except
+ * for what depends on the search path of this connection; the lookups only take the lock of the
+ * connection when they have to query the catalog.
+ */
 public class TypeInfoCache implements TypeInfo {
 
-	// pgname (String) -> java.sql.Types (Integer)
-	private Map<String, Integer> _pgNameToSQLType;
-
 	// pgname (String) -> java class name (String)
 	// ie "text" -> "java.lang.String"
-	private Map<String, String> _pgNameToJavaClass;
-
-	// oid (Integer) -> pgname (String)
-	private Map<Integer, String> _oidToPgName;
-	// pgname (String) -> oid (Integer)
-	private Map<String, Integer> _pgNameToOid;
+	private final Map<String, String> _pgNameToJavaClass;
 
 	// pgname (String) -> extension pgobject (Class)
-	private Map<String, Class<? extends PGobject>> _pgNameToPgObject;
+	private final Map<String, Class<? extends PGobject>> _pgNameToPgObject;
 
-	// type array oid -> base type's oid
-	private Map<Integer, Integer> _pgArrayToPgType;
+	// oids and sql types of qualified names, array elements and delimiters
+	private final TypeRegistry _registry;
 
-	// array type oid -> base type array element delimiter
-	private Map<Integer, Character> _arrayOidToDelimiter;
+	// oids and sql types of unqualified names, names of oids: resolved through the search path
+	private final TypeRegistry _local = new TypeRegistry();
+	private volatile int _registryClears;
 
 	private BaseConnection _conn;
 	private final int _unknownLength;
@@ -112,18 +113,15 @@ public class TypeInfoCache implements TypeInfo {
 	}
 
 	public TypeInfoCache(BaseConnection conn, int unknownLength) {
+		this(conn, unknownLength, new TypeRegistry());
+	}
+
+	public TypeInfoCache(BaseConnection conn, int unknownLength, TypeRegistry registry) {
 		_conn = conn;
 		_unknownLength = unknownLength;
-		_oidToPgName = new HashMap<Integer, String>();
-		_pgNameToOid = new HashMap<String, Integer>();
-		_pgNameToJavaClass = new HashMap<String, String>();
-		_pgNameToPgObject = new HashMap<String, Class<? extends PGobject>>();
-		_pgArrayToPgType = new HashMap<Integer, Integer>();
-		_arrayOidToDelimiter = new HashMap<Integer, Character>();
-
-		// needs to be synchronized because the iterator is returned
-		// from getPGTypeNamesWithSQLTypes()
-		_pgNameToSQLType = Collections.synchronizedMap(new HashMap<String, Integer>());
+		_pgNameToJavaClass = new ConcurrentHashMap<String, String>();
+		_pgNameToPgObject = new ConcurrentHashMap<String, Class<? extends PGobject>>();
+		_registry = registry;
 
 		for (Object[] type : types) {
 			String pgTypeName = (String) type[0];
@@ -138,56 +136,92 @@ public class TypeInfoCache implements TypeInfo {
 		_pgNameToJavaClass.put("hstore", Map.class.getName());
 	}
 
-	public synchronized void addCoreType(String pgTypeName, Integer oid, Integer sqlType, String javaClass,
+	public void addCoreType(String pgTypeName, Integer oid, Integer sqlType, String javaClass,
 			Integer arrayOid) {
 		_pgNameToJavaClass.put(pgTypeName, javaClass);
-		_pgNameToOid.put(pgTypeName, oid);
-		_oidToPgName.put(oid, pgTypeName);
-		_pgArrayToPgType.put(arrayOid, oid);
-		_pgNameToSQLType.put(pgTypeName, sqlType);
+		for (TypeRegistry registry : new TypeRegistry[] { _registry, _local }) {
+			registry.putCoreType(pgTypeName, oid);
+			registry.putCoreType(pgTypeName + "[]", arrayOid);
+			registry.putCoreType("_" + pgTypeName, arrayOid);
+		}
+		names(pgTypeName).putOid(pgTypeName, oid);
+		local().putPGType(oid, pgTypeName);
+		_registry.putArrayElement(arrayOid, oid);
+		names(pgTypeName).putSQLType(pgTypeName, sqlType);
 
 		// Currently we hardcode all core types array delimiter
 		// to a comma. In a stock install the only exception is
 		// the box datatype and it's not a JDBC core type.
 		//
 		Character delim = ',';
-		_arrayOidToDelimiter.put(oid, delim);
+		_registry.putArrayDelimiter(oid, delim);
 
 		String pgArrayTypeName = pgTypeName + "[]";
 		_pgNameToJavaClass.put(pgArrayTypeName, "java.sql.Array");
-		_pgNameToSQLType.put(pgArrayTypeName, Types.ARRAY);
-		_pgNameToOid.put(pgArrayTypeName, arrayOid);
+		names(pgArrayTypeName).putSQLType(pgArrayTypeName, Types.ARRAY);
+		names(pgArrayTypeName).putOid(pgArrayTypeName, arrayOid);
 		pgArrayTypeName = "_" + pgTypeName;
 		if (!_pgNameToJavaClass.containsKey(pgArrayTypeName)) {
 			_pgNameToJavaClass.put(pgArrayTypeName, "java.sql.Array");
-			_pgNameToSQLType.put(pgArrayTypeName, Types.ARRAY);
-			_pgNameToOid.put(pgArrayTypeName, arrayOid);
-			_oidToPgName.put(arrayOid, pgArrayTypeName);
+			names(pgArrayTypeName).putSQLType(pgArrayTypeName, Types.ARRAY);
+			names(pgArrayTypeName).putOid(pgArrayTypeName, arrayOid);
+			local().putPGType(arrayOid, pgArrayTypeName);
 		}
 	}
 
-	public synchronized void addDataType(String type, Class<? extends PGobject> klass) throws SQLException {
+	public void addDataType(String type, Class<? extends PGobject> klass) throws SQLException {
 		_pgNameToPgObject.put(type, klass);
 		_pgNameToJavaClass.put(type, klass.getName());
 	}
 
+	/**
+	 * Returns the registry that keeps a name: the shared one if the name does not depend on the
+	 * search path, the one of this connection otherwise.
+	 */
+	private TypeRegistry names(String pgTypeName) {
+		return TypeRegistry.isQualified(pgTypeName) ? _registry : local();
+	}
+
+	/**
+	 * Returns the registry of this connection, cleared when the shared registry was, since an
+	 * error that points at a recreated type clears the shared registry only.
+	 */
+	private TypeRegistry local() {
+		int clears = _registry.getClears();
+		if (clears != _registryClears) {
+			_registryClears = clears;
+			_local.clear();
+		}
+		return _local;
+	}
+
 	public Iterator<String> getPGTypeNamesWithSQLTypes() {
-		return _pgNameToSQLType.keySet().iterator();
+		List<String> names = new ArrayList<String>();
+		for (Iterator<String> i = local().getPGTypeNamesWithSQLTypes(); i.hasNext(); ) {
+			names.add(i.next());
+		}
+		for (Iterator<String> i = _registry.getPGTypeNamesWithSQLTypes(); i.hasNext(); ) {
+			names.add(i.next());
+		}
+		return names.iterator();
 	}
 
 	public Integer getSQLType(int oid) throws SQLException {
 		return getSQLType(getPGType(oid));
 	}
 
-	public synchronized Integer getSQLType(String pgTypeName) throws SQLException {
+	public Integer getSQLType(String pgTypeName) throws SQLException {
 		if (pgTypeName.endsWith("[]")) {
 			return Types.ARRAY;
 		}
-		Integer i = _pgNameToSQLType.get(pgTypeName);
+		Integer i = names(pgTypeName).getSQLType(pgTypeName);
 		if (i != null) {
 			return i;
 		}
+		return lookupSQLType(pgTypeName);
+	}
 
+	private synchronized Integer lookupSQLType(String pgTypeName) throws SQLException {
 		if (_getTypeInfoStatement == null) {
 			// There's no great way of telling what's an array type.
 			// People can name their own types starting with _.
@@ -242,7 +276,7 @@ public class TypeInfoCache implements TypeInfo {
 		}
 		rs.close();
 
-		_pgNameToSQLType.put(pgTypeName, type);
+		names(pgTypeName).putSQLType(pgTypeName, type);
 		return type;
 	}
 
@@ -345,12 +379,15 @@ public class TypeInfoCache implements TypeInfo {
 		return oidStatementComplex;
 	}
 
-	public synchronized Integer getPGType(String pgTypeName) throws SQLException {
-		Integer oid = _pgNameToOid.get(pgTypeName);
+	public Integer getPGType(String pgTypeName) throws SQLException {
+		Integer oid = names(pgTypeName).getOid(pgTypeName);
 		if (oid != null) {
 			return oid;
 		}
+		return lookupPGType(pgTypeName);
+	}
 
+	private synchronized Integer lookupPGType(String pgTypeName) throws SQLException {
 		PreparedStatement oidStatement = getOidStatement(pgTypeName);
 
 		// Go through BaseStatement to avoid transaction start.
@@ -358,30 +395,34 @@ public class TypeInfoCache implements TypeInfo {
 			throw new PSQLException(GT.tr("No results were returned by the query."), PSQLState.NO_DATA);
 		}
 
-		oid = Oid.UNSPECIFIED;
+		Integer oid = Oid.UNSPECIFIED;
 		ResultSet rs = oidStatement.getResultSet();
 		if (rs.next()) {
 			oid = (int) rs.getLong(1);
 			String internalName = rs.getString(2);
-			_oidToPgName.put(oid, internalName);
-			_pgNameToOid.put(internalName, oid);
+			local().putPGType(oid, internalName);
+			names(internalName).putOid(internalName, oid);
 		}
-		_pgNameToOid.put(pgTypeName, oid);
+		names(pgTypeName).putOid(pgTypeName, oid);
 		rs.close();
 
 		return oid;
 	}
 
-	public synchronized String getPGType(int oid) throws SQLException {
+	public String getPGType(int oid) throws SQLException {
 		if (oid == Oid.UNSPECIFIED) {
 			return null;
 		}
 
-		String pgTypeName = _oidToPgName.get(oid);
+		String pgTypeName = local().getPGType(oid);
 		if (pgTypeName != null) {
 			return pgTypeName;
 		}
+		return lookupPGType(oid);
+	}
 
+	private synchronized String lookupPGType(int oid) throws SQLException {
+		String pgTypeName = null;
 		if (_getNameStatement == null) {
 			String sql;
 			sql = "SELECT n.nspname = ANY(current_schemas(true)), n.nspname, t.typname " + "FROM pg_catalog.pg_type t "
@@ -404,7 +445,7 @@ public class TypeInfoCache implements TypeInfo {
 			String name = rs.getString(3);
 			if (onPath) {
 				pgTypeName = name;
-				_pgNameToOid.put(schema + "." + name, oid);
+				names(schema + "." + name).putOid(schema + "." + name, oid);
 			} else {
 				// TODO: escaping !?
 				pgTypeName = "\"" + schema + "\".\"" + name + "\"";
@@ -412,11 +453,11 @@ public class TypeInfoCache implements TypeInfo {
 				// TODO: should probably check for all special chars
 				if (schema.equals(schema.toLowerCase()) && schema.indexOf('.') == -1 && name.equals(name.toLowerCase())
 						&& name.indexOf('.') == -1) {
-					_pgNameToOid.put(schema + "." + name, oid);
+					names(schema + "." + name).putOid(schema + "." + name, oid);
 				}
 			}
-			_pgNameToOid.put(pgTypeName, oid);
-			_oidToPgName.put(oid, pgTypeName);
+			names(pgTypeName).putOid(pgTypeName, oid);
+			local().putPGType(oid, pgTypeName);
 		}
 		rs.close();
 
@@ -439,24 +480,27 @@ public class TypeInfoCache implements TypeInfo {
 	 *            input oid
 	 * @return oid of the array's base element or the provided oid (if not array)
 	 */
-	protected synchronized int convertArrayToBaseOid(int oid) {
-		Integer i = _pgArrayToPgType.get(oid);
+	protected int convertArrayToBaseOid(int oid) {
+		Integer i = _registry.getArrayElement(oid);
 		if (i == null) {
 			return oid;
 		}
 		return i;
 	}
 
-	public synchronized Character getArrayDelimiter(int oid) throws SQLException {
+	public Character getArrayDelimiter(int oid) throws SQLException {
 		if (oid == Oid.UNSPECIFIED) {
 			return ',';
 		}
 
-		Character delim = _arrayOidToDelimiter.get(oid);
+		Character delim = _registry.getArrayDelimiter(oid);
 		if (delim != null) {
 			return delim;
 		}
+		return lookupArrayDelimiter(oid);
+	}
 
+	private synchronized Character lookupArrayDelimiter(int oid) throws SQLException {
 		if (_getArrayDelimiterStatement == null) {
 			String sql;
 			sql = "SELECT e.typdelim FROM pg_catalog.pg_type t, pg_catalog.pg_type e "
@@ -477,26 +521,29 @@ public class TypeInfoCache implements TypeInfo {
 		}
 
 		String s = rs.getString(1);
-		delim = s.charAt(0);
+		Character delim = s.charAt(0);
 
-		_arrayOidToDelimiter.put(oid, delim);
+		_registry.putArrayDelimiter(oid, delim);
 
 		rs.close();
 
 		return delim;
 	}
 
-	public synchronized Integer getPGArrayElement(int oid) throws SQLException {
+	public Integer getPGArrayElement(int oid) throws SQLException {
 		if (oid == Oid.UNSPECIFIED) {
 			return Oid.UNSPECIFIED;
 		}
 
-		Integer pgType = _pgArrayToPgType.get(oid);
+		Integer pgType = _registry.getArrayElement(oid);
 
 		if (pgType != null) {
 			return pgType;
 		}
+		return lookupPGArrayElement(oid);
+	}
 
+	private synchronized Integer lookupPGArrayElement(int oid) throws SQLException {
 		if (_getArrayElementOidStatement == null) {
 			String sql;
 			sql = "SELECT e.oid, n.nspname = ANY(current_schemas(true)), n.nspname, e.typname "
@@ -517,19 +564,19 @@ public class TypeInfoCache implements TypeInfo {
 			throw new PSQLException(GT.tr("No results were returned by the query."), PSQLState.NO_DATA);
 		}
 
-		pgType = (int) rs.getLong(1);
+		Integer pgType = (int) rs.getLong(1);
 		boolean onPath = rs.getBoolean(2);
 		String schema = rs.getString(3);
 		String name = rs.getString(4);
-		_pgArrayToPgType.put(oid, pgType);
-		_pgNameToOid.put(schema + "." + name, pgType);
+		_registry.putArrayElement(oid, pgType);
+		names(schema + "." + name).putOid(schema + "." + name, pgType);
 		String fullName = "\"" + schema + "\".\"" + name + "\"";
-		_pgNameToOid.put(fullName, pgType);
+		names(fullName).putOid(fullName, pgType);
 		if (onPath && name.equals(name.toLowerCase())) {
-			_oidToPgName.put(pgType, name);
-			_pgNameToOid.put(name, pgType);
+			local().putPGType(pgType, name);
+			local().putOid(name, pgType);
 		} else {
-			_oidToPgName.put(pgType, fullName);
+			local().putPGType(pgType, fullName);
 		}
 
 		rs.close();
@@ -537,12 +584,15 @@ public class TypeInfoCache implements TypeInfo {
 		return pgType;
 	}
 
-	public synchronized Class<? extends PGobject> getPGobject(String type) {
-		return _pgNameToPgObject.get(type);
+	public Class<? extends PGobject> getPGobject(String type) {
+		return type == null ? null : _pgNameToPgObject.get(type);
 	}
 
-	public synchronized String getJavaClass(int oid) throws SQLException {
+	public String getJavaClass(int oid) throws SQLException {
 		String pgTypeName = getPGType(oid);
+		if (pgTypeName == null) {
+			return null;
+		}
 
 		String result = _pgNameToJavaClass.get(pgTypeName);
 		if (result != null) {
@@ -0,0 +1,340 @@
+package org.postgresql.jdbc;
+
+import org.postgresql.util.HostSpec;
+import org.postgresql.util.PSQLState;
+import org.postgresql.util.ServerErrorMessage;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Catalog information about the types of a server, shared by all the connections to it.
+ * <p>
+ * {@link TypeInfoCache} used to query <code>pg_type</code> again on every connection for the
+ * same custom types. A shared registry, one per host, database and server version, only holds
+ * what does not depend on the search path of a connection: the OIDs of schema qualified names,
+ * the elements of array types and their delimiters. An unqualified name, and the name a type is
+ * shown with, are resolved through the search path, which differs between users and changes
+ * with <code>SET search_path</code>, so each {@link TypeInfoCache} keeps them in a registry of
+ * its own. The lookups are lock free: the OID keyed tables are open addressing arrays of
+ * immutable entries, the name keyed ones concurrent hash maps.
+ * <p>
+ * What was read from the catalog is forgotten when a statement fails in a way that points at a
+ * type that was dropped or recreated since it was looked up, see {@link #errorReceived}. The
+ * core types registered by {@link TypeInfoCache#addCoreType} are kept, they are built into the
+ * server and the driver could not look them up again.
+ */
+public final class TypeRegistry {
+
+	/**
+	 * Bound on the number of names remembered by a registry, the names read from the catalog are
+	 * forgotten when exceeded.
+	 */
+	private static final int MAX_NAMES = 10000;
+
+	private static final ConcurrentMap<Scope, TypeRegistry> registries = new ConcurrentHashMap<Scope, TypeRegistry>();
+
+	// pgname -> java.sql.Types
+	private final ConcurrentMap<String, Integer> pgNameToSQLType = new ConcurrentHashMap<String, Integer>();
+	// pgname -> oid
+	private final ConcurrentMap<String, Integer> pgNameToOid = new ConcurrentHashMap<String, Integer>();
+	// oid -> pgname
+	private final OidMap<String> oidToPgName = new OidMap<String>();
+	// array type oid -> base type oid
+	private final OidMap<Integer> arrayToElement = new OidMap<Integer>();
+	// array type oid -> base type array element delimiter
+	private final OidMap<Character> arrayToDelimiter = new OidMap<Character>();
+
+	// names and oids of the core types, kept when the registry is cleared
+	private final Set<String> coreNames = ConcurrentHashMap.newKeySet();
+	private final OidMap<Boolean> coreOids = new OidMap<Boolean>();
+
+	// number of times the registry was cleared, the registries of the connections follow it
+	private volatile int clears;
+
+	/**
+	 * Creates a registry of its own, for a connection that does not share type information.
+	 */
+	public TypeRegistry() {
+	}
+
+	/**
+	 * Returns the registry shared by the connections to a server.
+	 *
+	 * @param hostSpec host connected to
+	 * @param database database connected to
+	 * @param serverVersionNum version of the server
+	 * @return the shared registry
+	 */
+	public static TypeRegistry forServer(HostSpec hostSpec, String database, int serverVersionNum) {
+		Scope scope = new Scope(hostSpec, database, serverVersionNum);
+		TypeRegistry registry = registries.get(scope);
+		if (registry == null) {
+			TypeRegistry created = new TypeRegistry();
+			registry = registries.putIfAbsent(scope, created);
+			if (registry == null) {
+				registry = created;
+			}
+		}
+		return registry;
+	}
+
+	/**
+	 * Clears the registries of a database if an error suggests that a type has been dropped or
+	 * recreated with another OID. Only the core types are kept.
+	 *
+	 * @param hostSpec host the error came from
+	 * @param database database the error came from
+	 * @param error the error reported by the server
+	 */
+	public static void errorReceived(HostSpec hostSpec, String database, ServerErrorMessage error) {
+		String state = error.getSQLState();
+		boolean staleType = PSQLState.UNDEFINED_OBJECT.getState().equals(state)
+				|| "XX000".equals(state) && error.getMessage() != null
+						&& error.getMessage().startsWith("cache lookup failed for type");
+		if (!staleType) {
+			return;
+		}
+		for (Map.Entry<Scope, TypeRegistry> entry : registries.entrySet()) {
+			Scope scope = entry.getKey();
+			if (scope.hostSpec.equals(hostSpec) && scope.database.equals(database)) {
+				entry.getValue().clear();
+			}
+		}
+	}
+
+	/**
+	 * Whether a type name names the same type whatever the search path, that is whether it is
+	 * qualified with a schema: <code>schema.name</code> or <code>"schema"."name"</code>, with an
+	 * optional <code>[]</code>. A quoted name that contains a dot is not qualified.
+	 *
+	 * @param pgTypeName name of the type
+	 * @return true if the name does not depend on the search path
+	 */
+	static boolean isQualified(String pgTypeName) {
+		String name = pgTypeName.endsWith("[]") ? pgTypeName.substring(0, pgTypeName.length() - 2) : pgTypeName;
+		if (name.indexOf('.') == -1) {
+			return false;
+		}
+		return !(name.startsWith("\"") && name.endsWith("\"")) || name.contains("\".\"");
+	}
+
+	Integer getSQLType(String pgTypeName) {
+		return pgNameToSQLType.get(pgTypeName);
+	}
+
+	void putSQLType(String pgTypeName, Integer sqlType) {
+		if (!sqlType.equals(pgNameToSQLType.get(pgTypeName))) {
+			checkNames(pgNameToSQLType);
+			pgNameToSQLType.put(pgTypeName, sqlType);
+		}
+	}
+
+	Iterator<String> getPGTypeNamesWithSQLTypes() {
+		return pgNameToSQLType.keySet().iterator();
+	}
+
+	Integer getOid(String pgTypeName) {
+		return pgNameToOid.get(pgTypeName);
+	}
+
+	void putOid(String pgTypeName, Integer oid) {
+		if (!oid.equals(pgNameToOid.get(pgTypeName))) {
+			checkNames(pgNameToOid);
+			pgNameToOid.put(pgTypeName, oid);
+		}
+	}
+
+	boolean hasOid(String pgTypeName) {
+		return pgNameToOid.containsKey(pgTypeName);
+	}
+
+	String getPGType(int oid) {
+		return oidToPgName.get(oid);
+	}
+
+	void putPGType(int oid, String pgTypeName) {
+		oidToPgName.put(oid, pgTypeName);
+	}
+
+	Integer getArrayElement(int oid) {
+		return arrayToElement.get(oid);
+	}
+
+	void putArrayElement(int oid, Integer elementOid) {
+		arrayToElement.put(oid, elementOid);
+	}
+
+	Character getArrayDelimiter(int oid) {
+		return arrayToDelimiter.get(oid);
+	}
+
+	void putArrayDelimiter(int oid, Character delimiter) {
+		arrayToDelimiter.put(oid, delimiter);
+	}
+
+	/**
+	 * Marks a type as a core type, which is kept when the registry is cleared.
+	 *
+	 * @param pgTypeName name of the type
+	 * @param oid oid of the type
+	 */
+	void putCoreType(String pgTypeName, int oid) {
+		coreNames.add(pgTypeName);
+		coreOids.put(oid, Boolean.TRUE);
+	}
+
+	void clear() {
+		clears++;
+		pgNameToSQLType.keySet().retainAll(coreNames);
+		pgNameToOid.keySet().retainAll(coreNames);
+		oidToPgName.retainAll(coreOids);
+		arrayToElement.retainAll(coreOids);
+		arrayToDelimiter.retainAll(coreOids);
+	}
+
+	int getClears() {
+		return clears;
+	}
+
+	private void checkNames(Map<String, ?> names) {
+		if (names.size() >= MAX_NAMES) {
+			names.keySet().retainAll(coreNames);
+		}
+	}
+
+	private static final class Scope {
+		private final HostSpec hostSpec;
+		private final String database;
+		private final int serverVersionNum;
+
+		Scope(HostSpec hostSpec, String database, int serverVersionNum) {
+			this.hostSpec = hostSpec;
+			this.database = database;
+			this.serverVersionNum = serverVersionNum;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Scope)) {
+				return false;
+			}
+			Scope other = (Scope) obj;
+			return hostSpec.equals(other.hostSpec) && database.equals(other.database)
+					&& serverVersionNum == other.serverVersionNum;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = hostSpec.hashCode() * 31 + database.hashCode();
+			return hash * 31 + serverVersionNum;
+		}
+	}
+
+	/**
+	 * Map from OID to value without boxing of the keys. Readers probe the current table without
+	 * locking, writers are serialized and fill it in place, so an insert costs a copy of the table
+	 * only when it doubles. The entries are immutable: a reader racing with a writer either misses
+	 * a new entry or sees it complete, and a changed value replaces the whole entry.
+	 */
+	static final class OidMap<V> {
+		private static final int INITIAL_CAPACITY = 8;
+
+		private volatile Entry[] table = new Entry[INITIAL_CAPACITY];
+		private int size;
+
+		@SuppressWarnings("unchecked")
+		V get(int oid) {
+			Entry e = find(table, oid);
+			return e == null ? null : (V) e.value;
+		}
+
+		synchronized void put(int oid, V value) {
+			Entry[] t = table;
+			Entry e = find(t, oid);
+			if (e != null && value.equals(e.value)) {
+				return;
+			}
+			if (e == null && (size + 1) * 2 > t.length) {
+				t = rehash(t, t.length * 2, null);
+			}
+			if (insert(t, new Entry(oid, value))) {
+				size++;
+			}
+			table = t;
+		}
+
+		boolean containsKey(int oid) {
+			return find(table, oid) != null;
+		}
+
+		/**
+		 * Removes the entries whose oid is not a key of another map.
+		 *
+		 * @param keep the oids to keep
+		 */
+		synchronized void retainAll(OidMap<?> keep) {
+			Entry[] t = rehash(table, table.length, keep);
+			int retained = 0;
+			for (Entry e : t) {
+				if (e != null) {
+					retained++;
+				}
+			}
+			size = retained;
+			table = t;
+		}
+
+		private static Entry find(Entry[] t, int oid) {
+			int mask = t.length - 1;
+			for (int i = hash(oid) & mask; ; i = (i + 1) & mask) {
+				Entry e = t[i];
+				if (e == null || e.oid == oid) {
+					return e;
+				}
+			}
+		}
+
+		private static Entry[] rehash(Entry[] t, int capacity, OidMap<?> keep) {
+			Entry[] newTable = new Entry[capacity];
+			for (Entry e : t) {
+				if (e != null && (keep == null || keep.containsKey(e.oid))) {
+					insert(newTable, e);
+				}
+			}
+			return newTable;
+		}
+
+		private static boolean insert(Entry[] t, Entry entry) {
+			int mask = t.length - 1;
+			int i = hash(entry.oid) & mask;
+			while (t[i] != null) {
+				if (t[i].oid == entry.oid) {
+					t[i] = entry;
+					return false;
+				}
+				i = (i + 1) & mask;
+			}
+			t[i] = entry;
+			return true;
+		}
+
+		private static int hash(int oid) {
+			int h = oid * 0x9E3779B9;
+			return h ^ (h >>> 16);
+		}
+
+		private static final class Entry {
+			private final int oid;
+			private final Object value;
+
+			Entry(int oid, Object value) {
+				this.oid = oid;
+				this.value = value;
+			}
+		}
+	}
+}
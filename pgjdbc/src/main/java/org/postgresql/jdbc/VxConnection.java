@@ -31,6 +31,7 @@ import org.postgresql.fastpath.Fastpath;
 import org.postgresql.largeobject.LargeObjectManager;
 import org.postgresql.replication.PGReplicationConnection;
 import org.postgresql.replication.PGReplicationConnectionImpl;
+import org.postgresql.util.AsyncLock;
 import org.postgresql.util.GT;
 import org.postgresql.util.HostSpec;
 import org.postgresql.util.LruCache;
@@ -74,6 +75,7 @@ import java.util.TimerTask;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -101,6 +103,9 @@ public class VxConnection {
 
 	private Throwable openStackTrace;
 
+	/* Run once by close(), lets a pool notice connections closed instead of released */
+	private final AtomicReference<Runnable> closeHandler = new AtomicReference<Runnable>();
+
 	/* Actual network handler */
 	private final QueryExecutor queryExecutor;
 
@@ -122,6 +127,9 @@ public class VxConnection {
 	 * @see PGProperty#DEFAULT_ROW_FETCH_SIZE
 	 */
 	protected int defaultFetchSize;
+	private int prefetchPages;
+	private int prefetchMaxBytes;
+	private int columnStringCacheSize;
 
 	// Default forcebinary option.
 	protected boolean forcebinary = false;
@@ -189,6 +197,9 @@ public class VxConnection {
 		this.creatingURL = url;
 
 		setDefaultFetchSize(PGProperty.DEFAULT_ROW_FETCH_SIZE.getInt(info));
+		prefetchPages = Math.max(0, PGProperty.PREFETCH_PAGES.getInt(info));
+		prefetchMaxBytes = Math.max(0, PGProperty.PREFETCH_MAX_BYTES.getInt(info));
+		columnStringCacheSize = Math.max(0, PGProperty.COLUMN_STRING_CACHE_SIZE.getInt(info));
 
 		setPrepareThreshold(PGProperty.PREPARE_THRESHOLD.getInt(info));
 		if (prepareThreshold == -1) {
@@ -218,6 +229,7 @@ public class VxConnection {
 			binaryOids.add(Oid.INT8);
 			binaryOids.add(Oid.FLOAT4);
 			binaryOids.add(Oid.FLOAT8);
+			binaryOids.add(Oid.NUMERIC);
 			binaryOids.add(Oid.TIME);
 			binaryOids.add(Oid.DATE);
 			binaryOids.add(Oid.TIMETZ);
@@ -298,7 +310,9 @@ public class VxConnection {
 		int unknownLength = PGProperty.UNKNOWN_LENGTH.getInt(info);
 
 		// Initialize object handling
-		_typeCache = createTypeInfo(this.createConnection(), unknownLength);
+		TypeRegistry typeRegistry = TypeRegistry.forServer(queryExecutor.getHostSpec(), queryExecutor.getDatabase(),
+				queryExecutor.getServerVersionNum());
+		_typeCache = createTypeInfo(this.createConnection(), unknownLength, typeRegistry);
 		initObjectTypes(info);
 
 		if (PGProperty.LOG_UNCLOSED_CONNECTIONS.getBoolean(info)) {
@@ -597,8 +611,8 @@ public class VxConnection {
 		}
 	}
 
-	protected TypeInfo createTypeInfo(BaseConnection conn, int unknownLength) {
-		return new TypeInfoCache(conn, unknownLength);
+	protected TypeInfo createTypeInfo(BaseConnection conn, int unknownLength, TypeRegistry typeRegistry) {
+		return new TypeInfoCache(conn, unknownLength, typeRegistry);
 	}
 
 	public TypeInfo getTypeInfo() {
@@ -671,6 +685,21 @@ public class VxConnection {
 		releaseTimer();
 		queryExecutor.close();
 		openStackTrace = null;
+		Runnable handler = closeHandler.getAndSet(null);
+		if (handler != null) {
+			handler.run();
+		}
+	}
+
+	/**
+	 * Sets the handler {@link #close()} runs once the connection is closed, replacing
+	 * the previous one.
+	 *
+	 * @param handler
+	 *            the handler, or null for none
+	 */
+	public void setCloseHandler(Runnable handler) {
+		closeHandler.set(handler);
 	}
 
 	public String nativeSQL(String sql) throws SQLException {
@@ -1034,6 +1063,31 @@ public class VxConnection {
 		return defaultFetchSize;
 	}
 
+	/**
+	 * @return number of pages a cursor based result set fetches ahead of the current one
+	 * @see PGProperty#PREFETCH_PAGES
+	 */
+	public int getPrefetchPages() {
+		return prefetchPages;
+	}
+
+	/**
+	 * @return number of bytes fetched ahead after which a result set stops prefetching, 0 if
+	 *         unbounded
+	 * @see PGProperty#PREFETCH_MAX_BYTES
+	 */
+	public int getPrefetchMaxBytes() {
+		return prefetchMaxBytes;
+	}
+
+	/**
+	 * @return number of distinct strings cached per result column, 0 if disabled
+	 * @see PGProperty#COLUMN_STRING_CACHE_SIZE
+	 */
+	public int getColumnStringCacheSize() {
+		return columnStringCacheSize;
+	}
+
 	public void setPrepareThreshold(int newThreshold) {
 		this.prepareThreshold = newThreshold;
 		LOGGER.log(Level.FINE, "  setPrepareThreshold = {0}", newThreshold);
@@ -1082,6 +1136,14 @@ public class VxConnection {
 		return queryExecutor.getBackendPID();
 	}
 
+	/**
+	 * @return how often and how long the requests on this connection waited for
+	 *         each other, see {@link QueryExecutor#getConnectionLockStatistics()}
+	 */
+	public AsyncLock.Statistics getConnectionLockStatistics() {
+		return queryExecutor.getConnectionLockStatistics();
+	}
+
 	public boolean isColumnSanitiserDisabled() {
 		return this.disableColumnSanitiser;
 	}
@@ -126,6 +126,31 @@ class VxPreparedStatement extends VxStatement {
 		return CompletableFuture.completedFuture(getSingleResultSet());
 	}
 
+	public CompletableFuture<VxRowStream> executeQueryStream(String p_sql) throws SQLException {
+		throw new PSQLException(GT.tr("Can''t use query methods that take a query string on a PreparedStatement."),
+				PSQLState.WRONG_OBJECT_TYPE);
+	}
+
+	/**
+	 * Executes the prepared query and streams its rows with backpressure, see
+	 * {@link VxStatement#executeQueryStream(String)}.
+	 *
+	 * @return the stream of the rows
+	 * @throws SQLException if the query fails or does not return rows
+	 */
+	public CompletableFuture<VxRowStream> executeQueryStream() throws SQLException {
+		int streamFetchSize = getStreamFetchSize();
+		int savedFetchSize = fetchSize;
+		fetchSize = streamFetchSize;
+		VxResultSet rs;
+		try {
+			rs = await(executeQuery());
+		} finally {
+			fetchSize = savedFetchSize;
+		}
+		return CompletableFuture.completedFuture(new VxRowStream(rs, streamFetchSize));
+	}
+
 	public CompletableFuture<Integer> executeUpdate(String p_sql) throws SQLException {
 		throw new PSQLException(GT.tr("Can''t use query methods that take a query string on a PreparedStatement."),
 				PSQLState.WRONG_OBJECT_TYPE);
@@ -258,6 +283,10 @@ class VxPreparedStatement extends VxStatement {
 
 	public void setBoolean(int parameterIndex, boolean x) throws SQLException {
 		checkClosed();
+		if (connection.binaryTransferSend(Oid.BOOL)) {
+			bindPrimitive(parameterIndex, x ? 1 : 0, Oid.BOOL);
+			return;
+		}
 		// The key words TRUE and FALSE are the preferred (SQL-compliant) usage.
 		bindLiteral(parameterIndex, x ? "TRUE" : "FALSE", Oid.BOOL);
 	}
@@ -269,9 +298,7 @@ class VxPreparedStatement extends VxStatement {
 	public void setShort(int parameterIndex, short x) throws SQLException {
 		checkClosed();
 		if (connection.binaryTransferSend(Oid.INT2)) {
-			byte[] val = new byte[2];
-			ByteConverter.int2(val, 0, x);
-			bindBytes(parameterIndex, val, Oid.INT2);
+			bindPrimitive(parameterIndex, x, Oid.INT2);
 			return;
 		}
 		bindLiteral(parameterIndex, Integer.toString(x), Oid.INT2);
@@ -280,9 +307,7 @@ class VxPreparedStatement extends VxStatement {
 	public void setInt(int parameterIndex, int x) throws SQLException {
 		checkClosed();
 		if (connection.binaryTransferSend(Oid.INT4)) {
-			byte[] val = new byte[4];
-			ByteConverter.int4(val, 0, x);
-			bindBytes(parameterIndex, val, Oid.INT4);
+			bindPrimitive(parameterIndex, x, Oid.INT4);
 			return;
 		}
 		bindLiteral(parameterIndex, Integer.toString(x), Oid.INT4);
@@ -291,9 +316,7 @@ class VxPreparedStatement extends VxStatement {
 	public void setLong(int parameterIndex, long x) throws SQLException {
 		checkClosed();
 		if (connection.binaryTransferSend(Oid.INT8)) {
-			byte[] val = new byte[8];
-			ByteConverter.int8(val, 0, x);
-			bindBytes(parameterIndex, val, Oid.INT8);
+			bindPrimitive(parameterIndex, x, Oid.INT8);
 			return;
 		}
 		bindLiteral(parameterIndex, Long.toString(x), Oid.INT8);
@@ -302,9 +325,7 @@ class VxPreparedStatement extends VxStatement {
 	public void setFloat(int parameterIndex, float x) throws SQLException {
 		checkClosed();
 		if (connection.binaryTransferSend(Oid.FLOAT4)) {
-			byte[] val = new byte[4];
-			ByteConverter.float4(val, 0, x);
-			bindBytes(parameterIndex, val, Oid.FLOAT4);
+			bindPrimitive(parameterIndex, Float.floatToRawIntBits(x), Oid.FLOAT4);
 			return;
 		}
 		bindLiteral(parameterIndex, Float.toString(x), Oid.FLOAT8);
@@ -313,15 +334,26 @@ class VxPreparedStatement extends VxStatement {
 	public void setDouble(int parameterIndex, double x) throws SQLException {
 		checkClosed();
 		if (connection.binaryTransferSend(Oid.FLOAT8)) {
-			byte[] val = new byte[8];
-			ByteConverter.float8(val, 0, x);
-			bindBytes(parameterIndex, val, Oid.FLOAT8);
+			bindPrimitive(parameterIndex, Double.doubleToRawLongBits(x), Oid.FLOAT8);
 			return;
 		}
 		bindLiteral(parameterIndex, Double.toString(x), Oid.FLOAT8);
 	}
 
 	public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+		if (x != null && connection.binaryTransferSend(Oid.NUMERIC)) {
+			checkClosed();
+			byte[] data;
+			try {
+				data = ByteConverter.numeric(x);
+			} catch (IllegalArgumentException e) {
+				// out of the range of numeric, sent as text for the server to report
+				setNumber(parameterIndex, x);
+				return;
+			}
+			bindBytes(parameterIndex, data, Oid.NUMERIC);
+			return;
+		}
 		setNumber(parameterIndex, x);
 	}
 
@@ -997,6 +1029,17 @@ class VxPreparedStatement extends VxStatement {
 		preparedParameters.setLiteralParameter(paramIndex, s, oid);
 	}
 
+	/**
+	 * Binds a fixed-length binary value without allocating its binary representation, see
+	 * {@link ParameterList#setPrimitiveParameter(int, long, int)}.
+	 */
+	protected void bindPrimitive(int paramIndex, long value, int oid) throws SQLException {
+		if (adjustIndex) {
+			paramIndex--;
+		}
+		preparedParameters.setPrimitiveParameter(paramIndex, value, oid);
+	}
+
 	protected void bindBytes(int paramIndex, byte[] b, int oid) throws SQLException {
 		if (adjustIndex) {
 			paramIndex--;
@@ -1279,10 +1322,8 @@ class VxPreparedStatement extends VxStatement {
 		}
 
 		if (connection.binaryTransferSend(Oid.DATE)) {
-			byte[] val = new byte[4];
 			TimeZone tz = cal != null ? cal.getTimeZone() : null;
-			connection.getTimestampUtils().toBinDate(tz, val, d);
-			preparedParameters.setBinaryParameter(i, val, Oid.DATE);
+			preparedParameters.setPrimitiveParameter(i, connection.getTimestampUtils().toBinDate(tz, d), Oid.DATE);
 			return;
 		}
 
@@ -1552,10 +1593,10 @@ class VxPreparedStatement extends VxStatement {
 
 	private void setUuid(int parameterIndex, UUID uuid) throws SQLException {
 		if (connection.binaryTransferSend(Oid.UUID)) {
-			byte[] val = new byte[16];
-			ByteConverter.int8(val, 0, uuid.getMostSignificantBits());
-			ByteConverter.int8(val, 8, uuid.getLeastSignificantBits());
-			bindBytes(parameterIndex, val, Oid.UUID);
+			if (adjustIndex) {
+				parameterIndex--;
+			}
+			preparedParameters.setUuidParameter(parameterIndex, uuid);
 		} else {
 			bindLiteral(parameterIndex, uuid.toString(), Oid.UUID);
 		}
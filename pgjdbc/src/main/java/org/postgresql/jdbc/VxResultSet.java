@@ -15,10 +15,12 @@ import org.postgresql.core.Oid;
 import org.postgresql.core.Query;
 import org.postgresql.core.ResultCursor;
 import org.postgresql.core.ResultHandlerBase;
+import org.postgresql.core.TupleSlab;
 import org.postgresql.core.TypeInfo;
 import org.postgresql.core.Utils;
 import org.postgresql.core.VxBaseResultSet;
 import org.postgresql.core.VxBaseStatement;
+import org.postgresql.core.VxRow;
 import org.postgresql.util.ByteConverter;
 import org.postgresql.util.GT;
 import org.postgresql.util.HStoreConverter;
@@ -63,8 +65,10 @@ import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 //#endif
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -74,6 +78,7 @@ import java.util.StringTokenizer;
 import java.util.TimeZone;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
@@ -110,6 +115,8 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 	protected int current_row = -1; // Index into 'rows' of our currrent row (0-based)
 	protected int row_offset; // Offset of row 0 in the actual resultset
 	protected byte[][] this_row; // copy of the current result row
+	private TupleSlab slab; // holds the current row while this_row is IN_SLAB
+	private int slabRow;
 	protected SQLWarning warnings = null; // The warning chain
 	/**
 	 * True if the last obtained column value was SQL NULL as specified by
@@ -127,6 +134,10 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 
 	private Map<String, Integer> columnNameIndexMap; // Speed up findColumn by caching lookups
 
+	private final ArrayDeque<PrefetchedPage> prefetchedPages = new ArrayDeque<PrefetchedPage>(); // pages fetched ahead
+	private final RowView rowView = new RowView(); // synchronous view of this_row
+	private CompletableFuture<VxRow> rowViewFuture; // completed with rowView, reused by nextRow()
+
 	private ResultSetMetaData rsMetaData;
 
 	protected ResultSetMetaData createMetaData() throws SQLException {
@@ -226,7 +237,7 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 
 			if (type.equals("uuid")) {
 				if (isBinary(columnIndex)) {
-					return CompletableFuture.completedFuture(getUUID(this_row[columnIndex - 1]));
+					return CompletableFuture.completedFuture(getUUID(value(columnIndex - 1)));
 				}
 				return CompletableFuture.completedFuture(getUUID(await(getString(columnIndex))));
 			}
@@ -271,7 +282,7 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 			}
 			if ("hstore".equals(type)) {
 				if (isBinary(columnIndex)) {
-					return CompletableFuture.completedFuture(HStoreConverter.fromBytes(this_row[columnIndex - 1], connection.getEncoding()));
+					return CompletableFuture.completedFuture(HStoreConverter.fromBytes(value(columnIndex - 1), connection.getEncoding()));
 				}
 				return CompletableFuture.completedFuture(HStoreConverter.fromString(await(getString(columnIndex))));
 			}
@@ -390,7 +401,7 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 
 		int oid = fields[i - 1].getOID();
 		if (isBinary(i)) {
-			return CompletableFuture.completedFuture(makeArray(oid, this_row[i - 1]));
+			return CompletableFuture.completedFuture(makeArray(oid, value(i - 1)));
 		}
 		return CompletableFuture.completedFuture(makeArray(oid, await(getFixedString(i))));
 	}
@@ -463,74 +474,12 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 
 	@Override
 	public CompletableFuture<java.sql.Date> getDate(int i, java.util.Calendar cal) throws SQLException {
-		checkResultSet(i);
-		if (wasNullFlag) {
-			return null;
-		}
-
-		if (cal == null) {
-			cal = getDefaultCalendar();
-		}
-		if (isBinary(i)) {
-			int col = i - 1;
-			int oid = fields[col].getOID();
-			TimeZone tz = cal.getTimeZone();
-			if (oid == Oid.DATE) {
-				return CompletableFuture.completedFuture(connection.getTimestampUtils().toDateBin(tz, this_row[col]));
-			} else if (oid == Oid.TIMESTAMP || oid == Oid.TIMESTAMPTZ) {
-				// If backend provides just TIMESTAMP, we use "cal" timezone
-				// If backend provides TIMESTAMPTZ, we ignore "cal" as we know true instant
-				// value
-				Timestamp timestamp = await(getTimestamp(i, cal));
-				// Here we just truncate date to 00:00 in a given time zone
-				return CompletableFuture.completedFuture(connection.getTimestampUtils().convertToDate(timestamp.getTime(), tz));
-			} else {
-				throw new PSQLException(GT.tr("Cannot convert the column of type {0} to requested type {1}.",
-						Oid.toString(oid), "date"), PSQLState.DATA_TYPE_MISMATCH);
-			}
-		}
-
-		return CompletableFuture.completedFuture(connection.getTimestampUtils().toDate(cal, await(getString(i))));
+		return CompletableFuture.completedFuture(rowView.getDate(i, cal));
 	}
 
 	@Override
 	public CompletableFuture<Object> getTime(int i, java.util.Calendar cal) throws SQLException {
-		checkResultSet(i);
-		if (wasNullFlag) {
-			return CompletableFuture.completedFuture(null);
-		}
-
-		if (cal == null) {
-			cal = getDefaultCalendar();
-		}
-		if (isBinary(i)) {
-			int col = i - 1;
-			int oid = fields[col].getOID();
-			TimeZone tz = cal.getTimeZone();
-			if (oid == Oid.TIME || oid == Oid.TIMETZ) {
-				return CompletableFuture.completedFuture(connection.getTimestampUtils().toTimeBin(tz, this_row[col]));
-			} else if (oid == Oid.TIMESTAMP || oid == Oid.TIMESTAMPTZ) {
-				// If backend provides just TIMESTAMP, we use "cal" timezone
-				// If backend provides TIMESTAMPTZ, we ignore "cal" as we know true instant
-				// value
-				Timestamp timestamp = await(getTimestamp(i, cal));
-				long timeMillis = timestamp.getTime();
-				if (oid == Oid.TIMESTAMPTZ) {
-					// time zone == UTC since BINARY "timestamp with time zone" is always sent in
-					// UTC
-					// So we truncate days
-					return CompletableFuture.completedFuture(new Time(timeMillis % TimeUnit.DAYS.toMillis(1)));
-				}
-				// Here we just truncate date part
-				return CompletableFuture.completedFuture(connection.getTimestampUtils().convertToTime(timeMillis, tz));
-			} else {
-				throw new PSQLException(GT.tr("Cannot convert the column of type {0} to requested type {1}.",
-						Oid.toString(oid), "time"), PSQLState.DATA_TYPE_MISMATCH);
-			}
-		}
-
-		String string = await(getString(i));
-		return CompletableFuture.completedFuture(connection.getTimestampUtils().toTime(cal, string));
+		return CompletableFuture.completedFuture(rowView.getTime(i, cal));
 	}
 
 	// #if mvn.project.property.postgresql.jdbc.spec >= "JDBC4.2"
@@ -544,7 +493,7 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 			int col = i - 1;
 			int oid = fields[col].getOID();
 			if (oid == Oid.TIME) {
-				return CompletableFuture.completedFuture(connection.getTimestampUtils().toLocalTimeBin(this_row[col]));
+				return CompletableFuture.completedFuture(connection.getTimestampUtils().toLocalTimeBin(value(col)));
 			} else {
 				throw new PSQLException(GT.tr("Cannot convert the column of type {0} to requested type {1}.",
 						Oid.toString(oid), "time"), PSQLState.DATA_TYPE_MISMATCH);
@@ -558,45 +507,7 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 
 	@Override
 	public CompletableFuture<Timestamp> getTimestamp(int i, java.util.Calendar cal) throws SQLException {
-		checkResultSet(i);
-		if (wasNullFlag) {
-			return null;
-		}
-
-		if (cal == null) {
-			cal = getDefaultCalendar();
-		}
-		int col = i - 1;
-		int oid = fields[col].getOID();
-		if (isBinary(i)) {
-			if (oid == Oid.TIMESTAMPTZ || oid == Oid.TIMESTAMP) {
-				boolean hasTimeZone = oid == Oid.TIMESTAMPTZ;
-				TimeZone tz = cal.getTimeZone();
-				return CompletableFuture.completedFuture(connection.getTimestampUtils().toTimestampBin(tz, this_row[col], hasTimeZone));
-			} else {
-				// JDBC spec says getTimestamp of Time and Date must be supported
-				long millis;
-				if (oid == Oid.TIME || oid == Oid.TIMETZ) {
-					millis = ((Time)await(getTime(i, cal))).getTime();
-				} else if (oid == Oid.DATE) {
-					millis = await(getDate(i, cal)).getTime();
-				} else {
-					throw new PSQLException(GT.tr("Cannot convert the column of type {0} to requested type {1}.",
-							Oid.toString(oid), "timestamp"), PSQLState.DATA_TYPE_MISMATCH);
-				}
-				return CompletableFuture.completedFuture(new Timestamp(millis));
-			}
-		}
-
-		// If this is actually a timestamptz, the server-provided timezone will override
-		// the one we pass in, which is the desired behaviour. Otherwise, we'll
-		// interpret the timezone-less value in the provided timezone.
-		String string = await(getString(i));
-		if (oid == Oid.TIME || oid == Oid.TIMETZ) {
-			// If server sends us a TIME, we ensure java counterpart has date of 1970-01-01
-			return CompletableFuture.completedFuture(new Timestamp(connection.getTimestampUtils().toTime(cal, string).getTime()));
-		}
-		return CompletableFuture.completedFuture(connection.getTimestampUtils().toTimestamp(cal, string));
+		return CompletableFuture.completedFuture(rowView.getTimestamp(i, cal));
 	}
 
 	// #if mvn.project.property.postgresql.jdbc.spec >= "JDBC4.2"
@@ -614,12 +525,26 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 		}
 		if (isBinary(i)) {
 			TimeZone timeZone = getDefaultCalendar().getTimeZone();
-			return CompletableFuture.completedFuture(connection.getTimestampUtils().toLocalDateTimeBin(timeZone, this_row[col]));
+			return CompletableFuture.completedFuture(connection.getTimestampUtils().toLocalDateTimeBin(timeZone, value(col)));
 		}
 
 		String string = await(getString(i));
 		return CompletableFuture.completedFuture(connection.getTimestampUtils().toLocalDateTime(string));
 	}
+
+	private CompletableFuture<OffsetDateTime> getOffsetDateTime(int i) throws SQLException {
+		checkResultSet(i);
+		if (wasNullFlag) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		if (isBinary(i)) {
+			return CompletableFuture.completedFuture(connection.getTimestampUtils().toOffsetDateTimeBin(value(i - 1)));
+		}
+
+		String string = await(getString(i));
+		return CompletableFuture.completedFuture(connection.getTimestampUtils().toOffsetDateTime(string));
+	}
 	// #endif
 
 	public CompletableFuture<Date> getDate(String c, java.util.Calendar cal) throws SQLException {
@@ -776,11 +701,14 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 			}
 		}
 
+		// The fetch replaces the page the current row is read from.
+		byte[][] lastRow = materializedRow();
+
 		// Do the actual fetch.
-		await(connection.getQueryExecutor().fetch(cursor, new CursorResultHandler(), fetchRows));
+		await(fetchNextPage(fetchRows));
 
 		// Now prepend our one saved row and move to it.
-		rows.add(0, this_row);
+		mutableRows().add(0, lastRow);
 		current_row = 0;
 
 		// Finally, now we can tell if we're the last row or not.
@@ -911,7 +839,7 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 
 		await(deleteStatement.executeUpdate());
 
-		rows.remove(current_row);
+		mutableRows().remove(current_row);
 		current_row--;
 		moveToCurrentRow();
 		
@@ -974,7 +902,7 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 			// update the underlying row to the new inserted data
 			updateRowBuffer();
 
-			rows.add(rowBuffer);
+			mutableRows().add(rowBuffer);
 
 			// we should now reflect the current data in this_row
 			// that way getXXX will get the newly inserted data
@@ -1023,7 +951,8 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 
 		// inserts want an empty array while updates want a copy of the current row
 		if (copyCurrentRow) {
-			System.arraycopy(this_row, 0, rowBuffer, 0, this_row.length);
+			byte[][] row = materializedRow();
+			System.arraycopy(row, 0, rowBuffer, 0, row.length);
 		}
 
 		// clear the updateValues hash map for the next set of updates
@@ -1242,10 +1171,10 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 		VxResultSet rs = (VxResultSet) await(selectStatement.executeQuery());
 
 		if (await(rs.next())) {
-			rowBuffer = rs.this_row;
+			rowBuffer = rs.materializedRow();
 		}
 
-		rows.set(current_row, rowBuffer);
+		mutableRows().set(current_row, rowBuffer);
 		this_row = rowBuffer;
 
 		connection.getLogger().log(Level.FINE, "done updates");
@@ -1329,7 +1258,7 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 
 		connection.getLogger().log(Level.FINE, "copying data");
 		System.arraycopy(rowBuffer, 0, this_row, 0, rowBuffer.length);
-		rows.set(current_row, rowBuffer);
+		mutableRows().set(current_row, rowBuffer);
 
 		connection.getLogger().log(Level.FINE, "done updates");
 		updateValues.clear();
@@ -1689,6 +1618,157 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 		}
 	}
 
+	/**
+	 * Page of rows fetched ahead of the current one, see {@link VxConnection#getPrefetchPages()}.
+	 */
+	private class PrefetchedPage extends ResultHandlerBase {
+		private final int requestedRows;
+		private CompletableFuture<Void> done;
+		private List<byte[][]> tuples = Collections.emptyList();
+		private ResultCursor cursor;
+
+		PrefetchedPage(int requestedRows) {
+			this.requestedRows = requestedRows;
+		}
+
+		public void handleResultRows(Query fromQuery, Field[] fields, List<byte[][]> tuples, ResultCursor cursor) {
+			this.tuples = tuples;
+			this.cursor = cursor;
+		}
+
+		public void handleCommandStatus(String status, int updateCount, long insertOID) {
+			handleError(
+					new PSQLException(GT.tr("Unexpected command status: {0}.", status), PSQLState.PROTOCOL_VIOLATION));
+		}
+
+		public void handleCompletion() throws SQLException {
+			SQLWarning warning = getWarning();
+			if (warning != null) {
+				VxResultSet.this.addWarning(warning);
+			}
+			super.handleCompletion();
+		}
+
+		boolean isReceived() {
+			return done.isDone() && !done.isCompletedExceptionally();
+		}
+
+		boolean isFailed() {
+			return done.isCompletedExceptionally();
+		}
+
+	}
+
+	/**
+	 * @return the number of value bytes of a page of rows
+	 */
+	private static long byteSize(List<byte[][]> tuples) {
+		if (tuples instanceof TupleSlab) {
+			return ((TupleSlab) tuples).getDataLength();
+		}
+		long bytes = 0;
+		for (byte[][] tuple : tuples) {
+			for (byte[] value : tuple) {
+				if (value != null) {
+					bytes += value.length;
+				}
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * Replaces the current page with the next one, taking it from the pages fetched ahead
+	 * if there are any.
+	 */
+	private CompletableFuture<Void> fetchNextPage(int fetchRows) throws SQLException {
+		PrefetchedPage page;
+		synchronized (prefetchedPages) {
+			page = prefetchedPages.poll();
+		}
+
+		if (page == null) {
+			await(connection.getQueryExecutor().fetch(cursor, new CursorResultHandler(), fetchRows));
+		} else {
+			try {
+				await(page.done);
+			} catch (CompletionException e) {
+				// the page failed, report it like a fetch of its own would have
+				if (e.getCause() instanceof SQLException) {
+					throw (SQLException) e.getCause();
+				}
+				throw e;
+			}
+			rows = page.tuples;
+			cursor = page.cursor;
+		}
+		return CompletableFuture.completedFuture(null);
+	}
+
+	/**
+	 * Fetches pages ahead of the current one, up to the configured number of pages and
+	 * bytes. The bytes count the current page and the pages fetched ahead, the pages not
+	 * received yet estimated from the size of the rows of the current page. The fetches are
+	 * written without waiting for each other, each continuing the portal where the one
+	 * before it leaves off. Only called from {@link #next()}, so the current page and cursor
+	 * are not read concurrently.
+	 */
+	private void prefetch() throws SQLException {
+		int prefetchPages = connection.getPrefetchPages();
+		long maxBytes = connection.getPrefetchMaxBytes();
+		synchronized (prefetchedPages) {
+			int offset = row_offset + rows.size();
+			long bytes = byteSize(rows);
+			long bytesPerRow = rows.isEmpty() ? 0 : (bytes + rows.size() - 1) / rows.size();
+			for (PrefetchedPage page : prefetchedPages) {
+				if (page.isFailed()) {
+					// the failure is reported when next() reaches the page
+					return;
+				}
+				if (page.isReceived()) {
+					if (page.cursor == null) {
+						// the portal is exhausted
+						return;
+					}
+					offset += page.tuples.size();
+					bytes += byteSize(page.tuples);
+				} else if (page.requestedRows == 0) {
+					// takes all the remaining rows
+					return;
+				} else {
+					offset += page.requestedRows;
+					bytes += page.requestedRows * bytesPerRow;
+				}
+			}
+
+			while (prefetchedPages.size() < prefetchPages) {
+				int fetchRows = fetchSize;
+				if (maxRows != 0) {
+					if (offset >= maxRows) {
+						return;
+					}
+					if (fetchRows == 0 || offset + fetchRows > maxRows) {
+						// Fetch would exceed maxRows, limit it.
+						fetchRows = maxRows - offset;
+					}
+				}
+				if (maxBytes > 0 && (fetchRows == 0 || bytes + fetchRows * bytesPerRow > maxBytes)) {
+					// the page would not fit, or is not bounded
+					return;
+				}
+
+				PrefetchedPage page = new PrefetchedPage(fetchRows);
+				page.done = connection.getQueryExecutor().fetch(cursor, page, fetchRows);
+				prefetchedPages.add(page);
+				if (fetchRows == 0) {
+					return;
+				}
+				offset += fetchRows;
+				bytes += fetchRows * bytesPerRow;
+			}
+		}
+	}
+
 	public VxStatement getPGStatement() {
 		return statement;
 	}
@@ -1753,7 +1833,7 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 			}
 
 			// Execute the fetch and update this resultset.
-			await(connection.getQueryExecutor().fetch(cursor, new CursorResultHandler(), fetchRows));
+			await(fetchNextPage(fetchRows));
 
 			current_row = 0;
 
@@ -1768,13 +1848,36 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 		}
 
 		initRowBuffer();
+		if (cursor != null && connection.getPrefetchPages() > 0) {
+			prefetch();
+		}
 		return CompletableFuture.completedFuture(true);
 	}
 
+	public CompletableFuture<VxRow> nextRow() throws SQLException {
+		if (!await(next())) {
+			return CompletableFuture.completedFuture(null);
+		}
+		if (rowViewFuture == null) {
+			rowViewFuture = CompletableFuture.completedFuture(rowView);
+		}
+		return rowViewFuture;
+	}
+
+	public VxRow currentRow() throws SQLException {
+		checkClosed();
+		return rowView;
+	}
+
 	public void close() throws SQLException {
 		try {
 			// release resources held (memory for tuples)
 			rows = null;
+			synchronized (prefetchedPages) {
+				// The fetches already written are drained by the query executor, the ones
+				// still waiting for the connection are skipped once the portal is closed.
+				prefetchedPages.clear();
+			}
 			if (cursor != null) {
 				cursor.close();
 				cursor = null;
@@ -1804,6 +1907,10 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 		// varchar in binary is same as text, other binary fields are converted to their
 		// text format
 		if (isBinary(columnIndex) && getSQLType(columnIndex) != Types.VARCHAR) {
+			if (field.getOID() == Oid.NUMERIC) {
+				// NaN has no BigDecimal
+				return CompletableFuture.completedFuture(trimString(columnIndex, toNumericString(value(columnIndex - 1))));
+			}
 			obj = await(internalGetObject(columnIndex, field));
 			if (obj == null) {
 				// internalGetObject() knows jdbc-types and some extra like hstore. It does not
@@ -1827,9 +1934,21 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 			return CompletableFuture.completedFuture(trimString(columnIndex, obj.toString()));
 		}
 
+		return CompletableFuture.completedFuture(decodeString(columnIndex));
+	}
+
+	private String decodeString(int columnIndex) throws SQLException {
 		Encoding encoding = connection.getEncoding();
+		int cacheSize = connection.getColumnStringCacheSize();
 		try {
-			return CompletableFuture.completedFuture(trimString(columnIndex, encoding.decode(this_row[columnIndex - 1])));
+			int col = columnIndex - 1;
+			byte[] data = rowData(col);
+			int offset = rowOffset(col);
+			int length = rowLength(col);
+			String decoded = cacheSize > 0
+					? fields[col].getStringCache(cacheSize).decode(data, offset, length, encoding)
+					: encoding.decode(data, offset, length);
+			return trimString(columnIndex, decoded);
 		} catch (IOException ioe) {
 			throw new PSQLException(GT.tr(
 					"Invalid character data was found.  This is most likely caused by stored data containing characters that are invalid for the character set the database was created in.  The most common example of this is storing 8bit data in a SQL_ASCII database."),
@@ -1868,22 +1987,7 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 	@Override
 	public CompletableFuture<Boolean> getBoolean(int columnIndex) throws SQLException {
 		connection.getLogger().log(Level.FINEST, "  getBoolean columnIndex: {0}", columnIndex);
-		checkResultSet(columnIndex);
-		if (wasNullFlag) {
-			return CompletableFuture.completedFuture(false); // SQL NULL
-		}
-
-		int col = columnIndex - 1;
-		if (Oid.BOOL == fields[col].getOID()) {
-			final byte[] v = this_row[col];
-			return CompletableFuture.completedFuture((1 == v.length) && (116 == v[0])); // 116 = 't'
-		}
-
-		if (isBinary(columnIndex)) {
-			return CompletableFuture.completedFuture(BooleanTypeUtil.castToBoolean(readDoubleValue(this_row[col], fields[col].getOID(), "boolean")));
-		}
-
-		return CompletableFuture.completedFuture(BooleanTypeUtil.castToBoolean(await(getString(columnIndex))));
+		return CompletableFuture.completedFuture(rowView.getBoolean(columnIndex));
 	}
 
 	private static final BigInteger BYTEMAX = new BigInteger(Byte.toString(Byte.MAX_VALUE));
@@ -1901,7 +2005,7 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 			int col = columnIndex - 1;
 			// there is no Oid for byte so must always do conversion from
 			// some other numeric type
-			return CompletableFuture.completedFuture((byte) readLongValue(this_row[col], fields[col].getOID(), Byte.MIN_VALUE, Byte.MAX_VALUE, "byte"));
+			return CompletableFuture.completedFuture((byte) readLongValue(col, fields[col].getOID(), Byte.MIN_VALUE, Byte.MAX_VALUE, "byte"));
 		}
 
 		String s = await(getString(columnIndex));
@@ -1940,73 +2044,17 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 	@Override
 	public CompletableFuture<Short> getShort(int columnIndex) throws SQLException {
 		connection.getLogger().log(Level.FINEST, "  getShort columnIndex: {0}", columnIndex);
-		checkResultSet(columnIndex);
-		if (wasNullFlag) {
-			return CompletableFuture.completedFuture((short)0); // SQL NULL
-		}
-
-		if (isBinary(columnIndex)) {
-			int col = columnIndex - 1;
-			int oid = fields[col].getOID();
-			if (oid == Oid.INT2) {
-				return CompletableFuture.completedFuture(ByteConverter.int2(this_row[col], 0));
-			}
-			return CompletableFuture.completedFuture((short) readLongValue(this_row[col], oid, Short.MIN_VALUE, Short.MAX_VALUE, "short"));
-		}
-
-		return CompletableFuture.completedFuture(toShort(await(getFixedString(columnIndex))));
+		return CompletableFuture.completedFuture(rowView.getShort(columnIndex));
 	}
 
 	public CompletableFuture<Integer> getInt(int columnIndex) throws SQLException {
 		connection.getLogger().log(Level.FINEST, "  getInt columnIndex: {0}", columnIndex);
-		checkResultSet(columnIndex);
-		if (wasNullFlag) {
-			return CompletableFuture.completedFuture(0); // SQL NULL
-		}
-
-		if (isBinary(columnIndex)) {
-			int col = columnIndex - 1;
-			int oid = fields[col].getOID();
-			if (oid == Oid.INT4) {
-				return CompletableFuture.completedFuture(ByteConverter.int4(this_row[col], 0));
-			}
-			return CompletableFuture.completedFuture((int) readLongValue(this_row[col], oid, Integer.MIN_VALUE, Integer.MAX_VALUE, "int"));
-		}
-
-		Encoding encoding = connection.getEncoding();
-		if (encoding.hasAsciiNumbers()) {
-			try {
-				return CompletableFuture.completedFuture(getFastInt(columnIndex));
-			} catch (NumberFormatException ex) {
-			}
-		}
-		return CompletableFuture.completedFuture(toInt(await(getFixedString(columnIndex))));
+		return CompletableFuture.completedFuture(rowView.getInt(columnIndex));
 	}
 
 	public CompletableFuture<Long> getLong(int columnIndex) throws SQLException {
 		connection.getLogger().log(Level.FINEST, "  getLong columnIndex: {0}", columnIndex);
-		checkResultSet(columnIndex);
-		if (wasNullFlag) {
-			return CompletableFuture.completedFuture((long)0); // SQL NULL
-		}
-
-		if (isBinary(columnIndex)) {
-			int col = columnIndex - 1;
-			int oid = fields[col].getOID();
-			if (oid == Oid.INT8) {
-				return CompletableFuture.completedFuture(ByteConverter.int8(this_row[col], 0));
-			}
-			return CompletableFuture.completedFuture(readLongValue(this_row[col], oid, Long.MIN_VALUE, Long.MAX_VALUE, "long"));
-		}
-
-		Encoding encoding = connection.getEncoding();
-		if (encoding.hasAsciiNumbers()) {
-			try {
-				return CompletableFuture.completedFuture(getFastLong(columnIndex));
-			} catch (NumberFormatException ex) {
-			}
-		}
-		return CompletableFuture.completedFuture(toLong(await(getFixedString(columnIndex))));
+		return CompletableFuture.completedFuture(rowView.getLong(columnIndex));
 	}
 
 	/**
@@ -2046,30 +2094,34 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 	 */
 	private long getFastLong(int columnIndex) throws SQLException, NumberFormatException {
 
-		byte[] bytes = this_row[columnIndex - 1];
+		int col = columnIndex - 1;
+		byte[] bytes = rowData(col);
+		int offset = rowOffset(col);
+		int length = rowLength(col);
+		int end = offset + length;
 
-		if (bytes.length == 0) {
+		if (length == 0) {
 			throw FAST_NUMBER_FAILED;
 		}
 
 		long val = 0;
 		int start;
 		boolean neg;
-		if (bytes[0] == '-') {
+		if (bytes[offset] == '-') {
 			neg = true;
-			start = 1;
-			if (bytes.length == 1 || bytes.length > 19) {
+			start = offset + 1;
+			if (length == 1 || length > 19) {
 				throw FAST_NUMBER_FAILED;
 			}
 		} else {
-			start = 0;
+			start = offset;
 			neg = false;
-			if (bytes.length > 18) {
+			if (length > 18) {
 				throw FAST_NUMBER_FAILED;
 			}
 		}
 
-		while (start < bytes.length) {
+		while (start < end) {
 			byte b = bytes[start++];
 			if (b < '0' || b > '9') {
 				throw FAST_NUMBER_FAILED;
@@ -2102,30 +2154,34 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 	 */
 	private int getFastInt(int columnIndex) throws SQLException, NumberFormatException {
 
-		byte[] bytes = this_row[columnIndex - 1];
+		int col = columnIndex - 1;
+		byte[] bytes = rowData(col);
+		int offset = rowOffset(col);
+		int length = rowLength(col);
+		int end = offset + length;
 
-		if (bytes.length == 0) {
+		if (length == 0) {
 			throw FAST_NUMBER_FAILED;
 		}
 
 		int val = 0;
 		int start;
 		boolean neg;
-		if (bytes[0] == '-') {
+		if (bytes[offset] == '-') {
 			neg = true;
-			start = 1;
-			if (bytes.length == 1 || bytes.length > 10) {
+			start = offset + 1;
+			if (length == 1 || length > 10) {
 				throw FAST_NUMBER_FAILED;
 			}
 		} else {
-			start = 0;
+			start = offset;
 			neg = false;
-			if (bytes.length > 9) {
+			if (length > 9) {
 				throw FAST_NUMBER_FAILED;
 			}
 		}
 
-		while (start < bytes.length) {
+		while (start < end) {
 			byte b = bytes[start++];
 			if (b < '0' || b > '9') {
 				throw FAST_NUMBER_FAILED;
@@ -2159,9 +2215,13 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 	 */
 	private BigDecimal getFastBigDecimal(int columnIndex) throws SQLException, NumberFormatException {
 
-		byte[] bytes = this_row[columnIndex - 1];
+		int col = columnIndex - 1;
+		byte[] bytes = rowData(col);
+		int offset = rowOffset(col);
+		int length = rowLength(col);
+		int end = offset + length;
 
-		if (bytes.length == 0) {
+		if (length == 0) {
 			throw FAST_NUMBER_FAILED;
 		}
 
@@ -2169,26 +2229,26 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 		long val = 0;
 		int start;
 		boolean neg;
-		if (bytes[0] == '-') {
+		if (bytes[offset] == '-') {
 			neg = true;
-			start = 1;
-			if (bytes.length == 1 || bytes.length > 19) {
+			start = offset + 1;
+			if (length == 1 || length > 19) {
 				throw FAST_NUMBER_FAILED;
 			}
 		} else {
-			start = 0;
+			start = offset;
 			neg = false;
-			if (bytes.length > 18) {
+			if (length > 18) {
 				throw FAST_NUMBER_FAILED;
 			}
 		}
 
 		int periodsSeen = 0;
-		while (start < bytes.length) {
+		while (start < end) {
 			byte b = bytes[start++];
 			if (b < '0' || b > '9') {
 				if (b == '.') {
-					scale = bytes.length - start;
+					scale = end - start;
 					periodsSeen++;
 					continue;
 				} else {
@@ -2199,7 +2259,7 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 			val += b - '0';
 		}
 
-		int numNonSignChars = neg ? bytes.length - 1 : bytes.length;
+		int numNonSignChars = neg ? length - 1 : length;
 		if (periodsSeen > 1 || periodsSeen == numNonSignChars) {
 			throw FAST_NUMBER_FAILED;
 		}
@@ -2213,77 +2273,17 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 
 	public CompletableFuture<Float> getFloat(int columnIndex) throws SQLException {
 		connection.getLogger().log(Level.FINEST, "  getFloat columnIndex: {0}", columnIndex);
-		checkResultSet(columnIndex);
-		if (wasNullFlag) {
-			return CompletableFuture.completedFuture(0f); // SQL NULL
-		}
-
-		if (isBinary(columnIndex)) {
-			int col = columnIndex - 1;
-			int oid = fields[col].getOID();
-			if (oid == Oid.FLOAT4) {
-				return CompletableFuture.completedFuture(ByteConverter.float4(this_row[col], 0));
-			}
-			return CompletableFuture.completedFuture((float) readDoubleValue(this_row[col], oid, "float"));
-		}
-
-		return CompletableFuture.completedFuture(toFloat(await(getFixedString(columnIndex))));
+		return CompletableFuture.completedFuture(rowView.getFloat(columnIndex));
 	}
 
 	public CompletableFuture<Double> getDouble(int columnIndex) throws SQLException {
 		connection.getLogger().log(Level.FINEST, "  getDouble columnIndex: {0}", columnIndex);
-		checkResultSet(columnIndex);
-		if (wasNullFlag) {
-			return CompletableFuture.completedFuture(0d); // SQL NULL
-		}
-
-		if (isBinary(columnIndex)) {
-			int col = columnIndex - 1;
-			int oid = fields[col].getOID();
-			if (oid == Oid.FLOAT8) {
-				return CompletableFuture.completedFuture(ByteConverter.float8(this_row[col], 0));
-			}
-			return CompletableFuture.completedFuture(readDoubleValue(this_row[col], oid, "double"));
-		}
-
-		return CompletableFuture.completedFuture(toDouble(await(getFixedString(columnIndex))));
+		return CompletableFuture.completedFuture(rowView.getDouble(columnIndex));
 	}
 
 	public CompletableFuture<BigDecimal> getBigDecimal(int columnIndex, int scale) throws SQLException {
 		connection.getLogger().log(Level.FINEST, "  getBigDecimal columnIndex: {0}", columnIndex);
-		checkResultSet(columnIndex);
-		if (wasNullFlag) {
-			return null;
-		}
-
-		if (isBinary(columnIndex)) {
-			int sqlType = getSQLType(columnIndex);
-			if (sqlType != Types.NUMERIC && sqlType != Types.DECIMAL) {
-				Object obj = internalGetObject(columnIndex, fields[columnIndex - 1]);
-				
-				if (obj == null) {
-					return null;
-				}
-				if (obj instanceof Long || obj instanceof Integer || obj instanceof Byte) {
-					BigDecimal res = BigDecimal.valueOf(((Number) obj).longValue());
-					res = scaleBigDecimal(res, scale);
-					return CompletableFuture.completedFuture(res);
-				}
-				return CompletableFuture.completedFuture(toBigDecimal(trimMoney(String.valueOf(obj)), scale));
-			}
-		}
-
-		Encoding encoding = connection.getEncoding();
-		if (encoding.hasAsciiNumbers()) {
-			try {
-				BigDecimal res = getFastBigDecimal(columnIndex);
-				res = scaleBigDecimal(res, scale);
-				return CompletableFuture.completedFuture(res);
-			} catch (NumberFormatException ex) {
-			}
-		}
-
-		return CompletableFuture.completedFuture(toBigDecimal(await(getFixedString(columnIndex)), scale));
+		return CompletableFuture.completedFuture(rowView.getBigDecimal(columnIndex, scale));
 	}
 
 	/**
@@ -2306,12 +2306,12 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 
 		if (isBinary(columnIndex)) {
 			// If the data is already binary then just return it
-			return this_row[columnIndex - 1];
+			return value(columnIndex - 1);
 		}
 		if (fields[columnIndex - 1].getOID() == Oid.BYTEA) {
-			return trimBytes(columnIndex, PGbytea.toBytes(this_row[columnIndex - 1]));
+			return trimBytes(columnIndex, PGbytea.toBytes(value(columnIndex - 1)));
 		} else {
-			return trimBytes(columnIndex, this_row[columnIndex - 1]);
+			return trimBytes(columnIndex, value(columnIndex - 1));
 		}
 	}
 
@@ -2322,7 +2322,7 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 
 	public CompletableFuture<Time> getTime(int columnIndex) throws SQLException {
 		connection.getLogger().log(Level.FINEST, "  getTime columnIndex: {0}", columnIndex);
-		return CompletableFuture.completedFuture((Time)await(getTime(columnIndex, null)));
+		return CompletableFuture.completedFuture(rowView.getTime(columnIndex, null));
 	}
 
 	public CompletableFuture<Timestamp> getTimestamp(int columnIndex) throws SQLException {
@@ -2506,7 +2506,7 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 
 		if (isBinary(columnIndex)) {
 
-			return CompletableFuture.completedFuture(connection.getObject(getPGType(columnIndex), null, this_row[columnIndex - 1]));
+			return CompletableFuture.completedFuture(connection.getObject(getPGType(columnIndex), null, value(columnIndex - 1)));
 
 		}
 		return CompletableFuture.completedFuture(connection.getObject(getPGType(columnIndex), await(getString(columnIndex)), null));
@@ -2708,7 +2708,7 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 					PSQLState.INVALID_CURSOR_STATE);
 		}
 		checkColumnIndex(column);
-		wasNullFlag = (this_row[column - 1] == null);
+		wasNullFlag = (rowLength(column - 1) == -1);
 	}
 
 	/**
@@ -2873,18 +2873,81 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 		return 0; // SQL NULL
 	}
 
+	/**
+	 * Returns the rows for modification. Rows received from the backend are stored in
+	 * a read only {@link TupleSlab}, which is copied into a list on first change.
+	 */
+	private List<byte[][]> mutableRows() {
+		if (rows instanceof TupleSlab) {
+			rows = new ArrayList<byte[][]>(rows);
+		}
+		return rows;
+	}
+
 	private void initRowBuffer() {
-		this_row = rows.get(current_row);
 		// We only need a copy of the current row if we're going to
 		// modify it via an updatable resultset.
 		if (resultsetconcurrency == VxBaseResultSet.CONCUR_UPDATABLE) {
+			this_row = rows.get(current_row);
 			rowBuffer = new byte[this_row.length][];
 			System.arraycopy(this_row, 0, rowBuffer, 0, this_row.length);
+		} else if (rows instanceof TupleSlab) {
+			// read the values in place instead of copying the row out of the slab
+			slab = (TupleSlab) rows;
+			slabRow = current_row;
+			this_row = IN_SLAB;
+			rowBuffer = null;
 		} else {
+			this_row = rows.get(current_row);
 			rowBuffer = null;
 		}
 	}
 
+	/**
+	 * Stands in for {@link #this_row} while the current row is read in place from
+	 * {@link #slab}. The accessors below hide the difference.
+	 */
+	private static final byte[][] IN_SLAB = new byte[0][];
+
+	/**
+	 * @return the current row, copied out of the slab if it is read in place
+	 */
+	private byte[][] materializedRow() {
+		return this_row == IN_SLAB ? slab.get(slabRow) : this_row;
+	}
+
+	/**
+	 * @return the value of a column of the current row, copied out of the slab if
+	 *         it is read in place
+	 */
+	private byte[] value(int col) {
+		return this_row == IN_SLAB ? slab.getValue(slabRow, col) : this_row[col];
+	}
+
+	/**
+	 * @return the array holding the value of a column of the current row, see
+	 *         {@link #rowOffset(int)}
+	 */
+	private byte[] rowData(int col) {
+		return this_row == IN_SLAB ? slab.getData(slabRow) : this_row[col];
+	}
+
+	private int rowOffset(int col) {
+		return this_row == IN_SLAB ? slab.getOffset(slabRow, col) : 0;
+	}
+
+	/**
+	 * @return the length of the value of a column of the current row, or -1 if it
+	 *         is SQL NULL
+	 */
+	private int rowLength(int col) {
+		if (this_row == IN_SLAB) {
+			return slab.getLength(slabRow, col);
+		}
+		byte[] value = this_row[col];
+		return value == null ? -1 : value.length;
+	}
+
 	private boolean isColumnTrimmable(int columnIndex) throws SQLException {
 		switch (getSQLType(columnIndex)) {
 		case Types.CHAR:
@@ -2926,8 +2989,8 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 	 * Converts any numeric binary field to double value. This method does no
 	 * overflow checking.
 	 *
-	 * @param bytes
-	 *            The bytes of the numeric field.
+	 * @param col
+	 *            The column index, starting from 0.
 	 * @param oid
 	 *            The oid of the field.
 	 * @param targetType
@@ -2936,20 +2999,24 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 	 * @throws PSQLException
 	 *             If the field type is not supported numeric type.
 	 */
-	private double readDoubleValue(byte[] bytes, int oid, String targetType) throws PSQLException {
+	private double readDoubleValue(int col, int oid, String targetType) throws PSQLException {
+		byte[] bytes = rowData(col);
+		int offset = rowOffset(col);
 		// currently implemented binary encoded fields
 		switch (oid) {
 		case Oid.INT2:
-			return ByteConverter.int2(bytes, 0);
+			return ByteConverter.int2(bytes, offset);
 		case Oid.INT4:
-			return ByteConverter.int4(bytes, 0);
+			return ByteConverter.int4(bytes, offset);
 		case Oid.INT8:
 			// might not fit but there still should be no overflow checking
-			return ByteConverter.int8(bytes, 0);
+			return ByteConverter.int8(bytes, offset);
 		case Oid.FLOAT4:
-			return ByteConverter.float4(bytes, 0);
+			return ByteConverter.float4(bytes, offset);
 		case Oid.FLOAT8:
-			return ByteConverter.float8(bytes, 0);
+			return ByteConverter.float8(bytes, offset);
+		case Oid.NUMERIC:
+			return ByteConverter.numericToDouble(bytes, offset, rowLength(col));
 		}
 		throw new PSQLException(
 				GT.tr("Cannot convert the column of type {0} to requested type {1}.", Oid.toString(oid), targetType),
@@ -2965,8 +3032,8 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 	 * <p>
 	 * <code>byte,short,int,long,float,double,BigDecimal,boolean,string</code>.
 	 *
-	 * @param bytes
-	 *            The bytes of the numeric field.
+	 * @param col
+	 *            The column index, starting from 0.
 	 * @param oid
 	 *            The oid of the field.
 	 * @param minVal
@@ -2980,25 +3047,35 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 	 *             If the field type is not supported numeric type or if the value
 	 *             is out of range.
 	 */
-	private long readLongValue(byte[] bytes, int oid, long minVal, long maxVal, String targetType)
+	private long readLongValue(int col, int oid, long minVal, long maxVal, String targetType)
 			throws PSQLException {
+		byte[] bytes = rowData(col);
+		int offset = rowOffset(col);
 		long val;
 		// currently implemented binary encoded fields
 		switch (oid) {
 		case Oid.INT2:
-			val = ByteConverter.int2(bytes, 0);
+			val = ByteConverter.int2(bytes, offset);
 			break;
 		case Oid.INT4:
-			val = ByteConverter.int4(bytes, 0);
+			val = ByteConverter.int4(bytes, offset);
 			break;
 		case Oid.INT8:
-			val = ByteConverter.int8(bytes, 0);
+			val = ByteConverter.int8(bytes, offset);
 			break;
 		case Oid.FLOAT4:
-			val = (long) ByteConverter.float4(bytes, 0);
+			val = (long) ByteConverter.float4(bytes, offset);
 			break;
 		case Oid.FLOAT8:
-			val = (long) ByteConverter.float8(bytes, 0);
+			val = (long) ByteConverter.float8(bytes, offset);
+			break;
+		case Oid.NUMERIC:
+			try {
+				val = ByteConverter.numericToLong(bytes, offset, rowLength(col));
+			} catch (ArithmeticException e) {
+				throw new PSQLException(GT.tr("Bad value for type {0} : {1}", targetType, toNumericString(value(col))),
+						PSQLState.NUMERIC_VALUE_OUT_OF_RANGE);
+			}
 			break;
 		default:
 			throw new PSQLException(GT.tr("Cannot convert the column of type {0} to requested type {1}.",
@@ -3011,6 +3088,14 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 		return val;
 	}
 
+	/**
+	 * Formats a binary numeric like the text protocol does.
+	 */
+	private static String toNumericString(byte[] bytes) {
+		Number value = ByteConverter.numeric(bytes, 0, bytes.length);
+		return value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+	}
+
 	protected void updateValue(int columnIndex, Object value) throws SQLException {
 		checkUpdateable();
 
@@ -3082,7 +3167,7 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 	 * statement execution.
 	 */
 	void addRows(List<byte[][]> tuples) {
-		rows.addAll(tuples);
+		mutableRows().addAll(tuples);
 	}
 
 	public void updateRef(int columnIndex, Ref x) throws SQLException {
@@ -3348,6 +3433,14 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 			}
 		} else if (type == OffsetDateTime.class) {
 			if (sqlType == Types.TIMESTAMP_WITH_TIMEZONE || sqlType == Types.TIMESTAMP) {
+				if (fields[columnIndex - 1].getOID() == Oid.TIMESTAMPTZ) {
+					// decoded without a Timestamp, Postgres sends timestamptz in UTC
+					OffsetDateTime offsetDateTime = await(getOffsetDateTime(columnIndex));
+					if (wasNull()) {
+						return CompletableFuture.completedFuture(null);
+					}
+					return CompletableFuture.completedFuture(type.cast(offsetDateTime));
+				}
 				Timestamp timestampValue = await(getTimestamp(columnIndex));
 				if (wasNull()) {
 					return CompletableFuture.completedFuture(null);
@@ -3370,7 +3463,7 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 		} else if (PGobject.class.isAssignableFrom(type)) {
 			Object object;
 			if (isBinary(columnIndex)) {
-				object = connection.getObject(getPGType(columnIndex), null, this_row[columnIndex - 1]);
+				object = connection.getObject(getPGType(columnIndex), null, value(columnIndex - 1));
 
 			} else {
 				object = connection.getObject(getPGType(columnIndex), await(getString(columnIndex)), null);
@@ -3635,6 +3728,419 @@ public class VxResultSet implements VxBaseResultSet, org.postgresql.PGRefCursorR
 		throw new SQLException("Cannot unwrap to " + iface.getName());
 	}
 
+	/**
+	 * Synchronous view of {@link #this_row}. A row is complete once the result set is
+	 * positioned on it, so all of the decoding below is done in place; the asynchronous
+	 * scalar getters delegate here as well.
+	 */
+	private class RowView implements VxRow {
+
+		public boolean wasNull() throws SQLException {
+			return VxResultSet.this.wasNull();
+		}
+
+		public int findColumn(String columnLabel) throws SQLException {
+			return VxResultSet.this.findColumn(columnLabel);
+		}
+
+		public String getString(int columnIndex) throws SQLException {
+			checkResultSet(columnIndex);
+			if (wasNullFlag) {
+				return null;
+			}
+
+			// varchar in binary is same as text
+			if (!isBinary(columnIndex) || getSQLType(columnIndex) == Types.VARCHAR) {
+				return decodeString(columnIndex);
+			}
+
+			int oid = fields[columnIndex - 1].getOID();
+			switch (getSQLType(columnIndex)) {
+			case Types.BOOLEAN:
+			case Types.BIT:
+				return trimString(columnIndex, String.valueOf(getBoolean(columnIndex)));
+			case Types.TINYINT:
+			case Types.SMALLINT:
+			case Types.INTEGER:
+				return trimString(columnIndex, String.valueOf(getInt(columnIndex)));
+			case Types.BIGINT:
+				return trimString(columnIndex, String.valueOf(getLong(columnIndex)));
+			case Types.REAL:
+				return trimString(columnIndex, String.valueOf(getFloat(columnIndex)));
+			case Types.FLOAT:
+			case Types.DOUBLE:
+				return trimString(columnIndex, String.valueOf(getDouble(columnIndex)));
+			case Types.CHAR:
+			case Types.LONGVARCHAR:
+				return decodeString(columnIndex);
+			// hack to be compatible with text protocol
+			case Types.DATE:
+				return connection.getTimestampUtils().timeToString(getDate(columnIndex), false);
+			case Types.TIME:
+				return connection.getTimestampUtils().timeToString(getTime(columnIndex), oid == Oid.TIMETZ);
+			case Types.TIMESTAMP:
+				return connection.getTimestampUtils().timeToString(getTimestamp(columnIndex),
+						oid == Oid.TIMESTAMPTZ);
+			default:
+				if (oid == Oid.UUID) {
+					return trimString(columnIndex, getUUID(value(columnIndex - 1)).toString());
+				}
+				if (oid == Oid.NUMERIC) {
+					return trimString(columnIndex, toNumericString(value(columnIndex - 1)));
+				}
+				// everything else is converted through getObject(), which may need the server
+				throw new PSQLException(GT.tr("Cannot convert the column of type {0} to requested type {1}.",
+						Oid.toString(oid), "String"), PSQLState.DATA_TYPE_MISMATCH);
+			}
+		}
+
+		public boolean getBoolean(int columnIndex) throws SQLException {
+			checkResultSet(columnIndex);
+			if (wasNullFlag) {
+				return false; // SQL NULL
+			}
+
+			int col = columnIndex - 1;
+			if (Oid.BOOL == fields[col].getOID()) {
+				return (1 == rowLength(col)) && (116 == rowData(col)[rowOffset(col)]); // 116 = 't'
+			}
+
+			if (isBinary(columnIndex)) {
+				return BooleanTypeUtil.castToBoolean(readDoubleValue(col, fields[col].getOID(), "boolean"));
+			}
+
+			return BooleanTypeUtil.castToBoolean(decodeString(columnIndex));
+		}
+
+		public short getShort(int columnIndex) throws SQLException {
+			checkResultSet(columnIndex);
+			if (wasNullFlag) {
+				return 0; // SQL NULL
+			}
+
+			if (isBinary(columnIndex)) {
+				int col = columnIndex - 1;
+				int oid = fields[col].getOID();
+				if (oid == Oid.INT2) {
+					return ByteConverter.int2(rowData(col), rowOffset(col));
+				}
+				return (short) readLongValue(col, oid, Short.MIN_VALUE, Short.MAX_VALUE, "short");
+			}
+
+			return toShort(trimMoney(decodeString(columnIndex)));
+		}
+
+		public int getInt(int columnIndex) throws SQLException {
+			checkResultSet(columnIndex);
+			if (wasNullFlag) {
+				return 0; // SQL NULL
+			}
+
+			if (isBinary(columnIndex)) {
+				int col = columnIndex - 1;
+				int oid = fields[col].getOID();
+				if (oid == Oid.INT4) {
+					return ByteConverter.int4(rowData(col), rowOffset(col));
+				}
+				return (int) readLongValue(col, oid, Integer.MIN_VALUE, Integer.MAX_VALUE, "int");
+			}
+
+			Encoding encoding = connection.getEncoding();
+			if (encoding.hasAsciiNumbers()) {
+				try {
+					return getFastInt(columnIndex);
+				} catch (NumberFormatException ex) {
+				}
+			}
+			return toInt(trimMoney(decodeString(columnIndex)));
+		}
+
+		public long getLong(int columnIndex) throws SQLException {
+			checkResultSet(columnIndex);
+			if (wasNullFlag) {
+				return 0; // SQL NULL
+			}
+
+			if (isBinary(columnIndex)) {
+				int col = columnIndex - 1;
+				int oid = fields[col].getOID();
+				if (oid == Oid.INT8) {
+					return ByteConverter.int8(rowData(col), rowOffset(col));
+				}
+				return readLongValue(col, oid, Long.MIN_VALUE, Long.MAX_VALUE, "long");
+			}
+
+			Encoding encoding = connection.getEncoding();
+			if (encoding.hasAsciiNumbers()) {
+				try {
+					return getFastLong(columnIndex);
+				} catch (NumberFormatException ex) {
+				}
+			}
+			return toLong(trimMoney(decodeString(columnIndex)));
+		}
+
+		public float getFloat(int columnIndex) throws SQLException {
+			checkResultSet(columnIndex);
+			if (wasNullFlag) {
+				return 0; // SQL NULL
+			}
+
+			if (isBinary(columnIndex)) {
+				int col = columnIndex - 1;
+				int oid = fields[col].getOID();
+				if (oid == Oid.FLOAT4) {
+					return ByteConverter.float4(rowData(col), rowOffset(col));
+				}
+				if (oid == Oid.NUMERIC) {
+					// rounded once, as Float.parseFloat does
+					return ByteConverter.numeric(rowData(col), rowOffset(col), rowLength(col)).floatValue();
+				}
+				return (float) readDoubleValue(col, oid, "float");
+			}
+
+			return toFloat(trimMoney(decodeString(columnIndex)));
+		}
+
+		public double getDouble(int columnIndex) throws SQLException {
+			checkResultSet(columnIndex);
+			if (wasNullFlag) {
+				return 0; // SQL NULL
+			}
+
+			if (isBinary(columnIndex)) {
+				int col = columnIndex - 1;
+				int oid = fields[col].getOID();
+				if (oid == Oid.FLOAT8) {
+					return ByteConverter.float8(rowData(col), rowOffset(col));
+				}
+				return readDoubleValue(col, oid, "double");
+			}
+
+			return toDouble(trimMoney(decodeString(columnIndex)));
+		}
+
+		public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+			return getBigDecimal(columnIndex, -1);
+		}
+
+		BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException {
+			checkResultSet(columnIndex);
+			if (wasNullFlag) {
+				return null;
+			}
+
+			if (isBinary(columnIndex)) {
+				int sqlType = getSQLType(columnIndex);
+				if (sqlType != Types.NUMERIC && sqlType != Types.DECIMAL) {
+					switch (sqlType) {
+					case Types.TINYINT:
+					case Types.SMALLINT:
+					case Types.INTEGER:
+					case Types.BIGINT:
+						return scaleBigDecimal(BigDecimal.valueOf(getLong(columnIndex)), scale);
+					default:
+						return toBigDecimal(trimMoney(getString(columnIndex)), scale);
+					}
+				}
+				int col = columnIndex - 1;
+				if (fields[col].getOID() == Oid.NUMERIC) {
+					Number value = ByteConverter.numeric(rowData(col), rowOffset(col), rowLength(col));
+					if (!(value instanceof BigDecimal)) {
+						throw new PSQLException(GT.tr("Bad value for type {0} : {1}", "BigDecimal", value.toString()),
+								PSQLState.NUMERIC_VALUE_OUT_OF_RANGE);
+					}
+					return scaleBigDecimal((BigDecimal) value, scale);
+				}
+			}
+
+			Encoding encoding = connection.getEncoding();
+			if (encoding.hasAsciiNumbers()) {
+				try {
+					return scaleBigDecimal(getFastBigDecimal(columnIndex), scale);
+				} catch (NumberFormatException ex) {
+				}
+			}
+
+			return toBigDecimal(trimMoney(decodeString(columnIndex)), scale);
+		}
+
+		public byte[] getBytes(int columnIndex) throws SQLException {
+			return VxResultSet.this.getBytes(columnIndex);
+		}
+
+		public Date getDate(int columnIndex) throws SQLException {
+			return getDate(columnIndex, null);
+		}
+
+		public Date getDate(int i, Calendar cal) throws SQLException {
+			checkResultSet(i);
+			if (wasNullFlag) {
+				return null;
+			}
+
+			if (cal == null) {
+				cal = getDefaultCalendar();
+			}
+			if (isBinary(i)) {
+				int col = i - 1;
+				int oid = fields[col].getOID();
+				TimeZone tz = cal.getTimeZone();
+				if (oid == Oid.DATE) {
+					return connection.getTimestampUtils().toDateBin(tz, value(col));
+				} else if (oid == Oid.TIMESTAMP || oid == Oid.TIMESTAMPTZ) {
+					// If backend provides just TIMESTAMP, we use "cal" timezone
+					// If backend provides TIMESTAMPTZ, we ignore "cal" as we know true instant
+					// value
+					Timestamp timestamp = getTimestamp(i, cal);
+					// Here we just truncate date to 00:00 in a given time zone
+					return connection.getTimestampUtils().convertToDate(timestamp.getTime(), tz);
+				} else {
+					throw new PSQLException(GT.tr("Cannot convert the column of type {0} to requested type {1}.",
+							Oid.toString(oid), "date"), PSQLState.DATA_TYPE_MISMATCH);
+				}
+			}
+
+			return connection.getTimestampUtils().toDate(cal, decodeString(i));
+		}
+
+		public Time getTime(int columnIndex) throws SQLException {
+			return getTime(columnIndex, null);
+		}
+
+		public Time getTime(int i, Calendar cal) throws SQLException {
+			checkResultSet(i);
+			if (wasNullFlag) {
+				return null;
+			}
+
+			if (cal == null) {
+				cal = getDefaultCalendar();
+			}
+			if (isBinary(i)) {
+				int col = i - 1;
+				int oid = fields[col].getOID();
+				TimeZone tz = cal.getTimeZone();
+				if (oid == Oid.TIME || oid == Oid.TIMETZ) {
+					return connection.getTimestampUtils().toTimeBin(tz, value(col));
+				} else if (oid == Oid.TIMESTAMP || oid == Oid.TIMESTAMPTZ) {
+					// If backend provides just TIMESTAMP, we use "cal" timezone
+					// If backend provides TIMESTAMPTZ, we ignore "cal" as we know true instant
+					// value
+					Timestamp timestamp = getTimestamp(i, cal);
+					long timeMillis = timestamp.getTime();
+					if (oid == Oid.TIMESTAMPTZ) {
+						// time zone == UTC since BINARY "timestamp with time zone" is always sent in
+						// UTC
+						// So we truncate days
+						return new Time(timeMillis % TimeUnit.DAYS.toMillis(1));
+					}
+					// Here we just truncate date part
+					return connection.getTimestampUtils().convertToTime(timeMillis, tz);
+				} else {
+					throw new PSQLException(GT.tr("Cannot convert the column of type {0} to requested type {1}.",
+							Oid.toString(oid), "time"), PSQLState.DATA_TYPE_MISMATCH);
+				}
+			}
+
+			return connection.getTimestampUtils().toTime(cal, decodeString(i));
+		}
+
+		public Timestamp getTimestamp(int columnIndex) throws SQLException {
+			return getTimestamp(columnIndex, null);
+		}
+
+		public Timestamp getTimestamp(int i, Calendar cal) throws SQLException {
+			checkResultSet(i);
+			if (wasNullFlag) {
+				return null;
+			}
+
+			if (cal == null) {
+				cal = getDefaultCalendar();
+			}
+			int col = i - 1;
+			int oid = fields[col].getOID();
+			if (isBinary(i)) {
+				if (oid == Oid.TIMESTAMPTZ || oid == Oid.TIMESTAMP) {
+					boolean hasTimeZone = oid == Oid.TIMESTAMPTZ;
+					TimeZone tz = cal.getTimeZone();
+					return connection.getTimestampUtils().toTimestampBin(tz, value(col), hasTimeZone);
+				} else {
+					// JDBC spec says getTimestamp of Time and Date must be supported
+					long millis;
+					if (oid == Oid.TIME || oid == Oid.TIMETZ) {
+						millis = getTime(i, cal).getTime();
+					} else if (oid == Oid.DATE) {
+						millis = getDate(i, cal).getTime();
+					} else {
+						throw new PSQLException(GT.tr("Cannot convert the column of type {0} to requested type {1}.",
+								Oid.toString(oid), "timestamp"), PSQLState.DATA_TYPE_MISMATCH);
+					}
+					return new Timestamp(millis);
+				}
+			}
+
+			// If this is actually a timestamptz, the server-provided timezone will override
+			// the one we pass in, which is the desired behaviour. Otherwise, we'll
+			// interpret the timezone-less value in the provided timezone.
+			String string = decodeString(i);
+			if (oid == Oid.TIME || oid == Oid.TIMETZ) {
+				// If server sends us a TIME, we ensure java counterpart has date of 1970-01-01
+				return new Timestamp(connection.getTimestampUtils().toTime(cal, string).getTime());
+			}
+			return connection.getTimestampUtils().toTimestamp(cal, string);
+		}
+
+		public String getString(String columnLabel) throws SQLException {
+			return getString(findColumn(columnLabel));
+		}
+
+		public boolean getBoolean(String columnLabel) throws SQLException {
+			return getBoolean(findColumn(columnLabel));
+		}
+
+		public short getShort(String columnLabel) throws SQLException {
+			return getShort(findColumn(columnLabel));
+		}
+
+		public int getInt(String columnLabel) throws SQLException {
+			return getInt(findColumn(columnLabel));
+		}
+
+		public long getLong(String columnLabel) throws SQLException {
+			return getLong(findColumn(columnLabel));
+		}
+
+		public float getFloat(String columnLabel) throws SQLException {
+			return getFloat(findColumn(columnLabel));
+		}
+
+		public double getDouble(String columnLabel) throws SQLException {
+			return getDouble(findColumn(columnLabel));
+		}
+
+		public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
+			return getBigDecimal(findColumn(columnLabel));
+		}
+
+		public byte[] getBytes(String columnLabel) throws SQLException {
+			return getBytes(findColumn(columnLabel));
+		}
+
+		public Date getDate(String columnLabel) throws SQLException {
+			return getDate(findColumn(columnLabel));
+		}
+
+		public Time getTime(String columnLabel) throws SQLException {
+			return getTime(findColumn(columnLabel));
+		}
+
+		public Timestamp getTimestamp(String columnLabel) throws SQLException {
+			return getTimestamp(findColumn(columnLabel));
+		}
+	}
+
 	private Calendar getDefaultCalendar() {
 		TimestampUtils timestampUtils = connection.getTimestampUtils();
 		if (timestampUtils.hasFastDefaultTimeZone()) {
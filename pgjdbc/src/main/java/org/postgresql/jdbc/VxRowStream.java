@@ -0,0 +1,259 @@
+package org.postgresql.jdbc;
+
+import io.vertx.core.Handler;
+import io.vertx.core.streams.ReadStream;
+import org.postgresql.core.VxRow;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Streams the rows of a query result with backpressure.
+ * <p>
+ * The rows are read from a forward only cursor, so at most one page of rows is held in memory:
+ * the next page is requested with an <code>Execute</code> limited to the outstanding demand, at
+ * most the fetch size, only once the current page has been consumed. Until then nothing is read
+ * from the connection and the socket is paused as soon as its read buffer is full.
+ * <p>
+ * Cursors need a transaction, so like {@link VxStatement#setFetchSize(int)} this has no effect in
+ * auto commit mode: the whole result is read before the stream is returned, it is just emitted
+ * with backpressure.
+ * <p>
+ * The stream starts flowing when a handler is set. It can be paused and resumed, or driven by
+ * explicit demand through {@link #fetch(long)}. The {@link VxRow} passed to the handler is a view
+ * of the current row and is only valid until the handler returns. The result set is closed when
+ * the stream ends, fails or is closed.
+ */
+public class VxRowStream implements ReadStream<VxRow> {
+
+	/**
+	 * Fetch size used when the statement has none.
+	 */
+	public static final int DEFAULT_FETCH_SIZE = 256;
+
+	private final VxResultSet resultSet;
+	private final int fetchSize;
+
+	private Handler<VxRow> handler;
+	private Handler<Void> endHandler;
+	private Handler<Throwable> exceptionHandler;
+	private long demand = Long.MAX_VALUE;
+	private boolean draining;
+	private boolean closed;
+
+	VxRowStream(VxResultSet resultSet, int fetchSize) {
+		this.resultSet = resultSet;
+		this.fetchSize = fetchSize;
+	}
+
+	@Override
+	public synchronized VxRowStream exceptionHandler(Handler<Throwable> handler) {
+		this.exceptionHandler = handler;
+		return this;
+	}
+
+	@Override
+	public VxRowStream handler(Handler<VxRow> handler) {
+		synchronized (this) {
+			this.handler = handler;
+		}
+		drain();
+		return this;
+	}
+
+	@Override
+	public synchronized VxRowStream endHandler(Handler<Void> endHandler) {
+		this.endHandler = endHandler;
+		return this;
+	}
+
+	@Override
+	public synchronized VxRowStream pause() {
+		demand = 0;
+		return this;
+	}
+
+	@Override
+	public VxRowStream resume() {
+		synchronized (this) {
+			demand = Long.MAX_VALUE;
+		}
+		drain();
+		return this;
+	}
+
+	/**
+	 * Requests more rows while the stream is paused, the stream stays paused once they have been
+	 * emitted.
+	 *
+	 * @param amount number of rows to emit
+	 * @return this stream
+	 */
+	public VxRowStream fetch(long amount) {
+		if (amount <= 0) {
+			throw new IllegalArgumentException("amount must be positive: " + amount);
+		}
+		synchronized (this) {
+			demand += amount;
+			if (demand < 0) {
+				demand = Long.MAX_VALUE;
+			}
+		}
+		drain();
+		return this;
+	}
+
+	/**
+	 * Stops the stream and closes the result set, the end handler is not called.
+	 *
+	 * @throws SQLException if closing the result set fails
+	 */
+	public void close() throws SQLException {
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+		}
+		resultSet.close();
+	}
+
+	private void drain() {
+		synchronized (this) {
+			if (draining || closed) {
+				return;
+			}
+			draining = true;
+		}
+
+		drainRows().whenComplete((ended, error) -> {
+			if (error != null) {
+				fail(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+			} else if (ended) {
+				end();
+			}
+		});
+	}
+
+	/**
+	 * Emits rows while there is demand.
+	 *
+	 * @return true if the result is exhausted
+	 */
+	private CompletableFuture<Boolean> drainRows() {
+		CompletableFuture<Boolean> ended = new CompletableFuture<>();
+		drainRows(ended);
+		return ended;
+	}
+
+	/**
+	 * Emits the rows that are already buffered in a loop and continues from the completion of the
+	 * first one that is not, so a page fetch never blocks the calling thread and the stack does not
+	 * grow with the number of pages.
+	 */
+	private void drainRows(CompletableFuture<Boolean> ended) {
+		try {
+			while (true) {
+				Handler<VxRow> rowHandler = takeDemand();
+				if (rowHandler == null) {
+					ended.complete(false);
+					return;
+				}
+
+				CompletableFuture<VxRow> next = resultSet.nextRow();
+				if (!next.isDone()) {
+					next.whenComplete((row, error) -> {
+						if (error != null) {
+							ended.completeExceptionally(error);
+						} else if (emit(rowHandler, row, ended)) {
+							drainRows(ended);
+						}
+					});
+					return;
+				}
+				if (!emit(rowHandler, next.join(), ended)) {
+					return;
+				}
+			}
+		} catch (Throwable e) {
+			ended.completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * Passes a row to the handler.
+	 *
+	 * @return false if the result is exhausted or the handler failed
+	 */
+	private boolean emit(Handler<VxRow> rowHandler, VxRow row, CompletableFuture<Boolean> ended) {
+		if (row == null) {
+			ended.complete(true);
+			return false;
+		}
+		try {
+			rowHandler.handle(row);
+			return true;
+		} catch (Throwable e) {
+			ended.completeExceptionally(e);
+			return false;
+		}
+	}
+
+	/**
+	 * Takes one row of demand, limiting the next fetch to what is still wanted.
+	 *
+	 * @return the handler to pass the row to, or null when draining has to stop
+	 */
+	private synchronized Handler<VxRow> takeDemand() throws SQLException {
+		if (handler == null || demand == 0 || closed) {
+			draining = false;
+			return null;
+		}
+
+		if (demand != Long.MAX_VALUE) {
+			resultSet.setFetchSize((int) Math.min(demand, fetchSize));
+			demand--;
+		} else {
+			resultSet.setFetchSize(fetchSize);
+		}
+		return handler;
+	}
+
+	private void end() {
+		Handler<Void> handler;
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			handler = endHandler;
+		}
+
+		try {
+			close();
+		} catch (SQLException e) {
+			fail(e);
+			return;
+		}
+		if (handler != null) {
+			handler.handle(null);
+		}
+	}
+
+	private void fail(Throwable error) {
+		Handler<Throwable> handler;
+		synchronized (this) {
+			draining = false;
+			handler = exceptionHandler;
+		}
+
+		try {
+			close();
+		} catch (SQLException e) {
+			error.addSuppressed(e);
+		}
+		if (handler != null) {
+			handler.handle(error);
+		}
+	}
+}
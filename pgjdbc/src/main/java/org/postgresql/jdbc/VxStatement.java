@@ -234,6 +234,32 @@ public class VxStatement implements VxBaseStatement {
 		return CompletableFuture.completedFuture(getSingleResultSet());
 	}
 
+	/**
+	 * Executes a query and streams its rows with backpressure, see {@link VxRowStream}. The
+	 * fetch size of the statement bounds the pages, {@link VxRowStream#DEFAULT_FETCH_SIZE} is
+	 * used if it has none.
+	 *
+	 * @param p_sql the query
+	 * @return the stream of the rows
+	 * @throws SQLException if the query fails or does not return rows
+	 */
+	public CompletableFuture<VxRowStream> executeQueryStream(String p_sql) throws SQLException {
+		int streamFetchSize = getStreamFetchSize();
+		int savedFetchSize = fetchSize;
+		fetchSize = streamFetchSize;
+		VxResultSet rs;
+		try {
+			rs = await(executeQuery(p_sql));
+		} finally {
+			fetchSize = savedFetchSize;
+		}
+		return CompletableFuture.completedFuture(new VxRowStream(rs, streamFetchSize));
+	}
+
+	protected int getStreamFetchSize() {
+		return fetchSize > 0 ? fetchSize : VxRowStream.DEFAULT_FETCH_SIZE;
+	}
+
 	protected VxResultSet getSingleResultSet() throws SQLException {
 		synchronized (this) {
 			checkClosed();
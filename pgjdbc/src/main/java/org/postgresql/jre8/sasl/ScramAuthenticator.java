@@ -129,7 +129,9 @@ public class ScramAuthenticator {
         new Object[] { serverFirstProcessor.getSalt(), serverFirstProcessor.getIteration() }
     );
 
-    clientFinalProcessor = serverFirstProcessor.clientFinalProcessor(password);
+    byte[][] keys = ScramKeyCache.getKeys(scramClient.getScramMechanism(), user, password,
+        serverFirstProcessor.getSalt(), serverFirstProcessor.getIteration());
+    clientFinalProcessor = serverFirstProcessor.clientFinalProcessor(keys[0], keys[1]);
 
     String clientFinalMessage = clientFinalProcessor.clientFinalMessage();
     LOGGER.log(Level.FINEST, " FE=> SASLResponse( {0} )", clientFinalMessage);
@@ -0,0 +1,114 @@
+package org.postgresql.jre8.sasl;
+
+import com.ongres.scram.common.ScramFunctions;
+import com.ongres.scram.common.ScramMechanism;
+import com.ongres.scram.common.stringprep.StringPreparations;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the ClientKey and ServerKey derived from a password, so that new connections skip the
+ * PBKDF2 iterations of SCRAM while the salt and iteration count announced by the server stay the
+ * same. The keys only depend on the password, the salt and the iteration count, which the server
+ * changes with the password. The password itself is not kept, only a digest of it.
+ * <p>
+ * The cache holds the {@link #MAX_ENTRIES} most recently used keys.
+ */
+final class ScramKeyCache {
+
+  private static final int MAX_ENTRIES = 64;
+
+  private static final Map<Key, byte[][]> cache =
+      new LinkedHashMap<Key, byte[][]>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, byte[][]> eldest) {
+          return size() > MAX_ENTRIES;
+        }
+      };
+
+  private ScramKeyCache() {
+  }
+
+  /**
+   * Returns the keys derived from a password, computing them if they are not cached.
+   *
+   * @param mechanism SCRAM mechanism in use
+   * @param user user authenticating
+   * @param password password of the user
+   * @param salt base64 encoded salt sent by the server
+   * @param iterations iteration count sent by the server
+   * @return the ClientKey and the ServerKey
+   */
+  static byte[][] getKeys(ScramMechanism mechanism, String user, String password, String salt,
+      int iterations) {
+    Key key = new Key(mechanism.getName(), user, digest(password), salt, iterations);
+    byte[][] keys;
+    synchronized (cache) {
+      keys = cache.get(key);
+    }
+    if (keys != null) {
+      return keys;
+    }
+
+    // derived out of the lock, concurrent connections may compute the same keys
+    byte[] saltedPassword = ScramFunctions.saltedPassword(mechanism,
+        StringPreparations.NO_PREPARATION, password, Base64.getDecoder().decode(salt), iterations);
+    keys = new byte[][]{
+        ScramFunctions.clientKey(mechanism, saltedPassword),
+        ScramFunctions.serverKey(mechanism, saltedPassword)
+    };
+    synchronized (cache) {
+      cache.put(key, keys);
+    }
+    return keys;
+  }
+
+  private static byte[] digest(String password) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static final class Key {
+    private final String mechanism;
+    private final String user;
+    private final byte[] passwordDigest;
+    private final String salt;
+    private final int iterations;
+
+    Key(String mechanism, String user, byte[] passwordDigest, String salt, int iterations) {
+      this.mechanism = mechanism;
+      this.user = user;
+      this.passwordDigest = passwordDigest;
+      this.salt = salt;
+      this.iterations = iterations;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return iterations == other.iterations && mechanism.equals(other.mechanism)
+          && user.equals(other.user) && salt.equals(other.salt)
+          && Arrays.equals(passwordDigest, other.passwordDigest);
+    }
+
+    @Override
+    public int hashCode() {
+      int hash = mechanism.hashCode() * 31 + user.hashCode();
+      hash = hash * 31 + salt.hashCode();
+      hash = hash * 31 + iterations;
+      return hash * 31 + Arrays.hashCode(passwordDigest);
+    }
+  }
+}
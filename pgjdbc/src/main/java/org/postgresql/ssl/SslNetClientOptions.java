@@ -0,0 +1,112 @@
+package org.postgresql.ssl;
+
+import org.postgresql.PGProperty;
+import org.postgresql.ssl.jdbc4.LibPQFactory;
+import org.postgresql.ssl.jdbc4.LibPQSslOptions;
+import org.postgresql.util.GT;
+import org.postgresql.util.ObjectFactory;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.PSQLState;
+
+import io.vertx.core.net.NetClientOptions;
+import io.vertx.core.net.OpenSSLEngineOptions;
+
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLSession;
+
+/**
+ * Derives the TLS settings of the Vert.x NetClient from the ssl* connection properties, following
+ * the choices {@link MakeSSL} made for sockets: the JDK defaults when neither sslmode nor
+ * sslfactory is given, {@link LibPQFactory} behaviour when sslmode is, and no validation with
+ * {@link NonValidatingFactory}. Other SSLSocketFactory classes cannot be plugged into an
+ * SSLEngine and are ignored.
+ * <p>
+ * A NetClient builds its TLS context once, so the connections sharing it resume the TLS sessions
+ * of earlier connections to the same host.
+ */
+public final class SslNetClientOptions {
+
+  private static final Logger LOGGER = Logger.getLogger(SslNetClientOptions.class.getName());
+
+  private SslNetClientOptions() {
+  }
+
+  /**
+   * Sets the TLS options of a NetClient.
+   *
+   * @param options options of the NetClient
+   * @param info the connection parameters
+   * @throws PSQLException if sslEngine is invalid
+   */
+  public static void configure(NetClientOptions options, Properties info) throws PSQLException {
+    String sslmode = PGProperty.SSL_MODE.get(info);
+    String classname = PGProperty.SSL_FACTORY.get(info);
+    if (classname == null || LibPQFactory.class.getName().equals(classname)) {
+      if (sslmode != null || classname != null) {
+        LibPQSslOptions libpq = new LibPQSslOptions(info);
+        options.setKeyCertOptions(libpq);
+        if ("verify-ca".equals(sslmode) || "verify-full".equals(sslmode)) {
+          options.setTrustOptions(libpq);
+        } else {
+          options.setTrustAll(true);
+        }
+      }
+    } else if (NonValidatingFactory.class.getName().equals(classname)) {
+      options.setTrustAll(true);
+    } else {
+      LOGGER.log(Level.WARNING, "The sslfactory {0} cannot be used with Vert.x sockets, it is ignored",
+          classname);
+    }
+
+    String engine = PGProperty.SSL_ENGINE.get(info);
+    if ("openssl".equals(engine)) {
+      if (OpenSSLEngineOptions.isAvailable()) {
+        options.setOpenSslEngineOptions(new OpenSSLEngineOptions().setSessionCacheEnabled(true));
+      } else {
+        LOGGER.log(Level.WARNING, "sslEngine=openssl needs netty-tcnative, using the JDK instead");
+      }
+    } else if (!"jdk".equals(engine)) {
+      throw new PSQLException(GT.tr("Invalid sslEngine value: {0}", engine),
+          PSQLState.CONNECTION_UNABLE_TO_CONNECT);
+    }
+  }
+
+  /**
+   * Checks the server certificate against the host name after the handshake, with the
+   * sslhostnameverifier if given, otherwise with the libpq rules when sslmode is verify-full.
+   *
+   * @param host host name connected to
+   * @param session the TLS session
+   * @param info the connection parameters
+   * @throws PSQLException if the host name does not match
+   */
+  public static void verifyHostname(String host, SSLSession session, Properties info)
+      throws PSQLException {
+    String sslhostnameverifier = PGProperty.SSL_HOSTNAME_VERIFIER.get(info);
+    if (sslhostnameverifier != null) {
+      HostnameVerifier hvn;
+      try {
+        hvn = (HostnameVerifier) ObjectFactory.instantiate(sslhostnameverifier, info, false, null);
+      } catch (Exception e) {
+        throw new PSQLException(
+            GT.tr("The HostnameVerifier class provided {0} could not be instantiated.",
+                sslhostnameverifier),
+            PSQLState.CONNECTION_FAILURE, e);
+      }
+      if (!hvn.verify(host, session)) {
+        throw new PSQLException(
+            GT.tr("The hostname {0} could not be verified by hostnameverifier {1}.",
+                host, sslhostnameverifier),
+            PSQLState.CONNECTION_FAILURE);
+      }
+    } else if ("verify-full".equals(PGProperty.SSL_MODE.get(info))
+        && !LibPQFactory.verifyHostname(host, session)) {
+      throw new PSQLException(GT.tr("The hostname {0} could not be verified.", host),
+          PSQLState.CONNECTION_FAILURE);
+    }
+  }
+}
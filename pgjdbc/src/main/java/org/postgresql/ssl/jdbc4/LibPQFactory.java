@@ -66,99 +66,11 @@ public class LibPQFactory extends WrappedFactory implements HostnameVerifier {
       sslmode = PGProperty.SSL_MODE.get(info);
       SSLContext ctx = SSLContext.getInstance("TLS"); // or "SSL" ?
 
-      // Determinig the default file location
-      String pathsep = System.getProperty("file.separator");
-      String defaultdir;
-      boolean defaultfile = false;
-      if (System.getProperty("os.name").toLowerCase().contains("windows")) { // It is Windows
-        defaultdir = System.getenv("APPDATA") + pathsep + "postgresql" + pathsep;
-      } else {
-        defaultdir = System.getProperty("user.home") + pathsep + ".postgresql" + pathsep;
-      }
-
-      // Load the client's certificate and key
-      String sslcertfile = PGProperty.SSL_CERT.get(info);
-      if (sslcertfile == null) { // Fall back to default
-        defaultfile = true;
-        sslcertfile = defaultdir + "postgresql.crt";
-      }
-      String sslkeyfile = PGProperty.SSL_KEY.get(info);
-      if (sslkeyfile == null) { // Fall back to default
-        defaultfile = true;
-        sslkeyfile = defaultdir + "postgresql.pk8";
-      }
-
-      // Determine the callback handler
-      CallbackHandler cbh;
-      String sslpasswordcallback = PGProperty.SSL_PASSWORD_CALLBACK.get(info);
-      if (sslpasswordcallback != null) {
-        try {
-          cbh = (CallbackHandler) MakeSSL.instantiate(sslpasswordcallback, info, false, null);
-        } catch (Exception e) {
-          throw new PSQLException(
-              GT.tr("The password callback class provided {0} could not be instantiated.",
-                  sslpasswordcallback),
-              PSQLState.CONNECTION_FAILURE, e);
-        }
-      } else {
-        cbh = new ConsoleCallbackHandler(PGProperty.SSL_PASSWORD.get(info));
-      }
-
-      // If the properties are empty, give null to prevent client key selection
-      km = new LazyKeyManager(("".equals(sslcertfile) ? null : sslcertfile),
-          ("".equals(sslkeyfile) ? null : sslkeyfile), cbh, defaultfile);
+      km = createKeyManager(info);
 
       TrustManager[] tm;
       if ("verify-ca".equals(sslmode) || "verify-full".equals(sslmode)) {
-        // Load the server certificate
-
-        TrustManagerFactory tmf = TrustManagerFactory.getInstance("PKIX");
-        KeyStore ks;
-        try {
-          ks = KeyStore.getInstance("jks");
-        } catch (KeyStoreException e) {
-          // this should never happen
-          throw new NoSuchAlgorithmException("jks KeyStore not available");
-        }
-        String sslrootcertfile = PGProperty.SSL_ROOT_CERT.get(info);
-        if (sslrootcertfile == null) { // Fall back to default
-          sslrootcertfile = defaultdir + "root.crt";
-        }
-        FileInputStream fis;
-        try {
-          fis = new FileInputStream(sslrootcertfile); // NOSONAR
-        } catch (FileNotFoundException ex) {
-          throw new PSQLException(
-              GT.tr("Could not open SSL root certificate file {0}.", sslrootcertfile),
-              PSQLState.CONNECTION_FAILURE, ex);
-        }
-        try {
-          CertificateFactory cf = CertificateFactory.getInstance("X.509");
-          // Certificate[] certs = cf.generateCertificates(fis).toArray(new Certificate[]{}); //Does
-          // not work in java 1.4
-          Object[] certs = cf.generateCertificates(fis).toArray(new Certificate[]{});
-          ks.load(null, null);
-          for (int i = 0; i < certs.length; i++) {
-            ks.setCertificateEntry("cert" + i, (Certificate) certs[i]);
-          }
-          tmf.init(ks);
-        } catch (IOException ioex) {
-          throw new PSQLException(
-              GT.tr("Could not read SSL root certificate file {0}.", sslrootcertfile),
-              PSQLState.CONNECTION_FAILURE, ioex);
-        } catch (GeneralSecurityException gsex) {
-          throw new PSQLException(
-              GT.tr("Loading the SSL root certificate {0} into a TrustManager failed.",
-                      sslrootcertfile),
-              PSQLState.CONNECTION_FAILURE, gsex);
-        } finally {
-          try {
-            fis.close();
-          } catch (IOException e) {
-            /* ignore */
-          }
-        }
-        tm = tmf.getTrustManagers();
+        tm = createTrustManagers(info);
       } else { // server validation is not required
         tm = new TrustManager[]{new NonValidatingTM()};
       }
@@ -178,6 +90,121 @@ public class LibPQFactory extends WrappedFactory implements HostnameVerifier {
     }
   }
 
+  private static String getDefaultDirectory() {
+    // Determinig the default file location
+    String pathsep = System.getProperty("file.separator");
+    if (System.getProperty("os.name").toLowerCase().contains("windows")) { // It is Windows
+      return System.getenv("APPDATA") + pathsep + "postgresql" + pathsep;
+    } else {
+      return System.getProperty("user.home") + pathsep + ".postgresql" + pathsep;
+    }
+  }
+
+  /**
+   * Creates the key manager that presents the client certificate given by sslcert and sslkey.
+   *
+   * @param info the connection parameters
+   * @return the key manager
+   * @throws PSQLException if the password callback cannot be instantiated
+   */
+  static LazyKeyManager createKeyManager(Properties info) throws PSQLException {
+    String defaultdir = getDefaultDirectory();
+    boolean defaultfile = false;
+
+    // Load the client's certificate and key
+    String sslcertfile = PGProperty.SSL_CERT.get(info);
+    if (sslcertfile == null) { // Fall back to default
+      defaultfile = true;
+      sslcertfile = defaultdir + "postgresql.crt";
+    }
+    String sslkeyfile = PGProperty.SSL_KEY.get(info);
+    if (sslkeyfile == null) { // Fall back to default
+      defaultfile = true;
+      sslkeyfile = defaultdir + "postgresql.pk8";
+    }
+
+    // Determine the callback handler
+    CallbackHandler cbh;
+    String sslpasswordcallback = PGProperty.SSL_PASSWORD_CALLBACK.get(info);
+    if (sslpasswordcallback != null) {
+      try {
+        cbh = (CallbackHandler) MakeSSL.instantiate(sslpasswordcallback, info, false, null);
+      } catch (Exception e) {
+        throw new PSQLException(
+            GT.tr("The password callback class provided {0} could not be instantiated.",
+                sslpasswordcallback),
+            PSQLState.CONNECTION_FAILURE, e);
+      }
+    } else {
+      cbh = new ConsoleCallbackHandler(PGProperty.SSL_PASSWORD.get(info));
+    }
+
+    // If the properties are empty, give null to prevent client key selection
+    return new LazyKeyManager(("".equals(sslcertfile) ? null : sslcertfile),
+        ("".equals(sslkeyfile) ? null : sslkeyfile), cbh, defaultfile);
+  }
+
+  /**
+   * Creates the trust managers that validate the server certificate against sslrootcert.
+   *
+   * @param info the connection parameters
+   * @return the trust managers
+   * @throws PSQLException if the root certificate cannot be loaded
+   * @throws NoSuchAlgorithmException if PKIX is not available
+   */
+  static TrustManager[] createTrustManagers(Properties info)
+      throws PSQLException, NoSuchAlgorithmException {
+    // Load the server certificate
+
+    TrustManagerFactory tmf = TrustManagerFactory.getInstance("PKIX");
+    KeyStore ks;
+    try {
+      ks = KeyStore.getInstance("jks");
+    } catch (KeyStoreException e) {
+      // this should never happen
+      throw new NoSuchAlgorithmException("jks KeyStore not available");
+    }
+    String sslrootcertfile = PGProperty.SSL_ROOT_CERT.get(info);
+    if (sslrootcertfile == null) { // Fall back to default
+      sslrootcertfile = getDefaultDirectory() + "root.crt";
+    }
+    FileInputStream fis;
+    try {
+      fis = new FileInputStream(sslrootcertfile); // NOSONAR
+    } catch (FileNotFoundException ex) {
+      throw new PSQLException(
+          GT.tr("Could not open SSL root certificate file {0}.", sslrootcertfile),
+          PSQLState.CONNECTION_FAILURE, ex);
+    }
+    try {
+      CertificateFactory cf = CertificateFactory.getInstance("X.509");
+      // Certificate[] certs = cf.generateCertificates(fis).toArray(new Certificate[]{}); //Does
+      // not work in java 1.4
+      Object[] certs = cf.generateCertificates(fis).toArray(new Certificate[]{});
+      ks.load(null, null);
+      for (int i = 0; i < certs.length; i++) {
+        ks.setCertificateEntry("cert" + i, (Certificate) certs[i]);
+      }
+      tmf.init(ks);
+    } catch (IOException ioex) {
+      throw new PSQLException(
+          GT.tr("Could not read SSL root certificate file {0}.", sslrootcertfile),
+          PSQLState.CONNECTION_FAILURE, ioex);
+    } catch (GeneralSecurityException gsex) {
+      throw new PSQLException(
+          GT.tr("Loading the SSL root certificate {0} into a TrustManager failed.",
+                  sslrootcertfile),
+          PSQLState.CONNECTION_FAILURE, gsex);
+    } finally {
+      try {
+        fis.close();
+      } catch (IOException e) {
+        /* ignore */
+      }
+    }
+    return tmf.getTrustManagers();
+  }
+
   /**
    * Propagates any exception from {@link LazyKeyManager}
    *
@@ -279,6 +306,18 @@ public class LibPQFactory extends WrappedFactory implements HostnameVerifier {
    * @return true if the certificate belongs to the server, false otherwise.
    */
   public boolean verify(String hostname, SSLSession session) {
+    return verifyHostname(hostname, session);
+  }
+
+  /**
+   * Verifies the server certificate according to the libpq rules, see
+   * {@link #verify(String, SSLSession)}.
+   *
+   * @param hostname Hostname or IP address of the server.
+   * @param session The SSL session.
+   * @return true if the certificate belongs to the server, false otherwise.
+   */
+  public static boolean verifyHostname(String hostname, SSLSession session) {
     X509Certificate[] peerCerts;
     try {
       peerCerts = (X509Certificate[]) session.getPeerCertificates();
@@ -0,0 +1,138 @@
+package org.postgresql.ssl.jdbc4;
+
+import org.postgresql.PGProperty;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.net.KeyCertOptions;
+import io.vertx.core.net.TrustOptions;
+
+import java.security.KeyStore;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.function.Function;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.KeyManagerFactorySpi;
+import javax.net.ssl.ManagerFactoryParameters;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.TrustManagerFactorySpi;
+import javax.net.ssl.X509KeyManager;
+
+/**
+ * Client certificate and server validation of {@link LibPQFactory} as Vert.x TLS options. The
+ * key manager and the trust managers are created once, when the first TLS context of the
+ * NetClient is built, and the options compare equal when they are built from the same ssl*
+ * properties so that connections with the same settings share a NetClient.
+ */
+public class LibPQSslOptions implements KeyCertOptions, TrustOptions {
+
+  private static final PGProperty[] SSL_PROPERTIES = {
+      PGProperty.SSL_CERT, PGProperty.SSL_KEY, PGProperty.SSL_ROOT_CERT, PGProperty.SSL_PASSWORD,
+      PGProperty.SSL_PASSWORD_CALLBACK
+  };
+
+  private final Properties info;
+  private final String[] values;
+
+  private X509KeyManager keyManager;
+  private TrustManager[] trustManagers;
+
+  /**
+   * @param info the connection parameters, the ssl* ones are copied
+   */
+  public LibPQSslOptions(Properties info) {
+    this.info = new Properties();
+    this.values = new String[SSL_PROPERTIES.length];
+    for (int i = 0; i < SSL_PROPERTIES.length; i++) {
+      values[i] = SSL_PROPERTIES[i].get(info);
+      if (values[i] != null) {
+        SSL_PROPERTIES[i].set(this.info, values[i]);
+      }
+    }
+  }
+
+  private synchronized X509KeyManager getKeyManager() throws Exception {
+    if (keyManager == null) {
+      keyManager = LibPQFactory.createKeyManager(info);
+    }
+    return keyManager;
+  }
+
+  private synchronized TrustManager[] getTrustManagers() throws Exception {
+    if (trustManagers == null) {
+      trustManagers = LibPQFactory.createTrustManagers(info);
+    }
+    return trustManagers;
+  }
+
+  @Override
+  public KeyManagerFactory getKeyManagerFactory(Vertx vertx) throws Exception {
+    final KeyManager[] keyManagers = {getKeyManager()};
+    return new KeyManagerFactory(new KeyManagerFactorySpi() {
+      @Override
+      protected void engineInit(KeyStore ks, char[] password) {
+      }
+
+      @Override
+      protected void engineInit(ManagerFactoryParameters spec) {
+      }
+
+      @Override
+      protected KeyManager[] engineGetKeyManagers() {
+        return keyManagers.clone();
+      }
+    }, null, "LibPQ") {
+    };
+  }
+
+  @Override
+  public Function<String, X509KeyManager> keyManagerMapper(Vertx vertx) throws Exception {
+    final X509KeyManager keyManager = getKeyManager();
+    return serverName -> keyManager;
+  }
+
+  @Override
+  public TrustManagerFactory getTrustManagerFactory(Vertx vertx) throws Exception {
+    final TrustManager[] trustManagers = getTrustManagers();
+    return new TrustManagerFactory(new TrustManagerFactorySpi() {
+      @Override
+      protected void engineInit(KeyStore ks) {
+      }
+
+      @Override
+      protected void engineInit(ManagerFactoryParameters spec) {
+      }
+
+      @Override
+      protected TrustManager[] engineGetTrustManagers() {
+        return trustManagers.clone();
+      }
+    }, null, "LibPQ") {
+    };
+  }
+
+  @Override
+  public Function<String, TrustManager[]> trustManagerMapper(Vertx vertx) throws Exception {
+    final TrustManager[] trustManagers = getTrustManagers();
+    return serverName -> trustManagers.clone();
+  }
+
+  @Override
+  public LibPQSslOptions clone() {
+    // immutable apart from the lazily created managers
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj instanceof LibPQSslOptions
+        && Arrays.equals(values, ((LibPQSslOptions) obj).values);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(values);
+  }
+}
@@ -1,9 +1,12 @@
 package org.postgresql.util;
 
+import io.vertx.core.Context;
+
 import java.util.ArrayDeque;
 import java.util.Queue;
-import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * A Nonblocking lock for java.
@@ -11,72 +14,373 @@ import java.util.concurrent.CompletableFuture;
  * AsyncLock will not block the thread if the lock is not available.
  * Usage:
  *
- * UUID key = null;
+ * long token = lock.tryLock();
+ * if (token == AsyncLock.NO_TOKEN) {
+ *     token = await(lock.lock());
+ * }
  * try {
- *     key = await(lock.lock());
  *     // do your work here
  * } finally {
- *     lock.release(key);
+ *     lock.release(token);
  * }
+ *
+ * Ownership is identified by tokens taken from a per lock counter, so acquiring
+ * and handing over the lock is cheap. Waiters are served in FIFO order, they may
+ * give up by cancelling the returned future or by acquiring with a timeout.
  */
 public class AsyncLock {
 
-    private Queue<WaitTask> waitTasks = new ArrayDeque<>();
+    /**
+     * Never handed out as a token, returned by {@link #tryLock()} when the lock is held.
+     */
+    public static final long NO_TOKEN = 0L;
+
+    private final Context context;
+    private final Queue<WaitTask> waitTasks = new ArrayDeque<>();
     private boolean acquired = false;
-    private String owner;
-    private UUID ownerKey;
-
-    public synchronized CompletableFuture<UUID> lock() {
-        if (!this.acquired) {
-            this.acquired = true;
-            this.owner = Thread.currentThread().getName();
-            this.ownerKey = UUID.randomUUID();
-            return CompletableFuture.completedFuture(this.ownerKey);
-        } else {
-            CompletableFuture<UUID> completableFuture = new CompletableFuture<>();
-            waitTasks.add(new WaitTask(Thread.currentThread().getName(), completableFuture));
-            return completableFuture;
+    private Thread owner;
+    private long ownerToken = NO_TOKEN;
+    private long lastToken = NO_TOKEN;
+
+    private long acquisitions;
+    private long contendedAcquisitions;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+    private int maxQueueLength;
+    private long timeouts;
+    private long cancellations;
+
+    /**
+     * Creates a lock whose waiters time out on timers of the shared Vert.x instance.
+     */
+    public AsyncLock() {
+        this(null);
+    }
+
+    /**
+     * Creates a lock whose waiters time out on the given context, so that a waiter of a
+     * connection resumes on the event loop of the connection.
+     *
+     * @param context event loop context of the lock owner, or null
+     */
+    public AsyncLock(Context context) {
+        this.context = context;
+    }
+
+    /**
+     * Acquires the lock if it is free, without allocating anything.
+     *
+     * @return the ownership token, or {@link #NO_TOKEN} if the lock is held
+     */
+    public synchronized long tryLock() {
+        if (this.acquired) {
+            return NO_TOKEN;
+        }
+
+        this.acquisitions++;
+        return this.grant(Thread.currentThread());
+    }
+
+    /**
+     * Acquires the lock, waiting as long as needed. The caller may cancel the returned
+     * future to leave the queue of waiters.
+     *
+     * @return the ownership token to pass to {@link #release(long)}
+     */
+    public CompletableFuture<Long> lock() {
+        return this.lock(0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Acquires the lock, failing the returned future with a {@link TimeoutException} if it
+     * could not be acquired in time.
+     *
+     * @param timeout maximum time to wait, 0 to wait forever
+     * @param unit unit of the timeout
+     * @return the ownership token to pass to {@link #release(long)}
+     */
+    public CompletableFuture<Long> lock(long timeout, TimeUnit unit) {
+        WaitTask waitTask;
+        synchronized (this) {
+            if (!this.acquired) {
+                this.acquisitions++;
+                return CompletableFuture.completedFuture(this.grant(Thread.currentThread()));
+            }
+
+            waitTask = new WaitTask(Thread.currentThread(), System.nanoTime());
+            this.waitTasks.add(waitTask);
+            this.maxQueueLength = Math.max(this.maxQueueLength, this.waitTasks.size());
+        }
+
+        CompletableFuture<Long> result = waitTask.completableFuture;
+        if (timeout > 0) {
+            Context timerContext = this.context != null ? this.context : VertxHelper.getVertx().getOrCreateContext();
+            long timerId = VertxHelper.setTimer(timerContext, Math.max(1, unit.toMillis(timeout)), ignored -> {
+                // leave the queue before failing the future, its callers then see the waiter gone
+                TimeoutException timeoutException = new TimeoutException("timed out waiting for lock");
+                if (this.abandon(waitTask, timeoutException)) {
+                    result.completeExceptionally(timeoutException);
+                }
+            });
+            result.whenComplete((token, error) -> timerContext.owner().cancelTimer(timerId));
+        }
+
+        result.whenComplete((token, error) -> {
+            if (error != null) {
+                this.abandon(waitTask, error);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Releases the lock, handing it over to the longest waiting task if there is one.
+     *
+     * @param token the token the lock was acquired with
+     * @return false if the token does not own the lock
+     */
+    public boolean release(long token) {
+        while (true) {
+            WaitTask waitTask;
+            long nextToken;
+            synchronized (this) {
+                if (!this.acquired || token == NO_TOKEN || this.ownerToken != token) {
+                    return false;
+                }
+
+                waitTask = this.waitTasks.poll();
+                if (waitTask == null) {
+                    this.acquired = false;
+                    this.owner = null;
+                    this.ownerToken = NO_TOKEN;
+                    return true;
+                }
+
+                nextToken = this.grant(waitTask.thread);
+            }
+
+            // complete outside of the monitor, the waiter resumes on this thread
+            if (waitTask.completableFuture.complete(nextToken)) {
+                synchronized (this) {
+                    long waitNanos = System.nanoTime() - waitTask.enqueuedNanos;
+                    this.acquisitions++;
+                    this.contendedAcquisitions++;
+                    this.totalWaitNanos += waitNanos;
+                    this.maxWaitNanos = Math.max(this.maxWaitNanos, waitNanos);
+                }
+                return true;
+            }
+
+            // the waiter gave up in the meantime, pass the lock on
+            token = nextToken;
         }
     }
 
-    public synchronized boolean release(UUID ownerKey) {
-        if (this.ownerKey == null || !this.ownerKey.equals(ownerKey)) {
+    /**
+     * @return name of the thread that acquired the lock, or null if the lock is free
+     */
+    public synchronized String getOwner() {
+        return this.owner == null ? null : this.owner.getName();
+    }
+
+    public synchronized boolean isLocked() {
+        return this.acquired;
+    }
+
+    /**
+     * @return number of tasks currently waiting for the lock
+     */
+    public synchronized int getQueueLength() {
+        return this.waitTasks.size();
+    }
+
+    /**
+     * @return largest number of tasks that waited for the lock at the same time
+     */
+    public synchronized int getMaxQueueLength() {
+        return this.maxQueueLength;
+    }
+
+    /**
+     * @return number of times the lock was acquired
+     */
+    public synchronized long getAcquisitions() {
+        return this.acquisitions;
+    }
+
+    /**
+     * @return number of times the lock was acquired after waiting
+     */
+    public synchronized long getContendedAcquisitions() {
+        return this.contendedAcquisitions;
+    }
+
+    /**
+     * @return total time spent waiting by the tasks that acquired the lock after waiting
+     */
+    public synchronized long getTotalWaitTime(TimeUnit unit) {
+        return unit.convert(this.totalWaitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return longest time a task waited before acquiring the lock
+     */
+    public synchronized long getMaxWaitTime(TimeUnit unit) {
+        return unit.convert(this.maxWaitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return number of waiters that timed out
+     */
+    public synchronized long getTimeouts() {
+        return this.timeouts;
+    }
+
+    /**
+     * @return number of waiters that were cancelled, or failed otherwise, before acquiring the lock
+     */
+    public synchronized long getCancellations() {
+        return this.cancellations;
+    }
+
+    /**
+     * @return the counters of the lock, read at the same time
+     */
+    public synchronized Statistics getStatistics() {
+        return new Statistics(this);
+    }
+
+    private long grant(Thread thread) {
+        this.lastToken++;
+        if (this.lastToken == NO_TOKEN) {
+            this.lastToken++;
+        }
+
+        this.acquired = true;
+        this.owner = thread;
+        this.ownerToken = this.lastToken;
+        return this.ownerToken;
+    }
+
+    /**
+     * @return false if the waiter has already left the queue, either handed the lock or given up
+     */
+    private synchronized boolean abandon(WaitTask waitTask, Throwable error) {
+        if (!this.waitTasks.remove(waitTask)) {
+            // already handed the lock, release() passes it on
             return false;
         }
 
-        WaitTask waitTask = this.waitTasks.poll();
-        if (waitTask == null) {
-            this.acquired = false;
-            this.owner = null;
-            this.ownerKey = null;
+        if (error instanceof TimeoutException) {
+            this.timeouts++;
         } else {
-            this.owner = waitTask.getThreadName();
-            this.ownerKey = UUID.randomUUID();
-            waitTask.getCompletableFuture().complete(this.ownerKey);
+            this.cancellations++;
         }
-
         return true;
     }
 
-    public String getOwner() {
-        return this.owner;
-    }
+    /**
+     * A snapshot of the counters of a lock, to be read by monitoring without access to the lock.
+     */
+    public static final class Statistics {
+        private final int queueLength;
+        private final int maxQueueLength;
+        private final long acquisitions;
+        private final long contendedAcquisitions;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+        private final long timeouts;
+        private final long cancellations;
 
-    private static class WaitTask {
-        private String threadName;
-        private CompletableFuture<UUID> completableFuture;
+        // called with the monitor of the lock held
+        private Statistics(AsyncLock lock) {
+            this.queueLength = lock.waitTasks.size();
+            this.maxQueueLength = lock.maxQueueLength;
+            this.acquisitions = lock.acquisitions;
+            this.contendedAcquisitions = lock.contendedAcquisitions;
+            this.totalWaitNanos = lock.totalWaitNanos;
+            this.maxWaitNanos = lock.maxWaitNanos;
+            this.timeouts = lock.timeouts;
+            this.cancellations = lock.cancellations;
+        }
+
+        /**
+         * @see AsyncLock#getQueueLength()
+         */
+        public int getQueueLength() {
+            return this.queueLength;
+        }
+
+        /**
+         * @see AsyncLock#getMaxQueueLength()
+         */
+        public int getMaxQueueLength() {
+            return this.maxQueueLength;
+        }
+
+        /**
+         * @see AsyncLock#getAcquisitions()
+         */
+        public long getAcquisitions() {
+            return this.acquisitions;
+        }
+
+        /**
+         * @see AsyncLock#getContendedAcquisitions()
+         */
+        public long getContendedAcquisitions() {
+            return this.contendedAcquisitions;
+        }
 
-        public WaitTask(String threadName, CompletableFuture<UUID> completableFuture) {
-            this.threadName = threadName;
-            this.completableFuture = completableFuture;
+        /**
+         * @see AsyncLock#getTotalWaitTime(TimeUnit)
+         */
+        public long getTotalWaitTime(TimeUnit unit) {
+            return unit.convert(this.totalWaitNanos, TimeUnit.NANOSECONDS);
         }
 
-        public String getThreadName() {
-            return this.threadName;
+        /**
+         * @see AsyncLock#getMaxWaitTime(TimeUnit)
+         */
+        public long getMaxWaitTime(TimeUnit unit) {
+            return unit.convert(this.maxWaitNanos, TimeUnit.NANOSECONDS);
         }
 
-        public CompletableFuture<UUID> getCompletableFuture() {
-            return this.completableFuture;
+        /**
+         * @see AsyncLock#getTimeouts()
+         */
+        public long getTimeouts() {
+            return this.timeouts;
+        }
+
+        /**
+         * @see AsyncLock#getCancellations()
+         */
+        public long getCancellations() {
+            return this.cancellations;
+        }
+
+        @Override
+        public String toString() {
+            return "acquisitions=" + this.acquisitions
+                    + ", contended=" + this.contendedAcquisitions
+                    + ", totalWaitMillis=" + TimeUnit.NANOSECONDS.toMillis(this.totalWaitNanos)
+                    + ", maxWaitMillis=" + TimeUnit.NANOSECONDS.toMillis(this.maxWaitNanos)
+                    + ", queueLength=" + this.queueLength
+                    + ", maxQueueLength=" + this.maxQueueLength
+                    + ", timeouts=" + this.timeouts
+                    + ", cancellations=" + this.cancellations;
+        }
+    }
+
+    private static class WaitTask {
+        private final Thread thread;
+        private final long enqueuedNanos;
+        private final CompletableFuture<Long> completableFuture = new CompletableFuture<>();
+
+        WaitTask(Thread thread, long enqueuedNanos) {
+            this.thread = thread;
+            this.enqueuedNanos = enqueuedNanos;
         }
     }
 }
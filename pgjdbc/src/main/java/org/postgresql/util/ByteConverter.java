@@ -5,6 +5,9 @@
 
 package org.postgresql.util;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
 /**
  * Helper methods to parse java base types from byte arrays.
  *
@@ -12,6 +15,30 @@ package org.postgresql.util;
  */
 public class ByteConverter {
 
+  private static final int NUMERIC_POS = 0x0000;
+  private static final int NUMERIC_NEG = 0x4000;
+  private static final int NUMERIC_NAN = 0xC000;
+  private static final int NUMERIC_PINF = 0xD000;
+  private static final int NUMERIC_NINF = 0xF000;
+  private static final int NUMERIC_DSCALE_MAX = 0x3FFF;
+  private static final int NBASE = 10000;
+  private static final BigInteger NBASE_4 = BigInteger.valueOf(10000L * 10000L * 10000L * 10000L);
+
+  private static final long[] LONG_TENS = new long[19];
+  private static final double[] DOUBLE_TENS = new double[23];
+
+  static {
+    LONG_TENS[0] = 1;
+    for (int i = 1; i < LONG_TENS.length; i++) {
+      LONG_TENS[i] = LONG_TENS[i - 1] * 10;
+    }
+    // powers of ten up to 1e22 are exact doubles
+    DOUBLE_TENS[0] = 1;
+    for (int i = 1; i < DOUBLE_TENS.length; i++) {
+      DOUBLE_TENS[i] = DOUBLE_TENS[i - 1] * 10;
+    }
+  }
+
   private ByteConverter() {
     // prevent instantiation of static helper class
   }
@@ -175,4 +202,226 @@ public class ByteConverter {
   public static void float8(byte[] target, int idx, double value) {
     int8(target, idx, Double.doubleToRawLongBits(value));
   }
+
+  /**
+   * Parses a numeric value from the byte array. The value is made of base 10000 digit groups, the
+   * weight of the first group and the display scale, which becomes the scale of the result.
+   *
+   * @param bytes The byte array to parse.
+   * @param idx The starting index of the parse in the byte array.
+   * @param numBytes The number of bytes of the value.
+   * @return a {@link BigDecimal}, or a {@link Double} for NaN and the infinities.
+   * @throws IllegalArgumentException if the bytes are not a numeric value.
+   */
+  public static Number numeric(byte[] bytes, int idx, int numBytes) {
+    int ndigits = checkNumeric(bytes, idx, numBytes);
+    int sign = int2(bytes, idx + 4) & 0xFFFF;
+    if (sign != NUMERIC_POS && sign != NUMERIC_NEG) {
+      return numericSpecial(sign);
+    }
+    int dscale = int2(bytes, idx + 6);
+    long unscaled = numericUnscaled(bytes, idx, ndigits, dscale);
+    if (unscaled >= 0) {
+      return BigDecimal.valueOf(sign == NUMERIC_NEG ? -unscaled : unscaled, dscale);
+    }
+
+    // four groups at a time, then the shift to the display scale
+    int weight = int2(bytes, idx + 2);
+    BigInteger digits = BigInteger.ZERO;
+    int i = 0;
+    while (i < ndigits) {
+      int n = Math.min(4, ndigits - i);
+      long chunk = 0;
+      for (int j = 0; j < n; j++) {
+        chunk = chunk * NBASE + int2(bytes, idx + 8 + 2 * (i + j));
+      }
+      digits = i == 0 ? BigInteger.valueOf(chunk)
+          : digits.multiply(n == 4 ? NBASE_4 : BigInteger.valueOf(LONG_TENS[4 * n]))
+              .add(BigInteger.valueOf(chunk));
+      i += n;
+    }
+    int shift = 4 * (weight - ndigits + 1) + dscale;
+    if (shift > 0) {
+      digits = digits.multiply(BigInteger.TEN.pow(shift));
+    } else if (shift < 0) {
+      // the text output drops the digits past the display scale too
+      digits = digits.divide(BigInteger.TEN.pow(-shift));
+    }
+    return new BigDecimal(sign == NUMERIC_NEG ? digits.negate() : digits, dscale);
+  }
+
+  /**
+   * Converts a numeric value of the byte array to a double, the way {@link Double#parseDouble}
+   * converts its text form.
+   *
+   * @param bytes The byte array to parse.
+   * @param idx The starting index of the parse in the byte array.
+   * @param numBytes The number of bytes of the value.
+   * @return parsed double value.
+   * @throws IllegalArgumentException if the bytes are not a numeric value.
+   */
+  public static double numericToDouble(byte[] bytes, int idx, int numBytes) {
+    int ndigits = checkNumeric(bytes, idx, numBytes);
+    int sign = int2(bytes, idx + 4) & 0xFFFF;
+    if (sign != NUMERIC_POS && sign != NUMERIC_NEG) {
+      return numericSpecial(sign);
+    }
+    int dscale = int2(bytes, idx + 6);
+    long unscaled = numericUnscaled(bytes, idx, ndigits, dscale);
+    // both operands are exact, so the division rounds once
+    if (unscaled >= 0 && unscaled <= (1L << 53) && dscale < DOUBLE_TENS.length) {
+      double value = unscaled / DOUBLE_TENS[dscale];
+      return sign == NUMERIC_NEG ? -value : value;
+    }
+    return numeric(bytes, idx, numBytes).doubleValue();
+  }
+
+  /**
+   * Converts a numeric value of the byte array to a long, dropping its fraction.
+   *
+   * @param bytes The byte array to parse.
+   * @param idx The starting index of the parse in the byte array.
+   * @param numBytes The number of bytes of the value.
+   * @return the integer part of the value.
+   * @throws ArithmeticException if the value is NaN, infinite or out of the range of long.
+   * @throws IllegalArgumentException if the bytes are not a numeric value.
+   */
+  public static long numericToLong(byte[] bytes, int idx, int numBytes) {
+    int ndigits = checkNumeric(bytes, idx, numBytes);
+    int sign = int2(bytes, idx + 4) & 0xFFFF;
+    if (sign != NUMERIC_POS && sign != NUMERIC_NEG) {
+      throw new ArithmeticException(String.valueOf(numericSpecial(sign)));
+    }
+    int weight = int2(bytes, idx + 2);
+    if (weight > 4) {
+      // at least 10000^5
+      throw new ArithmeticException("long overflow");
+    }
+    // accumulated negative, to reach Long.MIN_VALUE
+    long value = 0;
+    for (int i = 0; i <= weight; i++) {
+      int digit = i < ndigits ? int2(bytes, idx + 8 + 2 * i) : 0;
+      value = Math.subtractExact(Math.multiplyExact(value, NBASE), digit);
+    }
+    return sign == NUMERIC_NEG ? value : Math.negateExact(value);
+  }
+
+  /**
+   * Encodes a value as numeric.
+   *
+   * @param value The value to encode.
+   * @return the encoded value.
+   * @throws IllegalArgumentException if the scale or the magnitude of the value are out of the
+   *     range of numeric.
+   */
+  public static byte[] numeric(BigDecimal value) {
+    int dscale = Math.max(value.scale(), 0);
+    if (dscale > NUMERIC_DSCALE_MAX) {
+      throw new IllegalArgumentException("Scale out of numeric range: " + value.scale());
+    }
+    if (value.signum() != 0 && (long) value.precision() - value.scale() > 4L * (Short.MAX_VALUE + 1)) {
+      throw new IllegalArgumentException("Value out of numeric range: " + value);
+    }
+    // align the decimal point with a group boundary
+    int fractionGroups = (dscale + 3) / 4;
+    int pad = fractionGroups * 4 - value.scale();
+    BigInteger unscaled = value.unscaledValue().abs();
+    short[] groups;
+    int ngroups;
+    if (unscaled.bitLength() < 63 && pad < LONG_TENS.length
+        && unscaled.longValue() <= Long.MAX_VALUE / LONG_TENS[pad]) {
+      long digits = unscaled.longValue() * LONG_TENS[pad];
+      groups = new short[5];
+      ngroups = 0;
+      while (digits != 0) {
+        groups[ngroups++] = (short) (digits % NBASE);
+        digits /= NBASE;
+      }
+    } else {
+      BigInteger digits = unscaled.multiply(BigInteger.TEN.pow(pad));
+      groups = new short[(digits.bitLength() + 12) / 13 + 4];
+      ngroups = 0;
+      while (digits.signum() != 0) {
+        BigInteger[] qr = digits.divideAndRemainder(NBASE_4);
+        long chunk = qr[1].longValue();
+        for (int j = 0; j < 4; j++) {
+          groups[ngroups++] = (short) (chunk % NBASE);
+          chunk /= NBASE;
+        }
+        digits = qr[0];
+      }
+      while (ngroups > 0 && groups[ngroups - 1] == 0) {
+        ngroups--;
+      }
+    }
+
+    // groups are least significant first, trailing zero groups are not sent
+    int first = 0;
+    while (first < ngroups && groups[first] == 0) {
+      first++;
+    }
+    int ndigits = ngroups - first;
+    int weight = ndigits == 0 ? 0 : ngroups - 1 - fractionGroups;
+    if (weight > Short.MAX_VALUE) {
+      throw new IllegalArgumentException("Value out of numeric range: " + value);
+    }
+    byte[] bytes = new byte[8 + 2 * ndigits];
+    int2(bytes, 0, ndigits);
+    int2(bytes, 2, weight);
+    int2(bytes, 4, value.signum() < 0 ? NUMERIC_NEG : NUMERIC_POS);
+    int2(bytes, 6, dscale);
+    for (int i = 0; i < ndigits; i++) {
+      int2(bytes, 8 + 2 * i, groups[ngroups - 1 - i]);
+    }
+    return bytes;
+  }
+
+  private static int checkNumeric(byte[] bytes, int idx, int numBytes) {
+    if (numBytes < 8) {
+      throw new IllegalArgumentException("Invalid numeric length: " + numBytes);
+    }
+    int ndigits = int2(bytes, idx);
+    if (ndigits < 0 || numBytes != 8 + 2 * ndigits) {
+      throw new IllegalArgumentException("Invalid numeric length: " + numBytes);
+    }
+    return ndigits;
+  }
+
+  private static Double numericSpecial(int sign) {
+    switch (sign) {
+      case NUMERIC_NAN:
+        return Double.NaN;
+      case NUMERIC_PINF:
+        return Double.POSITIVE_INFINITY;
+      case NUMERIC_NINF:
+        return Double.NEGATIVE_INFINITY;
+      default:
+        throw new IllegalArgumentException("Invalid numeric sign: " + Integer.toHexString(sign));
+    }
+  }
+
+  /**
+   * Returns the unscaled magnitude of a numeric at its display scale, or -1 if it does not fit a
+   * long of at most four digit groups.
+   */
+  private static long numericUnscaled(byte[] bytes, int idx, int ndigits, int dscale) {
+    if (ndigits > 4) {
+      return -1;
+    }
+    long digits = 0;
+    for (int i = 0; i < ndigits; i++) {
+      digits = digits * NBASE + int2(bytes, idx + 8 + 2 * i);
+    }
+    if (digits == 0) {
+      return 0;
+    }
+    int shift = 4 * (int2(bytes, idx + 2) - ndigits + 1) + dscale;
+    if (shift < 0) {
+      return -shift < LONG_TENS.length ? digits / LONG_TENS[-shift] : 0;
+    }
+    if (shift >= LONG_TENS.length || digits > Long.MAX_VALUE / LONG_TENS[shift]) {
+      return -1;
+    }
+    return digits * LONG_TENS[shift];
+  }
 }
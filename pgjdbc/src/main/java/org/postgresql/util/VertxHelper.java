@@ -1,17 +1,36 @@
 package org.postgresql.util;
 
+import org.postgresql.PGProperty;
+
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.impl.VertxInternal;
 
+import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Consumer;
 
+/**
+ * Vert.x instances the connections run on. The driver shares one instance by default, which may
+ * be replaced with {@link #updateVertx(Vertx)} before it is first used. Connections asking for a
+ * number of event loops with {@link PGProperty#EVENT_LOOP_SIZE}, or for the NIO transport, get an
+ * instance per configuration instead.
+ * <p>
+ * A connection is bound to one event loop context, see {@link #newEventLoopContext(Vertx)}, so
+ * its socket handlers, its timers and the continuations resumed by them run on one thread.
+ */
 public final class VertxHelper {
 
     private static Vertx vertx;
     private static Object singletonLock = new Object();
 
+    private static final ConcurrentMap<String, Vertx> configured = new ConcurrentHashMap<String, Vertx>();
+
     public static void updateVertx(Vertx instance) {
         if (vertx != null) {
             throw new RuntimeException("vertx already assigned, cannot be changed anymore");
@@ -24,7 +43,7 @@ public final class VertxHelper {
         if (vertx == null) {
             synchronized (singletonLock) {
                 if (vertx == null) {
-                    vertx = Vertx.vertx();
+                    vertx = Vertx.vertx(new VertxOptions().setPreferNativeTransport(true));
                 }
             }
         }
@@ -32,6 +51,75 @@ public final class VertxHelper {
         return vertx;
     }
 
+    /**
+     * @param eventLoopSize number of event loop threads, 0 for the shared instance
+     * @param preferNativeTransport whether to use epoll when it is on the classpath
+     * @return the instance for the configuration, created on first use
+     */
+    public static Vertx getVertx(int eventLoopSize, boolean preferNativeTransport) {
+        if (eventLoopSize <= 0 && preferNativeTransport) {
+            return getVertx();
+        }
+
+        String key = eventLoopSize + "/" + preferNativeTransport;
+        Vertx instance = configured.get(key);
+        if (instance == null) {
+            synchronized (singletonLock) {
+                instance = configured.get(key);
+                if (instance == null) {
+                    VertxOptions options = new VertxOptions().setPreferNativeTransport(preferNativeTransport);
+                    if (eventLoopSize > 0) {
+                        options.setEventLoopPoolSize(eventLoopSize);
+                    }
+                    instance = Vertx.vertx(options);
+                    configured.put(key, instance);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @param info the connection parameters
+     * @return the instance for the eventLoopSize and preferNativeTransport of the connection
+     * @throws PSQLException if eventLoopSize is not an integer
+     */
+    public static Vertx getVertx(Properties info) throws PSQLException {
+        return getVertx(PGProperty.EVENT_LOOP_SIZE.getInt(info),
+                PGProperty.PREFER_NATIVE_TRANSPORT.getBoolean(info));
+    }
+
+    /**
+     * Creates a context on the next event loop of an instance, round robin. Unlike
+     * {@link Vertx#getOrCreateContext()}, this spreads the connections over the event loops even
+     * when they are opened from an event loop thread, e.g. by a pool.
+     *
+     * @param instance the Vert.x instance
+     * @return a new event loop context
+     */
+    public static Context newEventLoopContext(Vertx instance) {
+        return ((VertxInternal) instance).createEventLoopContext(null, null, null,
+                Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * Sets a timer whose handler runs on a context, whichever thread sets it.
+     *
+     * @param context context to run the handler on
+     * @param delay delay in milliseconds
+     * @param handler handler called with the timer id
+     * @return the timer id, to cancel it with {@link Vertx#cancelTimer(long)} of the context owner
+     */
+    public static long setTimer(Context context, long delay, Handler<Long> handler) {
+        return context.owner().setTimer(delay, id -> {
+            if (Vertx.currentContext() == context) {
+                handler.handle(id);
+            } else {
+                context.runOnContext(ignored -> handler.handle(id));
+            }
+        });
+    }
+
     public static <TResult> CompletableFuture<TResult> vertxTCompletableFuture(Consumer<Handler<AsyncResult<TResult>>> handlerConsumer) {
         CompletableFuture<TResult> completableFuture = new CompletableFuture<>();
         handlerConsumer.accept(ar -> {
@@ -43,4 +131,29 @@ public final class VertxHelper {
         });
         return completableFuture;
     }
+
+    /**
+     * Like {@link #vertxTCompletableFuture(Consumer)}, but starts the operation on a context, so
+     * that the resources it creates, such as sockets, are bound to that context.
+     *
+     * @param context context to start the operation on
+     * @param handlerConsumer starts the operation with the handler of its result
+     * @param <TResult> type of the result
+     * @return the result of the operation
+     */
+    public static <TResult> CompletableFuture<TResult> vertxTCompletableFuture(Context context,
+            Consumer<Handler<AsyncResult<TResult>>> handlerConsumer) {
+        if (Vertx.currentContext() == context) {
+            return vertxTCompletableFuture(handlerConsumer);
+        }
+        CompletableFuture<TResult> completableFuture = new CompletableFuture<>();
+        context.runOnContext(ignored -> vertxTCompletableFuture(handlerConsumer).whenComplete((result, error) -> {
+            if (error != null) {
+                completableFuture.completeExceptionally(error);
+            } else {
+                completableFuture.complete(result);
+            }
+        }));
+        return completableFuture;
+    }
 }
@@ -0,0 +1,84 @@
+package org.postgresql.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class ColumnStringCacheTest {
+
+  private static final Encoding UTF8 = Encoding.getJVMEncoding("UTF-8");
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testRepeatedValuesShareInstance() throws IOException {
+    ColumnStringCache cache = new ColumnStringCache(16);
+    String[] codes = {"active", "inactive", "pending", "d\u00e9j\u00e0 vu", "\u65e5\u672c"};
+    String[] first = new String[codes.length];
+    for (int i = 0; i < codes.length; i++) {
+      first[i] = cache.decode(bytes(codes[i]), UTF8);
+      assertEquals(codes[i], first[i]);
+    }
+    for (int row = 0; row < 1000; row++) {
+      int i = row % codes.length;
+      assertSame(first[i], cache.decode(bytes(codes[i]), UTF8));
+    }
+    assertTrue(cache.isEnabled());
+  }
+
+  @Test
+  public void testLongValuesNotCached() throws IOException {
+    ColumnStringCache cache = new ColumnStringCache(16);
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i <= ColumnStringCache.MAX_VALUE_LENGTH; i++) {
+      sb.append('x');
+    }
+    String value = sb.toString();
+    String first = cache.decode(bytes(value), UTF8);
+    assertEquals(value, first);
+    assertNotSame(first, cache.decode(bytes(value), UTF8));
+  }
+
+  @Test
+  public void testDistinctValuesDisableCache() throws IOException {
+    ColumnStringCache cache = new ColumnStringCache(4);
+    for (int row = 0; row < 1000; row++) {
+      assertEquals("id" + row, cache.decode(bytes("id" + row), UTF8));
+    }
+    assertFalse(cache.isEnabled());
+  }
+
+  @Test
+  public void testDecodeRange() throws IOException {
+    ColumnStringCache cache = new ColumnStringCache(16);
+    byte[] framed = bytes("[active][inactive]");
+    String active = cache.decode(framed, 1, 6, UTF8);
+    assertEquals("active", active);
+    assertEquals("inactive", cache.decode(framed, 9, 8, UTF8));
+    assertSame(active, cache.decode(bytes("active"), UTF8));
+    assertSame(active, cache.decode(bytes("xxactive"), 2, 6, UTF8));
+  }
+
+  @Test
+  public void testDecodeAfterAsciiPrefix() throws IOException {
+    String[] values = {"", "a", "plain ascii text", "ascii then \u00e9", "\u00e9 first",
+        "twelve bytes\u20ac", "\ud83d\ude00 after eight bytes \ud83d\ude00"};
+    for (String value : values) {
+      byte[] encoded = bytes(value);
+      assertEquals(value, UTF8.decode(encoded));
+      assertEquals(value, UTF8.decode(encoded, 0, encoded.length));
+    }
+    byte[] framed = bytes("xx\u00e9yyyyyyyyyyz");
+    assertEquals("\u00e9yyyyyyyyyy", UTF8.decode(framed, 2, framed.length - 3));
+    assertEquals("yyyyyyyyyy", UTF8.decode(framed, 4, 10));
+  }
+}
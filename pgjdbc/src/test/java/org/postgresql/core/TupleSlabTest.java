@@ -0,0 +1,139 @@
+package org.postgresql.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import io.vertx.core.buffer.Buffer;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class TupleSlabTest {
+
+  private static Buffer dataRow(String... values) {
+    Buffer message = Buffer.buffer();
+    message.appendUnsignedShort(values.length);
+    for (String value : values) {
+      if (value == null) {
+        message.appendInt(-1);
+      } else {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        message.appendInt(bytes.length).appendBytes(bytes);
+      }
+    }
+    return message;
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testAddAndRead() throws IOException {
+    TupleSlab slab = new TupleSlab();
+    assertEquals(0, slab.size());
+    assertEquals(0, slab.getColumnCount());
+
+    assertEquals(4, slab.addRow(dataRow("1", null, "abc")));
+    assertEquals(2, slab.addRow(dataRow("", "xy", null)));
+
+    assertEquals(2, slab.size());
+    assertEquals(3, slab.getColumnCount());
+
+    assertArrayEquals(bytes("abc"), slab.getValue(0, 2));
+    assertTrue(slab.isNull(0, 1));
+    assertEquals(-1, slab.getLength(0, 1));
+    assertFalse(slab.isNull(1, 0));
+    assertEquals(0, slab.getLength(1, 0));
+    assertEquals('x', slab.getData(1)[slab.getOffset(1, 1)]);
+
+    byte[][] row = slab.get(1);
+    assertArrayEquals(bytes(""), row[0]);
+    assertArrayEquals(bytes("xy"), row[1]);
+    assertNull(row[2]);
+  }
+
+  @Test
+  public void testGrow() throws IOException {
+    TupleSlab slab = new TupleSlab();
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 5000; i++) {
+      sb.setLength(0);
+      for (int j = 0; j < i % 50; j++) {
+        sb.append((char) ('a' + j % 26));
+      }
+      slab.addRow(dataRow(Integer.toString(i), sb.toString()));
+    }
+
+    assertEquals(5000, slab.size());
+    for (int i = 0; i < 5000; i++) {
+      assertArrayEquals(bytes(Integer.toString(i)), slab.getValue(i, 0));
+      assertEquals(i % 50, slab.getLength(i, 1));
+    }
+  }
+
+  @Test
+  public void testChunksAreNotCopied() throws IOException {
+    TupleSlab slab = new TupleSlab();
+    slab.addRow(dataRow("first"));
+    byte[] first = slab.getData(0);
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      sb.append('x');
+    }
+    for (int i = 0; i < 5000; i++) {
+      slab.addRow(dataRow(sb.toString()));
+    }
+    // a row larger than a chunk gets one of its own
+    sb.setLength(0);
+    for (int i = 0; i < 3 * 1024 * 1024; i++) {
+      sb.append('y');
+    }
+    slab.addRow(dataRow(sb.toString()));
+    slab.addRow(dataRow("last"));
+
+    assertSame(first, slab.getData(0));
+    assertArrayEquals(bytes("first"), slab.getValue(0, 0));
+    assertEquals(1000, slab.getLength(4321, 0));
+    assertEquals(3 * 1024 * 1024, slab.getLength(5001, 0));
+    assertEquals('y', slab.getData(5001)[slab.getOffset(5001, 0) + 3 * 1024 * 1024 - 1]);
+    assertArrayEquals(bytes("last"), slab.getValue(5002, 0));
+    assertEquals(5 + 5000 * 1000 + 3 * 1024 * 1024 + 4, slab.getDataLength());
+  }
+
+  @Test
+  public void testMalformedRowIsRejected() throws IOException {
+    TupleSlab slab = new TupleSlab();
+    slab.addRow(dataRow("1", "2"));
+
+    try {
+      slab.addRow(dataRow("1"));
+      fail("row with a different number of fields must be rejected");
+    } catch (IOException expected) {
+    }
+
+    Buffer truncated = Buffer.buffer().appendUnsignedShort(2).appendInt(1).appendByte((byte) '1')
+        .appendInt(10).appendByte((byte) '2');
+    try {
+      slab.addRow(truncated);
+      fail("field exceeding the message must be rejected");
+    } catch (IOException expected) {
+    }
+
+    assertEquals(1, slab.size());
+    assertArrayEquals(bytes("2"), slab.getValue(0, 1));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testReadOnly() throws IOException {
+    TupleSlab slab = new TupleSlab();
+    slab.addRow(dataRow("1"));
+    slab.add(new byte[][]{bytes("2")});
+  }
+}
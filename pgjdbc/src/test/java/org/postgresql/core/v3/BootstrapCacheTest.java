@@ -0,0 +1,38 @@
+package org.postgresql.core.v3;
+
+import static org.junit.Assert.assertEquals;
+
+import org.postgresql.util.HostSpec;
+
+import org.junit.Test;
+
+public class BootstrapCacheTest {
+
+  @Test
+  public void testServerVersion() {
+    HostSpec host = new HostSpec("bootstrap.invalid", 5432);
+    assertEquals(0, BootstrapCache.getServerVersionNum(host, "version"));
+
+    BootstrapCache.putServerVersionNum(host, "version", 100004);
+    assertEquals(100004, BootstrapCache.getServerVersionNum(host, "version"));
+    assertEquals(0, BootstrapCache.getServerVersionNum(host, "other"));
+    assertEquals(0, BootstrapCache.getServerVersionNum(new HostSpec("bootstrap.invalid", 5433), "version"));
+
+    // the server was replaced
+    BootstrapCache.putServerVersionNum(host, "version", 90600);
+    assertEquals(90600, BootstrapCache.getServerVersionNum(host, "version"));
+  }
+
+  @Test
+  public void testRejectedStartupSettings() {
+    HostSpec host = new HostSpec("bootstrap.invalid", 5432);
+    BootstrapCache.putServerVersionNum(host, "rejected", 100004);
+
+    BootstrapCache.rejectStartupSettings(host, "rejected");
+    assertEquals(0, BootstrapCache.getServerVersionNum(host, "rejected"));
+
+    // later connections must not send the settings again
+    BootstrapCache.putServerVersionNum(host, "rejected", 100004);
+    assertEquals(0, BootstrapCache.getServerVersionNum(host, "rejected"));
+  }
+}
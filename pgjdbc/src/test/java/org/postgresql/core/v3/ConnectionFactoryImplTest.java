@@ -0,0 +1,118 @@
+package org.postgresql.core.v3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.postgresql.PGProperty;
+import org.postgresql.core.ConnectionFactory;
+import org.postgresql.core.QueryExecutor;
+import org.postgresql.test.util.FakeServer;
+import org.postgresql.util.HostSpec;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the connection logic against {@link FakeServer}s.
+ */
+public class ConnectionFactoryImplTest {
+
+  private final List<FakeServer> servers = new ArrayList<FakeServer>();
+
+  @After
+  public void tearDown() throws Exception {
+    for (FakeServer server : servers) {
+      server.close();
+    }
+  }
+
+  private FakeServer server() throws Exception {
+    FakeServer server = new FakeServer();
+    servers.add(server);
+    return server;
+  }
+
+  private static Properties properties() {
+    Properties info = new Properties();
+    PGProperty.SSL_MODE.set(info, "disable");
+    PGProperty.PREFER_QUERY_MODE.set(info, "simple");
+    PGProperty.APPLICATION_NAME.set(info, "bootstrap");
+    return info;
+  }
+
+  private static QueryExecutor connect(Properties info, FakeServer... servers) throws Exception {
+    HostSpec[] hostSpecs = new HostSpec[servers.length];
+    for (int i = 0; i < servers.length; i++) {
+      hostSpecs[i] = servers[i].getHostSpec();
+    }
+    return ConnectionFactory.openConnection(hostSpecs, "test", "test", info).get(30, TimeUnit.SECONDS);
+  }
+
+  private static int count(List<String> queries, String prefix) {
+    int count = 0;
+    for (String query : queries) {
+      if (query.startsWith(prefix)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Test
+  public void testStartupSettingsNotCachedByDefault() throws Exception {
+    FakeServer server = server();
+    connect(properties(), server).close();
+    connect(properties(), server).close();
+
+    for (Map<String, String> startup : server.getStartups()) {
+      assertEquals("2", startup.get("extra_float_digits"));
+      assertFalse(startup.containsKey("application_name"));
+    }
+    assertEquals(2, count(server.getQueries(), "SET extra_float_digits = 3"));
+    assertEquals(2, count(server.getQueries(), "SET application_name = 'bootstrap'"));
+  }
+
+  @Test
+  public void testCachedStartupSettings() throws Exception {
+    FakeServer server = server();
+    Properties info = properties();
+    PGProperty.CACHE_SERVER_VERSION.set(info, true);
+    connect(info, server).close();
+    connect(info, server).close();
+
+    List<Map<String, String>> startups = server.getStartups();
+    assertEquals(2, startups.size());
+    assertFalse(startups.get(0).containsKey("application_name"));
+    assertEquals("3", startups.get(1).get("extra_float_digits"));
+    assertEquals("bootstrap", startups.get(1).get("application_name"));
+    // only the first connection needed a round trip
+    assertEquals(1, count(server.getQueries(), "SET extra_float_digits = 3"));
+  }
+
+  @Test
+  public void testRejectedStartupSettings() throws Exception {
+    FakeServer server = server().setRejectedParameter("application_name");
+    Properties info = properties();
+    PGProperty.CACHE_SERVER_VERSION.set(info, true);
+    connect(info, server).close();
+    // sends the cached settings, is rejected and connects again without them
+    connect(info, server).close();
+    connect(info, server).close();
+
+    List<Map<String, String>> startups = server.getStartups();
+    assertEquals(4, startups.size());
+    assertFalse(startups.get(0).containsKey("application_name"));
+    assertTrue(startups.get(1).containsKey("application_name"));
+    assertFalse(startups.get(2).containsKey("application_name"));
+    assertFalse(startups.get(3).containsKey("application_name"));
+    assertEquals(3, server.getSessions());
+    assertEquals(3, count(server.getQueries(), "SET extra_float_digits = 3"));
+  }
+}
@@ -0,0 +1,136 @@
+package org.postgresql.core.v3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.postgresql.hostchooser.GlobalHostStatusTracker;
+import org.postgresql.hostchooser.HostStatus;
+import org.postgresql.test.util.FakeServer;
+import org.postgresql.util.HostSpec;
+import org.postgresql.util.VertxHelper;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.net.NetClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the background probes of {@link HostProber} against a {@link FakeServer}.
+ */
+public class HostProberTest {
+
+  private FakeServer server;
+  private HostSpec[] hostSpecs;
+  private Vertx vertx;
+  private NetClient netClient;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new FakeServer();
+    hostSpecs = new HostSpec[]{server.getHostSpec()};
+    Properties info = new Properties();
+    vertx = VertxHelper.getVertx(info);
+    netClient = NetClients.get(vertx, info);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    server.close();
+  }
+
+  private void register(long interval) {
+    HostProber.register(hostSpecs, vertx, netClient, interval, 5000);
+  }
+
+  private static void waitFor(Callable<Boolean> condition) throws Exception {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!condition.call()) {
+      assertTrue("timed out", System.nanoTime() < deadline);
+      Thread.sleep(10);
+    }
+  }
+
+  private HostStatus status() {
+    return GlobalHostStatusTracker.getHostStatus(hostSpecs[0]);
+  }
+
+  @Test
+  public void testHostComesBack() throws Exception {
+    GlobalHostStatusTracker.reportHostStatus(hostSpecs[0], HostStatus.ConnectFail);
+    register(20);
+    waitFor(() -> status() == HostStatus.ConnectOK);
+    // a probe does not start a session
+    assertEquals(0, server.getStartups().size());
+  }
+
+  @Test
+  public void testHostGoesDown() throws Exception {
+    register(20);
+    waitFor(() -> status() == HostStatus.ConnectOK);
+    server.close();
+    waitFor(() -> status() == HostStatus.ConnectFail);
+  }
+
+  @Test
+  public void testKnownRoleIsKept() throws Exception {
+    GlobalHostStatusTracker.reportHostStatus(hostSpecs[0], HostStatus.Master);
+    register(20);
+    waitFor(() -> server.getConnections() >= 3);
+    assertEquals(HostStatus.Master, status());
+  }
+
+  @Test
+  public void testClosedVertxIsReplaced() throws Exception {
+    // a Vert.x instance whose timers fail once it is closed, like the real one does
+    boolean[] closed = new boolean[1];
+    Vertx closing = (Vertx) Proxy.newProxyInstance(Vertx.class.getClassLoader(),
+        new Class<?>[]{VertxInternal.class}, (proxy, method, args) -> {
+          if (closed[0] && method.getName().equals("setTimer")) {
+            throw new RejectedExecutionException("event executor terminated");
+          }
+          try {
+            return method.invoke(vertx, args);
+          } catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+        });
+    HostProber.register(hostSpecs, closing, netClient, 20, 5000);
+    waitFor(() -> server.getConnections() >= 1);
+    closed[0] = true;
+    // the probe cannot reschedule itself, the connections of another instance probe the host again
+    int before = server.getConnections();
+    waitFor(() -> {
+      register(20);
+      return server.getConnections() >= before + 3;
+    });
+  }
+
+  @Test
+  public void testIntervalRisesAgain() throws Exception {
+    register(20);
+    waitFor(() -> server.getConnections() >= 1);
+    // connections asking for the short interval stop, the others keep the host probed
+    long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(400);
+    while (System.nanoTime() < end) {
+      register(300);
+      Thread.sleep(50);
+    }
+    int before = server.getConnections();
+    end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(900);
+    while (System.nanoTime() < end) {
+      register(300);
+      Thread.sleep(50);
+    }
+    // about 3 probes at the long interval, rather than 45 at the short one
+    assertTrue(server.getConnections() - before <= 5);
+  }
+}
@@ -0,0 +1,106 @@
+package org.postgresql.core.v3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.postgresql.PGProperty;
+import org.postgresql.core.ConnectionFactory;
+import org.postgresql.core.QueryExecutor;
+import org.postgresql.test.util.FakeServer;
+import org.postgresql.util.HostSpec;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the connection attempts of {@link PGProperty#PARALLEL_CONNECT_DELAY} against
+ * {@link FakeServer}s.
+ */
+public class ParallelConnectTest {
+
+  private FakeServer first;
+  private FakeServer second;
+  private QueryExecutor executor;
+
+  @Before
+  public void setUp() throws Exception {
+    first = new FakeServer();
+    second = new FakeServer();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (executor != null) {
+      executor.close();
+    }
+    first.close();
+    second.close();
+  }
+
+  private QueryExecutor open(int delay, String targetServerType) throws Exception {
+    Properties info = new Properties();
+    PGProperty.SSL_MODE.set(info, "disable");
+    PGProperty.PARALLEL_CONNECT_DELAY.set(info, delay);
+    PGProperty.TARGET_SERVER_TYPE.set(info, targetServerType);
+    executor = ConnectionFactory.openConnection(
+        new HostSpec[]{first.getHostSpec(), second.getHostSpec()}, "test", "test", info)
+        .get(30, TimeUnit.SECONDS);
+    return executor;
+  }
+
+  @Test
+  public void testAttemptsAreStaggered() throws Exception {
+    first.setHang(true);
+    open(200, "any");
+
+    assertEquals(second.getHostSpec(), executor.getHostSpec());
+    long started = second.getAcceptTimes().get(0) - first.getAcceptTimes().get(0);
+    assertTrue("second attempt started after " + started + " ns",
+        started >= TimeUnit.MILLISECONDS.toNanos(150));
+    // the attempt that lost is cancelled and its socket closed
+    assertTrue(first.awaitClosed(1, 5000));
+  }
+
+  @Test
+  public void testFailedAttemptStartsTheNext() throws Exception {
+    first.close();
+    long start = System.nanoTime();
+    open(20000, "any");
+
+    assertEquals(second.getHostSpec(), executor.getHostSpec());
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+  }
+
+  @Test
+  public void testSlowerAttemptIsCancelled() throws Exception {
+    first.setStartupDelay(2000);
+    open(0, "any");
+
+    assertEquals(second.getHostSpec(), executor.getHostSpec());
+    long started = Math.abs(second.getAcceptTimes().get(0) - first.getAcceptTimes().get(0));
+    assertTrue(started < TimeUnit.MILLISECONDS.toNanos(1000));
+    assertTrue(first.awaitClosed(1, 5000));
+  }
+
+  @Test
+  public void testPreferSecondaryWaitsForTheSecondary() throws Exception {
+    second.setReadOnly(true).setStartupDelay(300);
+    open(0, "preferSecondary");
+
+    // the master answered first, but a secondary was still pending
+    assertEquals(second.getHostSpec(), executor.getHostSpec());
+    assertTrue(first.awaitClosed(1, 5000));
+  }
+
+  @Test
+  public void testPreferSecondaryFallsBackToMaster() throws Exception {
+    second.close();
+    open(0, "preferSecondary");
+
+    assertEquals(first.getHostSpec(), executor.getHostSpec());
+  }
+}
@@ -0,0 +1,234 @@
+package org.postgresql.core.v3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.postgresql.PGProperty;
+import org.postgresql.core.ConnectionFactory;
+import org.postgresql.core.Field;
+import org.postgresql.core.Query;
+import org.postgresql.core.QueryExecutor;
+import org.postgresql.core.ResultCursor;
+import org.postgresql.core.ResultHandlerBase;
+import org.postgresql.test.util.FakeServer;
+import org.postgresql.util.AsyncLock;
+import org.postgresql.util.HostSpec;
+import org.postgresql.util.PSQLState;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the pipelining of queries against a {@link FakeServer}.
+ */
+public class QueryExecutorImplTest {
+
+  private FakeServer server;
+  private QueryExecutor executor;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new FakeServer();
+    Properties info = new Properties();
+    PGProperty.PIPELINE_QUERIES.set(info, true);
+    executor = open(info);
+    // the responses are delayed, so that the requests after the first are written ahead of them
+    server.setQueryDelay(50);
+  }
+
+  private QueryExecutor open(Properties info) throws Exception {
+    PGProperty.SSL_MODE.set(info, "disable");
+    return ConnectionFactory.openConnection(new HostSpec[]{server.getHostSpec()},
+        "test", "test", info).get(30, TimeUnit.SECONDS);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (executor != null) {
+      executor.close();
+    }
+    server.close();
+  }
+
+  /**
+   * Collects the values of the single column results.
+   */
+  private static class Result extends ResultHandlerBase {
+    final List<String> values = new ArrayList<String>();
+
+    @Override
+    public void handleResultRows(Query fromQuery, Field[] fields, List<byte[][]> tuples,
+        ResultCursor cursor) {
+      for (byte[][] tuple : tuples) {
+        values.add(new String(tuple[0], StandardCharsets.UTF_8));
+      }
+    }
+  }
+
+  private CompletableFuture<Void> execute(Query query, Result result) throws Exception {
+    return executor.execute(query, null, result, 0, 0, QueryExecutor.QUERY_SUPPRESS_BEGIN);
+  }
+
+  @Test
+  public void testParseInFlightIsNotReused() throws Exception {
+    Query query = executor.createSimpleQuery("SELECT 7");
+    server.failParse("SELECT 7");
+    Result first = new Result();
+    Result second = new Result();
+    CompletableFuture<Void> failed = execute(query, first);
+    // must not bind the statement the first request is still parsing
+    CompletableFuture<Void> succeeded = execute(query, second);
+
+    try {
+      failed.get(30, TimeUnit.SECONDS);
+    } catch (Exception expected) {
+    }
+    assertEquals("42601", first.getException().getSQLState());
+    succeeded.get(30, TimeUnit.SECONDS);
+    assertEquals("[7]", second.values.toString());
+  }
+
+  @Test
+  public void testTransactionControlIsNotPipelined() throws Exception {
+    Result select = new Result();
+    CompletableFuture<Void> first = execute(executor.createSimpleQuery("SELECT 1"), select);
+    CompletableFuture<Void> begin = execute(executor.createSimpleQuery("BEGIN"), new Result());
+    CompletableFuture<Void> last = execute(executor.createSimpleQuery("SELECT 2"), new Result());
+
+    first.get(30, TimeUnit.SECONDS);
+    begin.get(30, TimeUnit.SECONDS);
+    last.get(30, TimeUnit.SECONDS);
+    assertEquals("[1]", select.values.toString());
+    // BEGIN waits for the SELECT before it, and the SELECT after it for the BEGIN
+    assertEquals(0, server.getPipelinedSyncs());
+    assertTrue(server.getQueries().containsAll(Arrays.asList("SELECT 1", "BEGIN", "SELECT 2")));
+  }
+
+  @Test
+  public void testEachCallerGetsItsOwnResult() throws Exception {
+    List<Result> results = new ArrayList<Result>();
+    List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>();
+    for (String sql : Arrays.asList("SELECT 1", "SELECT 2", "SELECT 1/0", "SELECT 4", "SELECT 5")) {
+      Result result = new Result();
+      results.add(result);
+      futures.add(execute(executor.createSimpleQuery(sql), result));
+    }
+
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        futures.get(i).get(30, TimeUnit.SECONDS);
+        assertTrue("SELECT 1/0 succeeded", i != 2);
+      } catch (ExecutionException e) {
+        assertEquals(2, i);
+      }
+    }
+    assertEquals("[1]", results.get(0).values.toString());
+    assertEquals("[2]", results.get(1).values.toString());
+    assertEquals("22012", results.get(2).getException().getSQLState());
+    assertEquals("[4]", results.get(3).values.toString());
+    assertEquals("[5]", results.get(4).values.toString());
+    for (int i : new int[]{0, 1, 3, 4}) {
+      assertNull(results.get(i).getException());
+    }
+    assertTrue(server.getPipelinedSyncs() > 0);
+  }
+
+  @Test
+  public void testConnectionLostInPipeline() throws Exception {
+    List<Result> results = new ArrayList<Result>();
+    List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>();
+    for (String sql : Arrays.asList("SELECT 1", "SELECT pg_terminate_backend(pg_backend_pid())",
+        "SELECT 3")) {
+      Result result = new Result();
+      results.add(result);
+      futures.add(execute(executor.createSimpleQuery(sql), result));
+    }
+
+    futures.get(0).get(30, TimeUnit.SECONDS);
+    assertEquals("[1]", results.get(0).values.toString());
+    for (int i = 1; i < futures.size(); i++) {
+      try {
+        futures.get(i).get(30, TimeUnit.SECONDS);
+        fail("the connection was terminated");
+      } catch (ExecutionException e) {
+        assertTrue(e.getCause() instanceof SQLException);
+      }
+    }
+    assertEquals(PSQLState.CONNECTION_FAILURE.getState(), results.get(2).getException().getSQLState());
+    assertTrue(executor.isClosed());
+  }
+
+  @Test
+  public void testConnectionLockTimeout() throws Exception {
+    executor.close();
+    Properties info = new Properties();
+    PGProperty.CONNECTION_LOCK_TIMEOUT.set(info, 100);
+    executor = open(info);
+    server.setQueryDelay(500);
+
+    Result first = new Result();
+    Result second = new Result();
+    CompletableFuture<Void> holding = execute(executor.createSimpleQuery("SELECT 1"), first);
+    CompletableFuture<Void> waiting = execute(executor.createSimpleQuery("SELECT 2"), second);
+    try {
+      waiting.get(30, TimeUnit.SECONDS);
+      fail("the connection was busy for longer than the lock timeout");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof SQLException);
+      assertEquals(PSQLState.QUERY_CANCELED.getState(), ((SQLException) e.getCause()).getSQLState());
+    }
+    assertFalse(holding.isDone());
+
+    holding.get(30, TimeUnit.SECONDS);
+    assertEquals("[1]", first.values.toString());
+    assertFalse(server.getQueries().contains("SELECT 2"));
+  }
+
+  @Test
+  public void testConnectionLockStatistics() throws Exception {
+    executor.close();
+    Properties info = new Properties();
+    PGProperty.CONNECTION_LOCK_TIMEOUT.set(info, 600);
+    executor = open(info);
+    server.setQueryDelay(400);
+    AsyncLock.Statistics before = executor.getConnectionLockStatistics();
+
+    // the second request waits for the first, the third for both and gives up
+    CompletableFuture<Void> first = execute(executor.createSimpleQuery("SELECT 1"), new Result());
+    CompletableFuture<Void> second = execute(executor.createSimpleQuery("SELECT 2"), new Result());
+    CompletableFuture<Void> third = execute(executor.createSimpleQuery("SELECT 3"), new Result());
+    first.get(30, TimeUnit.SECONDS);
+    second.get(30, TimeUnit.SECONDS);
+    try {
+      third.get(30, TimeUnit.SECONDS);
+      fail("the third request waited for longer than the lock timeout");
+    } catch (ExecutionException e) {
+      assertEquals(PSQLState.QUERY_CANCELED.getState(), ((SQLException) e.getCause()).getSQLState());
+    }
+
+    AsyncLock.Statistics after = executor.getConnectionLockStatistics();
+    assertEquals(2, after.getAcquisitions() - before.getAcquisitions());
+    assertEquals(1, after.getContendedAcquisitions() - before.getContendedAcquisitions());
+    assertEquals(1, after.getTimeouts() - before.getTimeouts());
+    assertEquals(0, after.getCancellations() - before.getCancellations());
+    assertEquals(0, after.getQueueLength());
+    assertEquals(2, after.getMaxQueueLength());
+    assertTrue(after.toString(), after.getMaxWaitTime(TimeUnit.MILLISECONDS) >= 300);
+    assertTrue(after.getTotalWaitTime(TimeUnit.MILLISECONDS)
+        >= after.getMaxWaitTime(TimeUnit.MILLISECONDS));
+  }
+}
@@ -7,10 +7,13 @@ package org.postgresql.core.v3;
 
 import static org.junit.Assert.assertEquals;
 
+import org.postgresql.core.Oid;
+
 import org.junit.Before;
 import org.junit.Test;
 
 import java.sql.SQLException;
+import java.util.UUID;
 
 /**
  * Test cases to make sure the parameterlist implementation works as expected.
@@ -62,4 +65,30 @@ public class V3ParameterListTests {
         "Expected string representation of values does not match outcome.",
         "<[1 ,2 ,3 ,4 ,5 ,6 ,7 ,8]>", s1SPL.toString());
   }
+
+  /**
+   * Test the parameters held in primitives, which have no array until they are sent.
+   *
+   * @throws SQLException
+   *           raised exception if setting parameter fails.
+   */
+  @Test
+  public void testPrimitiveParameters() throws SQLException {
+    SimpleParameterList list = new SimpleParameterList(6, transferModeRegistry);
+    list.setPrimitiveParameter(1, -2, Oid.INT2);
+    list.setPrimitiveParameter(2, Long.MAX_VALUE, Oid.INT8);
+    list.setPrimitiveParameter(3, Double.doubleToRawLongBits(1.5), Oid.FLOAT8);
+    list.setPrimitiveParameter(4, Float.floatToRawIntBits(0.25f), Oid.FLOAT4);
+    list.setPrimitiveParameter(5, 1, Oid.BOOL);
+    list.setUuidParameter(6, new UUID(1, 2));
+
+    int[] lengths = {2, 8, 8, 4, 1, 16};
+    for (int i = 0; i < lengths.length; i++) {
+      assertEquals(lengths[i], list.getV3Length(i + 1));
+      assertEquals(true, list.isBinary(i + 1));
+    }
+    String expected = "<[-2 ," + Long.MAX_VALUE + " ,1.5 ,0.25 ,TRUE ,'" + new UUID(1, 2) + "'::uuid]>";
+    assertEquals(expected, list.toString());
+    assertEquals(expected, list.copy().toString());
+  }
 }
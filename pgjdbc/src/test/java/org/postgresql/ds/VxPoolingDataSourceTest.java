@@ -0,0 +1,135 @@
+package org.postgresql.ds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.postgresql.VxDriver;
+import org.postgresql.jdbc.VxConnection;
+import org.postgresql.test.util.FakeServer;
+import org.postgresql.util.PSQLState;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests {@link VxPoolingDataSource} against a {@link FakeServer}.
+ */
+public class VxPoolingDataSourceTest {
+
+  private FakeServer server;
+  private VxPoolingDataSource pool;
+
+  @AfterClass
+  public static void deregisterDriver() throws Exception {
+    // loading VxDriver registers it, and its connect() would fail the DriverManager based tests
+    if (VxDriver.isRegistered()) {
+      VxDriver.deregister();
+    }
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    server = new FakeServer();
+    pool = new VxPoolingDataSource();
+    pool.setServerName("127.0.0.1");
+    pool.setPortNumber(server.getHostSpec().getPort());
+    pool.setDatabaseName("test");
+    pool.setUser("test");
+    pool.setSslMode("disable");
+    pool.setMaxConnections(1);
+    pool.setAcquireTimeout(5000);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    pool.close();
+    server.close();
+  }
+
+  private static VxConnection get(CompletableFuture<VxConnection> future) throws Exception {
+    return future.get(30, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void testAcquireTimeout() throws Exception {
+    pool.setAcquireTimeout(200);
+    get(pool.acquire());
+    long start = System.nanoTime();
+    try {
+      get(pool.acquire());
+      fail("the only connection is borrowed");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof SQLException);
+      assertEquals(PSQLState.CONNECTION_UNABLE_TO_CONNECT.getState(),
+          ((SQLException) e.getCause()).getSQLState());
+    }
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+    assertEquals(0, pool.getPendingAcquires());
+  }
+
+  @Test
+  public void testWaitersAreServedInOrder() throws Exception {
+    VxConnection connection = get(pool.acquire());
+    CompletableFuture<VxConnection> first = pool.acquire();
+    CompletableFuture<VxConnection> second = pool.acquire();
+    CompletableFuture<VxConnection> third = pool.acquire();
+    assertEquals(3, pool.getPendingAcquires());
+
+    pool.release(connection).get(30, TimeUnit.SECONDS);
+    assertSame(connection, get(first));
+    assertFalse(second.isDone());
+    pool.release(connection).get(30, TimeUnit.SECONDS);
+    assertSame(connection, get(second));
+    assertFalse(third.isDone());
+    pool.release(connection).get(30, TimeUnit.SECONDS);
+    assertSame(connection, get(third));
+    assertEquals(1, pool.getTotalConnections());
+  }
+
+  @Test
+  public void testInvalidConnectionIsEvicted() throws Exception {
+    pool.setValidationInterval(0);
+    VxConnection connection = get(pool.acquire());
+    pool.release(connection).get(30, TimeUnit.SECONDS);
+    // the validation query is an empty statement
+    server.failParse("");
+
+    CompletableFuture<VxConnection> validating = pool.acquire();
+    // arrives while the first acquire validates the idle connection
+    CompletableFuture<VxConnection> later = pool.acquire();
+    VxConnection replacement = get(validating);
+    assertNotSame(connection, replacement);
+    assertTrue(connection.isClosed());
+    // the first acquire kept its place at the head of the queue
+    assertFalse(later.isDone());
+    assertEquals(1, pool.getTotalConnections());
+
+    pool.release(replacement).get(30, TimeUnit.SECONDS);
+    assertSame(replacement, get(later));
+  }
+
+  @Test
+  public void testCloseInsteadOfRelease() throws Exception {
+    VxConnection connection = get(pool.acquire());
+    connection.close();
+    assertEquals(0, pool.getTotalConnections());
+
+    VxConnection replacement = get(pool.acquire());
+    assertNotSame(connection, replacement);
+    assertEquals(1, pool.getTotalConnections());
+    // releasing it afterwards is harmless
+    pool.release(connection).get(30, TimeUnit.SECONDS);
+    assertEquals(1, pool.getTotalConnections());
+  }
+}
@@ -0,0 +1,67 @@
+package org.postgresql.hostchooser;
+
+import static org.junit.Assert.assertEquals;
+
+import org.postgresql.util.HostSpec;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+public class LoadBalanceStrategyTest {
+
+  private static HostSpec host(String name, int inFlight, long latency) {
+    HostSpec hostSpec = new HostSpec(name + ".loadbalance.invalid", 5432);
+    HostLoad load = GlobalHostStatusTracker.getHostLoad(hostSpec);
+    for (int i = 0; i < inFlight; i++) {
+      load.requestStarted();
+    }
+    load.requestStarted();
+    load.requestFinished(latency);
+    return hostSpec;
+  }
+
+  @Test
+  public void testLeastOutstanding() {
+    HostSpec busy = host("busy", 5, 1000);
+    HostSpec idle = host("idle", 0, 5000);
+    HostSpec slow = host("slow", 1, 9000);
+    HostSpec fast = host("fast", 1, 1000);
+
+    for (int i = 0; i < 10; i++) {
+      List<HostSpec> hosts = new ArrayList<HostSpec>(Arrays.asList(busy, slow, fast, idle));
+      LoadBalanceStrategy.leastOutstanding.order(hosts);
+      assertEquals(Arrays.asList(idle, fast, slow, busy), hosts);
+    }
+  }
+
+  @Test
+  public void testPowerOfTwoChoicesPrefersCheaperHost() {
+    HostSpec loaded = host("loaded", 3, 2000);
+    HostSpec light = host("light", 0, 2000);
+
+    for (int i = 0; i < 10; i++) {
+      List<HostSpec> hosts = new ArrayList<HostSpec>(Arrays.asList(loaded, light));
+      LoadBalanceStrategy.powerOfTwoChoices.order(hosts);
+      assertEquals(Arrays.asList(light, loaded), hosts);
+    }
+  }
+
+  @Test
+  public void testEveryHostIsKept() {
+    List<HostSpec> all = new ArrayList<HostSpec>();
+    for (int i = 0; i < 8; i++) {
+      all.add(host("node" + i, i % 3, 1000 * (i + 1)));
+    }
+
+    for (LoadBalanceStrategy strategy : LoadBalanceStrategy.values()) {
+      List<HostSpec> hosts = new ArrayList<HostSpec>(all);
+      strategy.order(hosts);
+      assertEquals(all.size(), hosts.size());
+      assertEquals(new HashSet<HostSpec>(all), new HashSet<HostSpec>(hosts));
+    }
+  }
+}
@@ -0,0 +1,276 @@
+package org.postgresql.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.postgresql.core.Provider;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.PSQLState;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.zone.ZoneRulesProvider;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Random;
+import java.util.SimpleTimeZone;
+import java.util.TimeZone;
+
+/**
+ * Checks the conversions of {@link TimestampUtils} for random values, biased towards daylight
+ * saving transitions, the Julian calendar and BC dates, in time zones with unusual offsets and
+ * rules. The expected results in {@code timestamp-conversions.txt} were computed once by the
+ * {@link Calendar} based implementation that {@link TimestampUtils} replaced.
+ * <p>
+ * The results in zones with rules depend on the time zone database of the JDK, they are only
+ * checked when its version is the one the table was computed with.
+ */
+public class TimestampUtilsTest {
+
+  private static final String[] ZONES = {"UTC", "GMT+03:00", "GMT-05:30", "Europe/Berlin",
+      "America/New_York", "Europe/Moscow", "Asia/Kolkata", "Australia/Lord_Howe",
+      "America/Sao_Paulo", "Pacific/Apia", "America/St_Johns", "Asia/Kathmandu",
+      "Africa/Casablanca", "CUSTOM"};
+  private static final List<String> FIXED_ZONES =
+      Arrays.asList("UTC", "GMT+03:00", "GMT-05:30", "CUSTOM");
+  private static final int VALUES_PER_ZONE = 20;
+
+  private TimeZone defaultTimeZone;
+  private final List<String> mismatches = new ArrayList<String>();
+  private BufferedReader table;
+  private boolean sameTimeZoneRules;
+
+  @Before
+  public void saveDefaultTimeZone() {
+    defaultTimeZone = TimeZone.getDefault();
+  }
+
+  @After
+  public void restoreDefaultTimeZone() {
+    TimeZone.setDefault(defaultTimeZone);
+  }
+
+  private interface Conversion {
+    Object convert() throws Exception;
+  }
+
+  /**
+   * @return the result as it is written in the table, the exact value and class of dates
+   */
+  private static String result(Conversion conversion) {
+    Object value;
+    try {
+      value = conversion.convert();
+    } catch (Exception e) {
+      return "throws " + e.getClass().getSimpleName();
+    }
+    if (value instanceof Timestamp) {
+      return "Timestamp " + ((Timestamp) value).getTime() + " " + ((Timestamp) value).getNanos();
+    }
+    if (value instanceof java.util.Date) {
+      return value.getClass().getSimpleName() + " " + ((java.util.Date) value).getTime();
+    }
+    return value == null ? "null" : value.getClass().getSimpleName() + " " + value;
+  }
+
+  private void check(String zone, String what, Conversion actual) throws IOException {
+    String line;
+    do {
+      line = table.readLine();
+      assertNotNull("the table ends before " + what, line);
+    } while (line.startsWith("#"));
+    String[] columns = line.split("\t", 3);
+    assertEquals("the table was computed for other values",
+        zone + "\t" + what.substring(0, what.indexOf(' ')), columns[0] + "\t" + columns[1]);
+    if (!sameTimeZoneRules && !FIXED_ZONES.contains(zone)) {
+      return;
+    }
+    String actualResult = result(actual);
+    if (!columns[2].equals(actualResult) && mismatches.size() < 20) {
+      mismatches.add(what + " " + zone + ": expected " + columns[2] + " but was " + actualResult);
+    }
+  }
+
+  private static String twoDigits(int value) {
+    return value < 10 ? "0" + value : Integer.toString(value);
+  }
+
+  private static byte[] int8(long value) {
+    byte[] bytes = new byte[8];
+    for (int i = 0; i < 8; i++) {
+      bytes[i] = (byte) (value >>> (56 - 8 * i));
+    }
+    return bytes;
+  }
+
+  private static byte[] int4(int value) {
+    byte[] bytes = new byte[4];
+    for (int i = 0; i < 4; i++) {
+      bytes[i] = (byte) (value >>> (24 - 8 * i));
+    }
+    return bytes;
+  }
+
+  @Test
+  public void testMatchesCalendarImplementation() throws IOException {
+    table = new BufferedReader(new InputStreamReader(
+        getClass().getResourceAsStream("timestamp-conversions.txt"), StandardCharsets.UTF_8));
+    String header = table.readLine();
+    assertTrue(header, header.startsWith("# tzdata "));
+    sameTimeZoneRules = header.substring("# tzdata ".length())
+        .equals(ZoneRulesProvider.getVersions("UTC").lastKey());
+
+    Random random = new Random(42);
+    for (String zone : ZONES) {
+      TimeZone tz = zone.equals("CUSTOM")
+          ? new SimpleTimeZone(3600000, "Custom", Calendar.MARCH, -1, Calendar.SUNDAY, 3600000,
+              Calendar.OCTOBER, -1, Calendar.SUNDAY, 3600000, 3600000)
+          : TimeZone.getTimeZone(zone);
+      TimeZone.setDefault(tz);
+      for (boolean usesDouble : new boolean[]{false, true}) {
+        Provider<TimeZone> provider = () -> tz;
+        checkZone(random, zone, tz, new TimestampUtils(usesDouble, provider), usesDouble);
+      }
+    }
+    table.close();
+    if (!mismatches.isEmpty()) {
+      fail(String.join("\n", mismatches));
+    }
+  }
+
+  private void checkZone(Random random, String zone, TimeZone tz, TimestampUtils utils,
+      boolean usesDouble) throws IOException {
+    for (int i = 0; i < VALUES_PER_ZONE; i++) {
+      Calendar cal = random.nextBoolean() ? null : new GregorianCalendar(tz);
+      TimeZone calTz = cal == null ? null : tz;
+
+      // text values
+      int year = random.nextInt(10) == 0 ? 1 + random.nextInt(1600) : 1850 + random.nextInt(250);
+      boolean bc = random.nextInt(50) == 0;
+      int month = 1 + random.nextInt(12);
+      int day = 1 + random.nextInt(28);
+      int hour = random.nextInt(50) == 0 ? 24 : random.nextInt(24);
+      if (random.nextInt(4) == 0) {
+        // around the daylight saving transitions
+        hour = random.nextInt(5);
+      }
+      int minute = random.nextInt(60);
+      int second = random.nextInt(60);
+      String fraction = random.nextBoolean() ? "" : "." + (100000 + random.nextInt(900000));
+      String offset = "";
+      int offsetKind = random.nextInt(4);
+      if (offsetKind == 1) {
+        offset = (random.nextBoolean() ? "+" : "-") + twoDigits(random.nextInt(15));
+      } else if (offsetKind == 2) {
+        offset = (random.nextBoolean() ? "+" : "-") + twoDigits(random.nextInt(15)) + ":"
+            + twoDigits(random.nextInt(4) * 15);
+      } else if (offsetKind == 3) {
+        offset = "+05:53:28";
+      }
+      String date = (year < 1000 ? String.format("%04d", year) : Integer.toString(year)) + "-"
+          + twoDigits(month) + "-" + twoDigits(day);
+      String time = twoDigits(hour) + ":" + twoDigits(minute) + ":" + twoDigits(second) + fraction
+          + offset;
+      String ts = date + " " + time + (bc ? " BC" : "");
+      String dateOnly = date + (bc ? " BC" : "");
+
+      check(zone, "toTimestamp " + ts, () -> utils.toTimestamp(cal, ts));
+      check(zone, "toDate " + ts, () -> utils.toDate(cal, ts));
+      check(zone, "toTime " + ts, () -> utils.toTime(cal, ts));
+      check(zone, "toTime " + time, () -> utils.toTime(cal, time));
+      check(zone, "toDate " + dateOnly, () -> utils.toDate(cal, dateOnly));
+      if (!bc) {
+        check(zone, "toLocalDateTime " + ts, () -> utils.toLocalDateTime(ts));
+        if (year >= 1583 && hour < 24 && offsetKind != 0) {
+          check(zone, "toOffsetDateTime " + ts, () -> utils.toOffsetDateTime(ts));
+        }
+      }
+
+      // points in time
+      long randomMillis = (long) (random.nextDouble() * 8e12 - 6e12);
+      if (random.nextInt(4) == 0) {
+        randomMillis = (long) (random.nextDouble() * 1e11 - 1e10);
+      }
+      if (random.nextInt(10) == 0) {
+        // before 0001-01-01
+        randomMillis = -62135596800000L - (long) (random.nextDouble() * 1e12);
+      }
+      long millis = randomMillis;
+      Timestamp timestamp = new Timestamp(millis);
+      timestamp.setNanos(random.nextInt(1000000000));
+      boolean withTimeZone = random.nextBoolean();
+      check(zone, "toString(Timestamp) " + millis,
+          () -> utils.toString(cal, timestamp, withTimeZone));
+      check(zone, "toString(Date) " + millis,
+          () -> utils.toString(cal, new Date(millis), withTimeZone));
+      check(zone, "toString(Time) " + millis,
+          () -> utils.toString(cal, new Time(millis), withTimeZone));
+      check(zone, "timeToString " + millis, () -> utils.timeToString(timestamp, withTimeZone));
+      check(zone, "timeToString(Time) " + millis,
+          () -> utils.timeToString(new Time(millis), withTimeZone));
+      check(zone, "convertToDate " + millis, () -> utils.convertToDate(millis, calTz));
+      check(zone, "convertToTime " + millis, () -> utils.convertToTime(millis, calTz));
+
+      // binary values
+      byte[] timestampBytes = int8(usesDouble
+          ? Double.doubleToLongBits(millis / 1000.0 - 946684800.0)
+          : millis * 1000 + random.nextInt(1000) - 946684800000000L);
+      check(zone, "toTimestampBin " + millis,
+          () -> utils.toTimestampBin(tz, timestampBytes, false));
+      check(zone, "toTimestampBin(timestamptz) " + millis,
+          () -> utils.toTimestampBin(tz, timestampBytes, true));
+      check(zone, "toLocalDateTimeBin " + millis,
+          () -> utils.toLocalDateTimeBin(tz, timestampBytes));
+      if (millis >= -12212553600000L) {
+        check(zone, "toOffsetDateTimeBin " + millis,
+            () -> utils.toOffsetDateTimeBin(timestampBytes));
+      }
+      int days = (int) Math.floorDiv(millis, 86400000L) - 10957;
+      byte[] dateBytes = int4(days);
+      check(zone, "toDateBin " + days, () -> utils.toDateBin(calTz, dateBytes));
+      long micros = (long) random.nextInt(86400) * 1000000 + random.nextInt(1000000);
+      byte[] timeBytes = int8(usesDouble ? Double.doubleToLongBits(micros / 1e6) : micros);
+      check(zone, "toTimeBin " + micros, () -> utils.toTimeBin(calTz, timeBytes));
+      check(zone, "toBinDate " + millis, () -> utils.toBinDate(tz, new Date(millis)));
+    }
+  }
+
+  @Test
+  public void testMonthOutOfRange() {
+    TimestampUtils utils = new TimestampUtils(false, () -> TimeZone.getTimeZone("UTC"));
+    try {
+      utils.toTimestamp(null, "2000-13-01 00:00:00");
+      fail("there is no 13th month");
+    } catch (Exception e) {
+      assertTrue(e.getClass().getName(), e instanceof PSQLException);
+      assertEquals(PSQLState.BAD_DATETIME_FORMAT.getState(), ((PSQLException) e).getSQLState());
+    }
+  }
+
+  @Test
+  public void testSharedCalendarOfDefaultTimeZone() {
+    TimeZone.setDefault(TimeZone.getTimeZone("Europe/Berlin"));
+    TimestampUtils utils = new TimestampUtils(false, TimeZone::getDefault);
+    Calendar calendar = utils.getSharedCalendar(null);
+    assertEquals("Europe/Berlin", calendar.getTimeZone().getID());
+    // also without the fast path to the default time zone, which returns a new clone every time
+    assertTrue(calendar == utils.getSharedCalendar(null));
+
+    TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kolkata"));
+    assertEquals("Asia/Kolkata", utils.getSharedCalendar(null).getTimeZone().getID());
+  }
+}
@@ -0,0 +1,125 @@
+package org.postgresql.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.postgresql.core.Oid;
+import org.postgresql.util.HostSpec;
+import org.postgresql.util.ServerErrorMessage;
+
+import org.junit.Test;
+
+import java.sql.Types;
+
+public class TypeRegistryTest {
+
+  private static final HostSpec HOST = new HostSpec("typeregistry.invalid", 5432);
+
+  @Test
+  public void testOidMap() {
+    TypeRegistry.OidMap<String> map = new TypeRegistry.OidMap<String>();
+    for (int oid = 0; oid < 1000; oid += 7) {
+      map.put(oid, "t" + oid);
+    }
+    map.put(-1, "negative");
+    for (int oid = 0; oid < 1000; oid++) {
+      assertEquals(oid % 7 == 0 ? "t" + oid : null, map.get(oid));
+    }
+    assertEquals("negative", map.get(-1));
+
+    map.put(14, "replaced");
+    assertEquals("replaced", map.get(14));
+
+    TypeRegistry.OidMap<Boolean> keep = new TypeRegistry.OidMap<Boolean>();
+    keep.put(21, Boolean.TRUE);
+    keep.put(22, Boolean.TRUE);
+    map.retainAll(keep);
+    assertNull(map.get(14));
+    assertNull(map.get(-1));
+    assertEquals("t21", map.get(21));
+    assertNull(map.get(22));
+
+    map.put(14, "again");
+    assertEquals("again", map.get(14));
+    assertEquals("t21", map.get(21));
+  }
+
+  @Test
+  public void testSharedByScope() {
+    TypeRegistry registry = TypeRegistry.forServer(HOST, "db", 100000);
+    assertSame(registry, TypeRegistry.forServer(HOST, "db", 100000));
+    assertNotSame(registry, TypeRegistry.forServer(HOST, "db", 90600));
+    assertNotSame(registry, TypeRegistry.forServer(HOST, "other", 100000));
+  }
+
+  @Test
+  public void testInvalidatedOnStaleType() {
+    TypeRegistry registry = TypeRegistry.forServer(HOST, "stale", 100000);
+    registry.putOid("mood", 16385);
+    registry.putPGType(16385, "mood");
+
+    TypeRegistry.errorReceived(HOST, "stale", new ServerErrorMessage("SERROR\0C42P01\0Mrelation does not exist\0"));
+    assertEquals(Integer.valueOf(16385), registry.getOid("mood"));
+
+    TypeRegistry.errorReceived(HOST, "stale", new ServerErrorMessage("SERROR\0C42704\0Mtype \"mood\" does not exist\0"));
+    assertNull(registry.getOid("mood"));
+    assertNull(registry.getPGType(16385));
+  }
+
+  @Test
+  public void testCoreTypesSurviveClear() throws Exception {
+    TypeRegistry registry = TypeRegistry.forServer(HOST, "core", 100000);
+    // no connection, a lookup that reaches the catalog fails
+    TypeInfoCache types = new TypeInfoCache(null, 0, registry);
+    registry.putOid("mood", 16385);
+    registry.putPGType(16385, "mood");
+    registry.putSQLType("mood", Types.VARCHAR);
+
+    TypeRegistry.errorReceived(HOST, "core", new ServerErrorMessage("SERROR\0C42704\0Mtype \"mood\" does not exist\0"));
+    assertNull(registry.getOid("mood"));
+    assertNull(registry.getSQLType("mood"));
+    assertNull(registry.getPGType(16385));
+
+    assertEquals(Integer.valueOf(Types.INTEGER), types.getSQLType("int4"));
+    assertEquals(Integer.valueOf(Types.ARRAY), types.getSQLType("_int4"));
+    assertEquals(Integer.valueOf(Oid.INT4), types.getPGType("int4"));
+    assertEquals("int4", types.getPGType(Oid.INT4));
+    assertEquals(Integer.valueOf(Oid.INT4), registry.getArrayElement(Oid.INT4_ARRAY));
+    assertEquals(Character.valueOf(','), registry.getArrayDelimiter(Oid.INT4));
+  }
+
+  @Test
+  public void testQualifiedNames() {
+    assertTrue(TypeRegistry.isQualified("tenant_a.status"));
+    assertTrue(TypeRegistry.isQualified("\"Tenant\".\"Status\""));
+    assertTrue(TypeRegistry.isQualified("\"Tenant\".status"));
+    assertTrue(TypeRegistry.isQualified("tenant_a.status[]"));
+    assertFalse(TypeRegistry.isQualified("status"));
+    assertFalse(TypeRegistry.isQualified("status[]"));
+    assertFalse(TypeRegistry.isQualified("\"Status\""));
+    assertFalse(TypeRegistry.isQualified("\"a.b\""));
+  }
+
+  @Test
+  public void testUnqualifiedNamesAreNotShared() throws Exception {
+    TypeRegistry registry = TypeRegistry.forServer(HOST, "tenants", 100000);
+    // no connection, a lookup that reaches the catalog fails
+    TypeInfoCache tenantA = new TypeInfoCache(null, 0, registry);
+    TypeInfoCache tenantB = new TypeInfoCache(null, 0, registry);
+    tenantA.addCoreType("tenant_a.status", 16385, Types.VARCHAR, "java.lang.String", 16384);
+    tenantA.addCoreType("status", 16385, Types.VARCHAR, "java.lang.String", 16384);
+
+    assertEquals(Integer.valueOf(16385), tenantA.getPGType("status"));
+    assertEquals("status", tenantA.getPGType(16385));
+    // the search path of another connection may resolve the name to another type
+    assertNull(registry.getOid("status"));
+    assertNull(registry.getPGType(16385));
+    // what does not depend on the search path is shared
+    assertEquals(Integer.valueOf(16385), tenantB.getPGType("tenant_a.status"));
+    assertEquals(Integer.valueOf(16385), tenantB.getPGArrayElement(16384));
+  }
+}
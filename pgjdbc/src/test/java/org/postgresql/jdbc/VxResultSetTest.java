@@ -0,0 +1,166 @@
+package org.postgresql.jdbc;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.postgresql.VxDriver;
+import org.postgresql.test.util.FakeServer;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the reading of values against a {@link FakeServer}, where rows are read in place from
+ * the slab they were received into, and the fetching of pages ahead of the current one.
+ */
+public class VxResultSetTest {
+
+  private static final int FETCH_SIZE = 10;
+  private static final int PREFETCH_PAGES = 3;
+
+  private FakeServer server;
+  private VxConnection conn;
+
+  @AfterClass
+  public static void deregisterDriver() throws Exception {
+    // loading VxDriver registers it, and its connect() would fail the DriverManager based tests
+    if (VxDriver.isRegistered()) {
+      VxDriver.deregister();
+    }
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    server = new FakeServer();
+  }
+
+  private void connect(String parameters) throws Exception {
+    String url = "jdbc:postgresql://127.0.0.1:" + server.getHostSpec().getPort()
+        + "/test?sslmode=disable" + parameters;
+    Properties props = new Properties();
+    props.setProperty("user", "test");
+    conn = VxDriver.makeConnection(url, VxDriver.parseURL(url, props)).get(30, TimeUnit.SECONDS);
+  }
+
+  private VxResultSet series(int rows) throws Exception {
+    return series(rows, "");
+  }
+
+  private VxResultSet series(int rows, String parameters) throws Exception {
+    connect("&prefetchPages=" + PREFETCH_PAGES + parameters);
+    // cursors need a transaction, otherwise the whole result is read at once
+    conn.setAutoCommit(false).get(30, TimeUnit.SECONDS);
+    VxStatement stmt = conn.createStatement();
+    stmt.setFetchSize(FETCH_SIZE);
+    return stmt.executeQuery("SELECT generate_series(1, " + rows + ")").get(30, TimeUnit.SECONDS);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (conn != null) {
+      conn.close();
+    }
+    server.close();
+  }
+
+  @Test
+  public void testReadInPlace() throws Exception {
+    connect("");
+    VxResultSet rs = conn.createStatement().executeQuery("SELECT -42").get(30, TimeUnit.SECONDS);
+    assertTrue(rs.next().get(30, TimeUnit.SECONDS));
+    assertEquals("-42", rs.getString(1).get());
+    assertFalse(rs.wasNull());
+    assertEquals(-42, (int) rs.getInt(1).get());
+    assertEquals(-42L, (long) rs.getLong(1).get());
+    assertEquals(new BigDecimal("-42"), rs.getBigDecimal(1).get());
+    assertEquals(-42.0, rs.getDouble(1).get(), 0);
+    assertArrayEquals("-42".getBytes(StandardCharsets.UTF_8), rs.getBytes(1));
+    assertFalse(rs.next().get(30, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testPrefetchReturnsAllRowsInOrder() throws Exception {
+    server.setQueryDelay(20);
+    VxResultSet rs = series(95);
+    for (int i = 1; i <= 95; i++) {
+      assertTrue(rs.next().get(30, TimeUnit.SECONDS));
+      assertEquals(i, (int) rs.getInt(1).get());
+    }
+    assertFalse(rs.next().get(30, TimeUnit.SECONDS));
+    // the pages were requested before the ones ahead of them had arrived
+    assertTrue(server.getPipelinedSyncs() > 0);
+  }
+
+  @Test
+  public void testPrefetchFailureReachesNext() throws Exception {
+    server.setFailAtRow(35);
+    VxResultSet rs = series(95);
+    for (int i = 1; i <= 30; i++) {
+      assertTrue(rs.next().get(30, TimeUnit.SECONDS));
+      assertEquals(i, (int) rs.getInt(1).get());
+    }
+    try {
+      // throws right away if the page has already failed
+      rs.next().get(30, TimeUnit.SECONDS);
+      fail("the page of row 35 failed");
+    } catch (SQLException e) {
+      assertEquals("XX000", e.getSQLState());
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof SQLException);
+      assertEquals("XX000", ((SQLException) e.getCause()).getSQLState());
+    }
+  }
+
+  @Test
+  public void testCloseWithFetchesInFlight() throws Exception {
+    server.setQueryDelay(50);
+    VxResultSet rs = series(1000);
+    assertTrue(rs.next().get(30, TimeUnit.SECONDS));
+    rs.close();
+
+    // the pages in flight are drained, and the connection is still usable
+    VxResultSet other = conn.createStatement().executeQuery("SELECT 5").get(30, TimeUnit.SECONDS);
+    assertTrue(other.next().get(30, TimeUnit.SECONDS));
+    assertEquals(5, (int) other.getInt(1).get());
+    // no more than the pages fetched ahead before the close
+    assertTrue(fetches() <= 1 + PREFETCH_PAGES);
+  }
+
+  @Test
+  public void testPrefetchStopsAtMaxBytes() throws Exception {
+    // the first page holds 11 bytes, "1" to "10", so a page is estimated at 2 bytes a row:
+    // there is only room for one page of 20 bytes ahead
+    VxResultSet rs = series(95, "&prefetchMaxBytes=40");
+    assertTrue(rs.next().get(30, TimeUnit.SECONDS));
+    Thread.sleep(300);
+    assertEquals(2, fetches());
+
+    for (int i = 2; i <= 95; i++) {
+      assertTrue(rs.next().get(30, TimeUnit.SECONDS));
+      assertEquals(i, (int) rs.getInt(1).get());
+    }
+    assertFalse(rs.next().get(30, TimeUnit.SECONDS));
+  }
+
+  private int fetches() {
+    int fetches = 0;
+    for (String query : server.getQueries()) {
+      if (query.startsWith("SELECT generate_series")) {
+        fetches++;
+      }
+    }
+    return fetches;
+  }
+}
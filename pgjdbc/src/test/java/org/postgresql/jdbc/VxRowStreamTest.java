@@ -0,0 +1,119 @@
+package org.postgresql.jdbc;
+
+import static org.junit.Assert.assertEquals;
+
+import org.postgresql.VxDriver;
+import org.postgresql.test.TestUtil;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class VxRowStreamTest {
+
+  private static final int ROWS = 1000;
+  private static final int FETCH_SIZE = 10;
+
+  private VxConnection conn;
+
+  @AfterClass
+  public static void deregisterDriver() throws Exception {
+    // loading VxDriver registers it, and its connect() would fail the DriverManager based tests
+    if (VxDriver.isRegistered()) {
+      VxDriver.deregister();
+    }
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    Properties props = new Properties();
+    props.setProperty("user", TestUtil.getUser());
+    props.setProperty("password", TestUtil.getPassword());
+    String url = TestUtil.getURL();
+    conn = VxDriver.makeConnection(url, VxDriver.parseURL(url, props)).get(30, TimeUnit.SECONDS);
+    // cursors need a transaction, otherwise the whole result is read at once
+    conn.setAutoCommit(false).get(30, TimeUnit.SECONDS);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (conn != null) {
+      conn.close();
+    }
+  }
+
+  private VxRowStream stream() throws Exception {
+    VxStatement stmt = conn.createStatement();
+    stmt.setFetchSize(FETCH_SIZE);
+    return stmt.executeQueryStream("SELECT generate_series(1, " + ROWS + ")")
+        .get(30, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void testStreamsMoreRowsThanFetchSize() throws Exception {
+    List<Integer> values = new ArrayList<Integer>();
+    CompletableFuture<Void> ended = new CompletableFuture<Void>();
+
+    VxRowStream stream = stream();
+    stream.exceptionHandler(ended::completeExceptionally);
+    stream.endHandler(v -> ended.complete(null));
+    stream.handler(row -> {
+      try {
+        values.add(row.getInt(1));
+      } catch (Exception e) {
+        ended.completeExceptionally(e);
+      }
+    });
+
+    ended.get(30, TimeUnit.SECONDS);
+    assertEquals(ROWS, values.size());
+    for (int i = 0; i < ROWS; i++) {
+      assertEquals(i + 1, (int) values.get(i));
+    }
+  }
+
+  @Test
+  public void testFetchAcrossPages() throws Exception {
+    int first = 3 * FETCH_SIZE + 5;
+    List<Integer> values = new ArrayList<Integer>();
+    CompletableFuture<Void> firstBatch = new CompletableFuture<Void>();
+    CompletableFuture<Void> ended = new CompletableFuture<Void>();
+
+    VxRowStream stream = stream();
+    stream.pause();
+    stream.exceptionHandler(ended::completeExceptionally);
+    stream.endHandler(v -> ended.complete(null));
+    stream.handler(row -> {
+      try {
+        synchronized (values) {
+          values.add(row.getInt(1));
+          if (values.size() == first) {
+            firstBatch.complete(null);
+          }
+        }
+      } catch (Exception e) {
+        ended.completeExceptionally(e);
+      }
+    });
+
+    stream.fetch(first);
+    firstBatch.get(30, TimeUnit.SECONDS);
+    // the demand is used up, nothing more may be emitted until the stream is resumed
+    Thread.sleep(200);
+    synchronized (values) {
+      assertEquals(first, values.size());
+    }
+
+    stream.resume();
+    ended.get(30, TimeUnit.SECONDS);
+    assertEquals(ROWS, values.size());
+    assertEquals(ROWS, (int) values.get(ROWS - 1));
+  }
+}
@@ -0,0 +1,40 @@
+package org.postgresql.jre8.sasl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import com.ongres.scram.common.ScramFunctions;
+import com.ongres.scram.common.ScramMechanisms;
+import com.ongres.scram.common.stringprep.StringPreparations;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+public class ScramKeyCacheTest {
+
+  private static final String SALT = Base64.getEncoder().encodeToString("0123456789abcdef".getBytes());
+
+  @Test
+  public void testKeysMatchDerivation() {
+    byte[][] keys = ScramKeyCache.getKeys(ScramMechanisms.SCRAM_SHA_256, "test", "secret", SALT, 4096);
+
+    byte[] salt = Base64.getDecoder().decode(SALT);
+    assertArrayEquals(ScramFunctions.clientKey(ScramMechanisms.SCRAM_SHA_256,
+        StringPreparations.NO_PREPARATION, "secret", salt, 4096), keys[0]);
+    assertArrayEquals(ScramFunctions.serverKey(ScramMechanisms.SCRAM_SHA_256,
+        StringPreparations.NO_PREPARATION, "secret", salt, 4096), keys[1]);
+
+    assertSame(keys, ScramKeyCache.getKeys(ScramMechanisms.SCRAM_SHA_256, "test", "secret", SALT, 4096));
+  }
+
+  @Test
+  public void testKeyedByPasswordAndIterations() {
+    byte[][] keys = ScramKeyCache.getKeys(ScramMechanisms.SCRAM_SHA_256, "test", "secret", SALT, 4096);
+    assertFalse(Arrays.equals(keys[0],
+        ScramKeyCache.getKeys(ScramMechanisms.SCRAM_SHA_256, "test", "other", SALT, 4096)[0]));
+    assertFalse(Arrays.equals(keys[0],
+        ScramKeyCache.getKeys(ScramMechanisms.SCRAM_SHA_256, "test", "secret", SALT, 8192)[0]));
+  }
+}
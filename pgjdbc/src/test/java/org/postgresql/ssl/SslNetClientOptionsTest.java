@@ -0,0 +1,67 @@
+package org.postgresql.ssl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.postgresql.PGProperty;
+import org.postgresql.ssl.jdbc4.LibPQSslOptions;
+import org.postgresql.util.PSQLException;
+
+import io.vertx.core.net.NetClientOptions;
+import org.junit.Test;
+
+import java.util.Properties;
+
+public class SslNetClientOptionsTest {
+
+  private static NetClientOptions configure(String... properties) throws PSQLException {
+    Properties info = new Properties();
+    for (int i = 0; i < properties.length; i += 2) {
+      info.setProperty(properties[i], properties[i + 1]);
+    }
+    NetClientOptions options = new NetClientOptions();
+    SslNetClientOptions.configure(options, info);
+    return options;
+  }
+
+  @Test
+  public void testJdkDefaults() throws PSQLException {
+    NetClientOptions options = configure(PGProperty.SSL.getName(), "true");
+    assertFalse(options.isTrustAll());
+    assertNull(options.getTrustOptions());
+    assertEquals(new NetClientOptions(), options);
+  }
+
+  @Test
+  public void testLibPQ() throws PSQLException {
+    NetClientOptions require = configure(PGProperty.SSL_MODE.getName(), "require");
+    assertTrue(require.isTrustAll());
+    assertTrue(require.getKeyCertOptions() instanceof LibPQSslOptions);
+
+    NetClientOptions verify = configure(PGProperty.SSL_MODE.getName(), "verify-full",
+        PGProperty.SSL_ROOT_CERT.getName(), "/certs/root.crt");
+    assertFalse(verify.isTrustAll());
+    assertTrue(verify.getTrustOptions() instanceof LibPQSslOptions);
+
+    // connections with the same settings share the NetClient, and so the TLS sessions
+    assertEquals(verify, configure(PGProperty.SSL_MODE.getName(), "verify-full",
+        PGProperty.SSL_ROOT_CERT.getName(), "/certs/root.crt"));
+    assertNotEquals(verify, configure(PGProperty.SSL_MODE.getName(), "verify-full",
+        PGProperty.SSL_ROOT_CERT.getName(), "/certs/other.crt"));
+  }
+
+  @Test
+  public void testNonValidatingFactory() throws PSQLException {
+    NetClientOptions options = configure(PGProperty.SSL_FACTORY.getName(),
+        NonValidatingFactory.class.getName());
+    assertTrue(options.isTrustAll());
+  }
+
+  @Test(expected = PSQLException.class)
+  public void testInvalidEngine() throws PSQLException {
+    configure(PGProperty.SSL_ENGINE.getName(), "boringssl");
+  }
+}
@@ -10,6 +10,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import org.postgresql.core.Encoding;
+import org.postgresql.core.Utils;
 import org.postgresql.test.TestUtil;
 
 import org.junit.After;
@@ -227,6 +228,21 @@ public class DatabaseEncodingTest {
     }
   }
 
+  @Test
+  public void testUTF8EncodedLength() throws Exception {
+    // Tests the UTF-8 length sent ahead of the strings we encode into the write buffer.
+
+    String[] testStrings = {
+        "", "ascii only", "caf\u00e9", "\u20ac 100", "\ud83d\ude00 smile",
+        "unpaired \ud83d high", "unpaired \ude00 low", "ends high \ud83d",
+        "\u007f\u0080\u07ff\u0800\uffff"
+    };
+    for (String testString : testStrings) {
+      assertEquals("Test string: " + dumpString(testString), testString.getBytes("UTF-8").length,
+          Utils.encodedLengthUTF8(testString));
+    }
+  }
+
   @Test
   public void testBadUTF8Decode() throws Exception {
     Encoding utf8Encoding = Encoding.getJVMEncoding("UTF-8");
@@ -5,20 +5,38 @@
 
 package org.postgresql.test.jdbc2;
 
+import org.postgresql.core.ColumnStringCacheTest;
 import org.postgresql.core.OidToStringTest;
 import org.postgresql.core.OidValueOfTest;
 import org.postgresql.core.ParserTest;
 import org.postgresql.core.ReturningParserTest;
+import org.postgresql.core.TupleSlabTest;
+import org.postgresql.core.v3.BootstrapCacheTest;
+import org.postgresql.core.v3.ConnectionFactoryImplTest;
+import org.postgresql.core.v3.HostProberTest;
+import org.postgresql.core.v3.ParallelConnectTest;
+import org.postgresql.core.v3.QueryExecutorImplTest;
 import org.postgresql.core.v3.V3ParameterListTests;
+import org.postgresql.ds.VxPoolingDataSourceTest;
+import org.postgresql.hostchooser.LoadBalanceStrategyTest;
 import org.postgresql.jdbc.DeepBatchedInsertStatementTest;
 import org.postgresql.jdbc.PrimitiveArraySupportTest;
+import org.postgresql.jdbc.TimestampUtilsTest;
+import org.postgresql.jdbc.TypeRegistryTest;
+import org.postgresql.jdbc.VxResultSetTest;
+import org.postgresql.jdbc.VxRowStreamTest;
+import org.postgresql.jre8.sasl.ScramKeyCacheTest;
+import org.postgresql.ssl.SslNetClientOptionsTest;
 import org.postgresql.test.core.JavaVersionTest;
 import org.postgresql.test.core.NativeQueryBindLengthTest;
+import org.postgresql.test.core.NetSocketStreamTest;
 import org.postgresql.test.util.ExpressionPropertiesTest;
 import org.postgresql.test.util.LruCacheTest;
 import org.postgresql.test.util.ServerVersionParseTest;
 import org.postgresql.test.util.ServerVersionTest;
+import org.postgresql.util.ByteConverterTest;
 import org.postgresql.util.ReaderInputStreamTest;
+import org.postgresql.util.VertxHelperTest;
 
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -68,10 +86,14 @@ import org.junit.runners.Suite;
         ArrayTest.class,
         PrimitiveArraySupportTest.class,
         RefCursorTest.class,
+        VxRowStreamTest.class,
+        VxResultSetTest.class,
+        VxPoolingDataSourceTest.class,
 
         DateTest.class,
         TimeTest.class,
         TimestampTest.class,
+        TimestampUtilsTest.class,
         TimezoneTest.class,
         PGTimeTest.class,
         PGTimestampTest.class,
@@ -81,6 +103,20 @@ import org.junit.runners.Suite;
 
         OidToStringTest.class,
         OidValueOfTest.class,
+        TupleSlabTest.class,
+        ColumnStringCacheTest.class,
+        LoadBalanceStrategyTest.class,
+        TypeRegistryTest.class,
+        ScramKeyCacheTest.class,
+        SslNetClientOptionsTest.class,
+        VertxHelperTest.class,
+        ByteConverterTest.class,
+        BootstrapCacheTest.class,
+        ConnectionFactoryImplTest.class,
+        QueryExecutorImplTest.class,
+        HostProberTest.class,
+        ParallelConnectTest.class,
+        NetSocketStreamTest.class,
 
         PreparedStatementTest.class,
         StatementTest.class,
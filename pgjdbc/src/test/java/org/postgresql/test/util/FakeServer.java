@@ -0,0 +1,623 @@
+package org.postgresql.test.util;
+
+import org.postgresql.util.HostSpec;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal protocol 3 backend for the tests of the connection logic that need no database: it
+ * accepts any user without a password, reports a 10.4 server, answers <code>SET</code>,
+ * <code>show transaction_read_only</code>, <code>SELECT &lt;integer&gt;</code> and
+ * <code>SELECT generate_series(&lt;from&gt;, &lt;to&gt;)</code>, the latter also page by page from a
+ * portal, fails <code>SELECT 1/0</code>, closes the connection for
+ * <code>SELECT pg_terminate_backend(pg_backend_pid())</code>, and records what the clients did.
+ */
+public class FakeServer implements Closeable {
+
+  private static final int SSL_REQUEST = 80877103;
+  private static final int CANCEL_REQUEST = 80877102;
+  private static final Pattern SELECT_INTEGER = Pattern.compile("(?i)select\\s+(-?\\d+)");
+  private static final Pattern GENERATE_SERIES =
+      Pattern.compile("(?i)select\\s+generate_series\\(\\s*(-?\\d+)\\s*,\\s*(-?\\d+)\\s*\\)");
+
+  private final ServerSocket listenSocket;
+  private final Thread acceptor;
+  private final List<Socket> sockets = Collections.synchronizedList(new ArrayList<Socket>());
+
+  // guarded by this
+  private final List<Map<String, String>> startups = new ArrayList<Map<String, String>>();
+  private final List<String> queries = new ArrayList<String>();
+  private final List<Long> acceptTimes = new ArrayList<Long>();
+  private int sessions;
+  private int closedSessions;
+  private int pipelinedSyncs;
+  private final Set<String> failedParses = new HashSet<String>();
+
+  private volatile boolean readOnly;
+  private volatile boolean hang;
+  private volatile long startupDelay;
+  private volatile String rejectedParameter;
+  private volatile long queryDelay;
+  private volatile int failAtRow = Integer.MIN_VALUE;
+
+  public FakeServer() throws IOException {
+    listenSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+    acceptor = new Thread(this::acceptLoop, "FakeServer-" + listenSocket.getLocalPort());
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  public HostSpec getHostSpec() {
+    return new HostSpec("127.0.0.1", listenSocket.getLocalPort());
+  }
+
+  /**
+   * @param readOnly whether the server answers <code>show transaction_read_only</code> with on,
+   *     like a secondary
+   * @return this server
+   */
+  public FakeServer setReadOnly(boolean readOnly) {
+    this.readOnly = readOnly;
+    return this;
+  }
+
+  /**
+   * @param hang whether the server accepts connections and then never answers them
+   * @return this server
+   */
+  public FakeServer setHang(boolean hang) {
+    this.hang = hang;
+    return this;
+  }
+
+  /**
+   * @param millis time the server waits before answering a StartupMessage
+   * @return this server
+   */
+  public FakeServer setStartupDelay(long millis) {
+    this.startupDelay = millis;
+    return this;
+  }
+
+  /**
+   * @param name startup parameter the server fails a connection for, like pgbouncer does for the
+   *     parameters it does not know, or null
+   * @return this server
+   */
+  public FakeServer setRejectedParameter(String name) {
+    this.rejectedParameter = name;
+    return this;
+  }
+
+  /**
+   * @param millis time the server waits before executing a statement
+   * @return this server
+   */
+  public FakeServer setQueryDelay(long millis) {
+    this.queryDelay = millis;
+    return this;
+  }
+
+  /**
+   * @param value value of <code>generate_series</code> the server fails with an error instead of
+   *     returning it
+   * @return this server
+   */
+  public FakeServer setFailAtRow(int value) {
+    this.failAtRow = value;
+    return this;
+  }
+
+  /**
+   * @param sql statement the next Parse of which fails
+   * @return this server
+   */
+  public synchronized FakeServer failParse(String sql) {
+    failedParses.add(sql);
+    return this;
+  }
+
+  /**
+   * @return number of connections accepted
+   */
+  public synchronized int getConnections() {
+    return acceptTimes.size();
+  }
+
+  /**
+   * @return {@link System#nanoTime()} of each accepted connection
+   */
+  public synchronized List<Long> getAcceptTimes() {
+    return new ArrayList<Long>(acceptTimes);
+  }
+
+  /**
+   * @return parameters of the StartupMessages received
+   */
+  public synchronized List<Map<String, String>> getStartups() {
+    return new ArrayList<Map<String, String>>(startups);
+  }
+
+  /**
+   * @return the statements received
+   */
+  public synchronized List<String> getQueries() {
+    return new ArrayList<String>(queries);
+  }
+
+  /**
+   * @return number of sessions started, that is connections that got past authentication
+   */
+  public synchronized int getSessions() {
+    return sessions;
+  }
+
+  /**
+   * @return number of Syncs that arrived with more messages already waiting behind them, that is
+   *     of requests the clients wrote before they had the responses to the previous ones
+   */
+  public synchronized int getPipelinedSyncs() {
+    return pipelinedSyncs;
+  }
+
+  /**
+   * Waits until a number of the accepted connections have been closed by the clients.
+   *
+   * @param count number of connections
+   * @param timeout milliseconds to wait at most
+   * @return whether they have been closed
+   */
+  public synchronized boolean awaitClosed(int count, long timeout) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+    while (closedSessions < count) {
+      long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+      if (remaining <= 0) {
+        return false;
+      }
+      wait(remaining);
+    }
+    return true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    listenSocket.close();
+    synchronized (sockets) {
+      for (Socket socket : sockets) {
+        socket.close();
+      }
+    }
+  }
+
+  private void acceptLoop() {
+    while (!listenSocket.isClosed()) {
+      Socket socket;
+      try {
+        socket = listenSocket.accept();
+      } catch (IOException e) {
+        return;
+      }
+      synchronized (this) {
+        acceptTimes.add(System.nanoTime());
+      }
+      sockets.add(socket);
+      Thread session = new Thread(() -> serve(socket), acceptor.getName() + "-session");
+      session.setDaemon(true);
+      session.start();
+    }
+  }
+
+  private void serve(Socket socket) {
+    try {
+      DataInputStream in = new DataInputStream(socket.getInputStream());
+      DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+      if (startup(in, out)) {
+        synchronized (this) {
+          sessions++;
+        }
+        Session session = new Session();
+        while (message(in, out, session)) {
+          out.flush();
+        }
+      }
+    } catch (IOException | InterruptedException e) {
+      // the client went away
+    } finally {
+      try {
+        socket.close();
+      } catch (IOException e) {
+        // ignore
+      }
+      synchronized (this) {
+        closedSessions++;
+        notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Reads the startup packets and authenticates the client.
+   *
+   * @return false if the connection is to be closed
+   */
+  private boolean startup(DataInputStream in, DataOutputStream out) throws IOException, InterruptedException {
+    while (true) {
+      int length = in.readInt();
+      int code = in.readInt();
+      byte[] body = new byte[length - 8];
+      in.readFully(body);
+      if (hang) {
+        // read until the client closes the connection
+        while (in.read() != -1) {
+        }
+        return false;
+      }
+      if (code == SSL_REQUEST) {
+        out.write('N');
+        out.flush();
+        continue;
+      }
+      if (code == CANCEL_REQUEST) {
+        return false;
+      }
+
+      Map<String, String> params = new LinkedHashMap<String, String>();
+      String[] strings = new String(body, StandardCharsets.UTF_8).split("\0");
+      for (int i = 0; i + 1 < strings.length; i += 2) {
+        params.put(strings[i], strings[i + 1]);
+      }
+      synchronized (this) {
+        startups.add(params);
+      }
+
+      if (startupDelay > 0) {
+        Thread.sleep(startupDelay);
+      }
+      String rejected = rejectedParameter;
+      if (rejected != null && params.containsKey(rejected)) {
+        error(out, "FATAL", "08P01", "unsupported startup parameter: " + rejected);
+        out.flush();
+        return false;
+      }
+
+      // AuthenticationOk
+      out.write('R');
+      out.writeInt(8);
+      out.writeInt(0);
+      parameterStatus(out, "server_version", "10.4");
+      parameterStatus(out, "client_encoding", "UTF8");
+      parameterStatus(out, "DateStyle", "ISO, MDY");
+      parameterStatus(out, "integer_datetimes", "on");
+      parameterStatus(out, "standard_conforming_strings", "on");
+      parameterStatus(out, "TimeZone", "UTC");
+      if (params.containsKey("application_name")) {
+        parameterStatus(out, "application_name", params.get("application_name"));
+      }
+      out.write('K');
+      out.writeInt(12);
+      out.writeInt(4242);
+      out.writeInt(2424);
+      readyForQuery(out);
+      out.flush();
+      return true;
+    }
+  }
+
+  /**
+   * State of the extended query protocol of a connection.
+   */
+  private static class Session {
+    final Map<String, String> statements = new HashMap<String, String>();
+    final Map<String, String> portals = new HashMap<String, String>();
+    // last generate_series value returned from a portal
+    final Map<String, Integer> positions = new HashMap<String, Integer>();
+    // an error occurred, the messages up to the next Sync are ignored
+    boolean failed;
+  }
+
+  /**
+   * Answers one frontend message of the simple or the extended query protocol.
+   *
+   * @return false if the connection is to be closed
+   */
+  private boolean message(DataInputStream in, DataOutputStream out, Session session)
+      throws IOException, InterruptedException {
+    int type = in.read();
+    if (type == -1) {
+      return false;
+    }
+    byte[] body = new byte[in.readInt() - 4];
+    in.readFully(body);
+    String[] strings = new String(body, StandardCharsets.UTF_8).split("\0", -1);
+
+    if (session.failed && type != 'S' && type != 'X') {
+      return true;
+    }
+    switch (type) {
+      case 'Q':
+        for (String sql : strings[0].split(";")) {
+          if (!sql.trim().isEmpty() && !execute(out, sql.trim(), true)) {
+            break;
+          }
+        }
+        readyForQuery(out);
+        return true;
+      case 'P':
+        synchronized (this) {
+          if (failedParses.remove(strings[1])) {
+            error(out, "ERROR", "42601", "syntax error");
+            session.failed = true;
+            return true;
+          }
+        }
+        session.statements.put(strings[0], strings[1]);
+        out.write('1');
+        out.writeInt(4);
+        return true;
+      case 'B': {
+        String sql = session.statements.get(strings[1]);
+        if (sql == null) {
+          error(out, "ERROR", "26000", "prepared statement \"" + strings[1] + "\" does not exist");
+          session.failed = true;
+          return true;
+        }
+        session.portals.put(strings[0], sql);
+        session.positions.remove(strings[0]);
+        out.write('2');
+        out.writeInt(4);
+        return true;
+      }
+      case 'D': {
+        String name = new String(body, 1, body.length - 2, StandardCharsets.UTF_8);
+        String sql = body[0] == 'S' ? session.statements.get(name) : session.portals.get(name);
+        if (body[0] == 'S') {
+          out.write('t');
+          out.writeInt(6);
+          out.writeShort(0);
+        }
+        String column = columnName(sql);
+        if (column != null) {
+          rowDescription(out, column);
+        } else {
+          out.write('n');
+          out.writeInt(4);
+        }
+        return true;
+      }
+      case 'E': {
+        String sql = session.portals.get(strings[0]);
+        if (sql == null) {
+          error(out, "ERROR", "34000", "portal \"" + strings[0] + "\" does not exist");
+          session.failed = true;
+          return true;
+        }
+        Matcher series = GENERATE_SERIES.matcher(sql.trim());
+        if (series.matches()) {
+          int nameLength = strings[0].getBytes(StandardCharsets.UTF_8).length;
+          int maxRows = ((body[nameLength + 1] & 0xFF) << 24) | ((body[nameLength + 2] & 0xFF) << 16)
+              | ((body[nameLength + 3] & 0xFF) << 8) | (body[nameLength + 4] & 0xFF);
+          synchronized (this) {
+            queries.add(sql.trim());
+          }
+          if (queryDelay > 0) {
+            Thread.sleep(queryDelay);
+          }
+          Integer position = session.positions.get(strings[0]);
+          if (position == null) {
+            position = Integer.parseInt(series.group(1)) - 1;
+          }
+          int last = series(out, series, position, maxRows);
+          if (last == Integer.MIN_VALUE) {
+            session.failed = true;
+            session.portals.remove(strings[0]);
+            session.positions.remove(strings[0]);
+          } else {
+            session.positions.put(strings[0], last);
+          }
+          return true;
+        }
+        session.failed = !execute(out, sql.trim(), false);
+        return true;
+      }
+      case 'C':
+        if (body[0] == 'P') {
+          String name = new String(body, 1, body.length - 2, StandardCharsets.UTF_8);
+          session.portals.remove(name);
+          session.positions.remove(name);
+        }
+        out.write('3');
+        out.writeInt(4);
+        return true;
+      case 'S':
+        if (in.available() > 0) {
+          synchronized (this) {
+            pipelinedSyncs++;
+          }
+        }
+        session.failed = false;
+        readyForQuery(out);
+        return true;
+      case 'H':
+        return true;
+      case 'X':
+        return false;
+      default:
+        error(out, "ERROR", "08P01", "unexpected message " + (char) type);
+        return true;
+    }
+  }
+
+  /**
+   * @return false if the statement failed
+   */
+  private boolean execute(DataOutputStream out, String sql, boolean describe)
+      throws IOException, InterruptedException {
+    synchronized (this) {
+      queries.add(sql);
+    }
+    if (queryDelay > 0 && !sql.isEmpty()) {
+      Thread.sleep(queryDelay);
+    }
+    String column = columnName(sql);
+    Matcher series = GENERATE_SERIES.matcher(sql);
+    if (series.matches()) {
+      if (describe) {
+        rowDescription(out, column);
+      }
+      return series(out, series, Integer.parseInt(series.group(1)) - 1, 0) != Integer.MIN_VALUE;
+    } else if (sql.equalsIgnoreCase("SELECT pg_terminate_backend(pg_backend_pid())")) {
+      error(out, "FATAL", "57P01", "terminating connection due to administrator command");
+      out.flush();
+      throw new EOFException();
+    } else if (sql.equalsIgnoreCase("SELECT 1/0")) {
+      error(out, "ERROR", "22012", "division by zero");
+      return false;
+    } else if (column != null) {
+      if (describe) {
+        rowDescription(out, column);
+      }
+      String value = isShowReadOnly(sql) ? (readOnly ? "on" : "off")
+          : SELECT_INTEGER.matcher(sql).replaceFirst("$1");
+      dataRow(out, value);
+      commandComplete(out, isShowReadOnly(sql) ? "SHOW" : "SELECT 1");
+    } else if (sql.isEmpty()) {
+      out.write('I');
+      out.writeInt(4);
+    } else {
+      String command = sql.split("\\s+")[0].toUpperCase();
+      commandComplete(out, command.equals("SELECT") ? "SELECT 0" : command);
+    }
+    return true;
+  }
+
+  /**
+   * Returns the rows of a <code>generate_series</code> after the last one returned, ending with
+   * PortalSuspended if maxRows rows have been returned before the end of the series.
+   *
+   * @param last value returned last
+   * @param maxRows maximum number of rows to return, 0 for all
+   * @return the value returned last, or {@link Integer#MIN_VALUE} if the statement failed
+   */
+  private int series(DataOutputStream out, Matcher series, int last, int maxRows) throws IOException {
+    int to = Integer.parseInt(series.group(2));
+    int rows = 0;
+    while (last < to && (maxRows == 0 || rows < maxRows)) {
+      if (last + 1 == failAtRow) {
+        error(out, "ERROR", "XX000", "failed at row " + failAtRow);
+        return Integer.MIN_VALUE;
+      }
+      last++;
+      rows++;
+      dataRow(out, Integer.toString(last));
+    }
+    if (last < to) {
+      out.write('s');
+      out.writeInt(4);
+    } else {
+      commandComplete(out, "SELECT " + rows);
+    }
+    return last;
+  }
+
+  /**
+   * @return name of the column a statement returns, or null if it returns no rows
+   */
+  private static String columnName(String sql) {
+    if (isShowReadOnly(sql)) {
+      return "transaction_read_only";
+    }
+    if (sql != null && SELECT_INTEGER.matcher(sql).matches()) {
+      return "?column?";
+    }
+    if (sql != null && GENERATE_SERIES.matcher(sql.trim()).matches()) {
+      return "generate_series";
+    }
+    return null;
+  }
+
+  private static boolean isShowReadOnly(String sql) {
+    return sql != null && sql.trim().equalsIgnoreCase("show transaction_read_only");
+  }
+
+  private static void rowDescription(DataOutputStream out, String column) throws IOException {
+    byte[] name = column.getBytes(StandardCharsets.UTF_8);
+    out.write('T');
+    out.writeInt(4 + 2 + name.length + 1 + 18);
+    out.writeShort(1);
+    out.write(name);
+    out.write(0);
+    out.writeInt(0); // table oid
+    out.writeShort(0); // column number
+    out.writeInt(25); // text
+    out.writeShort(-1);
+    out.writeInt(-1);
+    out.writeShort(0); // text format
+  }
+
+  private static void dataRow(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.write('D');
+    out.writeInt(4 + 2 + 4 + bytes.length);
+    out.writeShort(1);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static void commandComplete(DataOutputStream out, String tag) throws IOException {
+    byte[] bytes = tag.getBytes(StandardCharsets.UTF_8);
+    out.write('C');
+    out.writeInt(4 + bytes.length + 1);
+    out.write(bytes);
+    out.write(0);
+  }
+
+  private static void parameterStatus(DataOutputStream out, String name, String value) throws IOException {
+    byte[] n = name.getBytes(StandardCharsets.UTF_8);
+    byte[] v = value.getBytes(StandardCharsets.UTF_8);
+    out.write('S');
+    out.writeInt(4 + n.length + 1 + v.length + 1);
+    out.write(n);
+    out.write(0);
+    out.write(v);
+    out.write(0);
+  }
+
+  private static void readyForQuery(DataOutputStream out) throws IOException {
+    out.write('Z');
+    out.writeInt(5);
+    out.write('I');
+  }
+
+  private static void error(DataOutputStream out, String severity, String sqlState, String message)
+      throws IOException {
+    StringBuilder fields = new StringBuilder();
+    fields.append('S').append(severity).append('\0');
+    fields.append('V').append(severity).append('\0');
+    fields.append('C').append(sqlState).append('\0');
+    fields.append('M').append(message).append('\0');
+    byte[] bytes = fields.toString().getBytes(StandardCharsets.UTF_8);
+    out.write('E');
+    out.writeInt(4 + bytes.length + 1);
+    out.write(bytes);
+    out.write(0);
+  }
+}
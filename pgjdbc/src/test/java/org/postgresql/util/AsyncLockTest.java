@@ -5,10 +5,12 @@ import org.junit.Test;
 
 import java.util.Calendar;
 import java.util.Random;
-import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static org.junit.Assert.*;
 
@@ -27,7 +29,7 @@ public class AsyncLockTest {
     @Test
     public void testFirstLocker() throws Exception {
         AsyncLock asyncLock = new AsyncLock();
-        CompletableFuture<UUID> result = asyncLock.lock();
+        CompletableFuture<Long> result = asyncLock.lock();
         assertTrue("first locker should proceed without any wait", result.isDone());
         assertEquals("owner should be the current thread", Thread.currentThread().getName(), asyncLock.getOwner());
         assertTrue("release should be fine", asyncLock.release(result.get()));
@@ -48,13 +50,79 @@ public class AsyncLockTest {
     public void testReleaseWithBadKey() {
         AsyncLock asyncLock = new AsyncLock();
         asyncLock.lock();
-        assertFalse("Release must failed because keys are not matched", asyncLock.release(null));
+        assertFalse("Release must failed because keys are not matched", asyncLock.release(AsyncLock.NO_TOKEN));
     }
 
     @Test
     public void testReleaseWithoutLock() {
         AsyncLock asyncLock = new AsyncLock();
-        assertFalse("Release must failed because keys are not matched", asyncLock.release(UUID.randomUUID()));
+        assertFalse("Release must failed because keys are not matched", asyncLock.release(1L));
+    }
+
+    @Test
+    public void testTryLock() {
+        AsyncLock asyncLock = new AsyncLock();
+        long token = asyncLock.tryLock();
+        assertNotEquals("free lock should be acquired", AsyncLock.NO_TOKEN, token);
+        assertEquals("held lock must not be acquired", AsyncLock.NO_TOKEN, asyncLock.tryLock());
+        assertTrue("release should be fine", asyncLock.release(token));
+        assertFalse("token must not be reused", asyncLock.release(token));
+        assertNotEquals("tokens must differ between owners", token, asyncLock.tryLock());
+    }
+
+    @Test
+    public void testHandOverInOrder() throws Exception {
+        AsyncLock asyncLock = new AsyncLock();
+        long token = asyncLock.tryLock();
+        CompletableFuture<Long> second = asyncLock.lock();
+        CompletableFuture<Long> third = asyncLock.lock();
+        assertEquals("two tasks should wait", 2, asyncLock.getQueueLength());
+        assertFalse(second.isDone());
+
+        assertTrue(asyncLock.release(token));
+        assertTrue("first waiter should get the lock", second.isDone());
+        assertFalse(third.isDone());
+        assertTrue(asyncLock.release(second.get()));
+        assertTrue(asyncLock.release(third.get()));
+
+        assertFalse(asyncLock.isLocked());
+        assertEquals(3, asyncLock.getAcquisitions());
+        assertEquals(2, asyncLock.getContendedAcquisitions());
+        assertEquals(2, asyncLock.getMaxQueueLength());
+    }
+
+    @Test
+    public void testCancelledWaiterIsSkipped() throws Exception {
+        AsyncLock asyncLock = new AsyncLock();
+        long token = asyncLock.tryLock();
+        CompletableFuture<Long> cancelled = asyncLock.lock();
+        CompletableFuture<Long> waiting = asyncLock.lock();
+        assertTrue(cancelled.cancel(false));
+        assertEquals("cancelled task should leave the queue", 1, asyncLock.getQueueLength());
+        assertEquals(1, asyncLock.getCancellations());
+
+        assertTrue(asyncLock.release(token));
+        assertTrue("remaining waiter should get the lock", waiting.isDone());
+        assertTrue(asyncLock.release(waiting.get()));
+        assertFalse(asyncLock.isLocked());
+    }
+
+    @Test
+    public void testLockTimeout() throws Exception {
+        AsyncLock asyncLock = new AsyncLock();
+        long token = asyncLock.tryLock();
+        CompletableFuture<Long> waiting = asyncLock.lock(50, TimeUnit.MILLISECONDS);
+        try {
+            waiting.get(5, TimeUnit.SECONDS);
+            fail("lock must time out while held");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+
+        assertEquals(0, asyncLock.getQueueLength());
+        assertEquals(1, asyncLock.getTimeouts());
+        assertTrue(asyncLock.release(token));
+        assertFalse(asyncLock.isLocked());
     }
 
     private CompletableFuture<Void> executeDelayWork(AsyncLock asyncLock) {
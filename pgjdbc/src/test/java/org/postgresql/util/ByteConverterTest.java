@@ -0,0 +1,93 @@
+package org.postgresql.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+
+public class ByteConverterTest {
+
+  private static byte[] numeric(int weight, int sign, int dscale, int... digits) {
+    byte[] bytes = new byte[8 + 2 * digits.length];
+    ByteConverter.int2(bytes, 0, digits.length);
+    ByteConverter.int2(bytes, 2, weight);
+    ByteConverter.int2(bytes, 4, sign);
+    ByteConverter.int2(bytes, 6, dscale);
+    for (int i = 0; i < digits.length; i++) {
+      ByteConverter.int2(bytes, 8 + 2 * i, digits[i]);
+    }
+    return bytes;
+  }
+
+  private static Number decode(byte[] bytes) {
+    return ByteConverter.numeric(bytes, 0, bytes.length);
+  }
+
+  @Test
+  public void testNumericEncoding() {
+    assertArrayEquals(numeric(0, 0x0000, 0), ByteConverter.numeric(BigDecimal.ZERO));
+    assertArrayEquals(numeric(0, 0x0000, 2), ByteConverter.numeric(new BigDecimal("0.00")));
+    assertArrayEquals(numeric(0, 0x0000, 1, 1, 5000), ByteConverter.numeric(new BigDecimal("1.5")));
+    assertArrayEquals(numeric(1, 0x4000, 1, 1234, 5678, 9000),
+        ByteConverter.numeric(new BigDecimal("-12345678.9")));
+    assertArrayEquals(numeric(1, 0x0000, 0, 1), ByteConverter.numeric(new BigDecimal("10000")));
+    assertArrayEquals(numeric(1, 0x0000, 0, 1), ByteConverter.numeric(new BigDecimal("1E+4")));
+    assertArrayEquals(numeric(-1, 0x0000, 4, 1), ByteConverter.numeric(new BigDecimal("0.0001")));
+    assertArrayEquals(numeric(-2, 0x0000, 6, 1000), ByteConverter.numeric(new BigDecimal("0.000010")));
+  }
+
+  @Test
+  public void testNumericDecoding() {
+    assertEquals(new BigDecimal("0.00"), decode(numeric(0, 0x0000, 2)));
+    assertEquals(new BigDecimal("-12345678.9"), decode(numeric(1, 0x4000, 1, 1234, 5678, 9000)));
+    assertEquals(new BigDecimal("10000"), decode(numeric(1, 0x0000, 0, 1)));
+    assertEquals(new BigDecimal("0.000010"), decode(numeric(-2, 0x0000, 6, 1000)));
+    assertEquals(new BigDecimal("123456789012345678901234567890.12"),
+        decode(numeric(7, 0x0000, 2, 12, 3456, 7890, 1234, 5678, 9012, 3456, 7890, 1200)));
+    assertTrue(Double.isNaN((Double) decode(numeric(0, 0xC000, 0))));
+    assertEquals(Double.POSITIVE_INFINITY, decode(numeric(0, 0xD000, 0)));
+    assertEquals(Double.NEGATIVE_INFINITY, decode(numeric(0, 0xF000, 0)));
+  }
+
+  @Test
+  public void testNumericRoundTrip() {
+    Random random = new Random(0);
+    for (int i = 0; i < 10000; i++) {
+      BigInteger unscaled = new BigInteger(1 + random.nextInt(200), random);
+      BigDecimal value = new BigDecimal(random.nextBoolean() ? unscaled : unscaled.negate(),
+          random.nextInt(60));
+      byte[] bytes = ByteConverter.numeric(value);
+      assertEquals(value, decode(bytes));
+      assertEquals(Double.parseDouble(value.toString()),
+          ByteConverter.numericToDouble(bytes, 0, bytes.length), 0);
+    }
+  }
+
+  @Test
+  public void testNumericToLong() {
+    assertEquals(12345678, ByteConverter.numericToLong(numeric(1, 0x0000, 1, 1234, 5678, 9000), 0, 14));
+    assertEquals(-12345678, ByteConverter.numericToLong(numeric(1, 0x4000, 1, 1234, 5678, 9000), 0, 14));
+    assertEquals(0, ByteConverter.numericToLong(numeric(-1, 0x0000, 4, 1), 0, 10));
+    assertEquals(10000, ByteConverter.numericToLong(numeric(1, 0x0000, 0, 1), 0, 10));
+    byte[] min = ByteConverter.numeric(BigDecimal.valueOf(Long.MIN_VALUE));
+    assertEquals(Long.MIN_VALUE, ByteConverter.numericToLong(min, 0, min.length));
+
+    byte[] overflow = ByteConverter.numeric(BigDecimal.valueOf(Long.MAX_VALUE).add(BigDecimal.ONE));
+    try {
+      ByteConverter.numericToLong(overflow, 0, overflow.length);
+      fail("9223372036854775808 does not fit a long");
+    } catch (ArithmeticException expected) {
+    }
+    try {
+      ByteConverter.numericToLong(numeric(0, 0xC000, 0), 0, 8);
+      fail("NaN does not fit a long");
+    } catch (ArithmeticException expected) {
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package org.postgresql.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.postgresql.PGProperty;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import org.junit.Test;
+
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class VertxHelperTest {
+
+    @Test
+    public void testInstancePerConfiguration() throws Exception {
+        Properties info = new Properties();
+        assertSame(VertxHelper.getVertx(), VertxHelper.getVertx(info));
+
+        PGProperty.EVENT_LOOP_SIZE.set(info, 2);
+        Vertx vertx = VertxHelper.getVertx(info);
+        assertNotSame(VertxHelper.getVertx(), vertx);
+        assertSame(vertx, VertxHelper.getVertx(2, true));
+        assertNotSame(vertx, VertxHelper.getVertx(2, false));
+    }
+
+    @Test
+    public void testContextsSpreadOverEventLoops() throws Exception {
+        Vertx vertx = VertxHelper.getVertx(2, true);
+        Context first = VertxHelper.newEventLoopContext(vertx);
+        Context second = VertxHelper.newEventLoopContext(vertx);
+        assertNotEquals(threadOf(first), threadOf(second));
+
+        // also from an event loop thread, where getOrCreateContext would reuse the current context
+        CompletableFuture<Context[]> nested = new CompletableFuture<>();
+        first.runOnContext(ignored -> nested.complete(new Context[]{
+            VertxHelper.newEventLoopContext(vertx), VertxHelper.newEventLoopContext(vertx)}));
+        Context[] contexts = nested.get(5, TimeUnit.SECONDS);
+        assertNotEquals(threadOf(contexts[0]), threadOf(contexts[1]));
+    }
+
+    @Test
+    public void testTimerRunsOnContext() throws Exception {
+        Context context = VertxHelper.newEventLoopContext(VertxHelper.getVertx(2, true));
+        CompletableFuture<Thread> fired = new CompletableFuture<>();
+        VertxHelper.setTimer(context, 1, ignored -> fired.complete(Thread.currentThread()));
+        assertEquals(threadOf(context), fired.get(5, TimeUnit.SECONDS));
+    }
+
+    private static Thread threadOf(Context context) throws Exception {
+        CompletableFuture<Thread> thread = new CompletableFuture<>();
+        context.runOnContext(ignored -> thread.complete(Thread.currentThread()));
+        return thread.get(5, TimeUnit.SECONDS);
+    }
+}